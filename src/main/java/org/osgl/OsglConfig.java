@@ -32,6 +32,7 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.CharBuffer;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 import javax.inject.Singleton;
 
@@ -268,6 +269,22 @@ public class OsglConfig {
         return UtilConfig.getThreadLocalByteArrayBufferInitSize();
     }
 
+    public static void setParallelPool(ForkJoinPool pool) {
+        UtilConfig.setParallelPool(pool);
+    }
+
+    public static ForkJoinPool getParallelPool() {
+        return UtilConfig.getParallelPool();
+    }
+
+    public static void setParallelThreshold(int threshold) {
+        UtilConfig.setParallelThreshold(threshold);
+    }
+
+    public static int getParallelThreshold() {
+        return UtilConfig.getParallelThreshold();
+    }
+
     public static void registerExtensions() {
         try {
             final Enumeration<URL> systemResources = Lang.class.getClassLoader().getResources(OSGL_EXTENSION_LIST);
@@ -358,4 +375,15 @@ public class OsglConfig {
     public static int getBiglineIteratorBufSize() {
         return BIGLINE_ITERATOR_BUF_SIZE;
     }
+
+    private static int BIGLINES_CHUNK_SIZE = 1024 * 1024 * 8;
+    public static void setBiglinesChunkSize(int size) {
+        if (size < 1024 * 4) {
+            size = 1024 * 4;
+        }
+        BIGLINES_CHUNK_SIZE = size;
+    }
+    public static int getBiglinesChunkSize() {
+        return BIGLINES_CHUNK_SIZE;
+    }
 }
@@ -9,9 +9,9 @@ package org.osgl.cache.impl;
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
- * 
+ *
  *      http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing, software
  * distributed under the License is distributed on an "AS IS" BASIS,
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
@@ -23,92 +23,252 @@ package org.osgl.cache.impl;
 import org.osgl.cache.CacheService;
 import org.osgl.util.E;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.WeakHashMap;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * The default in-process {@link CacheService} implementation.
+ *
+ * The store is split into a number of segments, each guarded by its
+ * own lock, so threads working on different keys rarely contend. Each
+ * segment keeps its entries in access order and evicts the least
+ * recently used entry once the segment reaches its share of the
+ * configured capacity.
+ *
+ * Entries with a TTL are expired lazily on access, and a background
+ * daemon sweeps expired entries periodically once the first entry
+ * with a TTL has been stored.
+ */
 public class InteralCacheService implements CacheService {
 
-    private Map<String, Object> store = new WeakHashMap<>();
+    /**
+     * The default capacity of the cache.
+     */
+    public static final int DEF_CAPACITY = 1024 * 8;
+
+    // the number of seconds between two background expiry sweeps
+    private static final int SWEEP_INTERVAL = 30;
+
+    private static final AtomicInteger sweeperNumber = new AtomicInteger(1);
+
+    private static final class Item {
+        final Object value;
+        // expire timestamp in milliseconds, `0` means never expire
+        final long expiresAt;
+
+        Item(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return 0L != expiresAt && now >= expiresAt;
+        }
+    }
+
+    private static final class Segment extends ReentrantLock {
+        private final int capacity;
+        private final LinkedHashMap<String, Item> map;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.map = new LinkedHashMap<String, Item>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Item> eldest) {
+                    return size() > Segment.this.capacity;
+                }
+            };
+        }
+
+        Object get(String key, long now) {
+            lock();
+            try {
+                Item item = map.get(key);
+                if (null == item) {
+                    return null;
+                }
+                if (item.isExpired(now)) {
+                    map.remove(key);
+                    return null;
+                }
+                return item.value;
+            } finally {
+                unlock();
+            }
+        }
+
+        void put(String key, Item item) {
+            lock();
+            try {
+                map.put(key, item);
+            } finally {
+                unlock();
+            }
+        }
+
+        void remove(String key) {
+            lock();
+            try {
+                map.remove(key);
+            } finally {
+                unlock();
+            }
+        }
+
+        int add(String key, int delta, long expiresAt, boolean keepExpiry, long now) {
+            lock();
+            try {
+                Item item = map.get(key);
+                int prev = 0;
+                if (null != item && !item.isExpired(now)) {
+                    Object v = item.value;
+                    E.unexpectedIfNot(v instanceof Number, "value of key[%s] is not a number: %s", key, v);
+                    prev = ((Number) v).intValue();
+                    if (keepExpiry) {
+                        expiresAt = item.expiresAt;
+                    }
+                }
+                map.put(key, new Item(prev + delta, expiresAt));
+                return prev;
+            } finally {
+                unlock();
+            }
+        }
+
+        void clear() {
+            lock();
+            try {
+                map.clear();
+            } finally {
+                unlock();
+            }
+        }
+
+        void sweep(long now) {
+            lock();
+            try {
+                Iterator<Item> itr = map.values().iterator();
+                while (itr.hasNext()) {
+                    if (itr.next().isExpired(now)) {
+                        itr.remove();
+                    }
+                }
+            } finally {
+                unlock();
+            }
+        }
+
+        int size() {
+            lock();
+            try {
+                return map.size();
+            } finally {
+                unlock();
+            }
+        }
+    }
+
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    // default ttl in seconds, negative number means never expire
+    private volatile int defaultTTL = -1;
 
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
-    private final ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+    private volatile ScheduledExecutorService sweeper;
 
-    private State state = State.INITIALIZED;
+    private volatile State state = State.INITIALIZED;
+
+    public InteralCacheService() {
+        this(DEF_CAPACITY);
+    }
+
+    /**
+     * Construct a cache service with capacity specified.
+     *
+     * @param capacity
+     *      the max number of entries the cache could hold
+     */
+    public InteralCacheService(int capacity) {
+        E.illegalArgumentIf(capacity < 1, "capacity shall be positive number");
+        int concurrency = Runtime.getRuntime().availableProcessors() * 2;
+        int n = 1;
+        while (n < concurrency && n < 64 && n * 16 < capacity) {
+            n <<= 1;
+        }
+        segments = new Segment[n];
+        int perSegment = (capacity + n - 1) / n;
+        for (int i = 0; i < n; ++i) {
+            segments[i] = new Segment(perSegment);
+        }
+        segmentMask = n - 1;
+    }
 
     @Override
     public void put(String key, Object value, int ttl) {
-        E.unsupport();
+        if (null == value) {
+            evict(key);
+            return;
+        }
+        segmentFor(key).put(key, new Item(value, expiresAt(ttl)));
     }
 
     @Override
     public void put(String key, Object value) {
-        writeLock.lock();
-        try {
-            store.put(key, value);
-        } finally {
-            writeLock.unlock();
-        }
+        put(key, value, 0);
     }
 
     @Override
     public void evict(String key) {
-        writeLock.lock();
-        try {
-            store.remove(key);
-        } finally {
-            writeLock.unlock();
-        }
+        segmentFor(key).remove(key);
     }
 
     @Override
     public <T> T get(String key) {
-        readLock.lock();
-        try {
-            return (T) store.get(key);
-        } finally {
-            readLock.unlock();
-        }
+        return (T) segmentFor(key).get(key, System.currentTimeMillis());
     }
 
     @Override
     public int incr(String key) {
-        throw E.unsupport();
+        return add(key, 1, 0);
     }
 
     @Override
     public int incr(String key, int ttl) {
-        throw E.unsupport();
+        return add(key, 1, ttl);
     }
 
     @Override
     public int decr(String key) {
-        throw E.unsupport();
+        return add(key, -1, 0);
     }
 
     @Override
     public int decr(String key, int ttl) {
-        throw E.unsupport();
+        return add(key, -1, ttl);
     }
 
     @Override
     public void clear() {
-        writeLock.lock();
-        try {
-            store.clear();
-        } finally {
-            writeLock.unlock();
+        for (Segment segment : segments) {
+            segment.clear();
         }
     }
 
     @Override
     public void setDefaultTTL(int ttl) {
-        throw E.unsupport();
+        this.defaultTTL = ttl;
     }
 
     @Override
-    public void shutdown() {
+    public synchronized void shutdown() {
+        if (null != sweeper) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
         this.state = State.SHUTDOWN;
     }
 
@@ -121,4 +281,76 @@ public class InteralCacheService implements CacheService {
     public State state() {
         return this.state;
     }
+
+    /**
+     * Returns the number of entries in the cache. Note expired entries
+     * that have not been swept yet are counted.
+     *
+     * @return the number of entries in the cache
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Remove all expired entries from the cache.
+     */
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (Segment segment : segments) {
+            segment.sweep(now);
+        }
+    }
+
+    private int add(String key, int delta, int ttl) {
+        // keep the original expiry of an existing counter if ttl is not specified
+        return segmentFor(key).add(key, delta, expiresAt(ttl), 0 == ttl, System.currentTimeMillis());
+    }
+
+    private long expiresAt(int ttl) {
+        if (0 == ttl) {
+            ttl = defaultTTL;
+        }
+        if (ttl <= 0) {
+            return 0L;
+        }
+        ensureSweeper();
+        return System.currentTimeMillis() + ttl * 1000L;
+    }
+
+    private Segment segmentFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & segmentMask];
+    }
+
+    private void ensureSweeper() {
+        if (null != sweeper) {
+            return;
+        }
+        synchronized (this) {
+            if (null != sweeper || state.isShutdown()) {
+                return;
+            }
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "osgl-cache-sweeper-" + sweeperNumber.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+            executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    sweep();
+                }
+            }, SWEEP_INTERVAL, SWEEP_INTERVAL, TimeUnit.SECONDS);
+            sweeper = executor;
+        }
+    }
 }
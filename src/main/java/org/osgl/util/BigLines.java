@@ -23,8 +23,11 @@ package org.osgl.util;
 import org.osgl.OsglConfig;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A help class provide utilities that read through text file with big
@@ -42,14 +45,43 @@ public class BigLines implements Iterable<String> {
     public abstract static class LineReader {
 
         public abstract void read(String line, int lineNo);
-        public abstract void batchFinished();
+
+        /**
+         * Called when all lines of a batch have been read.
+         *
+         * Sub class shall override either this method or
+         * {@link #batchFinished(int)}.
+         */
+        public void batchFinished() {
+        }
+
+        /**
+         * Called when all lines of a chunk have been read.
+         *
+         * By default it calls {@link #batchFinished()}.
+         *
+         * @param chunkId
+         *         the id of the chunk, starts from `0`
+         */
+        public void batchFinished(int chunkId) {
+            batchFinished();
+        }
     }
 
+    /**
+     * The default number of lines between two indexed lines.
+     *
+     * @see #index(int, boolean)
+     */
+    public static final int DEF_INDEX_INTERVAL = 1000;
+
     private File file;
 
     private volatile Integer lines;
-    private String firstLine;
+    private volatile String firstLine;
     private boolean iterateFirstLine;
+    private volatile BigLinesIndex index;
+    private boolean persistIndex;
 
     public BigLines(File file) {
         E.illegalArgumentIfNot(file.exists() && file.isFile() && file.canRead(), "file must exists and be a readable file: " + file);
@@ -65,9 +97,10 @@ public class BigLines implements Iterable<String> {
     }
 
     public String firstLine() {
-        if (null == lines) {
+        currentIndex();
+        if (null == firstLine) {
             synchronized (this) {
-                if (null == lines) {
+                if (null == firstLine) {
                     if (lines() > 0) {
                         firstLine = fetch(0);
                     }
@@ -78,6 +111,7 @@ public class BigLines implements Iterable<String> {
     }
 
     public int lines() {
+        currentIndex();
         if (null == lines) {
             synchronized (this) {
                 if (null == lines) {
@@ -92,6 +126,83 @@ public class BigLines implements Iterable<String> {
         this.iterateFirstLine = flag;
     }
 
+    /**
+     * Build a line index with {@link #DEF_INDEX_INTERVAL default interval}.
+     *
+     * @return this `BigLines` instance
+     * @see #index(int, boolean)
+     */
+    public BigLines index() {
+        return index(DEF_INDEX_INTERVAL, false);
+    }
+
+    /**
+     * Build a sparse index that keeps the byte offset of every `interval`
+     * lines. Once indexed, {@link #fetch(int, int)}, {@link #cherrypick(int[])}
+     * and {@link #sampling(int)} seek to the nearest indexed line instead of
+     * reading the file from the beginning.
+     *
+     * If `persist` is `true` then the index is loaded from the sidecar file,
+     * i.e. the file path appended with `.idx`, when the sidecar exists and matches the size and
+     * last modified time of the file, otherwise the index is built and saved
+     * into the sidecar file.
+     *
+     * The index is checked against the size and last modified time of the
+     * file before it is used, and rebuilt if the file has been changed.
+     *
+     * @param interval
+     *         the number of lines between two indexed lines
+     * @param persist
+     *         whether to load/save the index from/to the sidecar file
+     * @return this `BigLines` instance
+     */
+    public synchronized BigLines index(int interval, boolean persist) {
+        E.illegalArgumentIf(interval < 1, "interval must be positive integer");
+        BigLinesIndex index = persist ? BigLinesIndex.load(indexFile(), file, interval) : null;
+        if (null == index) {
+            index = BigLinesIndex.build(file, interval);
+            if (persist) {
+                index.save(indexFile());
+            }
+        }
+        this.lines = index.lines;
+        this.persistIndex = persist;
+        this.index = index;
+        return this;
+    }
+
+    /*
+     * Returns the line index, rebuilt if the file has been changed
+     * since it was indexed, or `null` if not indexed
+     */
+    private BigLinesIndex currentIndex() {
+        BigLinesIndex index = this.index;
+        if (null != index && !index.matches(file)) {
+            synchronized (this) {
+                index = this.index;
+                if (!index.matches(file)) {
+                    firstLine = null;
+                    index(index.interval, persistIndex);
+                    index = this.index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Check if this `BigLines` has a line index built.
+     *
+     * @return `true` if {@link #index(int, boolean)} has been called.
+     */
+    public boolean isIndexed() {
+        return null != index;
+    }
+
+    private File indexFile() {
+        return new File(file.getPath() + ".idx");
+    }
+
     /**
      * Returns first 5 lines including header line.
      */
@@ -161,28 +272,42 @@ public class BigLines implements Iterable<String> {
         E.illegalArgumentIf(offset < 0, "offset must not be negative number");
         E.illegalArgumentIf(offset >= lines(), "offset is out of range: " + offset);
         E.illegalArgumentIf(limit < 1, "limit must be at least 1");
-        BufferedReader reader = IO.buffered(IO.reader(file));
+        BufferedReader reader = openReader(offset, currentIndex());
         try {
-            for (int i = 0; i < offset; ++i) {
-                if (null == reader.readLine()) {
+            for (int i = 0; i < limit; ++i) {
+                String line = reader.readLine();
+                if (null == line) {
                     break;
                 }
+                buf.add(line);
             }
         } catch (IOException e) {
             throw E.ioException(e);
+        } finally {
+            IO.close(reader);
+        }
+        return buf;
+    }
+
+    /*
+     * Returns a reader start with the line specified
+     */
+    private BufferedReader openReader(int lineNumber, BigLinesIndex index) {
+        if (null != index) {
+            return IO.buffered(IO.reader(index.openAt(file, lineNumber)));
         }
+        BufferedReader reader = IO.buffered(IO.reader(file));
         try {
-            for (int i = 0; i < limit; ++i) {
-                String line = reader.readLine();
-                if (null == line) {
+            for (int i = 0; i < lineNumber; ++i) {
+                if (null == reader.readLine()) {
                     break;
                 }
-                buf.add(line);
             }
         } catch (IOException e) {
+            IO.close(reader);
             throw E.ioException(e);
         }
-        return buf;
+        return reader;
     }
 
     public List<String> fetchAround(int lineNumber, int before, int after) {
@@ -196,22 +321,37 @@ public class BigLines implements Iterable<String> {
             return C.list();
         }
         Arrays.sort(index);
-        int len = index.length;
-        BufferedReader reader = IO.buffered(IO.reader(file));
+        BigLinesIndex lineIndex = currentIndex();
+        BufferedReader reader = null;
+        // the number of the line to be returned by the next readLine call
+        int cursor = 0;
         List<String> lines = new ArrayList<>();
         try {
-            int max = index[len - 1] + 1;
-            for (int i = 0; i < max; ++i) {
-                String line = reader.readLine();
-                if (null == line) {
-                    break;
+            for (int lineNumber : index) {
+                if (lineNumber < cursor) {
+                    // duplicated line number
+                    continue;
                 }
-                if (Arrays.binarySearch(index, i) > -1) {
-                    lines.add(line);
+                if (null == reader || (null != lineIndex && lineNumber - cursor >= lineIndex.interval)) {
+                    // seek to the line instead of reading through the gap
+                    IO.close(reader);
+                    reader = openReader(lineNumber, lineIndex);
+                    cursor = lineNumber;
                 }
+                String line = null;
+                while (cursor <= lineNumber) {
+                    line = reader.readLine();
+                    if (null == line) {
+                        return lines;
+                    }
+                    cursor++;
+                }
+                lines.add(line);
             }
         } catch (IOException e) {
             throw E.ioException(e);
+        } finally {
+            IO.close(reader);
         }
         return lines;
     }
@@ -223,96 +363,327 @@ public class BigLines implements Iterable<String> {
         }
         int[] index = new int[number];
         Random r = ThreadLocalRandom.current();
-        int max = (lines > (long) Integer.MAX_VALUE) ? Integer.MAX_VALUE : lines.intValue();
+        int max = lines();
         for (int i = 0; i < number; ++i) {
             index[i] = 1 + r.nextInt(max - 1);
         }
         return cherrypick(index);
     }
 
+    /**
+     * Feed all lines of the file into the line reader.
+     *
+     * This is the same as calling {@link #accept(LineReader, Executor)}
+     * with the {@link UtilConfig#getParallelPool() shared fork join pool}.
+     *
+     * @param lineReader
+     *         the line reader
+     */
     public void accept(LineReader lineReader) {
-        if (lines < 100 * 100 * 10) {
-            int lineNo = 0;
-            BufferedReader reader = IO.buffered(IO.reader(file));
-            int max = lines;
-            try {
-                for (int i = 0; i < max; ++i) {
-                    String line = reader.readLine();
-                    if (null == line) {
-                        break;
-                    }
-                    if (0 == i && !iterateFirstLine) {
-                        continue;
-                    }
-                    lineReader.read(line, lineNo++);
-                }
-                lineReader.batchFinished();
-            } catch (IOException e) {
-                throw E.ioException(e);
+        accept(lineReader, null);
+    }
+
+    /**
+     * Feed all lines of the file into the line reader.
+     *
+     * If the file is larger than {@link OsglConfig#getBiglinesChunkSize() chunk size}
+     * then it is split into byte ranges aligned to line boundaries, and each
+     * range is decoded and fed into the line reader by a task running on the
+     * executor specified. Thus {@link LineReader#read(String, int)} might be
+     * called concurrently, and the line number passed in is relative to the
+     * chunk, which is identified by the id passed to
+     * {@link LineReader#batchFinished(int)}. Chunk ids follow the order of
+     * chunks in the file.
+     *
+     * On a {@link ForkJoinPool} the chunks are processed by fork/join tasks
+     * that split the chunk range, so calling this method from a task of the
+     * pool does not park the worker. On other executors the number of chunks
+     * waiting or being processed is bounded so a large file does not flood
+     * the executor with tasks, and the waiting goes through
+     * {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)}. If any
+     * chunk failed, the remaining chunks are skipped and the exception is
+     * thrown out of this method once all running tasks finished.
+     *
+     * @param lineReader
+     *         the line reader
+     * @param executor
+     *         the executor to process chunks. If `null` then the shared
+     *         fork join pool is used.
+     */
+    public void accept(final LineReader lineReader, Executor executor) {
+        long size = file.length();
+        int chunkSize = OsglConfig.getBiglinesChunkSize();
+        if (size <= chunkSize) {
+            readChunk(0, 0, size, lineReader);
+            return;
+        }
+        if (null == executor) {
+            executor = UtilConfig.getParallelPool();
+        }
+        List<Long> boundaries = chunkBoundaries(size, chunkSize);
+        int chunks = boundaries.size() - 1;
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        if (executor instanceof ForkJoinPool) {
+            ChunkTask task = new ChunkTask(boundaries, 0, chunks, lineReader, error);
+            if (ForkJoinTask.getPool() == executor) {
+                task.invoke();
+            } else {
+                ((ForkJoinPool) executor).invoke(task);
             }
         } else {
-            int threads = ((lines / 100 * 100 * 10) + 1);
-            threads = Math.min(threads, 20);
-
-            Integer gap = (lines / threads) + 1;
-            List<Thread> threadStore = new ArrayList<>();
-            for (int i = 0; i < threads; ++i) {
-                Thread t = new ReadThread(i * gap, gap, lineReader);
-                threadStore.add(t);
-                t.start();
+            acceptChunks(boundaries, lineReader, executor, error);
+        }
+        Throwable t = error.get();
+        if (null != t) {
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
             }
-            for (Thread t : threadStore) {
+            throw E.unexpected(t);
+        }
+    }
+
+    private void acceptChunks(List<Long> boundaries, final LineReader lineReader, Executor executor, final AtomicReference<Throwable> error) {
+        int chunks = boundaries.size() - 1;
+        final Semaphore permits = new Semaphore(Runtime.getRuntime().availableProcessors() * 2);
+        final CountDownLatch latch = new CountDownLatch(chunks);
+        try {
+            for (int i = 0; i < chunks; ++i) {
+                final int chunkId = i;
+                final long from = boundaries.get(i);
+                final long to = boundaries.get(i + 1);
+                ForkJoinPool.managedBlock(new PermitBlocker(permits));
+                Runnable task = new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            if (null == error.get()) {
+                                readChunk(chunkId, from, to, lineReader);
+                            }
+                        } catch (Throwable t) {
+                            error.compareAndSet(null, t);
+                        } finally {
+                            permits.release();
+                            latch.countDown();
+                        }
+                    }
+                };
                 try {
-                    t.join();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw E.unexpected(e);
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    task.run();
                 }
             }
+            ForkJoinPool.managedBlock(new LatchBlocker(latch));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw E.unexpected(e);
         }
     }
 
-    private class ReadThread extends Thread {
-
-        private Integer offset;
-        private Integer limit;
-        private LineReader lineReader;
-
-        public ReadThread(Integer offset, Integer limit, LineReader lineReader) {
-            this.offset = offset;
-            this.limit = limit;
+    // processes chunks [lo, hi), splitting the range in halves
+    private class ChunkTask extends RecursiveAction {
+        private final List<Long> boundaries;
+        private final int lo;
+        private final int hi;
+        private final LineReader lineReader;
+        private final AtomicReference<Throwable> error;
+
+        ChunkTask(List<Long> boundaries, int lo, int hi, LineReader lineReader, AtomicReference<Throwable> error) {
+            this.boundaries = boundaries;
+            this.lo = lo;
+            this.hi = hi;
             this.lineReader = lineReader;
+            this.error = error;
         }
 
         @Override
-        public void run() {
-            BufferedReader reader = IO.buffered(IO.reader(file));
-            try {
-                for (int i = 0; i < offset; ++i) {
-                    if (null == reader.readLine()) {
-                        break;
-                    }
-                }
-            } catch (IOException e) {
-                throw E.ioException(e);
+        protected void compute() {
+            if (null != error.get()) {
+                return;
+            }
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ChunkTask(boundaries, lo, mid, lineReader, error),
+                        new ChunkTask(boundaries, mid, hi, lineReader, error));
+                return;
             }
             try {
-                int start = 0;
-                int lineNo = start;
-                for (int i = start; i < limit; ++i) {
-                    String line = reader.readLine();
-                    if (null == line) {
+                readChunk(lo, boundaries.get(lo), boundaries.get(lo + 1), lineReader);
+            } catch (Throwable t) {
+                error.compareAndSet(null, t);
+            }
+        }
+    }
+
+    private static final class PermitBlocker implements ForkJoinPool.ManagedBlocker {
+        private final Semaphore permits;
+        private boolean acquired;
+
+        PermitBlocker(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!acquired) {
+                permits.acquire();
+                acquired = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return acquired || (acquired = permits.tryAcquire());
+        }
+    }
+
+    private static final class LatchBlocker implements ForkJoinPool.ManagedBlocker {
+        private final CountDownLatch latch;
+
+        LatchBlocker(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            latch.await();
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return 0 == latch.getCount();
+        }
+    }
+
+    /*
+     * Split the file into ranges of about `chunkSize` bytes. Each boundary
+     * other than `0` and `size` is the position right after a `\n`.
+     */
+    private List<Long> chunkBoundaries(long size, int chunkSize) {
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        FileInputStream fis = (FileInputStream) IO.inputStream(file);
+        try {
+            FileChannel channel = fis.getChannel();
+            ByteBuffer buf = ByteBuffer.allocate(1024 * 8);
+            long pos = chunkSize;
+            while (pos < size) {
+                // find the first line end from the last byte of the chunk
+                long lineEnd = -1;
+                long scan = pos - 1;
+                while (lineEnd < 0) {
+                    buf.clear();
+                    int n = channel.read(buf, scan);
+                    if (n < 0) {
                         break;
                     }
-                    if (0 == offset && 0 == i && !iterateFirstLine) {
-                        continue;
+                    byte[] ba = buf.array();
+                    for (int i = 0; i < n; ++i) {
+                        if (ba[i] == '\n') {
+                            lineEnd = scan + i;
+                            break;
+                        }
                     }
-                    lineReader.read(line, lineNo++);
+                    scan += n;
                 }
-                lineReader.batchFinished();
-            } catch (IOException e) {
-                throw E.ioException(e);
+                if (lineEnd < 0 || lineEnd + 1 >= size) {
+                    break;
+                }
+                boundaries.add(lineEnd + 1);
+                pos = lineEnd + 1 + chunkSize;
             }
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(fis);
+        }
+        boundaries.add(size);
+        return boundaries;
+    }
+
+    private void readChunk(int chunkId, long from, long to, LineReader lineReader) {
+        FileInputStream fis = (FileInputStream) IO.inputStream(file);
+        BufferedReader reader = IO.buffered(IO.reader(new RangeInputStream(fis.getChannel(), from, to)));
+        try {
+            int lineNo = 0;
+            boolean skipHeader = 0 == from && !iterateFirstLine;
+            String line;
+            while (null != (line = reader.readLine())) {
+                if (skipHeader) {
+                    skipHeader = false;
+                    continue;
+                }
+                lineReader.read(line, lineNo++);
+            }
+            lineReader.batchFinished(chunkId);
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(reader);
+            IO.close(fis);
+        }
+    }
+
+    /*
+     * Read bytes in range `[from, to)` of a file channel
+     */
+    private static class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final ByteBuffer buf = ByteBuffer.allocate(1024 * 64);
+        private long pos;
+        private final long end;
+
+        RangeInputStream(FileChannel channel, long from, long to) {
+            this.channel = channel;
+            this.pos = from;
+            this.end = to;
+            buf.flip();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return buf.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            return n;
+        }
+
+        private boolean fill() throws IOException {
+            if (buf.hasRemaining()) {
+                return true;
+            }
+            long remaining = end - pos;
+            if (remaining <= 0) {
+                return false;
+            }
+            buf.clear();
+            if (remaining < buf.capacity()) {
+                buf.limit((int) remaining);
+            }
+            int n = channel.read(buf, pos);
+            buf.flip();
+            if (n <= 0) {
+                return false;
+            }
+            pos += n;
+            return true;
         }
     }
 
@@ -397,45 +768,9 @@ public class BigLines implements Iterable<String> {
         return iter;
     }
 
-    // see https://stackoverflow.com/questions/453018/number-of-lines-in-a-file-in-java
     private int countLines() {
-        InputStream is = IO.buffered(IO.inputStream(file));
-        try {
-            byte[] c = new byte[1024];
-
-            int readChars = is.read(c);
-            if (readChars == -1) {
-                // bail out if nothing to read
-                return 0;
-            }
-
-            // make it easy for the optimizer to tune this loop
-            int count = 0;
-            while (readChars == 1024) {
-                for (int i = 0; i < 1024; ) {
-                    if (c[i++] == '\n') {
-                        ++count;
-                    }
-                }
-                readChars = is.read(c);
-            }
-
-            // count remaining characters
-            while (readChars != -1) {
-                for (int i = 0; i < readChars; ++i) {
-                    if (c[i] == '\n') {
-                        ++count;
-                    }
-                }
-                readChars = is.read(c);
-            }
-
-            return count;
-        } catch (IOException e) {
-            throw E.ioException(e);
-        } finally {
-            IO.close(is);
-        }
+        long lines = LineCounter.count(file);
+        return lines > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) lines;
     }
 
     public static void main(String[] args) {
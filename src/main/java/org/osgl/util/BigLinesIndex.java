@@ -0,0 +1,245 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * A sparse line offset index of a text file.
+ *
+ * The index keeps the byte offset of every {@link #interval}-th line,
+ * so reading from an arbitrary line needs to seek to the nearest
+ * indexed line and skip at most `interval - 1` lines.
+ *
+ * The index could be saved into a sidecar file along with the size
+ * and last modified time of the indexed file, and it will be discarded
+ * when loading if the file has been changed since then.
+ */
+class BigLinesIndex {
+
+    private static final int MAGIC = 0x4f4c4958; // OLIX
+    private static final int VERSION = 1;
+
+    private static final int BUF_SIZE = 1024 * 64;
+
+    final int interval;
+
+    // the number of lines, i.e. the number of `\n` in the file
+    final int lines;
+
+    // offsets[i] is the byte offset of line `i * interval`
+    private final long[] offsets;
+
+    private final long fileSize;
+    private final long lastModified;
+
+    private BigLinesIndex(int interval, int lines, long[] offsets, long fileSize, long lastModified) {
+        this.interval = interval;
+        this.lines = lines;
+        this.offsets = offsets;
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Returns a stream of the file positioned at the beginning of the
+     * line specified.
+     *
+     * @param file
+     *      the file this index built from
+     * @param lineNumber
+     *      the line number (`0` based)
+     * @return an input stream start with the line specified
+     */
+    InputStream openAt(File file, int lineNumber) {
+        int block = lineNumber / interval;
+        int skip = lineNumber - block * interval;
+        FileInputStream fis = (FileInputStream) IO.inputStream(file);
+        try {
+            fis.getChannel().position(offsets[block]);
+            InputStream is = new BufferedInputStream(fis, BUF_SIZE);
+            while (skip > 0) {
+                int b = is.read();
+                if (b < 0) {
+                    break;
+                }
+                if (b == '\n') {
+                    --skip;
+                }
+            }
+            return is;
+        } catch (IOException e) {
+            IO.close(fis);
+            throw E.ioException(e);
+        }
+    }
+
+    /**
+     * Check if this index matches the current state of the file.
+     */
+    boolean matches(File file) {
+        return file.length() == fileSize && file.lastModified() == lastModified;
+    }
+
+    /**
+     * Build the index by scanning through the file once.
+     *
+     * @param file
+     *      the file to be indexed
+     * @param interval
+     *      keep the offset of every `interval` lines
+     * @return the index
+     */
+    static BigLinesIndex build(File file, int interval) {
+        E.illegalArgumentIf(interval < 1, "interval must be positive integer");
+        long lastModified = file.lastModified();
+        long[] offsets = new long[16];
+        int blocks = 1; // offsets[0] = 0
+        int lines = 0;
+        int toNextMark = interval;
+        long pos = 0;
+        FileInputStream fis = (FileInputStream) IO.inputStream(file);
+        ByteBuffer buf = LineCounter.acquireBuffer();
+        try {
+            FileChannel channel = fis.getChannel();
+            int n;
+            buf.clear();
+            while ((n = channel.read(buf)) >= 0) {
+                buf.flip();
+                int wordsEnd = n & ~7;
+                int i = 0;
+                while (i < n) {
+                    if ((i & 7) == 0 && i < wordsEnd) {
+                        // skip the whole word if the next indexed line does not start in it
+                        int count = LineCounter.newlines(buf.getLong(i));
+                        if (count < toNextMark) {
+                            lines += count;
+                            toNextMark -= count;
+                            i += 8;
+                            continue;
+                        }
+                    }
+                    if (buf.get(i) == '\n') {
+                        ++lines;
+                        if (--toNextMark == 0) {
+                            if (blocks == offsets.length) {
+                                offsets = Arrays.copyOf(offsets, blocks << 1);
+                            }
+                            offsets[blocks++] = pos + i + 1;
+                            toNextMark = interval;
+                        }
+                    }
+                    ++i;
+                }
+                pos += n;
+                buf.clear();
+            }
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            LineCounter.releaseBuffer(buf);
+            IO.close(fis);
+        }
+        return new BigLinesIndex(interval, lines, Arrays.copyOf(offsets, blocks), pos, lastModified);
+    }
+
+    /**
+     * Load the index from the sidecar file.
+     *
+     * @param sidecar
+     *      the file the index saved into
+     * @param file
+     *      the file indexed
+     * @param interval
+     *      the expected index interval
+     * @return the index loaded or `null` if sidecar file does not exist or
+     *      is not valid for the file and interval specified
+     */
+    static BigLinesIndex load(File sidecar, File file, int interval) {
+        if (!sidecar.isFile()) {
+            return null;
+        }
+        DataInputStream dis = null;
+        try {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(sidecar)));
+            if (MAGIC != dis.readInt() || VERSION != dis.readInt()) {
+                return null;
+            }
+            long fileSize = dis.readLong();
+            long lastModified = dis.readLong();
+            if (interval != dis.readInt()) {
+                return null;
+            }
+            if (file.length() != fileSize || file.lastModified() != lastModified) {
+                return null;
+            }
+            int lines = dis.readInt();
+            int blocks = dis.readInt();
+            if (blocks != lines / interval + 1) {
+                return null;
+            }
+            long[] offsets = new long[blocks];
+            for (int i = 0; i < blocks; ++i) {
+                offsets[i] = dis.readLong();
+            }
+            return new BigLinesIndex(interval, lines, offsets, fileSize, lastModified);
+        } catch (IOException e) {
+            // corrupted sidecar file, rebuild the index
+            return null;
+        } finally {
+            IO.close(dis);
+        }
+    }
+
+    /**
+     * Save the index into the sidecar file.
+     *
+     * @param sidecar
+     *      the file to save the index
+     * @return `true` if the index has been saved or `false` otherwise
+     */
+    boolean save(File sidecar) {
+        DataOutputStream dos = null;
+        try {
+            dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(sidecar)));
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeLong(fileSize);
+            dos.writeLong(lastModified);
+            dos.writeInt(interval);
+            dos.writeInt(lines);
+            dos.writeInt(offsets.length);
+            for (long offset : offsets) {
+                dos.writeLong(offset);
+            }
+            dos.flush();
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            IO.close(dos);
+        }
+    }
+
+}
@@ -1206,6 +1206,41 @@ public class C {
             this.data = data;
         }
 
+        @Override
+        protected EnumSet<Feature> initFeatures() {
+            EnumSet<Feature> features = super.initFeatures();
+            features.add(Feature.RANDOM_ACCESS);
+            return features;
+        }
+
+        @Override
+        public $.Option<T> findOne($.Function<? super T, Boolean> predicate) {
+            if (ParallelListOps.applicable(this, data.length)) {
+                return ParallelListOps.findOne(Arrays.asList(data), predicate);
+            }
+            return super.findOne(predicate);
+        }
+
+        @Override
+        public $.Option<T> findFirst($.Function<? super T, Boolean> predicate) {
+            // the first match must be found even if parallel is turned on
+            return super.findOne(predicate);
+        }
+
+        @Override
+        public $.Option<T> reduce(Func2<T, T, T> accumulator) {
+            if (ParallelListOps.applicable(this, data.length)) {
+                return ParallelListOps.reduce(Arrays.asList(data), accumulator);
+            }
+            return super.reduce(accumulator);
+        }
+
+        @Override
+        public $.Option<T> reduceLeft(Func2<T, T, T> accumulator) {
+            // left reduction must keep the order even if parallel is turned on
+            return super.reduce(accumulator);
+        }
+
         @Override
         public int size() throws UnsupportedOperationException {
             return data.length;
@@ -1917,6 +1952,20 @@ public class C {
          */
         List<T> insert(int index, java.util.List<T> subList) throws IndexOutOfBoundsException;
 
+        /**
+         * Replace the element at the position specified by {@code index}.
+         * <p>If this list is mutable, then the element is set in place
+         * and this list is returned. Otherwise a new list should be
+         * created with all elements in this list except the one at the
+         * specified position, which is replaced with the new element</p>
+         *
+         * @param index the position of the element to be replaced
+         * @param t     the new element
+         * @return a list as specified above
+         * @throws IndexOutOfBoundsException if {@code index < 0 || index >= size()}
+         */
+        List<T> update(int index, T t) throws IndexOutOfBoundsException;
+
         /**
          * {@inheritDoc}
          *
@@ -2187,9 +2236,7 @@ public class C {
             public Map<K, V> to(V val) {
                 Map<K, V> me = Map.this;
                 if (me.ro) {
-                    Map<K, V> mapBuffer = C.newMap(me);
-                    mapBuffer.put(key, val);
-                    return C.Map(mapBuffer);
+                    return me.with(key, val);
                 }
                 Map.this.put(key, val);
                 return Map.this;
@@ -2214,7 +2261,7 @@ public class C {
             }
             ro = readOnly;
             if (readOnly) {
-                _m = Collections.unmodifiableMap(map);
+                _m = PersistentHashMap.of(map);
             } else {
                 _m = map;
             }
@@ -2222,13 +2269,20 @@ public class C {
 
         protected Map(boolean readOnly, java.util.Map<? extends K, ? extends V> map) {
             E.NPE(map);
+            if (map instanceof Map) {
+                map = ((Map<? extends K, ? extends V>) map)._m;
+            }
+            ro = readOnly;
             boolean sorted = map instanceof SortedMap;
+            if (readOnly && !sorted) {
+                _m = PersistentHashMap.of(map);
+                return;
+            }
             java.util.Map<K, V> m = sorted ? new TreeMap<K, V>() : new HashMap<K, V>();
             for (K k : map.keySet()) {
                 V v = map.get(k);
                 m.put(k, v);
             }
-            ro = readOnly;
             if (readOnly) {
                 _m = Collections.unmodifiableMap(m);
             } else {
@@ -2336,11 +2390,85 @@ public class C {
             return o.equals(_m);
         }
 
+        private Map(PersistentHashMap<K, V> map) {
+            _m = map;
+            ro = true;
+        }
+
         // --- extensions
         public _Builder map(K key) {
             return new _Builder(key);
         }
 
+        /**
+         * Returns a map contains all entries in this map plus the
+         * mapping from {@code key} to {@code val}.
+         *
+         * <p>This map is not changed. If this map is read only, the
+         * returned map is read only as well and shares the structure
+         * with this map, which costs {@code O(log n)}</p>
+         *
+         * @param key the key
+         * @param val the value
+         * @return a map as described above
+         */
+        public Map<K, V> with(K key, V val) {
+            if (_m instanceof PersistentHashMap) {
+                PersistentHashMap<K, V> m = (PersistentHashMap<K, V>) _m;
+                PersistentHashMap<K, V> m2 = m.plus(key, val);
+                return m2 == m ? this : new Map<>(m2);
+            }
+            Map<K, V> copy = C.newMap(_m);
+            copy.put(key, val);
+            return ro ? copy.readOnly(true) : copy;
+        }
+
+        /**
+         * Returns a map contains all entries in this map plus all
+         * entries of the map specified.
+         *
+         * <p>This map is not changed. If this map is read only, the
+         * returned map is read only as well and shares the structure
+         * with this map</p>
+         *
+         * @param map the map whose entries shall be added
+         * @return a map as described above
+         */
+        public Map<K, V> with(java.util.Map<? extends K, ? extends V> map) {
+            if (_m instanceof PersistentHashMap) {
+                PersistentHashMap.Transient<K, V> t = ((PersistentHashMap<K, V>) _m).asTransient();
+                for (java.util.Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+                    t.put(entry.getKey(), entry.getValue());
+                }
+                return new Map<>(t.persistent());
+            }
+            Map<K, V> copy = C.newMap(_m);
+            copy.putAll(map);
+            return ro ? copy.readOnly(true) : copy;
+        }
+
+        /**
+         * Returns a map contains all entries in this map except the
+         * one of {@code key}.
+         *
+         * <p>This map is not changed. If this map is read only, the
+         * returned map is read only as well and shares the structure
+         * with this map, which costs {@code O(log n)}</p>
+         *
+         * @param key the key
+         * @return a map as described above
+         */
+        public Map<K, V> without(Object key) {
+            if (_m instanceof PersistentHashMap) {
+                PersistentHashMap<K, V> m = (PersistentHashMap<K, V>) _m;
+                PersistentHashMap<K, V> m2 = m.minus(key);
+                return m2 == m ? this : new Map<>(m2);
+            }
+            Map<K, V> copy = C.newMap(_m);
+            copy.remove(key);
+            return ro ? copy.readOnly(true) : copy;
+        }
+
         @SuppressWarnings("unused")
         public boolean isReadOnly() {
             return ro;
@@ -2623,6 +2751,315 @@ public class C {
 
     }
 
+    /**
+     * A function that maps a {@code int} value to another {@code int} value
+     */
+    public interface IntFunc {
+        int apply(int v);
+    }
+
+    /**
+     * A function that combines two {@code int} values into one
+     */
+    public interface IntFunc2 {
+        int apply(int v1, int v2);
+    }
+
+    /**
+     * A predicate on a {@code int} value
+     */
+    public interface IntPredicate {
+        boolean test(int v);
+    }
+
+    /**
+     * An immutable random access list of primitive {@code int} values.
+     *
+     * <p>None of the operations box the elements except {@link #boxed()},
+     * so it is the choice for numeric pipelines over large number of
+     * values. Lists of different implementations are equal if they contain
+     * the same elements in the same order</p>
+     */
+    public interface IntList {
+        /**
+         * @return the number of elements in this list
+         */
+        int size();
+
+        boolean isEmpty();
+
+        /**
+         * Returns the element at the position specified
+         *
+         * @param index the position
+         * @return the element at {@code index}
+         * @throws IndexOutOfBoundsException if {@code index < 0 || index >= size()}
+         */
+        int get(int index) throws IndexOutOfBoundsException;
+
+        /**
+         * @return a new array contains all elements of this list
+         */
+        int[] toArray();
+
+        /**
+         * Returns a list of the results of applying the mapper on each element of this list
+         *
+         * @param mapper the function to be applied on each element
+         * @return a list of the mapped values
+         */
+        IntList map(IntFunc mapper);
+
+        /**
+         * Returns a list contains the elements of this list that pass the predicate
+         *
+         * @param predicate the predicate to test elements
+         * @return a list of elements that pass the test
+         */
+        IntList filter(IntPredicate predicate);
+
+        /**
+         * Apply the accumulator on the identity and the first element, then on the
+         * result and the second element and so on.
+         *
+         * @param identity the initial value
+         * @param accumulator the function that combines the accumulated value and an element
+         * @return the accumulated value, or {@code identity} if this list is empty
+         */
+        int reduce(int identity, IntFunc2 accumulator);
+
+        /**
+         * @return the sum of all elements in this list
+         */
+        long sum();
+
+        /**
+         * @return a list contains all elements of this list in ascending order
+         */
+        IntList sorted();
+
+        /**
+         * Search the key with binary search. This list must be sorted in ascending
+         * order, otherwise the result is undefined.
+         *
+         * @param key the value to be searched
+         * @return the index of the key if found, otherwise {@code (-(insertion point) - 1)}
+         * @see java.util.Arrays#binarySearch(int[], int)
+         */
+        int binarySearch(int key);
+
+        /**
+         * @return an immutable {@link List} contains all elements of this list boxed
+         */
+        List<Integer> boxed();
+    }
+
+    /**
+     * A function that maps a {@code long} value to another {@code long} value
+     */
+    public interface LongFunc {
+        long apply(long v);
+    }
+
+    /**
+     * A function that combines two {@code long} values into one
+     */
+    public interface LongFunc2 {
+        long apply(long v1, long v2);
+    }
+
+    /**
+     * A predicate on a {@code long} value
+     */
+    public interface LongPredicate {
+        boolean test(long v);
+    }
+
+    /**
+     * An immutable random access list of primitive {@code long} values.
+     *
+     * <p>None of the operations box the elements except {@link #boxed()},
+     * so it is the choice for numeric pipelines over large number of
+     * values. Lists of different implementations are equal if they contain
+     * the same elements in the same order</p>
+     */
+    public interface LongList {
+        /**
+         * @return the number of elements in this list
+         */
+        int size();
+
+        boolean isEmpty();
+
+        /**
+         * Returns the element at the position specified
+         *
+         * @param index the position
+         * @return the element at {@code index}
+         * @throws IndexOutOfBoundsException if {@code index < 0 || index >= size()}
+         */
+        long get(int index) throws IndexOutOfBoundsException;
+
+        /**
+         * @return a new array contains all elements of this list
+         */
+        long[] toArray();
+
+        /**
+         * Returns a list of the results of applying the mapper on each element of this list
+         *
+         * @param mapper the function to be applied on each element
+         * @return a list of the mapped values
+         */
+        LongList map(LongFunc mapper);
+
+        /**
+         * Returns a list contains the elements of this list that pass the predicate
+         *
+         * @param predicate the predicate to test elements
+         * @return a list of elements that pass the test
+         */
+        LongList filter(LongPredicate predicate);
+
+        /**
+         * Apply the accumulator on the identity and the first element, then on the
+         * result and the second element and so on.
+         *
+         * @param identity the initial value
+         * @param accumulator the function that combines the accumulated value and an element
+         * @return the accumulated value, or {@code identity} if this list is empty
+         */
+        long reduce(long identity, LongFunc2 accumulator);
+
+        /**
+         * @return the sum of all elements in this list
+         */
+        long sum();
+
+        /**
+         * @return a list contains all elements of this list in ascending order
+         */
+        LongList sorted();
+
+        /**
+         * Search the key with binary search. This list must be sorted in ascending
+         * order, otherwise the result is undefined.
+         *
+         * @param key the value to be searched
+         * @return the index of the key if found, otherwise {@code (-(insertion point) - 1)}
+         * @see java.util.Arrays#binarySearch(long[], long)
+         */
+        int binarySearch(long key);
+
+        /**
+         * @return an immutable {@link List} contains all elements of this list boxed
+         */
+        List<Long> boxed();
+    }
+
+    /**
+     * A function that maps a {@code double} value to another {@code double} value
+     */
+    public interface DoubleFunc {
+        double apply(double v);
+    }
+
+    /**
+     * A function that combines two {@code double} values into one
+     */
+    public interface DoubleFunc2 {
+        double apply(double v1, double v2);
+    }
+
+    /**
+     * A predicate on a {@code double} value
+     */
+    public interface DoublePredicate {
+        boolean test(double v);
+    }
+
+    /**
+     * An immutable random access list of primitive {@code double} values.
+     *
+     * <p>None of the operations box the elements except {@link #boxed()},
+     * so it is the choice for numeric pipelines over large number of
+     * values. Lists of different implementations are equal if they contain
+     * the same elements in the same order</p>
+     */
+    public interface DoubleList {
+        /**
+         * @return the number of elements in this list
+         */
+        int size();
+
+        boolean isEmpty();
+
+        /**
+         * Returns the element at the position specified
+         *
+         * @param index the position
+         * @return the element at {@code index}
+         * @throws IndexOutOfBoundsException if {@code index < 0 || index >= size()}
+         */
+        double get(int index) throws IndexOutOfBoundsException;
+
+        /**
+         * @return a new array contains all elements of this list
+         */
+        double[] toArray();
+
+        /**
+         * Returns a list of the results of applying the mapper on each element of this list
+         *
+         * @param mapper the function to be applied on each element
+         * @return a list of the mapped values
+         */
+        DoubleList map(DoubleFunc mapper);
+
+        /**
+         * Returns a list contains the elements of this list that pass the predicate
+         *
+         * @param predicate the predicate to test elements
+         * @return a list of elements that pass the test
+         */
+        DoubleList filter(DoublePredicate predicate);
+
+        /**
+         * Apply the accumulator on the identity and the first element, then on the
+         * result and the second element and so on.
+         *
+         * @param identity the initial value
+         * @param accumulator the function that combines the accumulated value and an element
+         * @return the accumulated value, or {@code identity} if this list is empty
+         */
+        double reduce(double identity, DoubleFunc2 accumulator);
+
+        /**
+         * @return the sum of all elements in this list
+         */
+        double sum();
+
+        /**
+         * @return a list contains all elements of this list in ascending order
+         */
+        DoubleList sorted();
+
+        /**
+         * Search the key with binary search. This list must be sorted in ascending
+         * order, otherwise the result is undefined.
+         *
+         * @param key the value to be searched
+         * @return the index of the key if found, otherwise {@code (-(insertion point) - 1)}
+         * @see java.util.Arrays#binarySearch(double[], double)
+         */
+        int binarySearch(double key);
+
+        /**
+         * @return an immutable {@link List} contains all elements of this list boxed
+         */
+        List<Double> boxed();
+    }
+
     /**
      * Defines a factory to create {@link java.util.List java List} instance
      * used by {@link DelegatingList} to create it's backing data structure
@@ -2840,6 +3277,172 @@ public class C {
         return new LazyRange<Long>(from, to, N.F.LONG_RANGE_STEP);
     }
 
+    /**
+     * Creates an immutable {@link IntList} contains a copy of the elements specified
+     *
+     * @param elements the elements
+     * @return the list
+     */
+    public static IntList intList(int... elements) {
+        return 0 == elements.length ? ImmutableIntList.EMPTY : new ImmutableIntList(elements.clone());
+    }
+
+    /**
+     * Creates an immutable {@link IntList} backed by the array specified.
+     * <p>Note the array will not be copied, instead it will be used
+     * directly as the backing data for the list</p>
+     *
+     * @param elements the array
+     * @return the list backed by the array
+     */
+    public static IntList intListOf(int[] elements) {
+        return new ImmutableIntList(elements);
+    }
+
+    /**
+     * Creates an immutable {@link IntList} by unboxing the elements of a collection
+     *
+     * @param col the collection
+     * @return the list
+     * @throws NullPointerException if the collection contains {@code null}
+     */
+    public static IntList intList(Collection<? extends Integer> col) {
+        int[] a = new int[col.size()];
+        int i = 0;
+        for (Integer v : col) {
+            a[i++] = v;
+        }
+        return new ImmutableIntList(a);
+    }
+
+    /**
+     * Returns a {@link IntList} of {@code [from .. to)} computed on demand.
+     * {@code from} can be less or larger than {@code to}.
+     *
+     * @param from the first value (inclusive)
+     * @param to   the end value (exclusive)
+     * @return the range
+     */
+    public static IntList intRange(int from, int to) {
+        return IntRangeList.of(from, to, 1);
+    }
+
+    /**
+     * Returns a {@link IntList} of {@code from}, {@code from + stepLen}, ... until
+     * {@code to} (exclusive), computed on demand. If {@code from} is larger
+     * than {@code to} then the values are descending.
+     *
+     * @param from    the first value (inclusive)
+     * @param to      the end value (exclusive)
+     * @param stepLen the distance between two adjacent values, must be positive
+     * @return the range
+     */
+    public static IntList intRange(int from, int to, int stepLen) {
+        return IntRangeList.of(from, to, stepLen);
+    }
+
+    /**
+     * Creates an immutable {@link LongList} contains a copy of the elements specified
+     *
+     * @param elements the elements
+     * @return the list
+     */
+    public static LongList longList(long... elements) {
+        return 0 == elements.length ? ImmutableLongList.EMPTY : new ImmutableLongList(elements.clone());
+    }
+
+    /**
+     * Creates an immutable {@link LongList} backed by the array specified.
+     * <p>Note the array will not be copied, instead it will be used
+     * directly as the backing data for the list</p>
+     *
+     * @param elements the array
+     * @return the list backed by the array
+     */
+    public static LongList longListOf(long[] elements) {
+        return new ImmutableLongList(elements);
+    }
+
+    /**
+     * Creates an immutable {@link LongList} by unboxing the elements of a collection
+     *
+     * @param col the collection
+     * @return the list
+     * @throws NullPointerException if the collection contains {@code null}
+     */
+    public static LongList longList(Collection<? extends Long> col) {
+        long[] a = new long[col.size()];
+        int i = 0;
+        for (Long v : col) {
+            a[i++] = v;
+        }
+        return new ImmutableLongList(a);
+    }
+
+    /**
+     * Returns a {@link LongList} of {@code [from .. to)} computed on demand.
+     * {@code from} can be less or larger than {@code to}.
+     *
+     * @param from the first value (inclusive)
+     * @param to   the end value (exclusive)
+     * @return the range
+     */
+    public static LongList longRange(long from, long to) {
+        return LongRangeList.of(from, to, 1);
+    }
+
+    /**
+     * Returns a {@link LongList} of {@code from}, {@code from + stepLen}, ... until
+     * {@code to} (exclusive), computed on demand. If {@code from} is larger
+     * than {@code to} then the values are descending.
+     *
+     * @param from    the first value (inclusive)
+     * @param to      the end value (exclusive)
+     * @param stepLen the distance between two adjacent values, must be positive
+     * @return the range
+     */
+    public static LongList longRange(long from, long to, long stepLen) {
+        return LongRangeList.of(from, to, stepLen);
+    }
+
+    /**
+     * Creates an immutable {@link DoubleList} contains a copy of the elements specified
+     *
+     * @param elements the elements
+     * @return the list
+     */
+    public static DoubleList doubleList(double... elements) {
+        return 0 == elements.length ? ImmutableDoubleList.EMPTY : new ImmutableDoubleList(elements.clone());
+    }
+
+    /**
+     * Creates an immutable {@link DoubleList} backed by the array specified.
+     * <p>Note the array will not be copied, instead it will be used
+     * directly as the backing data for the list</p>
+     *
+     * @param elements the array
+     * @return the list backed by the array
+     */
+    public static DoubleList doubleListOf(double[] elements) {
+        return new ImmutableDoubleList(elements);
+    }
+
+    /**
+     * Creates an immutable {@link DoubleList} by unboxing the elements of a collection
+     *
+     * @param col the collection
+     * @return the list
+     * @throws NullPointerException if the collection contains {@code null}
+     */
+    public static DoubleList doubleList(Collection<? extends Double> col) {
+        double[] a = new double[col.size()];
+        int i = 0;
+        for (Double v : col) {
+            a[i++] = v;
+        }
+        return new ImmutableDoubleList(a);
+    }
+
     /**
      * Returns a {@link Range} of non-negative integers start from {@code 0} to {@code Integer.MAX_VALUE}. Note
      * unlike traditional definition of natural number, zero is included in the range returned
@@ -2930,6 +3533,9 @@ public class C {
      */
     public static <T> List<T> list(T t, T... ta) {
         int len = ta.length;
+        if (len >= PersistentVector.THRESHOLD) {
+            return PersistentVector.<T>of(ta).prepend(t);
+        }
         T[] a = $.newArray(ta, len + 1);
         a[0] = t;
         System.arraycopy(ta, 0, a, 1, len);
@@ -39,14 +39,38 @@ package org.osgl.util;
  * #L%
  */
 
-import org.osgl.exception.UnexpectedException;
+import org.osgl.$;
+import org.osgl.exception.AccessDeniedException;
+import org.osgl.exception.ResourceNotFoundException;
+import org.osgl.storage.ISObject;
+import org.osgl.storage.impl.SObject;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
 import javax.xml.bind.DatatypeConverter;
 
 /**
@@ -81,7 +105,7 @@ public class Codec {
      */
     @Deprecated
     public static String encodeBASE64(String value) {
-        return new String(Base64.encode(value.getBytes(Charsets.UTF_8)));
+        return Base64Codec.STANDARD.encodeToString(value.getBytes(Charsets.UTF_8));
     }
 
     /**
@@ -91,7 +115,7 @@ public class Codec {
      * @return The base64 encoded String
      */
     public static String encodeBase64(String value) {
-        return new String(Base64.encode(value.getBytes(Charsets.UTF_8)));
+        return Base64Codec.STANDARD.encodeToString(value.getBytes(Charsets.UTF_8));
     }
 
     /**
@@ -100,7 +124,7 @@ public class Codec {
      * @return the base64 encoded String that is URL safe
      */
     public static String encodeUrlSafeBase64(String value) {
-        return new String(UrlSafeBase64.encode(value.getBytes(Charsets.UTF_8)));
+        return Base64Codec.URL_SAFE.encodeToString(value.getBytes(Charsets.UTF_8));
     }
 
     /**
@@ -122,7 +146,7 @@ public class Codec {
      * @return The base64 encoded String
      */
     public static String encodeBase64(byte[] value) {
-        return new String(Base64.encode(value));
+        return Base64Codec.STANDARD.encodeToString(value);
     }
 
     /**
@@ -132,7 +156,7 @@ public class Codec {
      * @return The base64 encoded String that is URL safe
      */
     public static String encodeUrlSafeBase64(byte[] value) {
-        return new String(UrlSafeBase64.encode(value));
+        return Base64Codec.URL_SAFE.encodeToString(value);
     }
 
     /**
@@ -144,7 +168,7 @@ public class Codec {
      */
     @Deprecated
     public static byte[] decodeBASE64(String value) {
-        return Base64.decode(value);
+        return Base64Codec.STANDARD.decode(value);
     }
 
     /**
@@ -154,7 +178,7 @@ public class Codec {
      * @return decoded binary data
      */
     public static byte[] decodeBase64(String value) {
-        return Base64.decode(value);
+        return Base64Codec.STANDARD.decode(value);
     }
 
     /**
@@ -164,7 +188,643 @@ public class Codec {
      * @return decoded binary data
      */
     public static byte[] decodeUrlSafeBase64(String value) {
-        return UrlSafeBase64.decode(value);
+        return Base64Codec.URL_SAFE.decode(value);
+    }
+
+    /**
+     * Returns the standard {@link Base64Codec Base64 codec}
+     *
+     * @return the standard Base64 codec
+     */
+    public static Base64Codec base64() {
+        return Base64Codec.STANDARD;
+    }
+
+    /**
+     * Returns the URL safe {@link Base64Codec Base64 codec}, which uses `-`
+     * and `_` in place of `+` and `/` and pads with
+     * {@link #URL_SAFE_BASE64_PADDING_CHAR}
+     *
+     * @return the URL safe Base64 codec
+     */
+    public static Base64Codec urlSafeBase64() {
+        return Base64Codec.URL_SAFE;
+    }
+
+    /**
+     * A table driven Base64 codec.
+     *
+     * It encodes 3 bytes and decodes 4 chars per step, and can write the
+     * result into a caller supplied `char[]`, `byte[]`, {@link ByteBuffer}
+     * or {@link S.Buffer}, thus no intermediate array is needed. Streams
+     * can be encoded and decoded with {@link #encodingStream(OutputStream)}
+     * and {@link #decodingStream(InputStream)}.
+     *
+     * The encoded output is never wrapped into lines. Decoding requires the
+     * input to be padded unless it is decoded with {@link #decodeLines(CharSequence)}
+     * or a decoding stream, which also skip whitespace.
+     *
+     * A codec is thread safe, the streams it creates are not.
+     */
+    public static final class Base64Codec {
+
+        static final Base64Codec STANDARD = new Base64Codec('+', '/', '=');
+        static final Base64Codec URL_SAFE = new Base64Codec(UrlSafeBase64.CHAR_PLUS_REPLACEMENT,
+                UrlSafeBase64.CHAR_FORWARD_SLASH_REPLACEMENT, UrlSafeBase64.CHAR_PADDING);
+
+        private static final String ILLEGAL_CHAR = "Illegal character in Base64 encoded data.";
+        private static final String ILLEGAL_LENGTH = "Length of Base64 encoded input string is not a multiple of 4.";
+
+        // the number of bytes encoded or chars decoded per chunk by the streams and direct buffers
+        private static final int CHUNK = 3 * 1024;
+
+        private final char[] chars = new char[64];
+        private final byte[] bytes = new byte[64];
+        // the 6 bit value of a char, -1 if the char is not in the alphabet
+        private final int[] values = new int[256];
+        private final char padding;
+
+        private Base64Codec(char c62, char c63, char padding) {
+            int i = 0;
+            for (char c = 'A'; c <= 'Z'; c++) chars[i++] = c;
+            for (char c = 'a'; c <= 'z'; c++) chars[i++] = c;
+            for (char c = '0'; c <= '9'; c++) chars[i++] = c;
+            chars[i++] = c62;
+            chars[i] = c63;
+            Arrays.fill(values, -1);
+            for (i = 0; i < 64; ++i) {
+                bytes[i] = (byte) chars[i];
+                values[chars[i]] = i;
+            }
+            this.padding = padding;
+        }
+
+        /**
+         * Returns the number of chars a number of bytes is encoded into
+         *
+         * @param len the number of bytes
+         * @return the encoded length including padding
+         */
+        public int encodedLength(int len) {
+            return (len + 2) / 3 * 4;
+        }
+
+        /**
+         * Returns the max number of bytes a number of Base64 chars is decoded into
+         *
+         * @param len the number of chars
+         * @return the max decoded length
+         */
+        public int maxDecodedLength(int len) {
+            return len / 4 * 3;
+        }
+
+        public char[] encode(byte[] src) {
+            return encode(src, 0, src.length);
+        }
+
+        public char[] encode(byte[] src, int off, int len) {
+            char[] dst = new char[encodedLength(len)];
+            encode(src, off, len, dst, 0);
+            return dst;
+        }
+
+        public String encodeToString(byte[] src) {
+            // the ASCII bytes are faster to produce, and to turn into a String, than chars
+            byte[] dst = new byte[encodedLength(src.length)];
+            encode(src, 0, src.length, dst, 0);
+            return new String(dst, StandardCharsets.ISO_8859_1);
+        }
+
+        /**
+         * Encode bytes into a char array
+         *
+         * @param src    the bytes
+         * @param off    the offset of the first byte to encode
+         * @param len    the number of bytes to encode
+         * @param dst    the char array, must have room for {@link #encodedLength(int)} chars
+         * @param dstOff the offset in `dst` to start writing
+         * @return the number of chars written
+         */
+        public int encode(byte[] src, int off, int len, char[] dst, int dstOff) {
+            final char[] chars = this.chars;
+            int end = off + len - 2;
+            int d = dstOff;
+            for (; off < end; off += 3, d += 4) {
+                int bits = (src[off] & 0xff) << 16 | (src[off + 1] & 0xff) << 8 | (src[off + 2] & 0xff);
+                dst[d] = chars[bits >>> 18];
+                dst[d + 1] = chars[(bits >>> 12) & 0x3f];
+                dst[d + 2] = chars[(bits >>> 6) & 0x3f];
+                dst[d + 3] = chars[bits & 0x3f];
+            }
+            int rem = end + 2 - off;
+            if (rem > 0) {
+                int bits = (src[off] & 0xff) << 16 | (rem > 1 ? (src[off + 1] & 0xff) << 8 : 0);
+                dst[d] = chars[bits >>> 18];
+                dst[d + 1] = chars[(bits >>> 12) & 0x3f];
+                dst[d + 2] = rem > 1 ? chars[(bits >>> 6) & 0x3f] : padding;
+                dst[d + 3] = padding;
+                d += 4;
+            }
+            return d - dstOff;
+        }
+
+        /**
+         * Encode bytes into a byte array of ASCII chars
+         *
+         * @param src    the bytes
+         * @param off    the offset of the first byte to encode
+         * @param len    the number of bytes to encode
+         * @param dst    the byte array, must have room for {@link #encodedLength(int)} bytes
+         * @param dstOff the offset in `dst` to start writing
+         * @return the number of bytes written
+         */
+        public int encode(byte[] src, int off, int len, byte[] dst, int dstOff) {
+            final byte[] bytes = this.bytes;
+            int end = off + len - 2;
+            int d = dstOff;
+            for (; off < end; off += 3, d += 4) {
+                int bits = (src[off] & 0xff) << 16 | (src[off + 1] & 0xff) << 8 | (src[off + 2] & 0xff);
+                dst[d] = bytes[bits >>> 18];
+                dst[d + 1] = bytes[(bits >>> 12) & 0x3f];
+                dst[d + 2] = bytes[(bits >>> 6) & 0x3f];
+                dst[d + 3] = bytes[bits & 0x3f];
+            }
+            int rem = end + 2 - off;
+            if (rem > 0) {
+                int bits = (src[off] & 0xff) << 16 | (rem > 1 ? (src[off + 1] & 0xff) << 8 : 0);
+                dst[d] = bytes[bits >>> 18];
+                dst[d + 1] = bytes[(bits >>> 12) & 0x3f];
+                dst[d + 2] = rem > 1 ? bytes[(bits >>> 6) & 0x3f] : (byte) padding;
+                dst[d + 3] = (byte) padding;
+                d += 4;
+            }
+            return d - dstOff;
+        }
+
+        /**
+         * Encode bytes and append the result to a {@link S.Buffer}
+         *
+         * @param src the bytes
+         * @param off the offset of the first byte to encode
+         * @param len the number of bytes to encode
+         * @param buf the buffer to append to
+         * @return the buffer
+         */
+        public S.Buffer encode(byte[] src, int off, int len, S.Buffer buf) {
+            int n = encodedLength(len);
+            int pos = buf.reserve(n);
+            encode(src, off, len, buf.getValue(), pos);
+            return buf;
+        }
+
+        /**
+         * Encode the remaining bytes of `src` into `dst` as ASCII chars.
+         * Upon return the position of `src` equals its limit, and the
+         * position of `dst` is advanced by the number of bytes written.
+         *
+         * @param src the bytes to encode
+         * @param dst the buffer to write to, must have room for {@link #encodedLength(int)} bytes
+         */
+        public void encode(ByteBuffer src, ByteBuffer dst) {
+            int len = src.remaining();
+            int n = encodedLength(len);
+            if (dst.remaining() < n) {
+                throw new BufferOverflowException();
+            }
+            if (src.hasArray() && dst.hasArray()) {
+                encode(src.array(), src.arrayOffset() + src.position(), len,
+                        dst.array(), dst.arrayOffset() + dst.position());
+                src.position(src.limit());
+                dst.position(dst.position() + n);
+                return;
+            }
+            byte[] in = new byte[Math.min(len, CHUNK)];
+            byte[] out = new byte[encodedLength(in.length)];
+            while (src.hasRemaining()) {
+                int chunk = Math.min(in.length, src.remaining());
+                src.get(in, 0, chunk);
+                dst.put(out, 0, encode(in, 0, chunk, out, 0));
+            }
+        }
+
+        /**
+         * Returns an output stream that encodes the bytes written into it and
+         * writes the Base64 chars as ASCII bytes to `os`. The stream must be
+         * closed to write out the last chars, which also closes `os`.
+         *
+         * @param os the output stream to write the encoded chars to
+         * @return an encoding output stream
+         */
+        public OutputStream encodingStream(OutputStream os) {
+            return new EncodingOutputStream($.requireNotNull(os));
+        }
+
+        /**
+         * Decode Base64 chars into bytes. No whitespace is allowed.
+         *
+         * @param s the Base64 chars
+         * @return the decoded bytes
+         * @throws IllegalArgumentException if the input is not valid Base64 encoded data
+         */
+        public byte[] decode(CharSequence s) {
+            int len = s.length();
+            E.illegalArgumentIf(len % 4 != 0, ILLEGAL_LENGTH);
+            int end = len;
+            while (end > 0 && s.charAt(end - 1) == padding) end--;
+            byte[] dst = new byte[end * 3 / 4];
+            decode(s, 0, end, dst, 0);
+            return dst;
+        }
+
+        public byte[] decode(char[] src) {
+            return decode(src, 0, src.length);
+        }
+
+        public byte[] decode(char[] src, int off, int len) {
+            return decode(CharBuffer.wrap(src, off, len));
+        }
+
+        /**
+         * Decode Base64 chars given as ASCII bytes. No whitespace is allowed.
+         *
+         * @param src    the ASCII bytes of the Base64 chars
+         * @param off    the offset of the first char
+         * @param len    the number of chars, must be a multiple of 4
+         * @param dst    the byte array, must have room for the decoded bytes
+         * @param dstOff the offset in `dst` to start writing
+         * @return the number of bytes written
+         * @throws IllegalArgumentException if the input is not valid Base64 encoded data
+         */
+        public int decode(byte[] src, int off, int len, byte[] dst, int dstOff) {
+            E.illegalArgumentIf(len % 4 != 0, ILLEGAL_LENGTH);
+            int end = off + len;
+            while (end > off && src[end - 1] == padding) end--;
+            return decodeUnpadded(src, off, end, dst, dstOff);
+        }
+
+        /**
+         * Decode the remaining Base64 chars, given as ASCII bytes, of `src` into
+         * `dst`. Upon return the position of `src` equals its limit, and the
+         * position of `dst` is advanced by the number of bytes written.
+         *
+         * @param src the ASCII bytes of the Base64 chars
+         * @param dst the buffer to write to
+         * @throws IllegalArgumentException if the input is not valid Base64 encoded data
+         */
+        public void decode(ByteBuffer src, ByteBuffer dst) {
+            int len = src.remaining();
+            E.illegalArgumentIf(len % 4 != 0, ILLEGAL_LENGTH);
+            int end = src.limit();
+            while (end > src.position() && src.get(end - 1) == padding) end--;
+            int n = (end - src.position()) * 3 / 4;
+            if (dst.remaining() < n) {
+                throw new BufferOverflowException();
+            }
+            if (src.hasArray() && dst.hasArray()) {
+                int off = src.arrayOffset();
+                decodeUnpadded(src.array(), off + src.position(), off + end,
+                        dst.array(), dst.arrayOffset() + dst.position());
+                src.position(src.limit());
+                dst.position(dst.position() + n);
+                return;
+            }
+            // chunks of whole quartets, the padding is only stripped from the last one
+            byte[] in = new byte[Math.min(len, CHUNK / 3 * 4)];
+            byte[] out = new byte[maxDecodedLength(in.length)];
+            while (src.position() < end) {
+                int chunk = Math.min(in.length, end - src.position());
+                src.get(in, 0, chunk);
+                dst.put(out, 0, decodeUnpadded(in, 0, chunk, out, 0));
+            }
+            src.position(src.limit());
+        }
+
+        /**
+         * Decode Base64 chars ignoring line breaks, tabs and blanks.
+         *
+         * @param s the Base64 chars
+         * @return the decoded bytes
+         * @throws IllegalArgumentException if the input is not valid Base64 encoded data
+         */
+        public byte[] decodeLines(CharSequence s) {
+            int len = s.length();
+            int n = 0;
+            for (int i = 0; i < len; ++i) {
+                if (!isWhitespace(s.charAt(i))) {
+                    n++;
+                }
+            }
+            E.illegalArgumentIf(n % 4 != 0, ILLEGAL_LENGTH);
+            int end = len;
+            for (; end > 0; --end) {
+                char c = s.charAt(end - 1);
+                if (c == padding) {
+                    n--;
+                } else if (!isWhitespace(c)) {
+                    break;
+                }
+            }
+            E.illegalArgumentIf(n % 4 == 1, ILLEGAL_CHAR);
+            byte[] dst = new byte[n * 3 / 4];
+            int bits = 0, count = 0, d = 0;
+            for (int i = 0; i < end; ++i) {
+                char c = s.charAt(i);
+                if (isWhitespace(c)) {
+                    continue;
+                }
+                int v = c > 0xff ? -1 : values[c];
+                E.illegalArgumentIf(v < 0, ILLEGAL_CHAR);
+                bits = bits << 6 | v;
+                if (++count == 4) {
+                    dst[d++] = (byte) (bits >> 16);
+                    dst[d++] = (byte) (bits >> 8);
+                    dst[d++] = (byte) bits;
+                    bits = 0;
+                    count = 0;
+                }
+            }
+            if (count > 1) {
+                bits <<= 6 * (4 - count);
+                dst[d++] = (byte) (bits >> 16);
+                if (count > 2) {
+                    dst[d] = (byte) (bits >> 8);
+                }
+            }
+            return dst;
+        }
+
+        /**
+         * Returns an input stream that reads Base64 chars as ASCII bytes from
+         * `is` and decodes them. Whitespace is skipped and the padding at the
+         * end is optional. An {@link IOException} is raised on chars not in
+         * the alphabet.
+         *
+         * @param is the input stream of the Base64 chars
+         * @return a decoding input stream
+         */
+        public InputStream decodingStream(InputStream is) {
+            return new DecodingInputStream($.requireNotNull(is));
+        }
+
+        // decode from `off` to `end`, the padding has been stripped
+        private int decode(CharSequence s, int off, int end, byte[] dst, int dstOff) {
+            final int[] values = this.values;
+            int full = off + (end - off) / 4 * 4;
+            int d = dstOff;
+            for (; off < full; off += 4, d += 3) {
+                int c0 = s.charAt(off), c1 = s.charAt(off + 1), c2 = s.charAt(off + 2), c3 = s.charAt(off + 3);
+                E.illegalArgumentIf((c0 | c1 | c2 | c3) > 0xff, ILLEGAL_CHAR);
+                // a negative value of any char makes the bits negative
+                int bits = values[c0] << 18 | values[c1] << 12 | values[c2] << 6 | values[c3];
+                E.illegalArgumentIf(bits < 0, ILLEGAL_CHAR);
+                dst[d] = (byte) (bits >> 16);
+                dst[d + 1] = (byte) (bits >> 8);
+                dst[d + 2] = (byte) bits;
+            }
+            int rem = end - off;
+            if (rem > 0) {
+                E.illegalArgumentIf(rem == 1, ILLEGAL_CHAR);
+                int c0 = s.charAt(off), c1 = s.charAt(off + 1), c2 = rem > 2 ? s.charAt(off + 2) : 'A';
+                E.illegalArgumentIf((c0 | c1 | c2) > 0xff, ILLEGAL_CHAR);
+                int bits = values[c0] << 18 | values[c1] << 12 | values[c2] << 6;
+                E.illegalArgumentIf(bits < 0, ILLEGAL_CHAR);
+                dst[d++] = (byte) (bits >> 16);
+                if (rem > 2) {
+                    dst[d++] = (byte) (bits >> 8);
+                }
+            }
+            return d - dstOff;
+        }
+
+        // decode from `off` to `end`, the padding has been stripped
+        private int decodeUnpadded(byte[] src, int off, int end, byte[] dst, int dstOff) {
+            final int[] values = this.values;
+            int full = off + (end - off) / 4 * 4;
+            int d = dstOff;
+            for (; off < full; off += 4, d += 3) {
+                int bits = values[src[off] & 0xff] << 18 | values[src[off + 1] & 0xff] << 12
+                        | values[src[off + 2] & 0xff] << 6 | values[src[off + 3] & 0xff];
+                E.illegalArgumentIf(bits < 0, ILLEGAL_CHAR);
+                dst[d] = (byte) (bits >> 16);
+                dst[d + 1] = (byte) (bits >> 8);
+                dst[d + 2] = (byte) bits;
+            }
+            int rem = end - off;
+            if (rem > 0) {
+                E.illegalArgumentIf(rem == 1, ILLEGAL_CHAR);
+                int bits = values[src[off] & 0xff] << 18 | values[src[off + 1] & 0xff] << 12
+                        | (rem > 2 ? values[src[off + 2] & 0xff] << 6 : 0);
+                E.illegalArgumentIf(bits < 0, ILLEGAL_CHAR);
+                dst[d++] = (byte) (bits >> 16);
+                if (rem > 2) {
+                    dst[d++] = (byte) (bits >> 8);
+                }
+            }
+            return d - dstOff;
+        }
+
+        private static boolean isWhitespace(int c) {
+            return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+        }
+
+        private final class EncodingOutputStream extends OutputStream {
+            private final OutputStream out;
+            // the bytes that do not make up a group of 3 yet
+            private final byte[] pending = new byte[3];
+            private final byte[] buf = new byte[CHUNK / 3 * 4];
+            private int npending;
+            private boolean closed;
+
+            EncodingOutputStream(OutputStream out) {
+                this.out = out;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                if (closed) {
+                    throw new IOException("stream closed");
+                }
+                pending[npending++] = (byte) b;
+                if (3 == npending) {
+                    out.write(buf, 0, encode(pending, 0, 3, buf, 0));
+                    npending = 0;
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (closed) {
+                    throw new IOException("stream closed");
+                }
+                if (npending > 0) {
+                    while (npending < 3 && len > 0) {
+                        pending[npending++] = b[off++];
+                        len--;
+                    }
+                    if (npending < 3) {
+                        return;
+                    }
+                    out.write(buf, 0, encode(pending, 0, 3, buf, 0));
+                    npending = 0;
+                }
+                while (len >= 3) {
+                    int n = Math.min(len / 3 * 3, CHUNK);
+                    out.write(buf, 0, encode(b, off, n, buf, 0));
+                    off += n;
+                    len -= n;
+                }
+                System.arraycopy(b, off, pending, 0, len);
+                npending = len;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    if (npending > 0) {
+                        out.write(buf, 0, encode(pending, 0, npending, buf, 0));
+                    }
+                    out.flush();
+                } finally {
+                    out.close();
+                }
+            }
+        }
+
+        private final class DecodingInputStream extends InputStream {
+            private final InputStream in;
+            private final byte[] inBuf = new byte[CHUNK / 3 * 4];
+            private final byte[] outBuf = new byte[CHUNK + 3];
+            private int pos;
+            private int limit;
+            private int bits;
+            // the number of chars in `bits`
+            private int count;
+            // once the padding is met only padding and whitespace are allowed
+            private boolean padded;
+            private boolean eof;
+
+            DecodingInputStream(InputStream in) {
+                this.in = in;
+            }
+
+            @Override
+            public int read() throws IOException {
+                if (pos == limit && !fill()) {
+                    return -1;
+                }
+                return outBuf[pos++] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (0 == len) {
+                    return 0;
+                }
+                if (pos == limit && !fill()) {
+                    return -1;
+                }
+                int n = Math.min(len, limit - pos);
+                System.arraycopy(outBuf, pos, b, off, n);
+                pos += n;
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return limit - pos;
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+
+            private boolean fill() throws IOException {
+                pos = 0;
+                limit = 0;
+                while (0 == limit) {
+                    if (eof) {
+                        return false;
+                    }
+                    int n = in.read(inBuf);
+                    if (n < 0) {
+                        eof = true;
+                        flushPartial();
+                        padded = true;
+                        continue;
+                    }
+                    for (int i = 0; i < n; ++i) {
+                        if (0 == count && !padded) {
+                            // whole groups of 4 chars in the alphabet
+                            for (; i + 4 <= n; i += 4, limit += 3) {
+                                int quartet = values[inBuf[i] & 0xff] << 18 | values[inBuf[i + 1] & 0xff] << 12
+                                        | values[inBuf[i + 2] & 0xff] << 6 | values[inBuf[i + 3] & 0xff];
+                                if (quartet < 0) {
+                                    break;
+                                }
+                                outBuf[limit] = (byte) (quartet >> 16);
+                                outBuf[limit + 1] = (byte) (quartet >> 8);
+                                outBuf[limit + 2] = (byte) quartet;
+                            }
+                            if (i == n) {
+                                break;
+                            }
+                        }
+                        int c = inBuf[i] & 0xff;
+                        if (isWhitespace(c)) {
+                            continue;
+                        }
+                        if (c == padding) {
+                            if (!padded) {
+                                flushPartial();
+                                padded = true;
+                            }
+                            continue;
+                        }
+                        int v = values[c];
+                        if (v < 0 || padded) {
+                            throw new IOException(ILLEGAL_CHAR);
+                        }
+                        bits = bits << 6 | v;
+                        if (++count == 4) {
+                            outBuf[limit++] = (byte) (bits >> 16);
+                            outBuf[limit++] = (byte) (bits >> 8);
+                            outBuf[limit++] = (byte) bits;
+                            bits = 0;
+                            count = 0;
+                        }
+                    }
+                }
+                return true;
+            }
+
+            // write out the bytes of an incomplete group of 4 chars at the end of data
+            private void flushPartial() throws IOException {
+                if (padded || 0 == count) {
+                    return;
+                }
+                if (1 == count) {
+                    throw new IOException("Base64 encoded data is truncated");
+                }
+                bits <<= 6 * (4 - count);
+                outBuf[limit++] = (byte) (bits >> 16);
+                if (count > 2) {
+                    outBuf[limit++] = (byte) (bits >> 8);
+                }
+                bits = 0;
+                count = 0;
+            }
+        }
     }
 
     /**
@@ -174,15 +834,7 @@ public class Codec {
      * @return An hexadecimal Hash
      */
     public static String hexMD5(String value) {
-        try {
-            MessageDigest messageDigest = MessageDigest.getInstance("MD5");
-            messageDigest.reset();
-            messageDigest.update(value.getBytes("utf-8"));
-            byte[] digest = messageDigest.digest();
-            return byteToHexString(digest);
-        } catch (Exception ex) {
-            throw new UnexpectedException(ex);
-        }
+        return hexDigest(value.getBytes(Charsets.UTF_8), DigestType.MD5);
     }
 
     /**
@@ -192,14 +844,480 @@ public class Codec {
      * @return An hexadecimal Hash
      */
     public static String hexSHA1(String value) {
+        return hexDigest(value.getBytes(Charsets.UTF_8), DigestType.SHA1);
+    }
+
+    /**
+     * The algorithms supported by the digest methods.
+     */
+    public enum DigestType {
+        MD5("MD5", 16),
+        SHA1("SHA-1", 20),
+        SHA256("SHA-256", 32),
+        SHA512("SHA-512", 64),
+        /**
+         * CRC-32 checksum, not a cryptographic hash
+         */
+        CRC32("CRC32", 4),
+        /**
+         * CRC-32C (Castagnoli) checksum, not a cryptographic hash
+         */
+        CRC32C("CRC32C", 4);
+
+        private final String algorithm;
+        private final int length;
+
+        DigestType(String algorithm, int length) {
+            this.algorithm = algorithm;
+            this.length = length;
+        }
+
+        /**
+         * Returns the number of bytes of the digest
+         *
+         * @return the digest length
+         */
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public String toString() {
+            return algorithm;
+        }
+
+        private boolean isChecksum() {
+            return this == CRC32 || this == CRC32C;
+        }
+    }
+
+    private static final int BUF_SIZE = 64 * 1024;
+
+    // reused by the one shot digest methods, a slot is empty while its hasher is in use
+    private static final ThreadLocal<Hasher[]> HASHERS = new ThreadLocal<Hasher[]>() {
+        @Override
+        protected Hasher[] initialValue() {
+            return new Hasher[DigestType.values().length];
+        }
+    };
+
+    private static final ThreadLocal<byte[]> BUF = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[BUF_SIZE];
+        }
+    };
+
+    /**
+     * Returns a new {@link Hasher} to compute a digest incrementally
+     *
+     * @param type the digest algorithm
+     * @return a new hasher
+     */
+    public static Hasher hasher(DigestType type) {
+        return new Hasher(type);
+    }
+
+    /**
+     * Returns the digest of a byte array
+     *
+     * @param ba   the bytes
+     * @param type the digest algorithm
+     * @return the digest
+     */
+    public static byte[] digest(byte[] ba, DigestType type) {
+        Hasher hasher = acquire(type);
+        try {
+            return hasher.update(ba).finish();
+        } finally {
+            release(hasher);
+        }
+    }
+
+    /**
+     * Returns the digest of the content read from an input stream till the
+     * end of stream. The stream is not closed.
+     *
+     * @param is   the input stream
+     * @param type the digest algorithm
+     * @return the digest
+     */
+    public static byte[] digest(InputStream is, DigestType type) {
+        Hasher hasher = acquire(type);
         try {
-            MessageDigest md;
-            md = MessageDigest.getInstance("SHA-1");
-            md.update(value.getBytes("utf-8"));
-            byte[] digest = md.digest();
-            return byteToHexString(digest);
-        } catch (Exception ex) {
-            throw new UnexpectedException(ex);
+            return hasher.update(is).finish();
+        } finally {
+            release(hasher);
+        }
+    }
+
+    /**
+     * Returns the digest of a file.
+     *
+     * @param file the file
+     * @param type the digest algorithm
+     * @return the digest
+     */
+    public static byte[] digest(File file, DigestType type) {
+        Hasher hasher = acquire(type);
+        try {
+            return hasher.update(file).finish();
+        } finally {
+            release(hasher);
+        }
+    }
+
+    /**
+     * Returns the digest of an sobject's content. The content is streamed
+     * rather than loaded into memory.
+     *
+     * @param sobj the sobject
+     * @param type the digest algorithm
+     * @return the digest
+     */
+    public static byte[] digest(ISObject sobj, DigestType type) {
+        Hasher hasher = acquire(type);
+        try {
+            return hasher.update(sobj).finish();
+        } finally {
+            release(hasher);
+        }
+    }
+
+    /**
+     * Returns the hexadecimal digest of a byte array
+     *
+     * @param ba   the bytes
+     * @param type the digest algorithm
+     * @return the digest in hexadecimal
+     */
+    public static String hexDigest(byte[] ba, DigestType type) {
+        return byteToHexString(digest(ba, type));
+    }
+
+    /**
+     * Returns the hexadecimal digest of the content read from an input stream.
+     * The stream is not closed.
+     *
+     * @param is   the input stream
+     * @param type the digest algorithm
+     * @return the digest in hexadecimal
+     */
+    public static String hexDigest(InputStream is, DigestType type) {
+        return byteToHexString(digest(is, type));
+    }
+
+    /**
+     * Returns the hexadecimal digest of a file
+     *
+     * @param file the file
+     * @param type the digest algorithm
+     * @return the digest in hexadecimal
+     */
+    public static String hexDigest(File file, DigestType type) {
+        return byteToHexString(digest(file, type));
+    }
+
+    /**
+     * Returns the hexadecimal digest of an sobject's content
+     *
+     * @param sobj the sobject
+     * @param type the digest algorithm
+     * @return the digest in hexadecimal
+     */
+    public static String hexDigest(ISObject sobj, DigestType type) {
+        return byteToHexString(digest(sobj, type));
+    }
+
+    /**
+     * Returns the hexadecimal digests of a list of files. The files are
+     * digested in parallel in the {@link UtilConfig#getParallelPool() parallel pool}.
+     *
+     * @param files the files
+     * @param type  the digest algorithm
+     * @return the digests in hexadecimal, in the order of the files
+     */
+    public static List<String> hexDigest(List<File> files, final DigestType type) {
+        int n = files.size();
+        List<String> result = new ArrayList<>(n);
+        if (n < 2) {
+            for (File file : files) {
+                result.add(hexDigest(file, type));
+            }
+            return result;
+        }
+        ForkJoinPool pool = UtilConfig.getParallelPool();
+        List<ForkJoinTask<String>> tasks = new ArrayList<>(n);
+        for (final File file : files) {
+            tasks.add(pool.submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    return hexDigest(file, type);
+                }
+            }));
+        }
+        for (ForkJoinTask<String> task : tasks) {
+            result.add(task.join());
+        }
+        return result;
+    }
+
+    private static Hasher acquire(DigestType type) {
+        Hasher[] hashers = HASHERS.get();
+        Hasher hasher = hashers[type.ordinal()];
+        if (null == hasher) {
+            return new Hasher(type);
+        }
+        hashers[type.ordinal()] = null;
+        return hasher;
+    }
+
+    private static void release(Hasher hasher) {
+        hasher.reset();
+        HASHERS.get()[hasher.type.ordinal()] = hasher;
+    }
+
+    /**
+     * Computes a digest incrementally.
+     *
+     * The content can be fed in any number of updates, and the digest of the
+     * content so far can be taken at any time without ending the computation.
+     * Thus a hasher kept along with a file that is only appended to can
+     * {@link #resume(File) hash the appended bytes} rather than the whole file.
+     *
+     * A hasher is not thread safe.
+     */
+    public static final class Hasher {
+        private final DigestType type;
+        // exactly one of `md` and `checksum` is set
+        private final MessageDigest md;
+        private final Checksum checksum;
+        // the number of bytes hashed
+        private long length;
+
+        private Hasher(DigestType type) {
+            this.type = $.requireNotNull(type);
+            if (type.isChecksum()) {
+                md = null;
+                checksum = DigestType.CRC32C == type ? new CRC32C() : new CRC32();
+            } else {
+                checksum = null;
+                try {
+                    md = MessageDigest.getInstance(type.algorithm);
+                } catch (NoSuchAlgorithmException e) {
+                    throw E.unexpected(e);
+                }
+            }
+        }
+
+        /**
+         * Returns the digest algorithm
+         *
+         * @return the digest type
+         */
+        public DigestType type() {
+            return type;
+        }
+
+        /**
+         * Returns the number of bytes hashed so far
+         *
+         * @return the number of bytes hashed
+         */
+        public long length() {
+            return length;
+        }
+
+        public Hasher update(byte[] ba) {
+            return update(ba, 0, ba.length);
+        }
+
+        public Hasher update(byte[] ba, int off, int len) {
+            if (null != md) {
+                md.update(ba, off, len);
+            } else {
+                checksum.update(ba, off, len);
+            }
+            length += len;
+            return this;
+        }
+
+        /**
+         * Update with the string encoded in UTF-8
+         *
+         * @param s the string
+         * @return this hasher
+         */
+        public Hasher update(String s) {
+            return update(s.getBytes(Charsets.UTF_8));
+        }
+
+        /**
+         * Update with the remaining bytes of a buffer. Upon return the
+         * buffer's position equals its limit.
+         *
+         * @param buffer the byte buffer
+         * @return this hasher
+         */
+        public Hasher update(ByteBuffer buffer) {
+            int len = buffer.remaining();
+            if (null != md) {
+                md.update(buffer);
+            } else if (checksum instanceof CRC32C) {
+                ((CRC32C) checksum).update(buffer);
+            } else if (buffer.hasArray()) {
+                checksum.update(buffer.array(), buffer.arrayOffset() + buffer.position(), len);
+                buffer.position(buffer.limit());
+            } else {
+                byte[] buf = BUF.get();
+                while (buffer.hasRemaining()) {
+                    int n = Math.min(buf.length, buffer.remaining());
+                    buffer.get(buf, 0, n);
+                    checksum.update(buf, 0, n);
+                }
+            }
+            length += len;
+            return this;
+        }
+
+        /**
+         * Update with the content read from an input stream till the end of
+         * stream. The stream is not closed.
+         *
+         * @param is the input stream
+         * @return this hasher
+         */
+        public Hasher update(InputStream is) {
+            byte[] buf = new byte[BUF_SIZE];
+            try {
+                int n;
+                while ((n = is.read(buf)) > -1) {
+                    update(buf, 0, n);
+                }
+            } catch (IOException e) {
+                throw E.ioException(e);
+            }
+            return this;
+        }
+
+        /**
+         * Update with the content of a file
+         *
+         * @param file the file
+         * @return this hasher
+         */
+        public Hasher update(File file) {
+            return update(file, 0L);
+        }
+
+        /**
+         * Update with the content of an sobject. The content is streamed
+         * rather than loaded into memory.
+         *
+         * @param sobj the sobject
+         * @return this hasher
+         */
+        public Hasher update(ISObject sobj) {
+            if (sobj instanceof SObject.FileSObject) {
+                return update(sobj.asFile());
+            }
+            InputStream is = sobj.asInputStream();
+            try {
+                return update(is);
+            } finally {
+                IO.close(is);
+            }
+        }
+
+        /**
+         * Update with the bytes of a file beyond the {@link #length() number of
+         * bytes hashed so far}. This is meant to be called on a hasher that has
+         * only been updated with the same file, to continue hashing after the
+         * file has been appended to.
+         *
+         * @param file the file that has been appended to
+         * @return this hasher
+         */
+        public Hasher resume(File file) {
+            return update(file, length);
+        }
+
+        /**
+         * Returns the digest of the content so far. The hasher can still be
+         * updated afterwards.
+         *
+         * @return the digest
+         */
+        public byte[] digest() {
+            if (null != md) {
+                return cloneOf(md).digest();
+            }
+            return checksumBytes();
+        }
+
+        /**
+         * Returns the hexadecimal digest of the content so far. The hasher can
+         * still be updated afterwards.
+         *
+         * @return the digest in hexadecimal
+         */
+        public String hexDigest() {
+            return byteToHexString(digest());
+        }
+
+        /**
+         * Reset this hasher to the initial state
+         *
+         * @return this hasher
+         */
+        public Hasher reset() {
+            if (null != md) {
+                md.reset();
+            } else {
+                checksum.reset();
+            }
+            length = 0;
+            return this;
+        }
+
+        // returns the digest, the hasher shall be reset before it is reused
+        private byte[] finish() {
+            return null != md ? md.digest() : checksumBytes();
+        }
+
+        private byte[] checksumBytes() {
+            int v = (int) checksum.getValue();
+            return new byte[]{(byte) (v >>> 24), (byte) (v >>> 16), (byte) (v >>> 8), (byte) v};
+        }
+
+        private Hasher update(File file, long position) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                // read through the reused buffer rather than mapping the file,
+                // a mapped region stays mapped until its buffer is collected
+                byte[] buf = BUF.get();
+                ByteBuffer buffer = ByteBuffer.wrap(buf);
+                int n;
+                while ((n = channel.read(buffer, position)) > 0) {
+                    update(buf, 0, n);
+                    position += n;
+                    buffer.clear();
+                }
+                return this;
+            } catch (java.nio.file.AccessDeniedException e) {
+                throw new AccessDeniedException(e);
+            } catch (NoSuchFileException e) {
+                throw new ResourceNotFoundException(e);
+            } catch (IOException e) {
+                throw E.ioException(e);
+            }
+        }
+
+        private static MessageDigest cloneOf(MessageDigest md) {
+            try {
+                return (MessageDigest) md.clone();
+            } catch (CloneNotSupportedException e) {
+                throw E.unsupport("digest %s cannot be copied", md.getAlgorithm());
+            }
         }
     }
 
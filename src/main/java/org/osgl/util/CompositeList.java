@@ -77,7 +77,7 @@ public class CompositeList<T> extends ListBase<T> implements C.List<T>, Serializ
             l = left.listIterator(index);
             r = right.listIterator();
         } else {
-            l = left.listIterator();
+            l = left.listIterator(sz);
             r = right.listIterator(index - sz);
         }
 
@@ -40,18 +40,31 @@ package org.osgl.util;
  */
 
 import com.alibaba.fastjson.JSON;
-
-import java.io.UnsupportedEncodingException;
+import org.osgl.$;
+import org.osgl.Lang;
+import org.osgl.storage.ISObject;
+import org.osgl.storage.impl.SObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import javax.crypto.AEADBadTagException;
 import javax.crypto.Cipher;
 import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -66,6 +79,16 @@ public enum Crypto {
     private static CryptoService svc;
     private static final String ALGO = "AES/CBC/PKCS5Padding";
 
+    // SecureRandom is thread safe, seeding a new one for every call is expensive
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // the max number of idle Mac/Cipher instances kept by a keyed context
+    private static final int POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    // contexts used by the static sign/encrypt/decrypt methods, keyed by a digest of algorithm and key
+    private static final TinyLFUCache<ContextId, Signer> signers = new TinyLFUCache<>(256);
+    private static final TinyLFUCache<ContextId, AES> aesContexts = new TinyLFUCache<>(256);
+
     public static void setCryptoService(CryptoService service) {
         SecurityManager security = System.getSecurityManager();
        	if (security != null) {
@@ -110,7 +133,7 @@ public enum Crypto {
     }
 
     public static char[] generatePassword(char[] ca) {
-        return generatePassword(ca, new SecureRandom());
+        return generatePassword(ca, RANDOM);
     }
 
     private static char[] generatePassword(char[] ca, Random r) {
@@ -128,6 +151,24 @@ public enum Crypto {
         return ca;
     }
 
+    /**
+     * Define the MAC algorithms used to sign messages
+     */
+    public enum MacType {
+        HMAC_SHA1("HmacSHA1"),
+        HMAC_SHA256("HmacSHA256");
+        private String algorithm;
+
+        MacType(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public String toString() {
+            return this.algorithm;
+        }
+    }
+
     /**
      * Sign a message with a key
      *
@@ -136,33 +177,28 @@ public enum Crypto {
      * @return The signed message (in hexadecimal)
      */
     public static String sign(String message, byte[] key) {
+        return sign(message, key, MacType.HMAC_SHA1);
+    }
 
+    /**
+     * Sign a message with a key using specific MAC algorithm
+     *
+     * @param message The message to sign
+     * @param key     The key to use
+     * @param macType The MAC algorithm
+     * @return The signed message (in hexadecimal)
+     */
+    public static String sign(String message, byte[] key, MacType macType) {
         if (key.length == 0) {
             return message;
         }
-
-        try {
-            Mac mac = Mac.getInstance("HmacSHA1");
-            SecretKeySpec signingKey = new SecretKeySpec(key, "HmacSHA1");
-            mac.init(signingKey);
-            byte[] messageBytes = message.getBytes("utf-8");
-            byte[] result = mac.doFinal(messageBytes);
-            int len = result.length;
-            char[] hexChars = new char[len * 2];
-
-
-            for (int charIndex = 0, startIndex = 0; charIndex < hexChars.length; ) {
-                int bite = result[startIndex++] & 0xff;
-                hexChars[charIndex++] = HEX_CHARS[bite >> 4];
-                hexChars[charIndex++] = HEX_CHARS[bite & 0xf];
-            }
-            return new String(hexChars);
-        } catch (UnsupportedEncodingException ex) {
-            throw E.encodingException(ex);
-        } catch (Exception ex) {
-            throw E.unexpected(ex);
+        ContextId id = new ContextId(macType.algorithm, key, null);
+        Signer signer = signers.get(id);
+        if (null == signer) {
+            signer = new Signer(key, macType);
+            signers.set(id, signer);
         }
-
+        return signer.sign(message);
     }
 
     /**
@@ -246,28 +282,10 @@ public enum Crypto {
         }
         try {
             if (null != svc) return svc.encrypt(value, privateKey);
-            MessageDigest md = MessageDigest.getInstance("SHA-384");
-            md.update(privateKey);
-            byte[] ba = md.digest();
-            byte[] key = new byte[32], iv = new byte[16];
-            System.arraycopy(ba, 0, key, 0, 32);
-            SecureRandom sr = new SecureRandom();
-            sr.nextBytes(iv);
-
-            SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
-            IvParameterSpec ivSpec = new IvParameterSpec(iv);
-            Cipher cipher = Cipher.getInstance(ALGO);
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec, ivSpec);
-            ba = cipher.doFinal(value.getBytes(Charsets.UTF_8));
-
-            byte[] ba2 = new byte[ba.length + 16];
-            System.arraycopy(ba, 0, ba2, 0, ba.length);
-            System.arraycopy(iv, 0, ba2, ba.length, 16);
-
-            return Codec.byteToHexString(ba2);
         } catch (Exception ex) {
             throw E.unexpected(ex);
         }
+        return aesContext(privateKey, null).encrypt(value);
     }
 
     /**
@@ -299,23 +317,10 @@ public enum Crypto {
         }
         try {
             if (null != svc) return svc.encrypt(value, privateKey, salt);
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            md.update(privateKey);
-            byte[] key = md.digest();
-            md = MessageDigest.getInstance("SHA-1");
-            md.update(salt);
-            byte[] tmp = md.digest();
-            byte[] iv = new byte[16];
-            System.arraycopy(tmp, 0, iv, 0, 16);
-            SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
-            IvParameterSpec ivSpec = new IvParameterSpec(iv);
-            Cipher cipher = Cipher.getInstance(ALGO);
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec, ivSpec);
-            byte[] ba = cipher.doFinal(value.getBytes("utf-8"));
-            return Codec.byteToHexString(ba);
         } catch (Exception ex) {
             throw E.unexpected(ex);
         }
+        return aesContext(privateKey, salt).encrypt(value);
     }
 
 
@@ -346,24 +351,10 @@ public enum Crypto {
         }
         try {
             if (null != svc) return svc.decrypt(value, privateKey);
-            byte[] ba0 = Codec.hexStringToByte(value);
-            byte[] baVal = new byte[ba0.length - 16];
-            System.arraycopy(ba0, 0, baVal, 0, ba0.length - 16);
-            MessageDigest md = MessageDigest.getInstance("SHA-384");
-            md.update(privateKey);
-            byte[] ba = md.digest();
-            byte[] key = new byte[32], iv = new byte[16];
-            System.arraycopy(ba, 0, key, 0, 32);
-            System.arraycopy(ba0, ba0.length - 16, iv, 0, 16);
-            SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
-            IvParameterSpec ivSpec = new IvParameterSpec(iv);
-            Cipher cipher = Cipher.getInstance(ALGO);
-            cipher.init(Cipher.DECRYPT_MODE, keySpec, ivSpec);
-            ba = cipher.doFinal(baVal);
-            return new String(ba);
         } catch (Exception ex) {
             throw E.unexpected(ex);
         }
+        return aesContext(privateKey, null).decrypt(value);
     }
 
 
@@ -396,24 +387,875 @@ public enum Crypto {
         }
         try {
             if (null != svc) return svc.decrypt(value, privateKey, salt);
-            byte[] baVal = Codec.hexStringToByte(value);
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            md.update(privateKey);
-            byte[] key = md.digest();
-            md = MessageDigest.getInstance("SHA-1");
-            md.update(salt);
-            byte[] tmp = md.digest();
-            byte[] iv = new byte[16];
-            System.arraycopy(tmp, 0, iv, 0, 16);
-            SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
-            IvParameterSpec ivSpec = new IvParameterSpec(iv);
-            Cipher cipher = Cipher.getInstance(ALGO);
-            cipher.init(Cipher.DECRYPT_MODE, keySpec, ivSpec);
-            byte[] ba = cipher.doFinal(baVal);
-            return new String(ba);
         } catch (Exception ex) {
             throw E.unexpected(ex);
         }
+        return aesContext(privateKey, salt).decrypt(value);
+    }
+
+    /**
+     * Returns a {@link Signer} that signs messages with HMAC-SHA1
+     *
+     * @param key the key to use
+     * @return the signer
+     */
+    public static Signer signer(byte[] key) {
+        return signer(key, MacType.HMAC_SHA1);
+    }
+
+    /**
+     * Returns a {@link Signer} that signs messages with the MAC algorithm specified
+     *
+     * @param key     the key to use
+     * @param macType the MAC algorithm
+     * @return the signer
+     */
+    public static Signer signer(byte[] key, MacType macType) {
+        return new Signer(key, macType);
+    }
+
+    /**
+     * Returns an {@link AES} context that encrypts and decrypts like
+     * {@link #encryptAES(String, byte[])} and {@link #decryptAES(String, byte[])}
+     *
+     * @param privateKey the key to use
+     * @return the AES context
+     */
+    public static AES aes(byte[] privateKey) {
+        return new AES(privateKey, null);
+    }
+
+    /**
+     * Returns an {@link AES} context that encrypts and decrypts like
+     * {@link #encryptAES(String, byte[], byte[])} and {@link #decryptAES(String, byte[], byte[])}
+     *
+     * @param privateKey the key to use
+     * @param salt       the salt
+     * @return the AES context
+     */
+    public static AES aes(byte[] privateKey, byte[] salt) {
+        return new AES(privateKey, salt);
+    }
+
+    /**
+     * Returns a {@link StreamingAES} context that encrypts and decrypts streams
+     * in segments of {@link StreamingAES#DEFAULT_SEGMENT_SIZE}
+     *
+     * @param privateKey the key to use
+     * @return the streaming AES context
+     */
+    public static StreamingAES streamingAES(byte[] privateKey) {
+        return new StreamingAES(privateKey, StreamingAES.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Returns a {@link StreamingAES} context that encrypts streams in segments
+     * of the size specified. Streams encrypted with any segment size can be
+     * decrypted by the context.
+     *
+     * @param privateKey  the key to use
+     * @param segmentSize the number of plain bytes in a segment
+     * @return the streaming AES context
+     */
+    public static StreamingAES streamingAES(byte[] privateKey, int segmentSize) {
+        return new StreamingAES(privateKey, segmentSize);
+    }
+
+    private static AES aesContext(byte[] privateKey, byte[] salt) {
+        ContextId id = new ContextId("AES", privateKey, salt);
+        AES aes = aesContexts.get(id);
+        if (null == aes) {
+            aes = new AES(privateKey, salt);
+            aesContexts.set(id, aes);
+        }
+        return aes;
+    }
+
+    /*
+     * Identifies a cached context by the SHA-256 digest of its algorithm,
+     * key and salt, so the cache does not keep a copy of the key and a
+     * lookup costs a single digest block for typical keys.
+     */
+    private static final class ContextId {
+        private final byte[] digest;
+        private final int hc;
+
+        ContextId(String algorithm, byte[] key, byte[] salt) {
+            byte[] algo = algorithm.getBytes(StandardCharsets.US_ASCII);
+            int saltLen = null == salt ? 0 : salt.length;
+            // length prefixed so that different splits never collide
+            ByteBuffer buf = ByteBuffer.allocate(12 + algo.length + key.length + saltLen);
+            buf.putInt(algo.length).put(algo).putInt(key.length).put(key);
+            if (null == salt) {
+                buf.putInt(-1);
+            } else {
+                buf.putInt(saltLen).put(salt);
+            }
+            byte[] material = buf.array();
+            try {
+                digest = Codec.digest(material, Codec.DigestType.SHA256);
+            } finally {
+                Arrays.fill(material, (byte) 0);
+            }
+            hc = Arrays.hashCode(digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hc;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this || (obj instanceof ContextId && Arrays.equals(digest, ((ContextId) obj).digest));
+        }
+    }
+
+    /*
+     * A bounded pool of instances that are expensive to create and not
+     * thread safe. Instances are created on demand when the pool is empty
+     * and dropped when the pool is full.
+     */
+    private abstract static class Pool<T> {
+        private final ArrayBlockingQueue<T> idle = new ArrayBlockingQueue<>(POOL_SIZE);
+
+        abstract T create() throws GeneralSecurityException;
+
+        T acquire() throws GeneralSecurityException {
+            T t = idle.poll();
+            return null == t ? create() : t;
+        }
+
+        void release(T t) {
+            idle.offer(t);
+        }
+    }
+
+    /**
+     * Signs messages with a key.
+     *
+     * The key is set up once when the signer is created, and the
+     * {@link Mac} instances are reused across calls. A signer is thread
+     * safe and is meant to be kept for as long as the key is used.
+     */
+    public static final class Signer {
+        private final SecretKeySpec keySpec;
+        // never used to sign, only cloned
+        private final Mac prototype;
+        private final Pool<Mac> macs = new Pool<Mac>() {
+            @Override
+            Mac create() throws GeneralSecurityException {
+                try {
+                    // a clone keeps the key set up of the prototype
+                    return (Mac) prototype.clone();
+                } catch (CloneNotSupportedException e) {
+                    Mac mac = Mac.getInstance(keySpec.getAlgorithm());
+                    mac.init(keySpec);
+                    return mac;
+                }
+            }
+        };
+
+        private Signer(byte[] key, MacType macType) {
+            E.illegalArgumentIf(key.length == 0, "key shall not be empty");
+            keySpec = new SecretKeySpec(key, macType.algorithm);
+            try {
+                prototype = Mac.getInstance(macType.algorithm);
+                prototype.init(keySpec);
+            } catch (GeneralSecurityException e) {
+                throw E.unexpected(e);
+            }
+        }
+
+        /**
+         * Sign a message
+         *
+         * @param message the message to sign
+         * @return the signature
+         */
+        public byte[] sign(byte[] message) {
+            try {
+                Mac mac = macs.acquire();
+                byte[] result = mac.doFinal(message);
+                macs.release(mac);
+                return result;
+            } catch (GeneralSecurityException e) {
+                throw E.unexpected(e);
+            }
+        }
+
+        /**
+         * Sign a message
+         *
+         * @param message the message to sign
+         * @return the signature in hexadecimal
+         */
+        public String sign(String message) {
+            byte[] result = sign(message.getBytes(Charsets.UTF_8));
+            int len = result.length;
+            char[] hexChars = new char[len * 2];
+            for (int charIndex = 0, startIndex = 0; charIndex < hexChars.length; ) {
+                int bite = result[startIndex++] & 0xff;
+                hexChars[charIndex++] = HEX_CHARS[bite >> 4];
+                hexChars[charIndex++] = HEX_CHARS[bite & 0xf];
+            }
+            return new String(hexChars);
+        }
+
+        /**
+         * Check the signature of a message. The signature is compared in
+         * constant time.
+         *
+         * @param message   the message
+         * @param signature the signature in hexadecimal
+         * @return `true` if the signature matches the message
+         */
+        public boolean verify(String message, String signature) {
+            if (null == signature) {
+                return false;
+            }
+            byte[] expected = sign(message).getBytes(Charsets.UTF_8);
+            return MessageDigest.isEqual(expected, signature.getBytes(Charsets.UTF_8));
+        }
+    }
+
+    /**
+     * Encrypts and decrypts with AES using a key.
+     *
+     * The AES key is derived from the private key once when the context
+     * is created, and the {@link Cipher} instances are reused across
+     * calls. A context is thread safe and is meant to be kept for as long
+     * as the key is used.
+     *
+     * Without salt each encryption uses a random IV, which is appended to
+     * the cipher text. With salt the IV is derived from the salt, thus the
+     * same value is always encrypted to the same cipher text.
+     */
+    public static final class AES {
+        private final SecretKeySpec keySpec;
+        // the IV derived from the salt, `null` if the IV is random
+        private final IvParameterSpec iv;
+        private final Pool<Cipher> ciphers = new Pool<Cipher>() {
+            @Override
+            Cipher create() throws GeneralSecurityException {
+                return Cipher.getInstance(ALGO);
+            }
+        };
+
+        private AES(byte[] privateKey, byte[] salt) {
+            try {
+                if (null == salt) {
+                    byte[] ba = MessageDigest.getInstance("SHA-384").digest(privateKey);
+                    keySpec = new SecretKeySpec(ba, 0, 32, "AES");
+                    iv = null;
+                } else {
+                    keySpec = new SecretKeySpec(MessageDigest.getInstance("SHA-256").digest(privateKey), "AES");
+                    iv = new IvParameterSpec(MessageDigest.getInstance("SHA-1").digest(salt), 0, 16);
+                }
+            } catch (NoSuchAlgorithmException e) {
+                throw E.unexpected(e);
+            }
+        }
+
+        /**
+         * Encrypt a String
+         *
+         * @param value the String to encrypt
+         * @return An hexadecimal encrypted string
+         */
+        public String encrypt(String value) {
+            if (null == value) {
+                return null;
+            }
+            return Codec.byteToHexString(encrypt(value.getBytes(Charsets.UTF_8)));
+        }
+
+        /**
+         * Encrypt bytes
+         *
+         * @param value the bytes to encrypt
+         * @return the encrypted bytes
+         */
+        public byte[] encrypt(byte[] value) {
+            try {
+                Cipher cipher = ciphers.acquire();
+                byte[] result;
+                if (null != iv) {
+                    cipher.init(Cipher.ENCRYPT_MODE, keySpec, iv);
+                    result = cipher.doFinal(value);
+                } else {
+                    byte[] randomIv = new byte[16];
+                    RANDOM.nextBytes(randomIv);
+                    cipher.init(Cipher.ENCRYPT_MODE, keySpec, new IvParameterSpec(randomIv));
+                    result = new byte[cipher.getOutputSize(value.length) + 16];
+                    int len = cipher.doFinal(value, 0, value.length, result, 0);
+                    System.arraycopy(randomIv, 0, result, len, 16);
+                    if (len + 16 < result.length) {
+                        result = Arrays.copyOf(result, len + 16);
+                    }
+                }
+                ciphers.release(cipher);
+                return result;
+            } catch (GeneralSecurityException e) {
+                throw E.unexpected(e);
+            }
+        }
+
+        /**
+         * Decrypt a String
+         *
+         * @param value An hexadecimal encrypted string
+         * @return The decrypted String
+         */
+        public String decrypt(String value) {
+            if (null == value) {
+                return null;
+            }
+            return new String(decrypt(Codec.hexStringToByte(value)), Charsets.UTF_8);
+        }
+
+        /**
+         * Decrypt bytes
+         *
+         * @param value the encrypted bytes
+         * @return the decrypted bytes
+         */
+        public byte[] decrypt(byte[] value) {
+            try {
+                Cipher cipher = ciphers.acquire();
+                byte[] result;
+                if (null != iv) {
+                    cipher.init(Cipher.DECRYPT_MODE, keySpec, iv);
+                    result = cipher.doFinal(value);
+                } else {
+                    int len = value.length - 16;
+                    E.illegalArgumentIf(len < 0, "invalid encrypted value");
+                    cipher.init(Cipher.DECRYPT_MODE, keySpec, new IvParameterSpec(value, len, 16));
+                    result = cipher.doFinal(value, 0, len);
+                }
+                ciphers.release(cipher);
+                return result;
+            } catch (GeneralSecurityException e) {
+                throw E.unexpected(e);
+            }
+        }
+    }
+
+    /**
+     * Encrypts and decrypts streams with AES-GCM using a key.
+     *
+     * The content is split into segments of a fixed size, and each
+     * segment is encrypted and authenticated on its own, thus a stream of
+     * any length is processed with a constant amount of memory, and any
+     * change to the encrypted stream is detected when the segment is
+     * decrypted rather than at the end of the stream. The output is binary
+     * and is about 16 bytes per segment larger than the input.
+     *
+     * The encrypted stream starts with a header made up of a version byte,
+     * the segment size, a random salt and a random nonce prefix. Each
+     * stream is encrypted with its own key derived from the private key
+     * and the header with HMAC-SHA256. The nonce of a segment is made up
+     * of the nonce prefix, the segment number and a flag marking the last
+     * segment, thus reordered, dropped or truncated segments fail the
+     * authentication.
+     *
+     * A context is thread safe, the streams it creates are not.
+     */
+    public static final class StreamingAES {
+
+        /**
+         * The default number of plain bytes in a segment.
+         */
+        public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+        private static final String ALGO_GCM = "AES/GCM/NoPadding";
+        private static final byte VERSION = 1;
+        private static final int MIN_SEGMENT_SIZE = 64;
+        private static final int MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+        private static final int SALT_SIZE = 16;
+        private static final int NONCE_PREFIX_SIZE = 7;
+        private static final int NONCE_SIZE = NONCE_PREFIX_SIZE + 5;
+        private static final int TAG_SIZE = 16;
+        private static final int HEADER_SIZE = 1 + 4 + SALT_SIZE + NONCE_PREFIX_SIZE;
+
+        private final Signer keyDeriver;
+        private final int segmentSize;
+
+        private StreamingAES(byte[] privateKey, int segmentSize) {
+            E.illegalArgumentIf(segmentSize < MIN_SEGMENT_SIZE || segmentSize > MAX_SEGMENT_SIZE,
+                    "segment size shall be between %s and %s", MIN_SEGMENT_SIZE, MAX_SEGMENT_SIZE);
+            this.keyDeriver = new Signer(privateKey, MacType.HMAC_SHA256);
+            this.segmentSize = segmentSize;
+        }
+
+        /**
+         * Returns an output stream that encrypts the bytes written into it and
+         * writes the result to the sink. The stream must be closed to write out
+         * the last segment, which also closes the sink.
+         *
+         * Note {@link OutputStream#flush()} only flushes the segments that are
+         * complete.
+         *
+         * @param sink the output stream to write the encrypted bytes to
+         * @return an encrypting output stream
+         */
+        public OutputStream encrypt(OutputStream sink) {
+            return new EncryptingOutputStream($.requireNotNull(sink));
+        }
+
+        /**
+         * Returns an input stream that reads the bytes of the source encrypted.
+         *
+         * @param source the input stream of plain bytes
+         * @return an input stream of the encrypted bytes
+         */
+        public InputStream encrypt(InputStream source) {
+            return new EncryptingInputStream($.requireNotNull(source));
+        }
+
+        /**
+         * Returns an input stream that decrypts the bytes read from the source.
+         *
+         * An {@link IOException} is raised by the read call that reaches a
+         * segment that has been tampered with, or the end of a truncated stream.
+         *
+         * @param source the input stream of encrypted bytes
+         * @return an input stream of the decrypted bytes
+         */
+        public InputStream decrypt(InputStream source) {
+            return new DecryptingInputStream($.requireNotNull(source));
+        }
+
+        /**
+         * Returns an sobject with the content of the given sobject encrypted.
+         * The content is encrypted when it is read from the returned sobject.
+         *
+         * @param sobj the sobject to encrypt
+         * @return the encrypted sobject
+         */
+        public ISObject encrypt(ISObject sobj) {
+            return SObject.of(sobj.getKey(), encrypt(sobj.asInputStream()), attributesOf(sobj));
+        }
+
+        /**
+         * Returns an sobject with the content of the given sobject decrypted.
+         * The content is decrypted when it is read from the returned sobject.
+         *
+         * @param sobj the sobject to decrypt
+         * @return the decrypted sobject
+         */
+        public ISObject decrypt(ISObject sobj) {
+            return SObject.of(sobj.getKey(), decrypt(sobj.asInputStream()), attributesOf(sobj));
+        }
+
+        /**
+         * Encrypt a file into another file
+         *
+         * @param source the file to encrypt
+         * @param target the file to write the encrypted bytes to
+         * @return the number of bytes encrypted
+         */
+        public long encrypt(File source, File target) {
+            return IO.write(source).transform(encryptor()).to(target);
+        }
+
+        /**
+         * Decrypt a file into another file
+         *
+         * @param source the encrypted file
+         * @param target the file to write the decrypted bytes to
+         * @return the number of bytes decrypted
+         */
+        public long decrypt(File source, File target) {
+            return IO.write(decrypt(IO.inputStream(source))).to(target);
+        }
+
+        /**
+         * Returns a function that wraps an output stream with {@link #encrypt(OutputStream)},
+         * which can be used as a {@link IO.WriteStageBase#transform(Lang.Function) write transform}.
+         *
+         * @return the encryptor function
+         */
+        public $.Function<OutputStream, OutputStream> encryptor() {
+            return new $.Function<OutputStream, OutputStream>() {
+                @Override
+                public OutputStream apply(OutputStream sink) {
+                    return encrypt(sink);
+                }
+            };
+        }
+
+        /**
+         * Returns a function that wraps an input stream with {@link #decrypt(InputStream)},
+         * which can be used as a {@link IO.ReadStageBase#transform(Lang.Function) read transform}.
+         *
+         * @return the decryptor function
+         */
+        public $.Function<InputStream, InputStream> decryptor() {
+            return new $.Function<InputStream, InputStream>() {
+                @Override
+                public InputStream apply(InputStream source) {
+                    return decrypt(source);
+                }
+            };
+        }
+
+        // the length is not known until the content is read
+        private static Map<String, String> attributesOf(ISObject sobj) {
+            Map<String, String> attrs = new HashMap<>(sobj.getAttributes());
+            attrs.remove(ISObject.ATTR_CONTENT_LENGTH);
+            return attrs;
+        }
+
+        // read until `len` bytes are read or the end of stream is reached
+        private static int fill(InputStream is, byte[] buf, int off, int len) throws IOException {
+            int n = 0;
+            while (n < len) {
+                int read = is.read(buf, off + n, len - n);
+                if (read < 0) {
+                    break;
+                }
+                n += read;
+            }
+            return n;
+        }
+
+        /*
+         * The cipher state of a single stream
+         */
+        private final class Segments {
+            private final byte[] header;
+            private final int segmentSize;
+            private final SecretKeySpec keySpec;
+            private final Cipher cipher;
+            private final byte[] nonce = new byte[NONCE_SIZE];
+            private int counter;
+            private boolean exhausted;
+
+            // start a new stream
+            Segments() {
+                header = new byte[HEADER_SIZE];
+                header[0] = VERSION;
+                writeInt(header, 1, StreamingAES.this.segmentSize);
+                byte[] random = new byte[SALT_SIZE + NONCE_PREFIX_SIZE];
+                RANDOM.nextBytes(random);
+                System.arraycopy(random, 0, header, 5, random.length);
+                segmentSize = StreamingAES.this.segmentSize;
+                keySpec = new SecretKeySpec(keyDeriver.sign(header), "AES");
+                cipher = newCipher();
+            }
+
+            // continue a stream with the header read from it
+            Segments(byte[] header) throws IOException {
+                if (VERSION != header[0]) {
+                    throw new IOException("unsupported encrypted stream version: " + header[0]);
+                }
+                this.header = header;
+                segmentSize = readInt(header, 1);
+                if (segmentSize < MIN_SEGMENT_SIZE || segmentSize > MAX_SEGMENT_SIZE) {
+                    throw new IOException("invalid encrypted stream segment size: " + segmentSize);
+                }
+                keySpec = new SecretKeySpec(keyDeriver.sign(header), "AES");
+                cipher = newCipher();
+            }
+
+            // encrypt a segment, returns the number of bytes written into `out`
+            int seal(byte[] in, int off, int len, byte[] out, boolean last) throws IOException {
+                try {
+                    cipher.init(Cipher.ENCRYPT_MODE, keySpec, nextNonce(last));
+                    cipher.updateAAD(header);
+                    return cipher.doFinal(in, off, len, out, 0);
+                } catch (GeneralSecurityException e) {
+                    throw E.unexpected(e);
+                }
+            }
+
+            // decrypt a segment, returns the number of bytes written into `out`
+            int open(byte[] in, int off, int len, byte[] out, boolean last) throws IOException {
+                try {
+                    cipher.init(Cipher.DECRYPT_MODE, keySpec, nextNonce(last));
+                    cipher.updateAAD(header);
+                    return cipher.doFinal(in, off, len, out, 0);
+                } catch (AEADBadTagException e) {
+                    throw new IOException("encrypted stream is corrupted or truncated at segment " + (counter - 1), e);
+                } catch (GeneralSecurityException e) {
+                    throw E.unexpected(e);
+                }
+            }
+
+            private GCMParameterSpec nextNonce(boolean last) throws IOException {
+                if (exhausted) {
+                    throw new IOException("too many segments in encrypted stream");
+                }
+                System.arraycopy(header, HEADER_SIZE - NONCE_PREFIX_SIZE, nonce, 0, NONCE_PREFIX_SIZE);
+                writeInt(nonce, NONCE_PREFIX_SIZE, counter++);
+                nonce[NONCE_SIZE - 1] = (byte) (last ? 1 : 0);
+                exhausted = 0 == counter;
+                return new GCMParameterSpec(TAG_SIZE * 8, nonce);
+            }
+
+            private Cipher newCipher() {
+                try {
+                    return Cipher.getInstance(ALGO_GCM);
+                } catch (GeneralSecurityException e) {
+                    throw E.unexpected(e);
+                }
+            }
+        }
+
+        private static void writeInt(byte[] ba, int off, int v) {
+            ba[off] = (byte) (v >>> 24);
+            ba[off + 1] = (byte) (v >>> 16);
+            ba[off + 2] = (byte) (v >>> 8);
+            ba[off + 3] = (byte) v;
+        }
+
+        private static int readInt(byte[] ba, int off) {
+            return ((ba[off] & 0xff) << 24) | ((ba[off + 1] & 0xff) << 16)
+                    | ((ba[off + 2] & 0xff) << 8) | (ba[off + 3] & 0xff);
+        }
+
+        /*
+         * A segment is only written once a byte after it has been written
+         * or the stream is closed, so that the last segment is known.
+         */
+        private final class EncryptingOutputStream extends OutputStream {
+            private final OutputStream out;
+            private final Segments segments = new Segments();
+            private final byte[] plain = new byte[segmentSize];
+            private final byte[] encrypted = new byte[segmentSize + TAG_SIZE];
+            private int pos;
+            private boolean headerWritten;
+            private boolean closed;
+
+            EncryptingOutputStream(OutputStream out) {
+                this.out = out;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                ensureOpen();
+                if (pos == plain.length) {
+                    writeSegment(plain, 0, pos, false);
+                    pos = 0;
+                }
+                plain[pos++] = (byte) b;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                ensureOpen();
+                while (len > 0) {
+                    if (pos == plain.length) {
+                        writeSegment(plain, 0, pos, false);
+                        pos = 0;
+                    }
+                    if (0 == pos && len > plain.length) {
+                        // encrypt straight from the caller's array
+                        writeSegment(b, off, plain.length, false);
+                        off += plain.length;
+                        len -= plain.length;
+                        continue;
+                    }
+                    int n = Math.min(len, plain.length - pos);
+                    System.arraycopy(b, off, plain, pos, n);
+                    pos += n;
+                    off += n;
+                    len -= n;
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    writeSegment(plain, 0, pos, true);
+                    out.flush();
+                } finally {
+                    out.close();
+                }
+            }
+
+            private void writeSegment(byte[] b, int off, int len, boolean last) throws IOException {
+                if (!headerWritten) {
+                    out.write(segments.header);
+                    headerWritten = true;
+                }
+                out.write(encrypted, 0, segments.seal(b, off, len, encrypted, last));
+            }
+
+            private void ensureOpen() throws IOException {
+                if (closed) {
+                    throw new IOException("stream closed");
+                }
+            }
+        }
+
+        /*
+         * Reads a segment plus one byte ahead, the segment is the last one
+         * if the byte ahead is not there.
+         */
+        private final class EncryptingInputStream extends InputStream {
+            private final InputStream in;
+            private final Segments segments = new Segments();
+            private final byte[] plain = new byte[segmentSize + 1];
+            private final byte[] encrypted = new byte[segmentSize + TAG_SIZE];
+            // the bytes of the header first, then those of each segment
+            private byte[] buf = segments.header;
+            private int pos;
+            private int limit = HEADER_SIZE;
+            private int carry;
+            private boolean done;
+
+            EncryptingInputStream(InputStream in) {
+                this.in = in;
+            }
+
+            @Override
+            public int read() throws IOException {
+                if (pos == limit && !nextSegment()) {
+                    return -1;
+                }
+                return buf[pos++] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (0 == len) {
+                    return 0;
+                }
+                if (pos == limit && !nextSegment()) {
+                    return -1;
+                }
+                int n = Math.min(len, limit - pos);
+                System.arraycopy(buf, pos, b, off, n);
+                pos += n;
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return limit - pos;
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+
+            private boolean nextSegment() throws IOException {
+                if (done) {
+                    return false;
+                }
+                int n = carry + fill(in, plain, carry, segmentSize + 1 - carry);
+                boolean last = n <= segmentSize;
+                buf = encrypted;
+                pos = 0;
+                if (last) {
+                    limit = segments.seal(plain, 0, n, encrypted, true);
+                    done = true;
+                } else {
+                    limit = segments.seal(plain, 0, segmentSize, encrypted, false);
+                    plain[0] = plain[segmentSize];
+                    carry = 1;
+                }
+                return true;
+            }
+        }
+
+        /*
+         * Reads a segment plus one byte ahead, the segment is the last one
+         * if the byte ahead is not there.
+         */
+        private final class DecryptingInputStream extends InputStream {
+            private final InputStream in;
+            private Segments segments;
+            private byte[] encrypted;
+            private byte[] plain;
+            private int pos;
+            private int limit;
+            private int carry;
+            private boolean done;
+
+            DecryptingInputStream(InputStream in) {
+                this.in = in;
+            }
+
+            @Override
+            public int read() throws IOException {
+                while (pos == limit) {
+                    if (!nextSegment()) {
+                        return -1;
+                    }
+                }
+                return plain[pos++] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (0 == len) {
+                    return 0;
+                }
+                while (pos == limit) {
+                    if (!nextSegment()) {
+                        return -1;
+                    }
+                }
+                int n = Math.min(len, limit - pos);
+                System.arraycopy(plain, pos, b, off, n);
+                pos += n;
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return limit - pos;
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+
+            private boolean nextSegment() throws IOException {
+                if (done) {
+                    return false;
+                }
+                if (null == segments) {
+                    byte[] header = new byte[HEADER_SIZE];
+                    if (fill(in, header, 0, HEADER_SIZE) < HEADER_SIZE) {
+                        throw new IOException("encrypted stream is truncated");
+                    }
+                    segments = new Segments(header);
+                    encrypted = new byte[segments.segmentSize + TAG_SIZE + 1];
+                    plain = new byte[segments.segmentSize];
+                }
+                int size = segments.segmentSize + TAG_SIZE;
+                int n = carry + fill(in, encrypted, carry, size + 1 - carry);
+                if (n < TAG_SIZE) {
+                    throw new IOException("encrypted stream is truncated");
+                }
+                boolean last = n <= size;
+                pos = 0;
+                if (last) {
+                    limit = segments.open(encrypted, 0, n, plain, true);
+                    done = true;
+                } else {
+                    limit = segments.open(encrypted, 0, size, plain, false);
+                    encrypted[0] = encrypted[size];
+                    carry = 1;
+                }
+                return true;
+            }
+        }
     }
 
     public static final String ALGO_RSA = "RSA";
@@ -475,7 +1317,7 @@ public enum Crypto {
      * @return the secret
      */
     public static String genSecret(int len) {
-        SecureRandom random = new SecureRandom();
+        SecureRandom random = RANDOM;
         byte[] bytes = new byte[len];
         random.nextBytes(bytes);
         String s = Codec.encodeUrlSafeBase64(bytes);
@@ -521,7 +1363,7 @@ public enum Crypto {
     public static String genRandomDigits(int len) {
         E.illegalArgumentIf(len < 1);
         if (len < 10) {
-            SecureRandom random = new SecureRandom();
+            SecureRandom random = RANDOM;
             int n = random.nextInt(POWER_OF_TEN[len]);
             int base = POWER_OF_TEN[len - 1];
             if (n < base) {
@@ -539,7 +1381,7 @@ public enum Crypto {
      * @see #genRandomDigits(int)
      */
     public static String genRandomDigits() {
-        SecureRandom random = new SecureRandom();
+        SecureRandom random = RANDOM;
         int n = random.nextInt(8) + 4;
         return genRandomDigits(n);
     }
@@ -572,7 +1414,7 @@ public enum Crypto {
     }
 
     private static String genRandomX(int len, char[] space, int spaceSize) {
-        SecureRandom random = new SecureRandom();
+        SecureRandom random = RANDOM;
         char[] ca = new char[len];
         for (int i = 0; i < len; ++i) {
             ca[i] = space[random.nextInt(spaceSize)];
@@ -586,7 +1428,7 @@ public enum Crypto {
      * @see #genRandomStr(int)
      */
     public static String genRandomStr() {
-        SecureRandom random = new SecureRandom();
+        SecureRandom random = RANDOM;
         int len = random.nextInt(12) + 4;
         return genRandomStr(len);
     }
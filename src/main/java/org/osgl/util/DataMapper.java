@@ -345,7 +345,7 @@ public class DataMapper {
         }
     }
 
-    class PropertyFilter extends $.Predicate<String> {
+    static class PropertyFilter extends $.Predicate<String> {
 
         /**
          * Keep a set of properties that can be copied.
@@ -353,28 +353,32 @@ public class DataMapper {
          * Note if both {@link #whiteList} and `blackList` contains
          * elements, then `whiteList` is ignored.
          */
-        private NameList whiteList = new NameList(rule.keywordMatching());
+        private NameList whiteList;
 
         /**
          * Keep a set of properties that shall not be copied.
          */
-        private NameList blackList = new NameList(rule.keywordMatching());
+        private NameList blackList;
 
         /**
          * Keep a set of properties that by default their sub properties shall
          * not be copied
          */
-        private NameList grayList = new NameList(rule.keywordMatching());
+        private NameList grayList;
 
         /**
          * Keep a set of property contexts that by default their sub properties
          * shall be copied
          */
-        private NameList greenList = new NameList(rule.keywordMatching());
+        private NameList greenList;
 
         private boolean allEmpty = true;
 
-        PropertyFilter(String spec) {
+        PropertyFilter(String spec, boolean keywordMatching) {
+            whiteList = new NameList(keywordMatching);
+            blackList = new NameList(keywordMatching);
+            grayList = new NameList(keywordMatching);
+            greenList = new NameList(keywordMatching);
             if (S.blank(spec)) {
                 return;
             }
@@ -530,9 +534,9 @@ public class DataMapper {
     private Class rootClass;
 
     /**
-     * Cache target fields
+     * The compiled mapping plans shared by mappers with the same settings
      */
-    private List<Field> targetFields;
+    private MappingPlan.Scope planScope;
 
     /**
      * Cache result of check if target is an array
@@ -623,7 +627,12 @@ public class DataMapper {
         this.rule = $.requireNotNull(rule);
         this.semantic = $.requireNotNull(semantic);
         E.illegalStateIf(this.semantic.isFlatCopy() && !Map.class.isAssignableFrom(this.targetType),"flat copy only applied when target type is Map");
-        this.filter = new PropertyFilter(filterSpec);
+        this.planScope = MappingPlan.scope(semantic, rule, filterSpec, null == specialMapping ? this.specialMapping : specialMapping);
+        this.filter = planScope.filter;
+        boolean newFilter = null == this.filter;
+        if (newFilter) {
+            this.filter = new PropertyFilter(filterSpec, rule.keywordMatching());
+        }
         this.conversionHints = null == conversionHints ? C.<Class, Object>Map() : conversionHints;
         this.instanceFactory = null == instanceFactory ? OsglConfig.globalInstanceFactory() : instanceFactory;
         this.source = source;
@@ -645,9 +654,15 @@ public class DataMapper {
                     s = S.cut(s).beforeLast(".");
                     this.intermediates.add(s);
                 }
-                this.filter.addIntoBlackList(entry.getValue());
+                if (newFilter) {
+                    this.filter.addIntoBlackList(entry.getValue());
+                }
             }
         }
+        if (newFilter) {
+            // the filter is fully built, share it with other mappers in the same scope
+            planScope.filter = this.filter;
+        }
         this.keyTransformer = keyTransformer;
         this.root = this;
         this.doMapping();
@@ -687,6 +702,7 @@ public class DataMapper {
         this.specialMappingsReversed = parentMapper.specialMappingsReversed;
         this.root = parentMapper.root;
         this.keyTransformer = parentMapper.keyTransformer;
+        this.planScope = parentMapper.planScope;
         this.doMapping();
     }
 
@@ -961,33 +977,25 @@ public class DataMapper {
         Set<String> mapped = new HashSet<>();
         Map<Object, Object> sourceMap = Map.class.isAssignableFrom(sourceType) ? (Map) source : null;
         Map<Keyword, Object> sourceMapByKeyword = null;
-        if (rule.keywordMatching()) {
+        if (rule.keywordMatching() && null != sourceMap) {
             sourceMapByKeyword = new HashMap<>();
-            if (null != sourceMap) {
-                for (Map.Entry<Object, Object> entry : sourceMap.entrySet()) {
-                    sourceMapByKeyword.put(Keyword.of(entry.getKey().toString()), entry.getValue());
-                }
-            } else {
-                for (Field sourceField : $.fieldsOf(sourceType)) {
-                    sourceMapByKeyword.put(Keyword.of(sourceField.getName()), sourceField);
-                }
+            for (Map.Entry<Object, Object> entry : sourceMap.entrySet()) {
+                sourceMapByKeyword.put(Keyword.of(entry.getKey().toString()), entry.getValue());
             }
         }
         String prefix = context.toString();
-        for (Field targetField : targetFields) {
-            Class<?> targetFieldType = targetField.getType();
+        MappingPlan plan = planScope.plan(null == sourceMap ? sourceType : null, targetType, rootClass, prefix, rule, filter, specialMapping);
+        for (MappingPlan.Property property : plan.properties) {
+            Class<?> targetFieldType = property.type;
             if (circularReferenceDetector.contains(targetFieldType)) {
                 continue;
             }
-            String targetFieldName = targetField.getName();
+            String targetFieldName = property.name;
             if (!ignoreGlobalFilter && OsglConfig.globalMappingFilter_shouldIgnore(targetFieldName)) {
                 continue;
             }
-            String key = S.notBlank(prefix) ? S.pathConcat(prefix, '.', targetFieldName) : targetFieldName;
-            if (!filter.test(key)) {
-                continue;
-            }
-            String specialMap = specialMapping.get(key);
+            String key = property.key;
+            String specialMap = property.specialMap;
             Object sourcePropValue = null;
             if (null != specialMap) {
                 if (source instanceof IntermediatePlaceHolder) {
@@ -1011,20 +1019,25 @@ public class DataMapper {
             }
             ParameterizedType targetFieldGenericType = null;
             if (null == sourcePropValue) {
-                Type type = targetField.getGenericType();
-                targetFieldGenericType = type instanceof ParameterizedType ? (ParameterizedType) type : null;
+                targetFieldGenericType = property.genericType;
+                String sourceName = null == specialMap ? targetFieldName : specialMap;
                 if (null != sourceMapByKeyword) {
-                    sourcePropValue = sourceMapByKeyword.get(Keyword.of(null == specialMap ? targetFieldName : specialMap));
+                    sourcePropValue = sourceMapByKeyword.get(Keyword.of(sourceName));
                     if (null == sourcePropValue) {
                         continue;
                     }
-                    if (sourcePropValue instanceof Field) {
-                        sourcePropValue = $.getFieldValue(source, (Field) sourcePropValue);
-                    }
                 } else if (null != sourceMap) {
-                    sourcePropValue = sourceMap.get(null == specialMap ? targetFieldName : specialMap);
+                    sourcePropValue = sourceMap.get(sourceName);
+                } else if (property.sourceResolved && S.eq(sourceName, property.sourceName)) {
+                    if (rule.keywordMatching() && !property.hasSource()) {
+                        continue;
+                    }
+                    sourcePropValue = property.sourceValue(source);
                 } else {
-                    Field sourceField = $.fieldOf(sourceType, null == specialMap ? targetFieldName : specialMap);
+                    Field sourceField = rule.keywordMatching() ? sourceFieldByKeyword(sourceName) : $.fieldOf(sourceType, sourceName);
+                    if (null == sourceField && rule.keywordMatching()) {
+                        continue;
+                    }
                     sourcePropValue = null == sourceField ? null : $.getFieldValue(source, sourceField);
                 }
             }
@@ -1034,39 +1047,46 @@ public class DataMapper {
                 }
                 if (null == sourcePropValue) {
                     if (semantic.isCopy()) {
-                        $.setFieldValue(target, targetField, $.convert(null).to(targetFieldType));
+                        property.set(target, $.convert(null).to(targetFieldType));
                     }
                     continue;
                 }
             }
 
-            if (semantic.isShallowCopy() || isTransient(targetField)) {
+            if (semantic.isShallowCopy() || property.isTransient) {
                 try {
-                    $.setFieldValue(target, targetField, sourcePropValue);
+                    property.set(target, sourcePropValue);
                 } catch (Exception e) {
                     logError(e, "Error setting field for shallow copy");
                 }
                 continue;
             }
 
-            boolean targetFieldIsContainer = isContainer(targetFieldType);
+            boolean targetFieldIsContainer = property.isContainer;
             if (!targetFieldIsContainer && !semantic.allowTypeConvert() && !isIntermediatePlaceHolder(sourcePropValue) && !$.is(sourcePropValue).allowBoxing().instanceOf(targetFieldType)) {
                 logError("Type mismatch copy source [%s] to field[%s|%s]", sourcePropValue.getClass().getName(), targetFieldName, targetFieldType.getName());
                 continue;
             }
 
-            Object targetFieldValue = $.getFieldValue(target, targetField);
+            Object targetFieldValue = property.get(target);
             targetFieldValue = prepareTargetComponent(
                     sourcePropValue, targetFieldValue, targetFieldType,
                     targetFieldGenericType, targetFieldIsContainer, targetFieldName);
-            $.setFieldValue(target, targetField, targetFieldValue);
+            property.set(target, targetFieldValue);
             mapped.add(key);
         }
         return mapped;
     }
 
-    private boolean isTransient(Field field) {
-        return Modifier.isTransient(field.getModifiers());
+    private Field sourceFieldByKeyword(String name) {
+        Keyword keyword = Keyword.of(name);
+        Field found = null;
+        for (Field sourceField : $.fieldsOf(sourceType)) {
+            if (keyword.equals(Keyword.of(sourceField.getName()))) {
+                found = sourceField;
+            }
+        }
+        return found;
     }
 
     private boolean isIntermediatePlaceHolder(Object o) {
@@ -1408,9 +1428,6 @@ public class DataMapper {
             targetLength = Array.getLength(target);
             targetComponentRawType = targetType.getComponentType();
         } else {
-            if (targetIsPojo) {
-                targetFields = $.fieldsOf(targetType, rootClass, true);
-            }
             if (null != targetGenericType) {
                 Type[] ta = targetGenericType.getActualTypeArguments();
                 Type componentType = null;
@@ -1583,7 +1600,7 @@ public class DataMapper {
             f = new Lang.Function() {
                 @Override
                 public Object apply(Object o) throws NotAppliedException, Lang.Break {
-                    return targetStyle.toString(Keyword.of(o.toString()));
+                    return Keyword.of(o.toString()).toString(targetStyle);
                 }
             };
             keywordTransformers.put(targetStyle, f);
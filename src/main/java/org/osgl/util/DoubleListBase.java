@@ -0,0 +1,271 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.algo.Algorithms;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Implements {@link C.DoubleList} operations on top of {@link #get(int)}
+ * and {@link #size()}. Sub classes override the operations they can do
+ * better.
+ */
+abstract class DoubleListBase implements C.DoubleList, Serializable {
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == size();
+    }
+
+    @Override
+    public double[] toArray() {
+        int sz = size();
+        double[] a = new double[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = get(i);
+        }
+        return a;
+    }
+
+    @Override
+    public C.DoubleList map(C.DoubleFunc mapper) {
+        int sz = size();
+        double[] a = new double[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = mapper.apply(get(i));
+        }
+        return new ImmutableDoubleList(a);
+    }
+
+    @Override
+    public C.DoubleList filter(C.DoublePredicate predicate) {
+        int sz = size();
+        double[] a = new double[sz];
+        int n = 0;
+        for (int i = 0; i < sz; ++i) {
+            double v = get(i);
+            if (predicate.test(v)) {
+                a[n++] = v;
+            }
+        }
+        return new ImmutableDoubleList(n == sz ? a : Arrays.copyOf(a, n));
+    }
+
+    @Override
+    public double reduce(double identity, C.DoubleFunc2 accumulator) {
+        double r = identity;
+        for (int i = 0, sz = size(); i < sz; ++i) {
+            r = accumulator.apply(r, get(i));
+        }
+        return r;
+    }
+
+    @Override
+    public double sum() {
+        double sum = 0;
+        for (int i = 0, sz = size(); i < sz; ++i) {
+            sum += get(i);
+        }
+        return sum;
+    }
+
+    @Override
+    public C.DoubleList sorted() {
+        double[] a = toArray();
+        Algorithms.arrayPrimitiveSort().sort(a, 0, a.length);
+        return new ImmutableDoubleList(a);
+    }
+
+    @Override
+    public int binarySearch(double key) {
+        int lo = 0;
+        int hi = size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            double v = get(mid);
+            int c = Double.compare(v, key);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    @Override
+    public C.List<Double> boxed() {
+        int sz = size();
+        if (0 == sz) {
+            return Nil.list();
+        }
+        Double[] a = new Double[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = get(i);
+        }
+        return C.listOf(a);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0, sz = size(); i < sz; ++i) {
+            long bits = Double.doubleToLongBits(get(i));
+            h = 31 * h + (int) (bits ^ (bits >>> 32));
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof C.DoubleList)) {
+            return false;
+        }
+        C.DoubleList that = (C.DoubleList) obj;
+        int sz = size();
+        if (sz != that.size()) {
+            return false;
+        }
+        for (int i = 0; i < sz; ++i) {
+            if (Double.doubleToLongBits(get(i)) != Double.doubleToLongBits(that.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
+
+/**
+ * A {@link C.DoubleList} backed by an array.
+ */
+class ImmutableDoubleList extends DoubleListBase {
+
+    private static final long serialVersionUID = 1L;
+
+    static final ImmutableDoubleList EMPTY = new ImmutableDoubleList(new double[0]);
+
+    private final double[] data;
+
+    /**
+     * Construct the list with an array. The array will be used
+     * directly as the backing data of this list. No data copy happen
+     *
+     * @param data the array of elements
+     */
+    ImmutableDoubleList(double[] data) {
+        E.NPE(data);
+        this.data = data;
+    }
+
+    @Override
+    public int size() {
+        return data.length;
+    }
+
+    @Override
+    public double get(int index) {
+        return data[index];
+    }
+
+    @Override
+    public double[] toArray() {
+        return data.clone();
+    }
+
+    @Override
+    public C.DoubleList map(C.DoubleFunc mapper) {
+        double[] src = data;
+        int sz = src.length;
+        double[] a = new double[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = mapper.apply(src[i]);
+        }
+        return new ImmutableDoubleList(a);
+    }
+
+    @Override
+    public C.DoubleList filter(C.DoublePredicate predicate) {
+        double[] src = data;
+        int sz = src.length;
+        double[] a = new double[sz];
+        int n = 0;
+        for (int i = 0; i < sz; ++i) {
+            double v = src[i];
+            if (predicate.test(v)) {
+                a[n++] = v;
+            }
+        }
+        return n == sz ? this : new ImmutableDoubleList(Arrays.copyOf(a, n));
+    }
+
+    @Override
+    public double reduce(double identity, C.DoubleFunc2 accumulator) {
+        double r = identity;
+        for (double v : data) {
+            r = accumulator.apply(r, v);
+        }
+        return r;
+    }
+
+    @Override
+    public double sum() {
+        double sum = 0;
+        for (double v : data) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    @Override
+    public C.DoubleList sorted() {
+        double[] a = data;
+        for (int i = 1; i < a.length; ++i) {
+            if (Double.compare(a[i - 1], a[i]) > 0) {
+                a = a.clone();
+                Algorithms.arrayPrimitiveSort().sort(a, 0, a.length);
+                return new ImmutableDoubleList(a);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public int binarySearch(double key) {
+        return Arrays.binarySearch(data, key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+}
@@ -0,0 +1,51 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+
+import java.util.Iterator;
+
+/**
+ * A lazy view of the elements of a list that match a predicate.
+ */
+class FilteredList<T> extends LazyListBase<T> {
+
+    private final C.List<? extends T> list;
+    private final $.Function<? super T, Boolean> predicate;
+
+    FilteredList(C.List<? extends T> list, $.Function<? super T, Boolean> predicate) {
+        super(list);
+        E.NPE(predicate);
+        this.list = list;
+        this.predicate = predicate;
+    }
+
+    @Override
+    protected Iterator<T> lazyIterator() {
+        return new FilteredIterator<T>(list.iterator(), predicate);
+    }
+
+    public static <T> C.List<T> of(C.List<? extends T> list, $.Function<? super T, Boolean> predicate) {
+        return new FilteredList<T>(list, predicate);
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+
+import java.util.Iterator;
+
+/**
+ * A lazy view that concatenates the iterables produced by applying a
+ * mapper to each element of a list.
+ */
+class FlatMappedList<T, R> extends LazyListBase<R> {
+
+    private final C.List<? extends T> list;
+    private final $.Function<? super T, ? extends Iterable<? extends R>> mapper;
+
+    FlatMappedList(C.List<? extends T> list, $.Function<? super T, ? extends Iterable<? extends R>> mapper) {
+        super(list);
+        E.NPE(mapper);
+        this.list = list;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected Iterator<R> lazyIterator() {
+        return new FlatMappedIterator<T, R>(list.iterator(), mapper);
+    }
+
+    public static <T, R> C.List<R> of(C.List<? extends T> list, $.Function<? super T, ? extends Iterable<? extends R>> mapper) {
+        return new FlatMappedList<T, R>(list, mapper);
+    }
+
+}
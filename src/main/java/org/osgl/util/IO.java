@@ -51,14 +51,16 @@ import java.io.*;
 import java.lang.reflect.Type;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.*;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.imageio.stream.ImageInputStream;
 
 /**
@@ -218,6 +220,17 @@ public class IO {
          */
         protected Charset charset = StandardCharsets.UTF_8;
 
+        /**
+         * Get notified on the progress of the write operation.
+         */
+        protected ProgressListener progressListener;
+
+        // the time in nano seconds when the write operation started
+        private long startTime;
+
+        // wraps the sink before the source content is written into it, `null` if no transform
+        private $.Function<OutputStream, OutputStream> transformer;
+
         /**
          * Specify that it shall close the target (output stream or writer) once
          * the written operation finished.
@@ -242,6 +255,60 @@ public class IO {
             return me();
         }
 
+        /**
+         * Specify a listener to be notified each time a block of data
+         * has been written.
+         *
+         * @param listener
+         *         the progress listener
+         * @return this write stage instance
+         */
+        public STAGE progress(ProgressListener listener) {
+            this.progressListener = listener;
+            return me();
+        }
+
+        /**
+         * Specify a transform applied to the bytes before they reach the target,
+         * e.g. compression or encryption. The transformer wraps the target output
+         * stream, and the wrapping stream is closed once the source content has been
+         * written so it can write out any trailing data. The target itself is still
+         * closed only if {@link #ensureCloseSink()} is specified.
+         *
+         * When called more than once, the bytes go through the transforms in the
+         * order they are specified.
+         *
+         * The number of bytes returned by the `to(...)` methods, as well as the
+         * number reported to the {@link #progress(ProgressListener) progress
+         * listener}, is the number of source bytes fed into the transforms, not
+         * the number of transformed bytes reaching the target.
+         *
+         * Note a transformed write stage cannot be committed to a {@link Writer}.
+         *
+         * ```java
+         * IO.write(myFile).transform(Crypto.streamingAES(key).encryptor()).to(encryptedFile);
+         * ```
+         *
+         * @param transformer
+         *         a function that wraps an output stream
+         * @return this write stage instance
+         */
+        public STAGE transform(final $.Function<OutputStream, OutputStream> transformer) {
+            $.requireNotNull(transformer);
+            final $.Function<OutputStream, OutputStream> outer = this.transformer;
+            if (null == outer) {
+                this.transformer = transformer;
+            } else {
+                this.transformer = new $.Function<OutputStream, OutputStream>() {
+                    @Override
+                    public OutputStream apply(OutputStream sink) throws NotAppliedException, $.Break {
+                        return outer.apply(transformer.apply(sink));
+                    }
+                };
+            }
+            return me();
+        }
+
         /**
          * Commit the write stage to a {@link Writer}.
          *
@@ -249,7 +316,9 @@ public class IO {
          *         the target writer to which this write stage is committed.
          * @return the number of chars that has been written to the writer.
          */
-        public int to(Writer sink) {
+        public long to(Writer sink) {
+            E.unsupportedIf(null != transformer, "transformed content cannot be written to a Writer");
+            started();
             try {
                 return doWriteTo(sink);
             } catch (AccessDeniedException e) {
@@ -270,11 +339,13 @@ public class IO {
          *
          * @param sink
          *         the target output stream to which this write stage is committed.
-         * @return the number of bytes that has been written to the output stream.
+         * @return the number of bytes that has been written to the output stream,
+         *         or the number of source bytes if {@link #transform(org.osgl.Lang.Function) transformed}.
          */
-        public int to(OutputStream sink) {
+        public long to(OutputStream sink) {
+            started();
             try {
-                return doWriteTo(sink);
+                return null == transformer ? doWriteTo(sink) : doTransformedWriteTo(sink);
             } catch (AccessDeniedException e) {
                 throw new org.osgl.exception.AccessDeniedException(e);
             } catch (IOException e) {
@@ -288,16 +359,53 @@ public class IO {
             }
         }
 
+        /**
+         * Commit this write stage to a {@link WritableByteChannel}, e.g. a
+         * {@link FileChannel} or a {@link java.nio.channels.SocketChannel}.
+         *
+         * @param sink
+         *         the target channel to which this write stage is committed.
+         * @return the number of bytes that has been written to the channel,
+         *         or the number of source bytes if {@link #transform(org.osgl.Lang.Function) transformed}.
+         */
+        public long to(WritableByteChannel sink) {
+            started();
+            try {
+                if (null != transformer) {
+                    OutputStream os = new BufferedOutputStream(Channels.newOutputStream(sink), COPY_BUF_SIZE);
+                    long n = doTransformedWriteTo(os);
+                    os.flush();
+                    return n;
+                }
+                return doWriteTo(sink);
+            } catch (AccessDeniedException e) {
+                throw new org.osgl.exception.AccessDeniedException(e);
+            } catch (IOException e) {
+                throw E.ioException(e);
+            } finally {
+                if (closeSink) {
+                    close(sink);
+                }
+            }
+        }
+
         /**
          * Commit this write stage into a {@link File}.
          *
+         * The file is always closed after the write operation.
+         *
          * @param file
          *         the target file to which this write stage is committed.
-         * @return the number of bytes that has been written to the file.
+         * @return the number of bytes that has been written to the file,
+         *         or the number of source bytes if {@link #transform(org.osgl.Lang.Function) transformed}.
          */
-        public int to(File file) {
-            BufferedOutputStream bos = buffered(outputStream(file));
-            return to(bos);
+        public long to(File file) {
+            FileOutputStream fos = (FileOutputStream) outputStream(file);
+            try {
+                return to(fos.getChannel());
+            } finally {
+                close(fos);
+            }
         }
 
         /**
@@ -309,7 +417,7 @@ public class IO {
          * @throws IOException
          *         in case IOException encountered.
          */
-        protected abstract int doWriteTo(Writer sink) throws IOException;
+        protected abstract long doWriteTo(Writer sink) throws IOException;
 
         /**
          * Sub class to implement the commit to a `OutputStream` logic.
@@ -320,13 +428,98 @@ public class IO {
          * @throws IOException
          *         in case IOException encountered.
          */
-        protected abstract int doWriteTo(OutputStream sink) throws IOException;
+        protected abstract long doWriteTo(OutputStream sink) throws IOException;
+
+        /**
+         * Commit to a `WritableByteChannel`. By default it writes to a buffered
+         * output stream on top of the channel. Sub class shall override this
+         * method if it can transfer data to the channel directly.
+         *
+         * @param sink
+         *         the channel target to which this write stage committed.
+         * @return the number of bytes written to the channel.
+         * @throws IOException
+         *         in case IOException encountered.
+         */
+        protected long doWriteTo(WritableByteChannel sink) throws IOException {
+            OutputStream os = new BufferedOutputStream(Channels.newOutputStream(sink), COPY_BUF_SIZE);
+            long n = doWriteTo(os);
+            os.flush();
+            return n;
+        }
+
+        // write to the transformed sink, closing the transformer stream but not the sink
+        private long doTransformedWriteTo(final OutputStream sink) throws IOException {
+            OutputStream os = transformer.apply(new FilterOutputStream(sink) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    out.flush();
+                }
+            });
+            long n = doWriteTo(os);
+            os.close();
+            return n;
+        }
+
+        /**
+         * Report the number of bytes or chars written so far to the
+         * {@link #progress(ProgressListener) progress listener}.
+         *
+         * @param transferred
+         *         the number of bytes/chars written
+         */
+        protected final void reportProgress(long transferred) {
+            if (null != progressListener) {
+                progressListener.onProgress(transferred, (System.nanoTime() - startTime) / 1000000L);
+            }
+        }
+
+        /**
+         * Let another stage which this stage delegates to share the
+         * settings of this stage.
+         *
+         * @param stage
+         *         the stage to which this stage delegates
+         * @return the stage
+         */
+        protected final <S extends WriteStageBase> S delegate(S stage) {
+            WriteStageBase base = stage;
+            base.charset = charset;
+            base.progressListener = progressListener;
+            base.startTime = startTime;
+            return stage;
+        }
+
+        private void started() {
+            startTime = System.nanoTime();
+        }
 
         protected final STAGE me() {
             return (STAGE) this;
         }
     }
 
+    /**
+     * A listener get notified on the progress of a {@link WriteStageBase write operation}.
+     */
+    public interface ProgressListener {
+        /**
+         * Called each time a block of data has been written.
+         *
+         * @param transferred
+         *         the total number of bytes (or chars when writing to a `Writer`)
+         *         written so far.
+         * @param elapsedMillis
+         *         the time in milliseconds since the write operation started.
+         */
+        void onProgress(long transferred, long elapsedMillis);
+    }
+
     /**
      * Implement a {@link WriteStageBase} for source of {@link CharSequence}.
      */
@@ -335,18 +528,28 @@ public class IO {
             super(csq);
         }
 
-        public int doWriteTo(Writer sink) throws IOException {
+        public long doWriteTo(Writer sink) throws IOException {
             String s = source.toString();
             sink.write(s);
             return s.length();
         }
 
         @Override
-        protected int doWriteTo(OutputStream sink) throws IOException {
+        protected long doWriteTo(OutputStream sink) throws IOException {
             byte[] ba = source.toString().getBytes(charset);
             sink.write(ba);
             return ba.length;
         }
+
+        @Override
+        protected long doWriteTo(WritableByteChannel sink) throws IOException {
+            ByteBuffer buf = ByteBuffer.wrap(source.toString().getBytes(charset));
+            int n = buf.remaining();
+            while (buf.hasRemaining()) {
+                sink.write(buf);
+            }
+            return n;
+        }
     }
 
     public static class BufferedImageWriteStage extends WriteStageBase<BufferedImage, BufferedImageWriteStage> {
@@ -363,12 +566,12 @@ public class IO {
         }
 
         @Override
-        protected int doWriteTo(Writer sink) {
+        protected long doWriteTo(Writer sink) {
             throw E.unsupport();
         }
 
         @Override
-        protected int doWriteTo(OutputStream sink) {
+        protected long doWriteTo(OutputStream sink) {
             Img.source(source).writeTo(sink, contentType);
             return -1;
         }
@@ -383,12 +586,12 @@ public class IO {
         }
 
         @Override
-        protected int doWriteTo(Writer sink) {
+        protected long doWriteTo(Writer sink) {
             return doWriteTo($.convert(sink).to(OutputStream.class));
         }
 
         @Override
-        protected int doWriteTo(OutputStream sink) {
+        protected long doWriteTo(OutputStream sink) {
             XML.print(source, pretty, sink);
             return -1;
         }
@@ -413,14 +616,16 @@ public class IO {
         }
 
         @Override
-        protected int doWriteTo(Writer sink) throws IOException {
+        protected long doWriteTo(Writer sink) throws IOException {
             ensureNotConsumed();
-            char[] buffer = new char[1024];
-            int len, ttl = 0;
+            char[] buffer = new char[1024 * 4];
+            int len;
+            long ttl = 0;
             try {
                 while ((len = source.read(buffer)) >= 0) {
                     sink.write(buffer, 0, len);
                     ttl += len;
+                    reportProgress(ttl);
                 }
                 return ttl;
             } finally {
@@ -432,10 +637,10 @@ public class IO {
         }
 
         @Override
-        protected int doWriteTo(OutputStream sink) throws IOException {
+        protected long doWriteTo(OutputStream sink) throws IOException {
             ensureNotConsumed();
             try {
-                return new InputStreamWriteStage(new ReaderInputStream(source, charset)).doWriteTo(sink);
+                return delegate(new InputStreamWriteStage(new ReaderInputStream(source, charset))).doWriteTo(sink);
             } finally {
                 consumed = true;
                 if (closeSource) {
@@ -463,16 +668,55 @@ public class IO {
         }
 
         @Override
-        protected int doWriteTo(OutputStream sink) throws IOException {
+        protected long doWriteTo(OutputStream sink) throws IOException {
+            if (sink instanceof FileOutputStream) {
+                return doWriteTo(((FileOutputStream) sink).getChannel());
+            }
             ensureNotConsumed();
+            byte[] buffer = acquireCopyBuf();
             try {
-                int read, total = 0;
-                byte[] buffer = new byte[8096];
+                int read;
+                long total = 0;
                 while ((read = source.read(buffer)) > -1) {
                     sink.write(buffer, 0, read);
                     total += read;
+                    reportProgress(total);
                 }
                 return total;
+            } finally {
+                releaseCopyBuf(buffer);
+                consumed = true;
+                if (closeSource) {
+                    close(source);
+                }
+            }
+        }
+
+        @Override
+        protected long doWriteTo(WritableByteChannel sink) throws IOException {
+            ensureNotConsumed();
+            try {
+                if (source instanceof FileInputStream) {
+                    FileChannel channel = ((FileInputStream) source).getChannel();
+                    return transfer(channel, channel.position(), channel.size() - channel.position(), sink);
+                }
+                ReadableByteChannel channel = Channels.newChannel(source);
+                ByteBuffer buffer = acquireDirectBuf();
+                try {
+                    long total = 0;
+                    buffer.clear();
+                    while (channel.read(buffer) > -1) {
+                        buffer.flip();
+                        while (buffer.hasRemaining()) {
+                            total += sink.write(buffer);
+                        }
+                        buffer.clear();
+                        reportProgress(total);
+                    }
+                    return total;
+                } finally {
+                    releaseDirectBuf(buffer);
+                }
             } finally {
                 consumed = true;
                 if (closeSource) {
@@ -482,10 +726,10 @@ public class IO {
         }
 
         @Override
-        protected int doWriteTo(Writer sink) throws IOException {
+        protected long doWriteTo(Writer sink) throws IOException {
             ensureNotConsumed();
             try {
-                return new ReaderWriteStage(new InputStreamReader(source, charset)).doWriteTo(sink);
+                return delegate(new ReaderWriteStage(new InputStreamReader(source, charset))).doWriteTo(sink);
             } finally {
                 consumed = true;
                 if (closeSource) {
@@ -494,6 +738,25 @@ public class IO {
             }
         }
 
+        /*
+         * Transfer `count` bytes start from `position` of the file channel using
+         * FileChannel.transferTo, which lets the OS copy the data directly when
+         * the target is a file or socket channel.
+         */
+        long transfer(FileChannel channel, long position, long count, WritableByteChannel sink) throws IOException {
+            long total = 0;
+            while (total < count) {
+                long n = channel.transferTo(position + total, Math.min(count - total, TRANSFER_BLOCK_SIZE), sink);
+                if (n <= 0) {
+                    break;
+                }
+                total += n;
+                reportProgress(total);
+            }
+            channel.position(position + total);
+            return total;
+        }
+
         private void ensureNotConsumed() {
             E.illegalStateIf(consumed, "Input stream already consumed");
         }
@@ -508,13 +771,21 @@ public class IO {
         }
 
         @Override
-        protected int doWriteTo(Writer sink) throws IOException {
-            return new ReaderWriteStage(buffered(reader(source))).doWriteTo(sink);
+        protected long doWriteTo(Writer sink) throws IOException {
+            return delegate(new ReaderWriteStage(buffered(reader(source)))).doWriteTo(sink);
+        }
+
+        @Override
+        protected long doWriteTo(OutputStream sink) throws IOException {
+            if (sink instanceof FileOutputStream) {
+                return doWriteTo(((FileOutputStream) sink).getChannel());
+            }
+            return delegate(new InputStreamWriteStage(inputStream(source))).doWriteTo(sink);
         }
 
         @Override
-        protected int doWriteTo(OutputStream sink) throws IOException {
-            return new InputStreamWriteStage(buffered(inputStream(source))).doWriteTo(sink);
+        protected long doWriteTo(WritableByteChannel sink) throws IOException {
+            return delegate(new InputStreamWriteStage(inputStream(source))).doWriteTo(sink);
         }
     }
 
@@ -524,13 +795,18 @@ public class IO {
         }
 
         @Override
-        protected int doWriteTo(Writer sink) throws IOException {
-            return new ReaderWriteStage(buffered(reader(source))).doWriteTo(sink);
+        protected long doWriteTo(Writer sink) throws IOException {
+            return delegate(new ReaderWriteStage(buffered(reader(source)))).doWriteTo(sink);
         }
 
         @Override
-        protected int doWriteTo(OutputStream sink) throws IOException {
-            return new InputStreamWriteStage(buffered(is(source))).doWriteTo(sink);
+        protected long doWriteTo(OutputStream sink) throws IOException {
+            return delegate(new InputStreamWriteStage(is(source))).doWriteTo(sink);
+        }
+
+        @Override
+        protected long doWriteTo(WritableByteChannel sink) throws IOException {
+            return delegate(new InputStreamWriteStage(is(source))).doWriteTo(sink);
         }
     }
 
@@ -540,9 +816,9 @@ public class IO {
         }
 
         @Override
-        protected int doWriteTo(Writer sink) throws IOException {
+        protected long doWriteTo(Writer sink) throws IOException {
             try {
-                return write(source.asInputStream()).doWriteTo(sink);
+                return delegate(write(source.asInputStream())).doWriteTo(sink);
             } finally {
                 if (closeSink) {
                     close(sink);
@@ -551,15 +827,88 @@ public class IO {
         }
 
         @Override
-        protected int doWriteTo(OutputStream sink) throws IOException {
+        protected long doWriteTo(OutputStream sink) throws IOException {
             try {
-                return write(source.asInputStream()).doWriteTo(sink);
+                return delegate(sourceStage()).doWriteTo(sink);
             } finally {
                 if (closeSink) {
                     close(sink);
                 }
             }
         }
+
+        @Override
+        protected long doWriteTo(WritableByteChannel sink) throws IOException {
+            return delegate(sourceStage()).doWriteTo(sink);
+        }
+
+        private InputStreamWriteStage sourceStage() {
+            if (source instanceof SObject.FileSObject) {
+                // read from the file channel so it can be transferred directly
+                return write(inputStream(source.asFile()));
+            }
+            return write(source.asInputStream());
+        }
+    }
+
+    // the max number of bytes to be transferred by a single FileChannel.transferTo call
+    private static final long TRANSFER_BLOCK_SIZE = 1024L * 1024 * 8;
+
+    private static final int COPY_BUF_SIZE = 1024 * 64;
+
+    private static final int COPY_BUF_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /*
+     * Idle buffers used for stream copy. A buffer is taken out of the pool
+     * during copy, so nested copy operations get a fresh buffer. The pools
+     * are bounded, so the memory held does not grow with the number of
+     * threads that ever copied a stream; a buffer released into a full pool
+     * is left to the garbage collector.
+     */
+    private static final ArrayBlockingQueue<byte[]> COPY_BUFS = new ArrayBlockingQueue<>(COPY_BUF_POOL_SIZE);
+
+    private static final ArrayBlockingQueue<ByteBuffer> DIRECT_BUFS = new ArrayBlockingQueue<>(COPY_BUF_POOL_SIZE);
+
+    private static byte[] acquireCopyBuf() {
+        byte[] buf = COPY_BUFS.poll();
+        return null == buf ? new byte[COPY_BUF_SIZE] : buf;
+    }
+
+    private static void releaseCopyBuf(byte[] buf) {
+        COPY_BUFS.offer(buf);
+    }
+
+    // the number of direct buffers ever allocated, never exceeds the pool size
+    private static final AtomicInteger DIRECT_BUFS_ALLOCATED = new AtomicInteger();
+
+    /*
+     * Direct buffers are expensive to allocate and are freed only by the
+     * garbage collector, so no more than the pool size are ever allocated.
+     * When all of them are in use, a heap buffer wrapping a copy buffer is
+     * returned instead.
+     */
+    static ByteBuffer acquireDirectBuf() {
+        ByteBuffer buf = DIRECT_BUFS.poll();
+        if (null != buf) {
+            return buf;
+        }
+        int allocated = DIRECT_BUFS_ALLOCATED.get();
+        while (allocated < COPY_BUF_POOL_SIZE) {
+            if (DIRECT_BUFS_ALLOCATED.compareAndSet(allocated, allocated + 1)) {
+                return ByteBuffer.allocateDirect(COPY_BUF_SIZE);
+            }
+            allocated = DIRECT_BUFS_ALLOCATED.get();
+        }
+        return ByteBuffer.wrap(acquireCopyBuf());
+    }
+
+    static void releaseDirectBuf(ByteBuffer buf) {
+        if (buf.isDirect()) {
+            buf.clear();
+            DIRECT_BUFS.offer(buf);
+        } else {
+            releaseCopyBuf(buf.array());
+        }
     }
 
     public static abstract class ReadStageBase<SOURCE, STAGE extends ReadStageBase> {
@@ -574,10 +923,46 @@ public class IO {
          */
         protected Charset charset = StandardCharsets.UTF_8;
 
+        // wraps the loaded input stream, `null` if no transform
+        private $.Function<InputStream, InputStream> transformer;
+
         public ReadStageBase(SOURCE source) {
             this.source = $.requireNotNull(source);
         }
 
+        /**
+         * Specify a transform applied to the bytes loaded from the source
+         * before they are converted to the target, e.g. decompression or
+         * decryption. The transformer wraps the input stream loaded from
+         * the source.
+         *
+         * When called more than once, the bytes go through the transforms in
+         * the order they are specified.
+         *
+         * ```java
+         * byte[] ba = IO.read(encryptedFile).transform(Crypto.streamingAES(key).decryptor()).toByteArray();
+         * ```
+         *
+         * @param transformer
+         *         a function that wraps an input stream
+         * @return this read stage instance
+         */
+        public STAGE transform(final $.Function<InputStream, InputStream> transformer) {
+            $.requireNotNull(transformer);
+            final $.Function<InputStream, InputStream> inner = this.transformer;
+            if (null == inner) {
+                this.transformer = transformer;
+            } else {
+                this.transformer = new $.Function<InputStream, InputStream>() {
+                    @Override
+                    public InputStream apply(InputStream source) throws NotAppliedException, $.Break {
+                        return transformer.apply(inner.apply(source));
+                    }
+                };
+            }
+            return me();
+        }
+
         /**
          * Specify the encoding {@link Charset} when there are inputstream/reader
          * or outputstream/writer conversion.
@@ -649,7 +1034,8 @@ public class IO {
 
         public InputStream toInputStream() {
             try {
-                return load();
+                InputStream is = load();
+                return null == transformer ? is : transformer.apply(is);
             } catch (AccessDeniedException e) {
                 throw new org.osgl.exception.AccessDeniedException(e);
             } catch (FileNotFoundException e) {
@@ -1357,7 +1743,7 @@ public class IO {
      * @return the checksum of the file
      */
     public static String checksum(File file) {
-        return checksum(inputStream(file));
+        return Codec.hexDigest(file, Codec.DigestType.SHA1).toLowerCase();
     }
 
     /**
@@ -1368,47 +1754,11 @@ public class IO {
      * @return the checksum of the content from the inputstream
      */
     public static String checksum(InputStream is) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA1");
-            byte[] dataBytes = new byte[1024];
-
-            int nread;
-
-            while ((nread = is.read(dataBytes)) != -1) {
-                md.update(dataBytes, 0, nread);
-            }
-
-            byte[] mdbytes = md.digest();
-
-            S.Buffer sb = S.buffer();
-            for (int i = 0; i < mdbytes.length; i++) {
-                sb.append(Integer.toString((mdbytes[i] & 0xff) + 0x100, 16).substring(1));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw E.unexpected("SHA1 algorithm not found");
-        } catch (AccessDeniedException e) {
-            throw new org.osgl.exception.AccessDeniedException(e);
-        } catch (FileNotFoundException e) {
-            throw new ResourceNotFoundException(e);
-        } catch (IOException e) {
-            throw E.ioException(e);
-        }
+        return Codec.hexDigest(is, Codec.DigestType.SHA1).toLowerCase();
     }
 
     public static String checksum(byte[] ba) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA1");
-            md.update(ba);
-            byte[] mdbytes = md.digest();
-            S.Buffer sb = S.buffer();
-            for (int i = 0; i < mdbytes.length; i++) {
-                sb.append(Integer.toString((mdbytes[i] & 0xff) + 0x100, 16).substring(1));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw E.unexpected("SHA1 algorithm not found");
-        }
+        return Codec.hexDigest(ba, Codec.DigestType.SHA1).toLowerCase();
     }
 
     public static void delete(File file) {
@@ -1901,7 +2251,7 @@ public class IO {
      *         output stream
      * @return number of bytes appended
      */
-    public static int append(InputStream is, OutputStream os) {
+    public static long append(InputStream is, OutputStream os) {
         return copy(is, os, false);
     }
 
@@ -1917,14 +2267,14 @@ public class IO {
      * @return
      *      the number of bytes copied
      */
-    public static int copy(InputStream is, OutputStream os) {
+    public static long copy(InputStream is, OutputStream os) {
         return copy(is, os, true);
     }
 
     /**
      * Alias of {@link #copy(java.io.InputStream, java.io.OutputStream)}
      */
-    public static int write(InputStream is, OutputStream os) {
+    public static long write(InputStream is, OutputStream os) {
         return copy(is, os);
     }
 
@@ -1941,7 +2291,7 @@ public class IO {
      *         specify whether it shall close output stream after operation
      * @return number of bytes copied
      */
-    public static int copy(InputStream is, OutputStream os, boolean closeOs) {
+    public static long copy(InputStream is, OutputStream os, boolean closeOs) {
         if (closeOs) {
             return write(is).ensureCloseSink().to(os);
         } else {
@@ -1952,7 +2302,7 @@ public class IO {
     /**
      * Alias of {@link #copy(InputStream, OutputStream, boolean)}
      */
-    public static int write(InputStream is, OutputStream os, boolean closeSink) {
+    public static long write(InputStream is, OutputStream os, boolean closeSink) {
         return copy(is, os, closeSink);
     }
 
@@ -1965,12 +2315,8 @@ public class IO {
      * @return
      *      the number of bytes written to the file
      */
-    public static int write(InputStream is, File f) {
-        try {
-            return copy(is, new BufferedOutputStream(new FileOutputStream(f)));
-        } catch (FileNotFoundException e) {
-            throw E.ioException(e);
-        }
+    public static long write(InputStream is, File f) {
+        return write(is).to(f);
     }
 
     /**
@@ -1984,7 +2330,7 @@ public class IO {
      *         a writer - the target
      * @return the number of chars copied
      */
-    public static int copy(Reader reader, Writer writer) {
+    public static long copy(Reader reader, Writer writer) {
         return copy(reader, writer, true);
     }
 
@@ -1999,7 +2345,7 @@ public class IO {
      *         indicate if it shall close the writer after operation
      * @return the number of chars copied
      */
-    public static int copy(Reader reader, Writer writer, boolean closeWriter) {
+    public static long copy(Reader reader, Writer writer, boolean closeWriter) {
         if (closeWriter) {
             return write(reader).ensureCloseSink().to(writer);
         } else {
@@ -2101,14 +2447,14 @@ public class IO {
     /**
      * Alias of {@link #copy(Reader, Writer)}
      */
-    public static int write(Reader reader, Writer writer) {
+    public static long write(Reader reader, Writer writer) {
         return copy(reader, writer);
     }
 
     /**
      * Alias of {@link #copy(Reader, Writer, boolean)}
      */
-    public static int write(Reader reader, Writer writer, boolean closeWriter) {
+    public static long write(Reader reader, Writer writer, boolean closeWriter) {
         return copy(reader, writer, closeWriter);
     }
 
@@ -2158,26 +2504,88 @@ public class IO {
      * @return an sobject that is a zip package of `objects`.
      */
     public static ISObject zip(ISObject... objects) {
+        return zip(Arrays.asList(objects));
+    }
+
+    /**
+     * Zip sobjects into a single sobject.
+     *
+     * The zip package is buffered in memory. Use
+     * {@link #zipToTempFile(Iterable)} or
+     * {@link #zipInto(OutputStream, Iterable)} for large packages.
+     *
+     * @param objects
+     *         the sobjects to be zipped, iterated only once.
+     * @return an sobject that is a zip package of `objects`.
+     */
+    public static ISObject zip(Iterable<? extends ISObject> objects) {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ZipOutputStream zos = new ZipOutputStream(baos);
+        zipInto(baos, objects);
+        return SObject.of(Codec.encodeUrl(S.random()), baos.toByteArray());
+    }
+
+    /**
+     * Zip sobjects into a temporary file.
+     *
+     * The file is returned by {@link ISObject#asFile()} of the sobject
+     * returned. The caller is responsible for deleting the file once
+     * done with it.
+     *
+     * @param objects
+     *         the sobjects to be zipped, iterated only once.
+     * @return an sobject backed by the temporary zip file.
+     */
+    public static ISObject zipToTempFile(Iterable<? extends ISObject> objects) {
+        File temp = tmpFile("osgl", ".zip");
+        OutputStream os = outputStream(temp);
+        boolean done = false;
+        try {
+            zipInto(os, objects);
+            done = true;
+        } finally {
+            close(os);
+            if (!done) {
+                temp.delete();
+            }
+        }
+        return SObject.of(Codec.encodeUrl(S.random()), temp);
+    }
+
+    /**
+     * Zip sobjects into an output stream.
+     *
+     * Entries are deflated in parallel in the
+     * {@link UtilConfig#getParallelPool() shared fork join pool}
+     * and written in order. Each sobject is read only when it is
+     * iterated, so `objects` could be a lazy sequence.
+     *
+     * The output stream is flushed but not closed.
+     *
+     * @param os
+     *         the output stream to which the zip package is written
+     * @param objects
+     *         the sobjects to be zipped, named after the
+     *         {@link SObject#ATTR_FILE_NAME file name attribute}.
+     */
+    public static void zipInto(OutputStream os, Iterable<? extends ISObject> objects) {
+        ZipWriter zip = new ZipWriter(os, null);
         try {
             for (ISObject obj : objects) {
-                ZipEntry entry = new ZipEntry(obj.getAttribute(SObject.ATTR_FILE_NAME));
                 InputStream is = obj.asInputStream();
-                zos.putNextEntry(entry);
-                copy(is, zos, false);
-                zos.closeEntry();
+                try {
+                    zip.add(obj.getAttribute(SObject.ATTR_FILE_NAME), System.currentTimeMillis(), is);
+                } finally {
+                    close(is);
+                }
             }
+            zip.finish();
         } catch (AccessDeniedException e) {
             throw new org.osgl.exception.AccessDeniedException(e);
         } catch (FileNotFoundException e) {
             throw new ResourceNotFoundException(e);
         } catch (IOException e) {
             throw E.ioException(e);
-        } finally {
-            close(zos);
         }
-        return SObject.of(Codec.encodeUrl(S.random()), baos.toByteArray());
     }
 
     /**
@@ -2189,17 +2597,9 @@ public class IO {
      * @return a file that is a zip package of the `files`
      */
     public static File zip(File... files) {
-        try {
-            File temp = File.createTempFile("osgl", ".zip");
-            zipInto(temp, files);
-            return temp;
-        } catch (AccessDeniedException e) {
-            throw new org.osgl.exception.AccessDeniedException(e);
-        } catch (FileNotFoundException e) {
-            throw new ResourceNotFoundException(e);
-        } catch (IOException e) {
-            throw E.ioException(e);
-        }
+        File temp = tmpFile("osgl", ".zip");
+        zipInto(temp, files);
+        return temp;
     }
 
     /**
@@ -2211,21 +2611,34 @@ public class IO {
      *         the files to be zipped.
      */
     public static void zipInto(File target, File... files) {
-        ZipOutputStream zos = null;
+        zipInto(target, Arrays.asList(files));
+    }
+
+    /**
+     * Zip files into specified target file.
+     *
+     * Entries are deflated in parallel in the
+     * {@link UtilConfig#getParallelPool() shared fork join pool}
+     * and written in order.
+     *
+     * @param target
+     *         the target file as the zip package
+     * @param files
+     *         the files to be zipped, iterated only once.
+     */
+    public static void zipInto(File target, Iterable<File> files) {
+        ZipWriter zip = null;
         try {
-            zos = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(target)));
-            byte[] buffer = new byte[128];
+            zip = new ZipWriter(new FileOutputStream(target), null);
             for (File f : files) {
-                ZipEntry entry = new ZipEntry(f.getName());
-                InputStream is = new BufferedInputStream(new FileInputStream(f));
-                zos.putNextEntry(entry);
-                int read = 0;
-                while ((read = is.read(buffer)) != -1) {
-                    zos.write(buffer, 0, read);
+                InputStream is = new FileInputStream(f);
+                try {
+                    zip.add(f.getName(), f.lastModified(), is);
+                } finally {
+                    close(is);
                 }
-                zos.closeEntry();
-                IO.close(is);
             }
+            zip.finish();
         } catch (AccessDeniedException e) {
             throw new org.osgl.exception.AccessDeniedException(e);
         } catch (FileNotFoundException e) {
@@ -2233,7 +2646,7 @@ public class IO {
         } catch (IOException e) {
             throw E.ioException(e);
         } finally {
-            IO.close(zos);
+            close(zip);
         }
     }
 
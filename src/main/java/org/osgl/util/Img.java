@@ -884,7 +884,12 @@ public enum Img {
      * @return The base64 encoded value
      */
     public static String toBase64(byte[] bytes, String mimeType) {
-        return "data:" + mimeType(mimeType) + ";base64," + Codec.encodeBase64(bytes);
+        String type = mimeType(mimeType);
+        Codec.Base64Codec base64 = Codec.base64();
+        // sized up front so the payload is encoded straight into the buffer
+        S.Buffer buf = S.newSizedBuffer(type.length() + 13 + base64.encodedLength(bytes.length));
+        buf.append("data:").append(type).append(";base64,");
+        return base64.encode(bytes, 0, bytes.length, buf).toString();
     }
 
     private static String mimeType(File target) {
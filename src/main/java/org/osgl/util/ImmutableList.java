@@ -48,7 +48,7 @@ implements C.List<T>, RandomAccess, Serializable {
 
     @Override
     protected EnumSet<C.Feature> initFeatures() {
-        return EnumSet.of(C.Feature.READONLY, C.Feature.LIMITED, C.Feature.ORDERED, C.Feature.IMMUTABLE, C.Feature.LAZY, C.Feature.PARALLEL, C.Feature.RANDOM_ACCESS);
+        return EnumSet.of(C.Feature.READONLY, C.Feature.LIMITED, C.Feature.ORDERED, C.Feature.IMMUTABLE, C.Feature.LAZY, C.Feature.RANDOM_ACCESS);
     }
 
     @Override
@@ -283,6 +283,9 @@ implements C.List<T>, RandomAccess, Serializable {
             return MappedList.of(this, mapper);
         }
         int sz = size();
+        if (ParallelListOps.applicable(this, sz)) {
+            return ImmutableList.of((R[]) ParallelListOps.map(this, mapper));
+        }
         ListBuilder<R> lb = new ListBuilder<R>(sz);
         forEach($.visitor($.f1(mapper).andThen(C.F.addTo(lb))));
         return lb.toList();
@@ -291,8 +294,13 @@ implements C.List<T>, RandomAccess, Serializable {
     @Override
     public <R> C.List<R> flatMap($.Function<? super T, ? extends Iterable<? extends R>> mapper
     ) {
-        // TODO: handle lazy operation
+        if (isLazy()) {
+            return FlatMappedList.of(this, mapper);
+        }
         int sz = size();
+        if (ParallelListOps.applicable(this, sz)) {
+            return ImmutableList.of((R[]) ParallelListOps.flatMap(this, mapper));
+        }
         ListBuilder<R> lb = new ListBuilder<R>(sz * 3);
         forEach($.visitor($.f1(mapper).andThen(C.F.addAllTo(lb))));
         return lb.toList();
@@ -600,6 +608,9 @@ implements C.List<T>, RandomAccess, Serializable {
     @Override
     public C.List<T> prepend(T t) {
         int sz = size();
+        if (sz >= PersistentVector.THRESHOLD) {
+            return PersistentVector.withModeOf(PersistentVector.<T>of(data_), this).prepend(t);
+        }
         T[] myData = data_;
         T[] data = $.newArray(myData, sz + 1);
         data[0] = t;
@@ -610,6 +621,9 @@ implements C.List<T>, RandomAccess, Serializable {
     @Override
     public C.List<T> append(T t) {
         int sz = size();
+        if (sz >= PersistentVector.THRESHOLD) {
+            return PersistentVector.withModeOf(PersistentVector.<T>of(data_), this).append(t);
+        }
         T[] myData = data_;
         T[] data = $.newArray(myData, sz + 1);
         data[sz] = t;
@@ -627,6 +641,9 @@ implements C.List<T>, RandomAccess, Serializable {
         if (index < 0) {
             index = sz + index;
         }
+        if (sz >= PersistentVector.THRESHOLD) {
+            return PersistentVector.withModeOf(PersistentVector.<T>of(myData), this).insert(index, t);
+        }
 
         T[] data = $.newArray(myData, sz + 1);
 
@@ -691,6 +708,21 @@ implements C.List<T>, RandomAccess, Serializable {
         return of(data);
     }
 
+    @Override
+    public C.List<T> update(int index, T t) throws IndexOutOfBoundsException {
+        T[] myData = data_;
+        int sz = myData.length;
+        if (index < 0 || index >= sz) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (sz >= PersistentVector.THRESHOLD) {
+            return PersistentVector.withModeOf(PersistentVector.<T>of(myData), this).update(index, t);
+        }
+        T[] data = myData.clone();
+        data[index] = t;
+        return of(data);
+    }
+
     private class Csr implements Cursor<T> {
 
         private int id_;
@@ -822,7 +854,9 @@ implements C.List<T>, RandomAccess, Serializable {
 
     @Override
     public C.List<T> filter($.Function<? super T, Boolean> predicate) {
-        // TODO: handle lazy operation
+        if (isLazy()) {
+            return FilteredList.of(this, predicate);
+        }
         int sz = size();
         if (0 == sz) {
             return Nil.list();
@@ -935,8 +969,10 @@ implements C.List<T>, RandomAccess, Serializable {
 
     @Override
     public $.Option<T> findOne($.Function<? super T, Boolean> predicate) {
-        //todo parallel finding
         int sz = size();
+        if (ParallelListOps.applicable(this, sz)) {
+            return ParallelListOps.findOne(this, predicate);
+        }
         T[] data = data_;
         for (int i = 0; i < sz; ++i) {
             T t = data[i];
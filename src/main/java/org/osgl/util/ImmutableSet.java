@@ -24,6 +24,8 @@ import org.osgl.$;
 
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.SortedSet;
 
 /**
  * Created by luog on 2/02/14.
@@ -79,7 +81,7 @@ class ImmutableSet<T> extends DelegatingSet<T> {
         } else if (len == 1) {
             return $.val(data[0]);
         } else {
-            return new ImmutableSet<T>(C.listOf(data));
+            return PersistentHashSet.of(data);
         }
     }
 
@@ -90,7 +92,11 @@ class ImmutableSet<T> extends DelegatingSet<T> {
                 return set;
             }
         }
-        return new ImmutableSet<T>(data);
+        if (data instanceof SortedSet || data instanceof LinkedHashSet) {
+            // keep the iteration order of the source set
+            return new ImmutableSet<T>(data);
+        }
+        return PersistentHashSet.of(data);
     }
 
 }
@@ -0,0 +1,353 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.algo.Algorithms;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Implements {@link C.IntList} operations on top of {@link #get(int)}
+ * and {@link #size()}. Sub classes override the operations they can do
+ * better.
+ */
+abstract class IntListBase implements C.IntList, Serializable {
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == size();
+    }
+
+    @Override
+    public int[] toArray() {
+        int sz = size();
+        int[] a = new int[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = get(i);
+        }
+        return a;
+    }
+
+    @Override
+    public C.IntList map(C.IntFunc mapper) {
+        int sz = size();
+        int[] a = new int[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = mapper.apply(get(i));
+        }
+        return new ImmutableIntList(a);
+    }
+
+    @Override
+    public C.IntList filter(C.IntPredicate predicate) {
+        int sz = size();
+        int[] a = new int[sz];
+        int n = 0;
+        for (int i = 0; i < sz; ++i) {
+            int v = get(i);
+            if (predicate.test(v)) {
+                a[n++] = v;
+            }
+        }
+        return new ImmutableIntList(n == sz ? a : Arrays.copyOf(a, n));
+    }
+
+    @Override
+    public int reduce(int identity, C.IntFunc2 accumulator) {
+        int r = identity;
+        for (int i = 0, sz = size(); i < sz; ++i) {
+            r = accumulator.apply(r, get(i));
+        }
+        return r;
+    }
+
+    @Override
+    public long sum() {
+        long sum = 0;
+        for (int i = 0, sz = size(); i < sz; ++i) {
+            sum += get(i);
+        }
+        return sum;
+    }
+
+    @Override
+    public C.IntList sorted() {
+        int[] a = toArray();
+        Algorithms.arrayPrimitiveSort().sort(a, 0, a.length);
+        return new ImmutableIntList(a);
+    }
+
+    @Override
+    public int binarySearch(int key) {
+        int lo = 0;
+        int hi = size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int v = get(mid);
+            int c = v < key ? -1 : (v == key ? 0 : 1);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    @Override
+    public C.List<Integer> boxed() {
+        int sz = size();
+        if (0 == sz) {
+            return Nil.list();
+        }
+        Integer[] a = new Integer[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = get(i);
+        }
+        return C.listOf(a);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0, sz = size(); i < sz; ++i) {
+            int v = get(i);
+            h = 31 * h + v;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof C.IntList)) {
+            return false;
+        }
+        C.IntList that = (C.IntList) obj;
+        int sz = size();
+        if (sz != that.size()) {
+            return false;
+        }
+        for (int i = 0; i < sz; ++i) {
+            if (get(i) != that.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
+
+/**
+ * A {@link C.IntList} backed by an array.
+ */
+class ImmutableIntList extends IntListBase {
+
+    private static final long serialVersionUID = 1L;
+
+    static final ImmutableIntList EMPTY = new ImmutableIntList(new int[0]);
+
+    private final int[] data;
+
+    /**
+     * Construct the list with an array. The array will be used
+     * directly as the backing data of this list. No data copy happen
+     *
+     * @param data the array of elements
+     */
+    ImmutableIntList(int[] data) {
+        E.NPE(data);
+        this.data = data;
+    }
+
+    @Override
+    public int size() {
+        return data.length;
+    }
+
+    @Override
+    public int get(int index) {
+        return data[index];
+    }
+
+    @Override
+    public int[] toArray() {
+        return data.clone();
+    }
+
+    @Override
+    public C.IntList map(C.IntFunc mapper) {
+        int[] src = data;
+        int sz = src.length;
+        int[] a = new int[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = mapper.apply(src[i]);
+        }
+        return new ImmutableIntList(a);
+    }
+
+    @Override
+    public C.IntList filter(C.IntPredicate predicate) {
+        int[] src = data;
+        int sz = src.length;
+        int[] a = new int[sz];
+        int n = 0;
+        for (int i = 0; i < sz; ++i) {
+            int v = src[i];
+            if (predicate.test(v)) {
+                a[n++] = v;
+            }
+        }
+        return n == sz ? this : new ImmutableIntList(Arrays.copyOf(a, n));
+    }
+
+    @Override
+    public int reduce(int identity, C.IntFunc2 accumulator) {
+        int r = identity;
+        for (int v : data) {
+            r = accumulator.apply(r, v);
+        }
+        return r;
+    }
+
+    @Override
+    public long sum() {
+        long sum = 0;
+        for (int v : data) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    @Override
+    public C.IntList sorted() {
+        int[] a = data;
+        for (int i = 1; i < a.length; ++i) {
+            if (a[i - 1] > a[i]) {
+                a = a.clone();
+                Algorithms.arrayPrimitiveSort().sort(a, 0, a.length);
+                return new ImmutableIntList(a);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public int binarySearch(int key) {
+        return Arrays.binarySearch(data, key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+}
+
+/**
+ * An arithmetic progression of {@code int} values that computes its
+ * elements on demand.
+ */
+class IntRangeList extends IntListBase {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int step;
+    private final int size;
+
+    IntRangeList(int from, int step, int size) {
+        this.from = from;
+        this.step = step;
+        this.size = size;
+    }
+
+    /**
+     * Create a range from {@code from} (inclusive) to {@code to} (exclusive).
+     * The range is descending if {@code from} is larger than {@code to}.
+     *
+     * @param from the first value
+     * @param to the end value, exclusive
+     * @param stepLen the distance between two adjacent values, must be positive
+     * @return the range
+     */
+    static C.IntList of(int from, int to, int stepLen) {
+        E.illegalArgumentIf(stepLen < 1, "step length shall be positive: %s", stepLen);
+        long distance = Math.abs((long) to - from);
+        long n = (distance + stepLen - 1) / stepLen;
+        E.illegalArgumentIf(n > Integer.MAX_VALUE, "range too large");
+        if (0 == n) {
+            return ImmutableIntList.EMPTY;
+        }
+        return new IntRangeList(from, from <= to ? stepLen : -stepLen, (int) n);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (int) (from + ((long) index) * step);
+    }
+
+    @Override
+    public long sum() {
+        long n = size;
+        return n * from + step * (n * (n - 1) / 2);
+    }
+
+    @Override
+    public C.IntList sorted() {
+        if (step > 0) {
+            return this;
+        }
+        return new IntRangeList(get(size - 1), -step, size);
+    }
+
+    @Override
+    public int binarySearch(int key) {
+        if (step < 0) {
+            return super.binarySearch(key);
+        }
+        if (key < from) {
+            return -1;
+        }
+        long offset = ((long) key - from) / step;
+        if (offset >= size) {
+            return -(size + 1);
+        }
+        int i = (int) offset;
+        return get(i) == key ? i : -(i + 2);
+    }
+}
@@ -25,6 +25,7 @@ import org.osgl.$;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * A `Keyword` can be presented in the different ways:
@@ -47,6 +48,10 @@ import java.util.List;
  * * semi-colon: `;`
  * * slash: `\`
  * * forward slash: `/`
+ *
+ * Keywords created from `String` by {@link #of(CharSequence)} are interned
+ * in a bounded cache, and the rendering of each {@link Style} is computed
+ * once per keyword instance.
  */
 public final class Keyword implements Comparable<Keyword> {
 
@@ -72,6 +77,11 @@ public final class Keyword implements Comparable<Keyword> {
         Arrays.sort(SEPS);
     }
 
+    // the max number of keywords kept in the intern cache
+    private static final int CACHE_SIZE = 1024 * 4;
+
+    private static final TinyLFUCache<String, Keyword> cache = new TinyLFUCache<>(CACHE_SIZE);
+
     public enum Style {
         /**
          * `CamelCaseStyle`
@@ -224,7 +234,7 @@ public final class Keyword implements Comparable<Keyword> {
             return new $.Transformer<String, String>() {
                 @Override
                 public String transform(String s) {
-                    return me.toString(Keyword.of(s));
+                    return Keyword.of(s).toString(me);
                 }
             };
         }
@@ -236,6 +246,11 @@ public final class Keyword implements Comparable<Keyword> {
 
     private C.List<FastStr> list = C.newList();
 
+    // rendered string of each style, indexed by style ordinal
+    private volatile String[] rendered;
+
+    private int hash;
+
     private Keyword() {
     }
 
@@ -263,7 +278,7 @@ public final class Keyword implements Comparable<Keyword> {
      * The `UpperCamelCase` style
      */
     public String camelCase() {
-        return Style.CAMEL_CASE.toString(this);
+        return render(Style.CAMEL_CASE);
     }
 
     /**
@@ -284,7 +299,7 @@ public final class Keyword implements Comparable<Keyword> {
      * The `lowerCamelCase` style
      */
     public String javaVariable() {
-        return Style.JAVA_VARIABLE.toString(this);
+        return render(Style.JAVA_VARIABLE);
     }
 
     /**
@@ -295,11 +310,11 @@ public final class Keyword implements Comparable<Keyword> {
     }
 
     public String constantName() {
-        return Style.CONSTANT_NAME.toString(this);
+        return render(Style.CONSTANT_NAME);
     }
 
     public String underscore() {
-        return Style.UNDERSCORE.toString(this);
+        return render(Style.UNDERSCORE);
     }
 
     /**
@@ -315,7 +330,7 @@ public final class Keyword implements Comparable<Keyword> {
      * @return hyphen separated string
      */
     public String dashed() {
-        return Style.DASHED.toString(this);
+        return render(Style.DASHED);
     }
 
     /**
@@ -333,19 +348,19 @@ public final class Keyword implements Comparable<Keyword> {
     }
 
     public String dotted() {
-        return Style.DOTTED.toString(this);
+        return render(Style.DOTTED);
     }
 
     public String httpHeader() {
-        return Style.HTTP_HEADER.toString(this);
+        return render(Style.HTTP_HEADER);
     }
 
     public String startCase() {
-        return Style.START_CASE.toString(this);
+        return render(Style.START_CASE);
     }
 
     public String readable() {
-        return Style.READABLE.toString(this);
+        return render(Style.READABLE);
     }
 
     public List<String> tokens() {
@@ -358,7 +373,12 @@ public final class Keyword implements Comparable<Keyword> {
 
     @Override
     public int hashCode() {
-        return $.hc(list);
+        int h = hash;
+        if (0 == h) {
+            h = $.hc(list);
+            hash = h;
+        }
+        return h;
     }
 
     @Override
@@ -367,7 +387,8 @@ public final class Keyword implements Comparable<Keyword> {
             return true;
         }
         if (obj instanceof Keyword) {
-            return ((Keyword) obj).list.equals(list);
+            Keyword that = (Keyword) obj;
+            return that.hashCode() == hashCode() && that.list.equals(list);
         }
         return false;
     }
@@ -390,7 +411,22 @@ public final class Keyword implements Comparable<Keyword> {
      * @return the printed string of this keyword by style specified
      */
     public String toString(Style style) {
-        return style.toString(this);
+        return render(style);
+    }
+
+    private String render(Style style) {
+        String[] a = rendered;
+        if (null == a) {
+            a = new String[Style.values().length];
+            rendered = a;
+        }
+        int i = style.ordinal();
+        String s = a[i];
+        if (null == s) {
+            s = style.toString(this);
+            a[i] = s;
+        }
+        return s;
     }
 
     /**
@@ -441,13 +477,29 @@ public final class Keyword implements Comparable<Keyword> {
     }
 
     /**
-     * Create a `Keyword` for the given `chars`
+     * Create a `Keyword` for the given `chars`.
+     *
+     * If `chars` is a `String` then the keyword is looked up from and
+     * stored into the intern cache.
      *
      * @param chars A `CharSequence`
      * @return a `Keyword` of the `chars`
      */
     public static Keyword of(CharSequence chars) {
-        return null == chars ? NULL : new Keyword(chars);
+        if (null == chars) {
+            return NULL;
+        }
+        if (!(chars instanceof String)) {
+            // other char sequences could be mutable
+            return new Keyword(chars);
+        }
+        String key = (String) chars;
+        Keyword keyword = cache.get(key);
+        if (null == keyword) {
+            keyword = new Keyword(key);
+            cache.set(key, keyword);
+        }
+        return keyword;
     }
 
     /**
@@ -455,12 +507,47 @@ public final class Keyword implements Comparable<Keyword> {
      *
      * This method is an alias of {@link #equals(CharSequence, CharSequence)}.
      *
+     * The two sequences are compared token by token in place. Keywords are
+     * parsed only when a token contains non ASCII characters or the default
+     * locale has special lower case rules for ASCII letters.
+     *
      * @param a the first char sequence
      * @param b the second char sequence
      * @return `true` if `a` and `b` are keyword identical
      */
     public static boolean eq(CharSequence a, CharSequence b) {
-        return of(a).equals(of(b));
+        if (a == b) {
+            return true;
+        }
+        CharSequence x = null == a ? "" : a;
+        CharSequence y = null == b ? "" : b;
+        if (!asciiLowerCaseSafe()) {
+            return of(a).equals(of(b));
+        }
+        int xl = x.length(), yl = y.length();
+        int xs = nextNonSeparator(x, 0), ys = nextNonSeparator(y, 0);
+        while (xs < xl && ys < yl) {
+            int xe = tokenEnd(x, xs), ye = tokenEnd(y, ys);
+            int len = xe - xs;
+            if (len != ye - ys) {
+                if (isAscii(x, xs, xe) && isAscii(y, ys, ye)) {
+                    return false;
+                }
+                return of(a).equals(of(b));
+            }
+            for (int i = 0; i < len; ++i) {
+                char cx = x.charAt(xs + i), cy = y.charAt(ys + i);
+                if (cx > 0x7F || cy > 0x7F) {
+                    return of(a).equals(of(b));
+                }
+                if (cx != cy && lowerAscii(cx) != lowerAscii(cy)) {
+                    return false;
+                }
+            }
+            xs = nextNonSeparator(x, xe);
+            ys = nextNonSeparator(y, ye);
+        }
+        return xs >= xl && ys >= yl;
     }
 
     /**
@@ -498,6 +585,31 @@ public final class Keyword implements Comparable<Keyword> {
         return !eq(a, b);
     }
 
+    // languages whose lower case rules map ASCII `I` to a non ASCII char
+    private static boolean asciiLowerCaseSafe() {
+        String lang = Locale.getDefault().getLanguage();
+        return !"tr".equals(lang) && !"az".equals(lang) && !"lt".equals(lang);
+    }
+
+    private static boolean isAscii(CharSequence chars, int from, int to) {
+        for (int i = from; i < to; ++i) {
+            if (chars.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char lowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    // returns the end of the token starts at `start`
+    private static int tokenEnd(CharSequence chars, int start) {
+        int pos = locateNextStop(chars, start);
+        return pos < 0 ? chars.length() : pos;
+    }
+
     private void init(CharSequence chars) {
         final FastStr fs = FastStr.of(chars);
         final int sz = fs.length();
@@ -525,7 +637,7 @@ public final class Keyword implements Comparable<Keyword> {
      * 1. Uppercase character that followed a non-uppercase character
      * 2. separator
      */
-    private static int locateNextStop(FastStr str, int start) {
+    private static int locateNextStop(CharSequence str, int start) {
         final int sz = str.length();
         if (start >= sz - 1) {
             return -1;
@@ -601,7 +713,7 @@ public final class Keyword implements Comparable<Keyword> {
         return pos;
     }
 
-    private static int nextNonSeparator(FastStr str, int start) {
+    private static int nextNonSeparator(CharSequence str, int start) {
         int sz = str.length();
         int pos = start;
         while (pos < sz) {
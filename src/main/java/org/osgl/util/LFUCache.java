@@ -29,7 +29,9 @@ import java.util.*;
  *
  * @param <K>
  * @param <V>
+ * @deprecated use {@link TinyLFUCache} instead, which does not serialize all operations on a single monitor
  */
+@Deprecated
 public class LFUCache<K, V> {
 
     private class Node {
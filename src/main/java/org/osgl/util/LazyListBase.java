@@ -0,0 +1,152 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.ListIterator;
+
+/**
+ * Base class for lazy list views that can only be traversed forward, e.g.
+ * the result of {@link C.List#filter(Lang.Function)} on a lazy list.
+ *
+ * Iterating the view pulls the elements through the upstream iterators in
+ * a single pass without building any intermediate collection. Operations
+ * that require random access, e.g. {@link #size()} or {@link #get(int)},
+ * materialize the view into an immutable list.
+ *
+ * If the source list is immutable, the functions of the view run at most
+ * once per element: the first complete iteration or the first random
+ * access caches the elements and later operations use the cache. Over a
+ * mutable source the view is evaluated again on every operation, thus it
+ * always reflects the current content of the source.
+ */
+abstract class LazyListBase<T> extends ReadOnlyListBase<T> implements C.List<T> {
+
+    protected final C.List<?> source;
+
+    private volatile C.List<T> materialized;
+
+    LazyListBase(C.List<?> source) {
+        E.NPE(source);
+        this.source = source;
+    }
+
+    /**
+     * Returns a new iterator that walks through the elements of this view.
+     *
+     * @return an iterator of this view
+     */
+    protected abstract Iterator<T> lazyIterator();
+
+    @Override
+    protected EnumSet<C.Feature> internalInitFeatures() {
+        EnumSet<C.Feature> fs = source.features();
+        fs.remove(C.Feature.RANDOM_ACCESS);
+        fs.remove(C.Feature.PARALLEL);
+        return fs;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        C.List<T> list = materialized;
+        if (null != list) {
+            return list.iterator();
+        }
+        if (!source.is(C.Feature.IMMUTABLE)) {
+            return lazyIterator();
+        }
+        return new CachingIterator(lazyIterator());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        C.List<T> list = materialized;
+        if (null != list) {
+            return list.isEmpty();
+        }
+        return !lazyIterator().hasNext();
+    }
+
+    @Override
+    public int size() {
+        return materialized().size();
+    }
+
+    @Override
+    public T get(int index) {
+        return materialized().get(index);
+    }
+
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        return materialized().listIterator(index);
+    }
+
+    private C.List<T> materialized() {
+        C.List<T> list = materialized;
+        if (null != list) {
+            return list;
+        }
+        ListBuilder<T> lb = new ListBuilder<>();
+        Iterator<T> itr = lazyIterator();
+        while (itr.hasNext()) {
+            lb.add(itr.next());
+        }
+        list = lb.toList();
+        if (source.is(C.Feature.IMMUTABLE)) {
+            materialized = list;
+        }
+        return list;
+    }
+
+    // records the elements, which become the cache once the end is reached
+    private class CachingIterator implements Iterator<T> {
+        private final Iterator<T> itr;
+        private final ListBuilder<T> lb = new ListBuilder<>();
+
+        CachingIterator(Iterator<T> itr) {
+            this.itr = itr;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = itr.hasNext();
+            if (!hasNext && null == materialized) {
+                materialized = lb.toList();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            T t = itr.next();
+            lb.add(t);
+            return t;
+        }
+
+        @Override
+        public void remove() {
+            throw E.unsupport();
+        }
+    }
+
+}
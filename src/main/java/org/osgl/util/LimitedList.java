@@ -0,0 +1,84 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A lazy view of the first {@code n} elements of a list. The source
+ * iterator is not advanced any further once {@code n} elements have been
+ * returned.
+ */
+class LimitedList<T> extends LazyListBase<T> {
+
+    private final C.List<? extends T> list;
+    private final int limit;
+
+    LimitedList(C.List<? extends T> list, int limit) {
+        super(list);
+        E.illegalArgumentIf(limit < 0, "limit shall not be negative number");
+        this.list = list;
+        this.limit = limit;
+    }
+
+    @Override
+    protected Iterator<T> lazyIterator() {
+        final Iterator<? extends T> itr = list.iterator();
+        return new Iterator<T>() {
+            private int left = limit;
+
+            @Override
+            public boolean hasNext() {
+                return left > 0 && itr.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (left <= 0) {
+                    throw new NoSuchElementException();
+                }
+                left--;
+                return itr.next();
+            }
+
+            @Override
+            public void remove() {
+                throw E.unsupport();
+            }
+        };
+    }
+
+    @Override
+    public C.List<T> take(int n) {
+        if (n >= limit) {
+            return this;
+        } else if (n >= 0) {
+            return new LimitedList<T>(list, n);
+        }
+        return super.take(n);
+    }
+
+    public static <T> C.List<T> of(C.List<? extends T> list, int limit) {
+        return new LimitedList<T>(list, limit);
+    }
+
+}
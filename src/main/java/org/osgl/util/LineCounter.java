@@ -0,0 +1,235 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Count `\n` in a file.
+ *
+ * The file is read through a {@link FileChannel} into a direct buffer
+ * taken from a small shared pool, and scanned 8 bytes at a time with SWAR (SIMD within a register)
+ * arithmetic, which the JIT compiles into a tight loop of a few
+ * instructions per word. Files larger than {@link #PARALLEL_THRESHOLD}
+ * are split into ranges counted in the {@link UtilConfig#getParallelPool()
+ * shared fork join pool}.
+ *
+ * The result is cached by the canonical path of the file and checked
+ * against the size and last modified time of the file.
+ */
+final class LineCounter {
+
+    static final int BUF_SIZE = 1024 * 1024;
+
+    static final long PARALLEL_THRESHOLD = 1024L * 1024 * 64;
+
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+
+    private static class Count {
+        final long size;
+        final long lastModified;
+        final long lines;
+
+        Count(long size, long lastModified, long lines) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.lines = lines;
+        }
+    }
+
+    private static final TinyLFUCache<String, Count> cache = new TinyLFUCache<>(1024);
+
+    private LineCounter() {
+    }
+
+    /**
+     * Returns the number of `\n` in a word.
+     *
+     * A byte of `x = word ^ NEWLINES` is zero iff the byte in word is `\n`.
+     * Adding `0x7F` to the low 7 bits of a byte sets its high bit iff the
+     * low 7 bits are not all zero, thus `~(((x & LOW7) + LOW7) | x | LOW7)`
+     * has the high bit set exactly on the zero bytes of `x`. There is no
+     * carry between bytes as `(x & LOW7) + LOW7` never overflows a byte.
+     *
+     * @param word
+     *         8 bytes
+     * @return the number of `\n` bytes in the word
+     */
+    static int newlines(long word) {
+        long x = word ^ NEWLINES;
+        long y = ~(((x & LOW7) + LOW7) | x | LOW7);
+        return Long.bitCount(y);
+    }
+
+    /**
+     * Count `\n` in a file. The result is cached until the size or
+     * the last modified time of the file changed.
+     *
+     * @param file
+     *         the file
+     * @return the number of `\n` in the file
+     */
+    static long count(File file) {
+        String key = canonicalPath(file);
+        long size = file.length();
+        long lastModified = file.lastModified();
+        Count count = cache.get(key);
+        if (null != count && count.size == size && count.lastModified == lastModified) {
+            return count.lines;
+        }
+        long lines = count(file, size);
+        cache.set(key, new Count(size, lastModified, lines));
+        return lines;
+    }
+
+    private static long count(File file, long size) {
+        FileInputStream fis = (FileInputStream) IO.inputStream(file);
+        try {
+            FileChannel channel = fis.getChannel();
+            ForkJoinPool pool = UtilConfig.getParallelPool();
+            if (size > PARALLEL_THRESHOLD && pool.getParallelism() > 1) {
+                return pool.invoke(new CountTask(channel, 0, size, PARALLEL_THRESHOLD / 4));
+            }
+            return count(channel, 0, size);
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(fis);
+        }
+    }
+
+    /**
+     * Count `\n` in range `[from, to)` of a file channel with a pooled buffer.
+     */
+    static long count(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buf = acquireBuffer();
+        try {
+            return count(channel, from, to, buf);
+        } finally {
+            releaseBuffer(buf);
+        }
+    }
+
+    /**
+     * Count `\n` in range `[from, to)` of a file channel.
+     */
+    static long count(FileChannel channel, long from, long to, ByteBuffer buf) throws IOException {
+        long lines = 0;
+        long pos = from;
+        while (pos < to) {
+            buf.clear();
+            long remaining = to - pos;
+            if (remaining < buf.capacity()) {
+                buf.limit((int) remaining);
+            }
+            int n = channel.read(buf, pos);
+            if (n < 0) {
+                break;
+            }
+            pos += n;
+            buf.flip();
+            int words = n >>> 3;
+            for (int i = 0; i < words; ++i) {
+                lines += newlines(buf.getLong(i << 3));
+            }
+            for (int i = words << 3; i < n; ++i) {
+                if (buf.get(i) == '\n') {
+                    ++lines;
+                }
+            }
+        }
+        return lines;
+    }
+
+    // idle direct buffers, bounded so the memory held does not grow with
+    // the number of threads that ever counted lines
+    private static final ArrayBlockingQueue<ByteBuffer> buffers = new ArrayBlockingQueue<>(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Returns a direct buffer of {@link #BUF_SIZE} bytes from the pool, or
+     * a new one if the pool is empty. The buffer shall be given back with
+     * {@link #releaseBuffer(ByteBuffer)}.
+     */
+    static ByteBuffer acquireBuffer() {
+        ByteBuffer buf = buffers.poll();
+        return null == buf ? ByteBuffer.allocateDirect(BUF_SIZE).order(ByteOrder.nativeOrder()) : buf;
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer is dropped, and freed by
+     * the garbage collector, if the pool is full.
+     */
+    static void releaseBuffer(ByteBuffer buf) {
+        buf.clear();
+        buffers.offer(buf);
+    }
+
+    private static String canonicalPath(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+    /**
+     * Count `\n` in range `[from, to)` by splitting the range in halves
+     * until it is no larger than `split` bytes.
+     */
+    static class CountTask extends RecursiveTask<Long> {
+        private final FileChannel channel;
+        private final long from;
+        private final long to;
+        private final long split;
+
+        CountTask(FileChannel channel, long from, long to, long split) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+            this.split = split;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= split) {
+                try {
+                    return count(channel, from, to);
+                } catch (IOException e) {
+                    throw E.ioException(e);
+                }
+            }
+            long mid = (from + to) >>> 1;
+            CountTask left = new CountTask(channel, from, mid, split);
+            left.fork();
+            long right = new CountTask(channel, mid, to, split).compute();
+            return left.join() + right;
+        }
+    }
+}
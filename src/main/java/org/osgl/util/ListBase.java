@@ -25,6 +25,8 @@ import static org.osgl.util.C.Feature.SORTED;
 import org.osgl.$;
 import org.osgl.Lang;
 import org.osgl.exception.NotAppliedException;
+import org.osgl.util.algo.Algorithms;
+import org.osgl.util.algo.ArraySort;
 
 import java.util.*;
 
@@ -139,26 +141,30 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
     public C.List<T> sorted() {
         if (size() == 0) return C.newList();
         T t = get(0);
-        C.List<T> l = copy();
         if (!(t instanceof Comparable)) {
-            return l;
+            return copy();
         }
-        Object[] a = l.toArray();
-       	Arrays.sort(a);
-       	ListIterator<T> i = l.listIterator();
-       	for (int j=0; j<a.length; j++) {
-       	    i.next();
-       	    i.set((T)a[j]);
-       	}
-        ((ListBase)l).setFeature(SORTED);
+        C.List<T> l = sortedCopy(null);
         sorted = true;
         return l;
     }
 
     @Override
     public C.List<T> sorted(Comparator<? super T> comparator) {
-        C.List<T> l = copy();
-        Collections.sort(l, comparator);
+        return sortedCopy(comparator);
+    }
+
+    /*
+     * Sort a copy of this list with a stable merge sort. Large lists with
+     * PARALLEL feature turned on are sorted by the fork-join merge sort.
+     */
+    private C.List<T> sortedCopy(Comparator<? super T> comparator) {
+        T[] a = (T[]) toArray();
+        ArraySort<T> sort = a.length > ParallelListOps.threshold() && is(C.Feature.PARALLEL)
+                ? Algorithms.<T>arrayParallelMergeSort()
+                : Algorithms.<T>arrayPingPongMergeSort();
+        sort.sort(a, 0, a.length, (Comparator<T>) comparator);
+        C.List<T> l = C.newListOf(a);
         ((ListBase)l).setFeature(SORTED);
         return l;
     }
@@ -315,6 +321,9 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
 
     @Override
     public $.Option<T> findOne(final $.Function<? super T, Boolean> predicate) {
+        if (is(C.Feature.PARALLEL) && ParallelListOps.applicable(this, size())) {
+            return ParallelListOps.findOne(this, predicate);
+        }
         try {
             forEach(new $.Visitor<T>() {
                 @Override
@@ -394,6 +403,8 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
             }
         } else if (n < 0) {
             return drop(size() + n);
+        } else if (isLazy() && !is(C.Feature.RANDOM_ACCESS)) {
+            return LimitedList.of(this, n);
         } else if (n >= size()) {
             return this;
         }
@@ -527,11 +538,14 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
 
     @Override
     public <R> C.List<R> map($.Function<? super T, ? extends R> mapper) {
-        boolean immutable = isImmutable();
-        int sz = size();
         if (isLazy()) {
             return MappedList.of(this, mapper);
         }
+        boolean immutable = isImmutable();
+        int sz = size();
+        if (ParallelListOps.applicable(this, sz)) {
+            return parallelResult(ParallelListOps.map(this, mapper), immutable);
+        }
         if (immutable) {
             if (0 == sz) {
                 return Nil.list();
@@ -552,9 +566,14 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
     @Override
     public <R> C.List<R> flatMap($.Function<? super T, ? extends Iterable<? extends R>> mapper
     ) {
+        if (isLazy()) {
+            return FlatMappedList.of(this, mapper);
+        }
         boolean immutable = isImmutable();
         int sz = size();
-        // TODO: handle lazy flatmap
+        if (ParallelListOps.applicable(this, sz)) {
+            return parallelResult(ParallelListOps.flatMap(this, mapper), immutable);
+        }
         if (immutable) {
             if (0 == sz) {
                 return Nil.list();
@@ -596,9 +615,14 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
 
     @Override
     public C.List<T> filter($.Function<? super T, Boolean> predicate) {
+        if (isLazy()) {
+            return FilteredList.of(this, predicate);
+        }
         boolean immutable = isImmutable();
         int sz = size();
-        // TODO: handle lazy filter
+        if (ParallelListOps.applicable(this, sz)) {
+            return parallelResult(ParallelListOps.filter(this, predicate), immutable);
+        }
         if (immutable) {
             if (0 == sz) {
                 return Nil.list();
@@ -616,6 +640,14 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
         }
     }
 
+    // build the list from the result of a parallel operation
+    private static <R> C.List<R> parallelResult(Object[] data, boolean immutable) {
+        if (immutable) {
+            return ImmutableList.of((R[]) data);
+        }
+        return C.newListOf((R[]) data);
+    }
+
     @Override
     public Lang.T2<C.List<T>, C.List<T>> split(final Lang.Function<? super T, Boolean> predicate) {
         final C.List<T> left = C.newList();
@@ -709,6 +741,30 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
         }
     }
 
+    @Override
+    public C.List<T> update(int index, T t) throws IndexOutOfBoundsException {
+        int sz = size();
+        if (index < 0 || index >= sz) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (isMutable()) {
+            set(index, t);
+            return this;
+        }
+        if (isImmutable()) {
+            ListBuilder<T> lb = new ListBuilder<T>(sz);
+            int i = 0;
+            for (T e : this) {
+                lb.add(i++ == index ? t : e);
+            }
+            return lb.toList();
+        }
+        C.List<T> l = C.newSizedList(sz);
+        l.addAll(this);
+        l.set(index, t);
+        return l;
+    }
+
     @Override
     public C.List<T> insert(int index, T... ta) throws IndexOutOfBoundsException {
         if (ta.length == 0) {
@@ -1260,6 +1316,9 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
 
     @Override
     public $.Option<T> reduce($.Func2<T, T, T> accumulator) {
+        if (ParallelListOps.applicable(this, size())) {
+            return ParallelListOps.reduce(this, accumulator);
+        }
         return reduceLeft(accumulator);
     }
 
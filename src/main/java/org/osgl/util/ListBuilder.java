@@ -186,6 +186,27 @@ implements RandomAccess, Serializable {
         return addAll(size, c);
     }
 
+    /**
+     * Append all elements in another builder to this builder.
+     *
+     * <p>Together with {@link #create()} and {@link #add(Object)} this
+     * makes a builder usable as the result container of a stream
+     * collection, so that the stream is collected straight into an
+     * immutable list without going through an {@code ArrayList}:</p>
+     *
+     * <pre>{@code
+     * C.List<Foo> list = stream.collect(ListBuilder::<Foo>create,
+     *         ListBuilder::add, ListBuilder::merge).toList();
+     * }</pre>
+     *
+     * @param other the builder whose elements will be appended
+     * @return this builder
+     */
+    public ListBuilder<T> merge(ListBuilder<? extends T> other) {
+        addAll(size, other);
+        return this;
+    }
+
     public boolean addAll(int index, ListBuilder<? extends T> c) {
         checkState();
         if (index < 0 || index > size) {
@@ -434,12 +455,22 @@ implements RandomAccess, Serializable {
      * is obsolete after calling this method, and calling other building
      * method thereafter will trigger {@link IllegalStateException}
      *
+     * <p>Lists with more than {@link PersistentVector#THRESHOLD} elements
+     * are built as persistent vectors so that further {@code append},
+     * {@code prepend} and {@code update} calls share the structure
+     * instead of copying all elements</p>
+     *
      * @return an immutable list of all element of this builder
      */
     public C.List<T> toList() {
         checkState();
-        trimToSize();
         Object[] data = buf;
+        if (size > PersistentVector.THRESHOLD) {
+            buf = null;
+            return PersistentVector.of(data, size);
+        }
+        trimToSize();
+        data = buf;
         buf = null;
         return (C.List<T>)ImmutableList.of(data);
     }
@@ -0,0 +1,340 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.algo.Algorithms;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Implements {@link C.LongList} operations on top of {@link #get(int)}
+ * and {@link #size()}. Sub classes override the operations they can do
+ * better.
+ */
+abstract class LongListBase implements C.LongList, Serializable {
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == size();
+    }
+
+    @Override
+    public long[] toArray() {
+        int sz = size();
+        long[] a = new long[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = get(i);
+        }
+        return a;
+    }
+
+    @Override
+    public C.LongList map(C.LongFunc mapper) {
+        int sz = size();
+        long[] a = new long[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = mapper.apply(get(i));
+        }
+        return new ImmutableLongList(a);
+    }
+
+    @Override
+    public C.LongList filter(C.LongPredicate predicate) {
+        int sz = size();
+        long[] a = new long[sz];
+        int n = 0;
+        for (int i = 0; i < sz; ++i) {
+            long v = get(i);
+            if (predicate.test(v)) {
+                a[n++] = v;
+            }
+        }
+        return new ImmutableLongList(n == sz ? a : Arrays.copyOf(a, n));
+    }
+
+    @Override
+    public long reduce(long identity, C.LongFunc2 accumulator) {
+        long r = identity;
+        for (int i = 0, sz = size(); i < sz; ++i) {
+            r = accumulator.apply(r, get(i));
+        }
+        return r;
+    }
+
+    @Override
+    public long sum() {
+        long sum = 0;
+        for (int i = 0, sz = size(); i < sz; ++i) {
+            sum += get(i);
+        }
+        return sum;
+    }
+
+    @Override
+    public C.LongList sorted() {
+        long[] a = toArray();
+        Algorithms.arrayPrimitiveSort().sort(a, 0, a.length);
+        return new ImmutableLongList(a);
+    }
+
+    @Override
+    public int binarySearch(long key) {
+        int lo = 0;
+        int hi = size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long v = get(mid);
+            int c = v < key ? -1 : (v == key ? 0 : 1);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    @Override
+    public C.List<Long> boxed() {
+        int sz = size();
+        if (0 == sz) {
+            return Nil.list();
+        }
+        Long[] a = new Long[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = get(i);
+        }
+        return C.listOf(a);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0, sz = size(); i < sz; ++i) {
+            long v = get(i);
+            h = 31 * h + (int) (v ^ (v >>> 32));
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof C.LongList)) {
+            return false;
+        }
+        C.LongList that = (C.LongList) obj;
+        int sz = size();
+        if (sz != that.size()) {
+            return false;
+        }
+        for (int i = 0; i < sz; ++i) {
+            if (get(i) != that.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
+
+/**
+ * A {@link C.LongList} backed by an array.
+ */
+class ImmutableLongList extends LongListBase {
+
+    private static final long serialVersionUID = 1L;
+
+    static final ImmutableLongList EMPTY = new ImmutableLongList(new long[0]);
+
+    private final long[] data;
+
+    /**
+     * Construct the list with an array. The array will be used
+     * directly as the backing data of this list. No data copy happen
+     *
+     * @param data the array of elements
+     */
+    ImmutableLongList(long[] data) {
+        E.NPE(data);
+        this.data = data;
+    }
+
+    @Override
+    public int size() {
+        return data.length;
+    }
+
+    @Override
+    public long get(int index) {
+        return data[index];
+    }
+
+    @Override
+    public long[] toArray() {
+        return data.clone();
+    }
+
+    @Override
+    public C.LongList map(C.LongFunc mapper) {
+        long[] src = data;
+        int sz = src.length;
+        long[] a = new long[sz];
+        for (int i = 0; i < sz; ++i) {
+            a[i] = mapper.apply(src[i]);
+        }
+        return new ImmutableLongList(a);
+    }
+
+    @Override
+    public C.LongList filter(C.LongPredicate predicate) {
+        long[] src = data;
+        int sz = src.length;
+        long[] a = new long[sz];
+        int n = 0;
+        for (int i = 0; i < sz; ++i) {
+            long v = src[i];
+            if (predicate.test(v)) {
+                a[n++] = v;
+            }
+        }
+        return n == sz ? this : new ImmutableLongList(Arrays.copyOf(a, n));
+    }
+
+    @Override
+    public long reduce(long identity, C.LongFunc2 accumulator) {
+        long r = identity;
+        for (long v : data) {
+            r = accumulator.apply(r, v);
+        }
+        return r;
+    }
+
+    @Override
+    public long sum() {
+        long sum = 0;
+        for (long v : data) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    @Override
+    public C.LongList sorted() {
+        long[] a = data;
+        for (int i = 1; i < a.length; ++i) {
+            if (a[i - 1] > a[i]) {
+                a = a.clone();
+                Algorithms.arrayPrimitiveSort().sort(a, 0, a.length);
+                return new ImmutableLongList(a);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public int binarySearch(long key) {
+        return Arrays.binarySearch(data, key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+}
+
+/**
+ * An arithmetic progression of {@code long} values that computes its
+ * elements on demand.
+ */
+class LongRangeList extends LongListBase {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long from;
+    private final long step;
+    private final int size;
+
+    LongRangeList(long from, long step, int size) {
+        this.from = from;
+        this.step = step;
+        this.size = size;
+    }
+
+    /**
+     * Create a range from {@code from} (inclusive) to {@code to} (exclusive).
+     * The range is descending if {@code from} is larger than {@code to}.
+     *
+     * @param from the first value
+     * @param to the end value, exclusive
+     * @param stepLen the distance between two adjacent values, must be positive
+     * @return the range
+     */
+    static C.LongList of(long from, long to, long stepLen) {
+        E.illegalArgumentIf(stepLen < 1, "step length shall be positive: %s", stepLen);
+        BigInteger distance = BigInteger.valueOf(to).subtract(BigInteger.valueOf(from)).abs();
+        BigInteger[] qr = distance.divideAndRemainder(BigInteger.valueOf(stepLen));
+        E.illegalArgumentIf(qr[0].bitLength() > 31, "range too large");
+        long n = qr[0].longValue() + (qr[1].signum() > 0 ? 1 : 0);
+        E.illegalArgumentIf(n > Integer.MAX_VALUE, "range too large");
+        if (0 == n) {
+            return ImmutableLongList.EMPTY;
+        }
+        return new LongRangeList(from, from <= to ? stepLen : -stepLen, (int) n);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return from + index * step;
+    }
+
+    @Override
+    public long sum() {
+        long n = size;
+        return n * from + step * (n * (n - 1) / 2);
+    }
+
+    @Override
+    public C.LongList sorted() {
+        if (step > 0) {
+            return this;
+        }
+        return new LongRangeList(get(size - 1), -step, size);
+    }
+}
@@ -23,6 +23,7 @@ package org.osgl.util;
 import org.osgl.$;
 
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.ListIterator;
 
 /**
@@ -48,6 +49,11 @@ class MappedList<T, R> extends ReadOnlyListBase<R> implements C.List<R> {
         return l_.features();
     }
 
+    @Override
+    public Iterator<R> iterator() {
+        return new MappedIterator<T, R>(l_.iterator(), m_);
+    }
+
     @Override
     public ListIterator<R> listIterator(int index) {
         return new MappedListIterator<T, R>(l_.listIterator(index), m_);
@@ -0,0 +1,351 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.util.DataMapper.MappingRule;
+import org.osgl.util.DataMapper.Semantic;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A compiled plan of mapping into a POJO target with {@link DataMapper}.
+ *
+ * A plan resolves everything that does not change from one mapping call
+ * to another: the target fields to be mapped after applying the filter spec,
+ * the full property path keys, the special name mappings, the generic field
+ * types and the source fields matching each target field. Field access
+ * goes through {@link MethodHandle}s bound at compile time.
+ *
+ * Plans are grouped into {@link Scope}s. A scope is identified by
+ * the mapping settings that affect plan compilation, i.e. the
+ * {@link Semantic}, {@link MappingRule}, filter spec and special mappings.
+ * Inside a scope, a plan is identified by the source type, the target
+ * type, the root class and the context path of the target. The plans are
+ * attached to the target type through a {@link ClassValue}, so caching a
+ * plan does not keep the target class from being unloaded.
+ */
+final class MappingPlan {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final TinyLFUCache<ScopeKey, Scope> scopes = new TinyLFUCache<>(1024);
+
+    /**
+     * A mapping property corresponding to a target field
+     */
+    static final class Property {
+        final Field field;
+        final Class<?> type;
+        final String name;
+        final String key;
+        final ParameterizedType genericType;
+        final boolean isTransient;
+        final boolean isContainer;
+        final String specialMap;
+
+        /**
+         * The name of the source property resolved at compile time
+         */
+        final String sourceName;
+
+        /**
+         * `true` if {@link #sourceName} has been resolved on a POJO source type
+         */
+        final boolean sourceResolved;
+
+        private final Field sourceField;
+        private final MethodHandle sourceGetter;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Property(Field field, String key, String specialMap, Field sourceField, boolean sourceResolved) {
+            this.field = field;
+            this.type = field.getType();
+            this.name = field.getName();
+            this.key = key;
+            Type genericType = field.getGenericType();
+            this.genericType = genericType instanceof ParameterizedType ? (ParameterizedType) genericType : null;
+            this.isTransient = Modifier.isTransient(field.getModifiers());
+            this.isContainer = type.isArray() || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type);
+            this.specialMap = specialMap;
+            this.sourceName = null == specialMap ? name : specialMap;
+            this.sourceResolved = sourceResolved;
+            this.sourceField = sourceField;
+            this.sourceGetter = null == sourceField ? null : getterOf(sourceField);
+            this.getter = getterOf(field);
+            this.setter = setterOf(field);
+        }
+
+        /**
+         * Is there a source field matching this property.
+         */
+        boolean hasSource() {
+            return null != sourceField;
+        }
+
+        Object sourceValue(Object source) {
+            if (null == sourceField) {
+                return null;
+            }
+            if (null == sourceGetter) {
+                return $.getFieldValue(source, sourceField);
+            }
+            try {
+                return (Object) sourceGetter.invokeExact(source);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw E.unexpected(e);
+            }
+        }
+
+        Object get(Object target) {
+            if (null == getter) {
+                return $.getFieldValue(target, field);
+            }
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw E.unexpected(e);
+            }
+        }
+
+        void set(Object target, Object value) {
+            if (null == setter) {
+                $.setFieldValue(target, field, value);
+                return;
+            }
+            try {
+                setter.invokeExact(target, value);
+            } catch (ClassCastException | NullPointerException e) {
+                // keep consistent with Field.set(Object, Object)
+                throw new IllegalArgumentException(S.fmt("Can not set %s field %s.%s to %s",
+                        type.getName(), field.getDeclaringClass().getName(), name, value), e);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw E.unexpected(e);
+            }
+        }
+    }
+
+    final Property[] properties;
+
+    private MappingPlan(Property[] properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * The group of plans sharing the same mapping settings
+     */
+    static final class Scope {
+        private final ClassValue<ConcurrentMap<PlanKey, MappingPlan>> plans = new ClassValue<ConcurrentMap<PlanKey, MappingPlan>>() {
+            @Override
+            protected ConcurrentMap<PlanKey, MappingPlan> computeValue(Class<?> targetType) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+        /**
+         * The property filter built from the filter spec and special mappings of this scope
+         */
+        volatile DataMapper.PropertyFilter filter;
+
+        /**
+         * Returns a plan from this scope. The plan is compiled on first request.
+         *
+         * @param sourceType the source type, `null` if source is a `Map`
+         * @param targetType the target type
+         * @param rootClass the root class to stop field exploring
+         * @param context the property path of the target
+         * @param rule the mapping rule
+         * @param filter the property filter
+         * @param specialMapping the special name mappings
+         * @return the mapping plan
+         */
+        MappingPlan plan(
+                Class<?> sourceType, Class<?> targetType, Class<?> rootClass, String context,
+                MappingRule rule, $.Predicate<String> filter, Map<String, String> specialMapping
+        ) {
+            ConcurrentMap<PlanKey, MappingPlan> targetPlans = plans.get(targetType);
+            PlanKey key = new PlanKey(sourceType, rootClass, context);
+            MappingPlan plan = targetPlans.get(key);
+            if (null == plan) {
+                plan = compile(sourceType, targetType, rootClass, context, rule, filter, specialMapping);
+                MappingPlan existing = targetPlans.putIfAbsent(key, plan);
+                if (null != existing) {
+                    plan = existing;
+                }
+            }
+            return plan;
+        }
+    }
+
+    /**
+     * Returns the plan scope for mapping settings specified.
+     */
+    static Scope scope(Semantic semantic, MappingRule rule, String filterSpec, Map<String, String> specialMapping) {
+        ScopeKey key = new ScopeKey(semantic, rule, filterSpec, specialMapping);
+        Scope scope = scopes.get(key);
+        if (null == scope) {
+            scope = new Scope();
+            scopes.set(key.copy(), scope);
+        }
+        return scope;
+    }
+
+    private static MappingPlan compile(
+            Class<?> sourceType, Class<?> targetType, Class<?> rootClass, String context,
+            MappingRule rule, $.Predicate<String> filter, Map<String, String> specialMapping
+    ) {
+        Map<Keyword, Field> sourceFieldsByKeyword = null;
+        if (null != sourceType && rule.keywordMatching()) {
+            sourceFieldsByKeyword = new HashMap<>();
+            for (Field sourceField : $.fieldsOf(sourceType)) {
+                sourceFieldsByKeyword.put(Keyword.of(sourceField.getName()), sourceField);
+            }
+        }
+        List<Property> properties = new ArrayList<>();
+        for (Field field : $.fieldsOf(targetType, rootClass, true)) {
+            String name = field.getName();
+            String key = S.notBlank(context) ? S.pathConcat(context, '.', name) : name;
+            if (!filter.test(key)) {
+                continue;
+            }
+            String specialMap = specialMapping.get(key);
+            String sourceName = null == specialMap ? name : specialMap;
+            Field sourceField = null;
+            if (null != sourceFieldsByKeyword) {
+                sourceField = sourceFieldsByKeyword.get(Keyword.of(sourceName));
+            } else if (null != sourceType) {
+                sourceField = $.fieldOf(sourceType, sourceName);
+            }
+            properties.add(new Property(field, key, specialMap, sourceField, null != sourceType));
+        }
+        return new MappingPlan(properties.toArray(new Property[properties.size()]));
+    }
+
+    private static MethodHandle getterOf(Field field) {
+        try {
+            field.setAccessible(true);
+            return LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (Exception e) {
+            // fall back to reflection
+            return null;
+        }
+    }
+
+    private static MethodHandle setterOf(Field field) {
+        try {
+            field.setAccessible(true);
+            return LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (Exception e) {
+            // fall back to reflection, e.g. final fields
+            return null;
+        }
+    }
+
+    private static final class ScopeKey {
+        private final Semantic semantic;
+        private final MappingRule rule;
+        private final String filterSpec;
+        private final Map<String, String> specialMapping;
+        private final int hc;
+
+        ScopeKey(Semantic semantic, MappingRule rule, String filterSpec, Map<String, String> specialMapping) {
+            this.semantic = semantic;
+            this.rule = rule;
+            this.filterSpec = S.blank(filterSpec) ? "" : filterSpec;
+            this.specialMapping = specialMapping;
+            this.hc = $.hc(semantic, rule, this.filterSpec, specialMapping);
+        }
+
+        /*
+         * Returns a key that does not refer to the mutable special mapping passed in
+         */
+        ScopeKey copy() {
+            Map<String, String> specialMapping = this.specialMapping.isEmpty() ? C.<String, String>Map() : new HashMap<>(this.specialMapping);
+            return new ScopeKey(semantic, rule, filterSpec, specialMapping);
+        }
+
+        @Override
+        public int hashCode() {
+            return hc;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof ScopeKey) {
+                ScopeKey that = (ScopeKey) obj;
+                return hc == that.hc && semantic == that.semantic && rule == that.rule
+                        && filterSpec.equals(that.filterSpec) && specialMapping.equals(that.specialMapping);
+            }
+            return false;
+        }
+    }
+
+    private static final class PlanKey {
+        private final Class<?> sourceType;
+        private final Class<?> rootClass;
+        private final String context;
+        private final int hc;
+
+        PlanKey(Class<?> sourceType, Class<?> rootClass, String context) {
+            this.sourceType = sourceType;
+            this.rootClass = rootClass;
+            this.context = context;
+            this.hc = $.hc(sourceType, rootClass, context);
+        }
+
+        @Override
+        public int hashCode() {
+            return hc;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof PlanKey) {
+                PlanKey that = (PlanKey) obj;
+                return sourceType == that.sourceType && rootClass == that.rootClass
+                        && context.equals(that.context);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.math.BigInteger;
+import java.text.DecimalFormatSymbols;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Formattable;
+import java.util.Locale;
+
+/**
+ * A parsed message template used by {@link S#fmt(String, Object...)} and
+ * {@link S#msgFmt(String, Object...)}.
+ *
+ * Templates are parsed once and cached. Rendering goes into the thread
+ * local {@link S.Buffer}. Only the following placeholders are rendered
+ * by the template itself:
+ *
+ * * printf style: `%s`, `%d`, `%x`, `%X`, `%n` and `%%`
+ * * message format style: `{0}`, `{1}` ...
+ *
+ * A template containing any other specifier, or an argument that cannot
+ * be rendered exactly the same way as {@link String#format(String, Object...)}
+ * or {@link MessageFormat#format(String, Object...)} does, e.g. a
+ * {@link Formattable} or a {@link Number} for message format, is
+ * delegated to the JDK formatter.
+ */
+final class MessageTemplate {
+
+    // the max number of templates kept in each cache
+    private static final int CACHE_SIZE = 1024;
+
+    private static final TinyLFUCache<String, MessageTemplate> printfCache = new TinyLFUCache<>(CACHE_SIZE);
+    private static final TinyLFUCache<String, MessageTemplate> msgFmtCache = new TinyLFUCache<>(CACHE_SIZE);
+
+    private static final byte STRING = 0;
+    private static final byte DECIMAL = 1;
+    private static final byte HEX = 2;
+    private static final byte HEX_UPPER = 3;
+    private static final byte MSG_ARG = 4;
+
+    private final String source;
+    private final boolean printf;
+
+    // `literals.length == kinds.length + 1`, `null` if the template is not supported
+    private final String[] literals;
+    private final byte[] kinds;
+    private final int[] argIndexes;
+
+    private MessageTemplate(String source, boolean printf, String[] literals, byte[] kinds, int[] argIndexes) {
+        this.source = source;
+        this.printf = printf;
+        this.literals = literals;
+        this.kinds = kinds;
+        this.argIndexes = argIndexes;
+    }
+
+    /**
+     * Render the template with arguments specified.
+     *
+     * @param args the arguments
+     * @return the rendered string
+     */
+    String render(Object... args) {
+        String[] literals = this.literals;
+        if (null == literals) {
+            return fallback(args);
+        }
+        byte[] kinds = this.kinds;
+        int[] argIndexes = this.argIndexes;
+        int n = kinds.length;
+        if (printf && n > args.length) {
+            // let the JDK formatter report the missing argument
+            return fallback(args);
+        }
+        for (int i = 0; i < n; ++i) {
+            int argIdx = argIndexes[i];
+            if (argIdx < args.length && !supports(kinds[i], args[argIdx])) {
+                return fallback(args);
+            }
+        }
+        S.Buffer buf = S.buffer();
+        buf.append(literals[0]);
+        for (int i = 0; i < n; ++i) {
+            int argIdx = argIndexes[i];
+            if (argIdx < args.length) {
+                append(buf, kinds[i], args[argIdx]);
+            } else {
+                // message format prints the placeholder of a missing argument
+                buf.append('{').append(argIdx).append('}');
+            }
+            buf.append(literals[i + 1]);
+        }
+        return buf.toString();
+    }
+
+    private String fallback(Object[] args) {
+        return printf ? String.format(source, args) : MessageFormat.format(source, args);
+    }
+
+    private static boolean supports(byte kind, Object arg) {
+        if (null == arg) {
+            return true;
+        }
+        switch (kind) {
+            case STRING:
+                return !(arg instanceof Formattable);
+            case DECIMAL:
+                return isIntegral(arg) && asciiDigits();
+            case HEX:
+            case HEX_UPPER:
+                return isIntegral(arg);
+            default:
+                return !(arg instanceof Number) && !(arg instanceof Date);
+        }
+    }
+
+    private static boolean isIntegral(Object arg) {
+        return arg instanceof Integer || arg instanceof Long || arg instanceof Short
+                || arg instanceof Byte || arg instanceof BigInteger;
+    }
+
+    private static void append(S.Buffer buf, byte kind, Object arg) {
+        if (null == arg) {
+            buf.append(HEX_UPPER == kind ? "NULL" : "null");
+            return;
+        }
+        switch (kind) {
+            case DECIMAL:
+                if (arg instanceof BigInteger) {
+                    buf.append(arg.toString());
+                } else {
+                    buf.append(((Number) arg).longValue());
+                }
+                return;
+            case HEX:
+                buf.append(hex(arg));
+                return;
+            case HEX_UPPER:
+                buf.append(hex(arg).toUpperCase(Locale.ROOT));
+                return;
+            default:
+                buf.append(arg.toString());
+        }
+    }
+
+    // follows the two's complement rule of java.util.Formatter
+    private static String hex(Object arg) {
+        if (arg instanceof Integer) {
+            return Integer.toHexString((Integer) arg);
+        } else if (arg instanceof Long) {
+            return Long.toHexString((Long) arg);
+        } else if (arg instanceof Short) {
+            return Integer.toHexString(((Short) arg) & 0xFFFF);
+        } else if (arg instanceof Byte) {
+            return Integer.toHexString(((Byte) arg) & 0xFF);
+        }
+        return ((BigInteger) arg).toString(16);
+    }
+
+    private static final class DigitLocale {
+        final Locale locale;
+        final boolean ascii;
+
+        DigitLocale(Locale locale) {
+            this.locale = locale;
+            this.ascii = Locale.US.equals(locale) || '0' == DecimalFormatSymbols.getInstance(locale).getZeroDigit();
+        }
+    }
+
+    private static volatile DigitLocale digitLocale;
+
+    // check if the default format locale prints decimal numbers with ASCII digits
+    private static boolean asciiDigits() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        DigitLocale dl = digitLocale;
+        if (null == dl || dl.locale != locale) {
+            dl = new DigitLocale(locale);
+            digitLocale = dl;
+        }
+        return dl.ascii;
+    }
+
+    /**
+     * Returns the parsed template of a {@link String#format(String, Object...)}
+     * style template.
+     *
+     * @param source the template
+     * @return the parsed template
+     */
+    static MessageTemplate printf(String source) {
+        MessageTemplate template = printfCache.get(source);
+        if (null == template) {
+            template = parsePrintf(source);
+            printfCache.set(source, template);
+        }
+        return template;
+    }
+
+    /**
+     * Returns the parsed template of a {@link MessageFormat} style template.
+     *
+     * @param source the template
+     * @return the parsed template
+     */
+    static MessageTemplate msgFmt(String source) {
+        MessageTemplate template = msgFmtCache.get(source);
+        if (null == template) {
+            template = parseMsgFmt(source);
+            msgFmtCache.set(source, template);
+        }
+        return template;
+    }
+
+    private static MessageTemplate parsePrintf(String source) {
+        int len = source.length();
+        Parts parts = new Parts();
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; ++i) {
+            char c = source.charAt(i);
+            if (c != '%') {
+                sb.append(c);
+                continue;
+            }
+            if (++i == len) {
+                return unsupported(source, true);
+            }
+            byte kind;
+            switch (source.charAt(i)) {
+                case '%':
+                    sb.append('%');
+                    continue;
+                case 'n':
+                    sb.append(System.lineSeparator());
+                    continue;
+                case 's':
+                    kind = STRING;
+                    break;
+                case 'd':
+                    kind = DECIMAL;
+                    break;
+                case 'x':
+                    kind = HEX;
+                    break;
+                case 'X':
+                    kind = HEX_UPPER;
+                    break;
+                default:
+                    return unsupported(source, true);
+            }
+            parts.add(sb, kind, parts.size);
+        }
+        return parts.toTemplate(source, true, sb);
+    }
+
+    private static MessageTemplate parseMsgFmt(String source) {
+        int len = source.length();
+        Parts parts = new Parts();
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; ++i) {
+            char c = source.charAt(i);
+            if (c == '\'' || c == '}') {
+                return unsupported(source, false);
+            }
+            if (c != '{') {
+                sb.append(c);
+                continue;
+            }
+            int start = ++i;
+            int argIdx = 0;
+            while (i < len) {
+                char d = source.charAt(i);
+                if (d < '0' || d > '9') {
+                    break;
+                }
+                argIdx = argIdx * 10 + (d - '0');
+                i++;
+            }
+            if (i == start || i - start > 6 || i == len || source.charAt(i) != '}') {
+                return unsupported(source, false);
+            }
+            parts.add(sb, MSG_ARG, argIdx);
+        }
+        return parts.toTemplate(source, false, sb);
+    }
+
+    private static MessageTemplate unsupported(String source, boolean printf) {
+        return new MessageTemplate(source, printf, null, null, null);
+    }
+
+    private static final class Parts {
+        String[] literals = new String[4];
+        byte[] kinds = new byte[4];
+        int[] argIndexes = new int[4];
+        int size;
+
+        void add(StringBuilder literal, byte kind, int argIdx) {
+            if (size == kinds.length) {
+                int newLen = size << 1;
+                literals = Arrays.copyOf(literals, newLen + 1);
+                kinds = Arrays.copyOf(kinds, newLen);
+                argIndexes = Arrays.copyOf(argIndexes, newLen);
+            }
+            literals[size] = literal.toString();
+            literal.setLength(0);
+            kinds[size] = kind;
+            argIndexes[size] = argIdx;
+            size++;
+        }
+
+        MessageTemplate toTemplate(String source, boolean printf, StringBuilder lastLiteral) {
+            String[] la = Arrays.copyOf(literals, size + 1);
+            la[size] = lastLiteral.toString();
+            return new MessageTemplate(source, printf, la,
+                    Arrays.copyOf(kinds, size), Arrays.copyOf(argIndexes, size));
+        }
+    }
+
+}
@@ -0,0 +1,337 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fork-join implementation of the bulk operations on random access
+ * lists that has {@link C.Feature#PARALLEL} turned on.
+ *
+ * The list is split into chunks of {@link #threshold()} elements. Each
+ * chunk is processed by a leaf task and the chunk results are assembled
+ * in the original order, thus the result of a parallel `map`, `filter`
+ * or `flatMap` is the same as the sequential one as long as the function
+ * supplied has no side effect.
+ *
+ * Like the sequential operations, elements on which the function throws
+ * out {@link NotAppliedException} are skipped.
+ */
+final class ParallelListOps {
+
+    /**
+     * The default minimum number of elements processed by a single task.
+     */
+    static final int DEF_THRESHOLD = 1024 * 8;
+
+    private static volatile int threshold = DEF_THRESHOLD;
+
+    private static volatile ForkJoinPool pool;
+
+    // marks a skipped element in the map result and a chunk that has skipped elements
+    private static final Object SKIP = new Object();
+
+    private ParallelListOps() {
+    }
+
+    static void setThreshold(int threshold) {
+        E.illegalArgumentIf(threshold < 1, "threshold shall be positive number");
+        ParallelListOps.threshold = threshold;
+    }
+
+    static int threshold() {
+        return threshold;
+    }
+
+    static void setPool(ForkJoinPool pool) {
+        ParallelListOps.pool = pool;
+    }
+
+    static ForkJoinPool pool() {
+        ForkJoinPool pool = ParallelListOps.pool;
+        if (null == pool) {
+            synchronized (ParallelListOps.class) {
+                pool = ParallelListOps.pool;
+                if (null == pool) {
+                    pool = new ForkJoinPool();
+                    ParallelListOps.pool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Check if a bulk operation on the list shall be executed in parallel.
+     *
+     * @param list the list
+     * @param size the size of the list
+     * @return `true` if the list is parallel, random access and large enough to split
+     */
+    static boolean applicable(C.Traversable<?> list, int size) {
+        return size > threshold && list.is(C.Feature.PARALLEL) && list.is(C.Feature.RANDOM_ACCESS);
+    }
+
+    static <T> Object[] map(final List<T> list, final $.Function<? super T, ?> mapper) {
+        final Object[] result = new Object[list.size()];
+        Object[] skipped = run(new Chunks(result.length) {
+            @Override
+            Object leaf(int from, int to) {
+                boolean skip = false;
+                for (int i = from; i < to; ++i) {
+                    try {
+                        result[i] = mapper.apply(list.get(i));
+                    } catch (NotAppliedException e) {
+                        result[i] = SKIP;
+                        skip = true;
+                    }
+                }
+                return skip ? SKIP : null;
+            }
+        });
+        boolean skip = false;
+        for (Object o : skipped) {
+            if (SKIP == o) {
+                skip = true;
+                break;
+            }
+        }
+        if (!skip) {
+            return result;
+        }
+        int n = 0;
+        for (Object o : result) {
+            if (SKIP != o) {
+                result[n++] = o;
+            }
+        }
+        Object[] compacted = new Object[n];
+        System.arraycopy(result, 0, compacted, 0, n);
+        return compacted;
+    }
+
+    static <T> Object[] filter(final List<T> list, final $.Function<? super T, Boolean> predicate) {
+        return concat(run(new Chunks(list.size()) {
+            @Override
+            Object leaf(int from, int to) {
+                Object[] buf = new Object[to - from];
+                int n = 0;
+                for (int i = from; i < to; ++i) {
+                    T t = list.get(i);
+                    try {
+                        if (predicate.apply(t)) {
+                            buf[n++] = t;
+                        }
+                    } catch (NotAppliedException e) {
+                        // ignore
+                    }
+                }
+                if (n < buf.length) {
+                    Object[] a = new Object[n];
+                    System.arraycopy(buf, 0, a, 0, n);
+                    buf = a;
+                }
+                return buf;
+            }
+        }));
+    }
+
+    static <T> Object[] flatMap(final List<T> list, final $.Function<? super T, ? extends Iterable<?>> mapper) {
+        return concat(run(new Chunks(list.size()) {
+            @Override
+            Object leaf(int from, int to) {
+                ArrayList<Object> buf = new ArrayList<>((to - from) * 3);
+                for (int i = from; i < to; ++i) {
+                    Iterable<?> iterable;
+                    try {
+                        iterable = mapper.apply(list.get(i));
+                    } catch (NotAppliedException e) {
+                        continue;
+                    }
+                    if (null == iterable) {
+                        continue;
+                    }
+                    for (Object o : iterable) {
+                        buf.add(o);
+                    }
+                }
+                return buf.toArray();
+            }
+        }));
+    }
+
+    /**
+     * Reduce a non empty list with an associative accumulator. Each chunk
+     * is reduced from left to right and the chunk results are then combined
+     * from left to right.
+     */
+    static <T> $.Option<T> reduce(final List<T> list, final $.Func2<T, T, T> accumulator) {
+        Object[] results = run(new Chunks(list.size()) {
+            @Override
+            Object leaf(int from, int to) {
+                T ret = list.get(from);
+                for (int i = from + 1; i < to; ++i) {
+                    ret = accumulator.apply(ret, list.get(i));
+                }
+                return ret;
+            }
+        });
+        T ret = (T) results[0];
+        for (int i = 1; i < results.length; ++i) {
+            ret = accumulator.apply(ret, (T) results[i]);
+        }
+        return $.some(ret);
+    }
+
+    /**
+     * Find an element matches the predicate. Once an element is found all
+     * tasks stop checking the remaining elements. Note the element returned
+     * is not necessarily the first matching element in the list.
+     */
+    static <T> $.Option<T> findOne(final List<T> list, final $.Function<? super T, Boolean> predicate) {
+        final AtomicReference<$.Option<T>> found = new AtomicReference<>();
+        run(new Chunks(list.size()) {
+            @Override
+            Object leaf(int from, int to) {
+                for (int i = from; i < to; ++i) {
+                    if (null != found.get()) {
+                        break;
+                    }
+                    T t = list.get(i);
+                    try {
+                        if (predicate.apply(t)) {
+                            found.compareAndSet(null, $.some(t));
+                            break;
+                        }
+                    } catch (NotAppliedException e) {
+                        // ignore
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            boolean done() {
+                return null != found.get();
+            }
+        });
+        $.Option<T> result = found.get();
+        return null == result ? $.<T>none() : result;
+    }
+
+    private static Object[] concat(Object[] results) {
+        int n = 0;
+        for (Object a : results) {
+            n += ((Object[]) a).length;
+        }
+        Object[] ret = new Object[n];
+        int pos = 0;
+        for (Object o : results) {
+            Object[] a = (Object[]) o;
+            System.arraycopy(a, 0, ret, pos, a.length);
+            pos += a.length;
+        }
+        return ret;
+    }
+
+    private static Object[] run(Chunks chunks) {
+        ChunkTask task = new ChunkTask(chunks, 0, chunks.results.length);
+        if (ForkJoinTask.inForkJoinPool()) {
+            // already running inside a fork join pool, e.g. a nested parallel operation
+            task.invoke();
+        } else {
+            pool().invoke(task);
+        }
+        return chunks.results;
+    }
+
+    /**
+     * An operation on a list that is split into chunks of {@link #threshold()}
+     * elements. The result of each chunk is kept in {@link #results} in
+     * chunk order.
+     */
+    private abstract static class Chunks {
+        private final int size;
+        private final int chunkSize;
+        final Object[] results;
+
+        Chunks(int size) {
+            this.size = size;
+            this.chunkSize = threshold;
+            this.results = new Object[(size + chunkSize - 1) / chunkSize];
+        }
+
+        /**
+         * Process elements in range `[from, to)` and return the chunk result.
+         */
+        abstract Object leaf(int from, int to);
+
+        /**
+         * Returns `true` if the operation has been completed and there
+         * is no need to process remaining chunks.
+         */
+        boolean done() {
+            return false;
+        }
+
+        void process(int chunk) {
+            int from = chunk * chunkSize;
+            results[chunk] = leaf(from, Math.min(size, from + chunkSize));
+        }
+    }
+
+    /**
+     * Process chunks in range `[lo, hi)` by splitting the range in halves
+     * until a single chunk left.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private final Chunks chunks;
+        private final int lo;
+        private final int hi;
+
+        ChunkTask(Chunks chunks, int lo, int hi) {
+            this.chunks = chunks;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (chunks.done()) {
+                return;
+            }
+            if (hi - lo == 1) {
+                chunks.process(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ChunkTask(chunks, lo, mid), new ChunkTask(chunks, mid, hi));
+        }
+    }
+}
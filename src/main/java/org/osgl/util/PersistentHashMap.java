@@ -0,0 +1,720 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A read-only {@link java.util.Map} backed by a persistent hash array
+ * mapped trie (HAMT).
+ *
+ * <p>Each trie node consumes 5 bits of the key hash and keeps two
+ * bitmaps: one for key/value pairs stored inline and one for sub nodes.
+ * Nodes are compacted to hold only used slots and are kept in canonical
+ * form: a sub node that ends up with a single entry is inlined into its
+ * parent on removal. Keys with identical 32 bit hash codes end up in a
+ * collision node at the bottom of the trie.</p>
+ *
+ * <p>{@link #plus(Object, Object)} and {@link #minus(Object)} copy the
+ * nodes on the path to the key only and share the rest of the trie with
+ * this map, thus cost {@code O(log32 n)}. {@link #asTransient()} returns
+ * a {@link Transient} editor which updates nodes it created in place,
+ * so batches of edits do not copy paths over and over.</p>
+ */
+class PersistentHashMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int HASH_BITS = 32;
+
+    private static final Object NOT_FOUND = new Object();
+
+    private static final PersistentHashMap EMPTY = new PersistentHashMap(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    // cached hash code, 0 means not calculated yet
+    private transient int hash;
+
+    private transient Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return EMPTY;
+    }
+
+    static <K, V> PersistentHashMap<K, V> of(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentHashMap) {
+            return $.cast(map);
+        }
+        Transient<K, V> t = PersistentHashMap.<K, V>empty().asTransient();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            t.put(entry.getKey(), entry.getValue());
+        }
+        return t.persistent();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return NOT_FOUND != root.find(key, hash(key), 0);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Object v = root.find(key, hash(key), 0);
+        return NOT_FOUND == v ? null : (V) v;
+    }
+
+    /**
+     * Returns a map with all mappings of this map plus the mapping
+     * specified. The returned map shares the trie with this map
+     * except the nodes on the path to the key.
+     *
+     * @param key the key
+     * @param value the value
+     * @return a map as described above
+     */
+    PersistentHashMap<K, V> plus(K key, V value) {
+        Change change = new Change();
+        Node newRoot = root.put(null, key, value, hash(key), 0, change);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, change.added ? size + 1 : size);
+    }
+
+    /**
+     * Returns a map with all mappings of this map except the one
+     * of the key specified.
+     *
+     * @param key the key
+     * @return a map as described above
+     */
+    PersistentHashMap<K, V> minus(Object key) {
+        Change change = new Change();
+        Node newRoot = root.remove(null, key, hash(key), 0, change);
+        if (!change.removed) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    Transient<K, V> asTransient() {
+        return new Transient<>(this);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> set = entrySet;
+        if (null == set) {
+            set = new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    if (!(o instanceof Map.Entry)) {
+                        return false;
+                    }
+                    Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+                    Object v = root.find(e.getKey(), hash(e.getKey()), 0);
+                    return NOT_FOUND != v && $.eq(v, e.getValue());
+                }
+            };
+            entrySet = set;
+        }
+        return set;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public void clear() {
+        throw E.unsupport();
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (0 == h && size > 0) {
+            h = super.hashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof PersistentHashMap) {
+            PersistentHashMap<?, ?> that = (PersistentHashMap<?, ?>) o;
+            if (size != that.size) {
+                return false;
+            }
+            if (root == that.root) {
+                return true;
+            }
+            int h0 = hash, h1 = that.hash;
+            if (0 != h0 && 0 != h1 && h0 != h1) {
+                return false;
+            }
+        }
+        return super.equals(o);
+    }
+
+    private Object writeReplace() {
+        return new SerializationProxy(this);
+    }
+
+    private void readObject(ObjectInputStream s) throws InvalidObjectException {
+        throw new InvalidObjectException("proxy required");
+    }
+
+    static int hash(Object key) {
+        if (null == key) {
+            return 0;
+        }
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Records what a put or remove operation did to the trie.
+     */
+    private static final class Change {
+        boolean added;
+        boolean removed;
+    }
+
+    private abstract static class Node {
+        abstract Object find(Object key, int hash, int shift);
+
+        abstract Node put(Object edit, Object key, Object value, int hash, int shift, Change change);
+
+        abstract Node remove(Object edit, Object key, int hash, int shift, Change change);
+
+        abstract int dataCount();
+
+        abstract boolean hasNodes();
+
+        abstract Object keyAt(int i);
+
+        abstract Object valueAt(int i);
+
+        abstract int nodeCount();
+
+        abstract Node nodeAt(int i);
+    }
+
+    private static final class BitmapNode extends Node {
+
+        static final BitmapNode EMPTY = new BitmapNode(null, 0, 0, new Object[0]);
+
+        private final Object edit;
+        private int dataMap;
+        private int nodeMap;
+        // key/value pairs from the start, sub nodes in reverse order from the end
+        private Object[] content;
+
+        BitmapNode(Object edit, int dataMap, int nodeMap, Object[] content) {
+            this.edit = edit;
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private int dataIndex(int bit) {
+            return Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        private int nodeIndex(int bit) {
+            return content.length - 1 - Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        private boolean editable(Object edit) {
+            return null != edit && edit == this.edit;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = bitpos(hash, shift);
+            if (0 != (dataMap & bit)) {
+                int i = dataIndex(bit) << 1;
+                return $.eq(key, content[i]) ? content[i + 1] : NOT_FOUND;
+            }
+            if (0 != (nodeMap & bit)) {
+                return ((Node) content[nodeIndex(bit)]).find(key, hash, shift + BITS);
+            }
+            return NOT_FOUND;
+        }
+
+        @Override
+        Node put(Object edit, Object key, Object value, int hash, int shift, Change change) {
+            int bit = bitpos(hash, shift);
+            if (0 != (dataMap & bit)) {
+                int i = dataIndex(bit) << 1;
+                Object k0 = content[i];
+                if ($.eq(key, k0)) {
+                    if (content[i + 1] == value) {
+                        return this;
+                    }
+                    return set(edit, i + 1, value);
+                }
+                change.added = true;
+                Object v0 = content[i + 1];
+                Node sub = merge(edit, k0, v0, hash(k0), key, value, hash, shift + BITS);
+                return inlineToNode(edit, bit, sub);
+            }
+            if (0 != (nodeMap & bit)) {
+                int i = nodeIndex(bit);
+                Node child = (Node) content[i];
+                Node newChild = child.put(edit, key, value, hash, shift + BITS, change);
+                return newChild == child ? this : set(edit, i, newChild);
+            }
+            change.added = true;
+            int i = dataIndex(bit) << 1;
+            Object[] a = new Object[content.length + 2];
+            System.arraycopy(content, 0, a, 0, i);
+            a[i] = key;
+            a[i + 1] = value;
+            System.arraycopy(content, i, a, i + 2, content.length - i);
+            return update(edit, dataMap | bit, nodeMap, a);
+        }
+
+        @Override
+        Node remove(Object edit, Object key, int hash, int shift, Change change) {
+            int bit = bitpos(hash, shift);
+            if (0 != (dataMap & bit)) {
+                int i = dataIndex(bit) << 1;
+                if (!$.eq(key, content[i])) {
+                    return this;
+                }
+                change.removed = true;
+                Object[] a = new Object[content.length - 2];
+                System.arraycopy(content, 0, a, 0, i);
+                System.arraycopy(content, i + 2, a, i, content.length - i - 2);
+                return update(edit, dataMap ^ bit, nodeMap, a);
+            }
+            if (0 != (nodeMap & bit)) {
+                int i = nodeIndex(bit);
+                Node child = (Node) content[i];
+                Node newChild = child.remove(edit, key, hash, shift + BITS, change);
+                if (!change.removed) {
+                    return this;
+                }
+                if (1 == newChild.dataCount() && !newChild.hasNodes()) {
+                    if (0 == dataMap && nodeMap == bit && shift > 0) {
+                        // let the parent inline the remaining entry, the
+                        // root always keeps it as its positions differ
+                        return newChild;
+                    }
+                    return nodeToInline(edit, bit, newChild);
+                }
+                return set(edit, i, newChild);
+            }
+            return this;
+        }
+
+        private Node set(Object edit, int i, Object o) {
+            if (editable(edit)) {
+                content[i] = o;
+                return this;
+            }
+            Object[] a = content.clone();
+            a[i] = o;
+            return new BitmapNode(edit, dataMap, nodeMap, a);
+        }
+
+        private Node update(Object edit, int dataMap, int nodeMap, Object[] content) {
+            if (editable(edit)) {
+                this.dataMap = dataMap;
+                this.nodeMap = nodeMap;
+                this.content = content;
+                return this;
+            }
+            return new BitmapNode(edit, dataMap, nodeMap, content);
+        }
+
+        private Node inlineToNode(Object edit, int bit, Node node) {
+            int from = dataIndex(bit) << 1;
+            int to = content.length - 2 - Integer.bitCount(nodeMap & (bit - 1));
+            Object[] a = new Object[content.length - 1];
+            System.arraycopy(content, 0, a, 0, from);
+            System.arraycopy(content, from + 2, a, from, to - from);
+            a[to] = node;
+            System.arraycopy(content, to + 2, a, to + 1, content.length - to - 2);
+            return update(edit, dataMap ^ bit, nodeMap | bit, a);
+        }
+
+        private Node nodeToInline(Object edit, int bit, Node node) {
+            int from = nodeIndex(bit);
+            int to = dataIndex(bit) << 1;
+            Object[] a = new Object[content.length + 1];
+            System.arraycopy(content, 0, a, 0, to);
+            a[to] = node.keyAt(0);
+            a[to + 1] = node.valueAt(0);
+            System.arraycopy(content, to, a, to + 2, from - to);
+            System.arraycopy(content, from + 1, a, from + 2, content.length - from - 1);
+            return update(edit, dataMap | bit, nodeMap ^ bit, a);
+        }
+
+        @Override
+        int dataCount() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        boolean hasNodes() {
+            return 0 != nodeMap;
+        }
+
+        @Override
+        Object keyAt(int i) {
+            return content[i << 1];
+        }
+
+        @Override
+        Object valueAt(int i) {
+            return content[(i << 1) + 1];
+        }
+
+        @Override
+        int nodeCount() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        Node nodeAt(int i) {
+            return (Node) content[content.length - 1 - i];
+        }
+    }
+
+    private static Node merge(Object edit, Object k0, Object v0, int h0, Object k1, Object v1, int h1, int shift) {
+        if (shift >= HASH_BITS) {
+            return new CollisionNode(edit, new Object[]{k0, v0, k1, v1});
+        }
+        int m0 = (h0 >>> shift) & MASK;
+        int m1 = (h1 >>> shift) & MASK;
+        if (m0 != m1) {
+            int dataMap = (1 << m0) | (1 << m1);
+            return m0 < m1
+                    ? new BitmapNode(edit, dataMap, 0, new Object[]{k0, v0, k1, v1})
+                    : new BitmapNode(edit, dataMap, 0, new Object[]{k1, v1, k0, v0});
+        }
+        Node sub = merge(edit, k0, v0, h0, k1, v1, h1, shift + BITS);
+        return new BitmapNode(edit, 0, 1 << m0, new Object[]{sub});
+    }
+
+    /**
+     * Holds entries whose keys have the same hash code.
+     */
+    private static final class CollisionNode extends Node {
+        private final Object edit;
+        private Object[] content;
+
+        CollisionNode(Object edit, Object[] content) {
+            this.edit = edit;
+            this.content = content;
+        }
+
+        private int indexOf(Object key) {
+            Object[] a = content;
+            for (int i = 0; i < a.length; i += 2) {
+                if ($.eq(key, a[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Node update(Object edit, Object[] content) {
+            if (null != edit && edit == this.edit) {
+                this.content = content;
+                return this;
+            }
+            return new CollisionNode(edit, content);
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : content[i + 1];
+        }
+
+        @Override
+        Node put(Object edit, Object key, Object value, int hash, int shift, Change change) {
+            int i = indexOf(key);
+            Object[] a;
+            if (i < 0) {
+                change.added = true;
+                a = Arrays.copyOf(content, content.length + 2);
+                a[content.length] = key;
+                a[content.length + 1] = value;
+            } else {
+                if (content[i + 1] == value) {
+                    return this;
+                }
+                a = content.clone();
+                a[i + 1] = value;
+            }
+            return update(edit, a);
+        }
+
+        @Override
+        Node remove(Object edit, Object key, int hash, int shift, Change change) {
+            int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+            change.removed = true;
+            Object[] a = new Object[content.length - 2];
+            System.arraycopy(content, 0, a, 0, i);
+            System.arraycopy(content, i + 2, a, i, content.length - i - 2);
+            return update(edit, a);
+        }
+
+        @Override
+        int dataCount() {
+            return content.length >> 1;
+        }
+
+        @Override
+        boolean hasNodes() {
+            return false;
+        }
+
+        @Override
+        Object keyAt(int i) {
+            return content[i << 1];
+        }
+
+        @Override
+        Object valueAt(int i) {
+            return content[(i << 1) + 1];
+        }
+
+        @Override
+        int nodeCount() {
+            return 0;
+        }
+
+        @Override
+        Node nodeAt(int i) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Iterates entries depth first: the inline entries of a node first,
+     * then its sub nodes.
+     */
+    private static class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        // a trie has at most 8 levels: 7 bitmap levels plus the collision level
+        private final Node[] nodes = new Node[8];
+        private final int[] cursors = new int[8];
+        private int depth;
+        private Node current;
+        private int dataCursor;
+
+        EntryIterator(Node root) {
+            current = root;
+            nodes[0] = root;
+            advance();
+        }
+
+        private void advance() {
+            while (null != current && dataCursor >= current.dataCount()) {
+                Node node = nodes[depth];
+                int c = cursors[depth];
+                if (c < node.nodeCount()) {
+                    cursors[depth] = c + 1;
+                    Node child = node.nodeAt(c);
+                    ++depth;
+                    nodes[depth] = child;
+                    cursors[depth] = 0;
+                    current = child;
+                    dataCursor = 0;
+                } else if (depth > 0) {
+                    nodes[depth] = null;
+                    --depth;
+                } else {
+                    current = null;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != current;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (null == current) {
+                throw new NoSuchElementException();
+            }
+            int i = dataCursor++;
+            Map.Entry<K, V> entry = new SimpleImmutableEntry<>((K) current.keyAt(i), (V) current.valueAt(i));
+            advance();
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw E.unsupport();
+        }
+    }
+
+    /**
+     * A single threaded editor of a {@link PersistentHashMap}. Nodes created
+     * by the editor are tagged with its edit token and updated in place by
+     * subsequent edits. Once {@link #persistent()} is called the editor
+     * must not be used anymore.
+     */
+    static final class Transient<K, V> {
+        private Object edit = new Object();
+        private Node root;
+        private int size;
+
+        private Transient(PersistentHashMap<K, V> map) {
+            this.root = map.root;
+            this.size = map.size;
+        }
+
+        Transient<K, V> put(K key, V value) {
+            ensureEditable();
+            Change change = new Change();
+            root = root.put(edit, key, value, hash(key), 0, change);
+            if (change.added) {
+                size++;
+            }
+            return this;
+        }
+
+        Transient<K, V> remove(Object key) {
+            ensureEditable();
+            Change change = new Change();
+            root = root.remove(edit, key, hash(key), 0, change);
+            if (change.removed) {
+                size--;
+            }
+            return this;
+        }
+
+        boolean containsKey(Object key) {
+            ensureEditable();
+            return NOT_FOUND != root.find(key, hash(key), 0);
+        }
+
+        int size() {
+            return size;
+        }
+
+        PersistentHashMap<K, V> persistent() {
+            ensureEditable();
+            edit = null;
+            return 0 == size ? PersistentHashMap.<K, V>empty() : new PersistentHashMap<K, V>(root, size);
+        }
+
+        private void ensureEditable() {
+            E.illegalStateIf(null == edit, "transient map used after persistent() call");
+        }
+    }
+
+    private static final class SerializationProxy implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private transient Map<?, ?> map;
+
+        SerializationProxy(Map<?, ?> map) {
+            this.map = map;
+        }
+
+        private void writeObject(ObjectOutputStream s) throws IOException {
+            s.defaultWriteObject();
+            s.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                s.writeObject(entry.getKey());
+                s.writeObject(entry.getValue());
+            }
+        }
+
+        private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+            s.defaultReadObject();
+            int size = s.readInt();
+            Transient<Object, Object> t = PersistentHashMap.empty().asTransient();
+            for (int i = 0; i < size; ++i) {
+                t.put(s.readObject(), s.readObject());
+            }
+            map = t.persistent();
+        }
+
+        private Object readResolve() {
+            return map;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * An immutable {@link C.Set} backed by a {@link PersistentHashMap}.
+ *
+ * <p>{@link #with(Object)} and {@link #without(Object)} share structure
+ * with this set and cost {@code O(log32 n)}; the bulk variants run on a
+ * transient editor.</p>
+ */
+class PersistentHashSet<T> extends SetBase<T> implements C.Set<T>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final PersistentHashMap<T, Boolean> map;
+
+    // cached hash code, 0 means not calculated yet
+    private transient int hash;
+
+    private PersistentHashSet(PersistentHashMap<T, Boolean> map) {
+        this.map = map;
+    }
+
+    static <T> C.Set<T> of(Iterable<? extends T> elements) {
+        PersistentHashMap.Transient<T, Boolean> t = PersistentHashMap.<T, Boolean>empty().asTransient();
+        for (T element : elements) {
+            t.put(element, Boolean.TRUE);
+        }
+        return wrap(t.persistent());
+    }
+
+    static <T> C.Set<T> of(T[] elements) {
+        PersistentHashMap.Transient<T, Boolean> t = PersistentHashMap.<T, Boolean>empty().asTransient();
+        for (T element : elements) {
+            t.put(element, Boolean.TRUE);
+        }
+        return wrap(t.persistent());
+    }
+
+    private static <T> C.Set<T> wrap(PersistentHashMap<T, Boolean> map) {
+        return map.isEmpty() ? Nil.<T>set() : new PersistentHashSet<>(map);
+    }
+
+    @Override
+    protected EnumSet<C.Feature> initFeatures() {
+        return EnumSet.of(C.Feature.IMMUTABLE, C.Feature.READONLY, C.Feature.LIMITED);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        final Iterator<Map.Entry<T, Boolean>> itr = map.entrySet().iterator();
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return itr.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return itr.next().getKey();
+            }
+
+            @Override
+            public void remove() {
+                throw E.unsupport();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+
+    @Override
+    public boolean add(T t) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public void clear() {
+        throw E.unsupport();
+    }
+
+    @Override
+    public C.Set<T> with(T element) {
+        PersistentHashMap<T, Boolean> newMap = map.plus(element, Boolean.TRUE);
+        return newMap == map ? this : new PersistentHashSet<>(newMap);
+    }
+
+    @Override
+    public C.Set<T> with(T element, T... elements) {
+        PersistentHashMap.Transient<T, Boolean> t = map.asTransient();
+        t.put(element, Boolean.TRUE);
+        for (T e : elements) {
+            t.put(e, Boolean.TRUE);
+        }
+        return wrap(t.persistent());
+    }
+
+    @Override
+    public C.Set<T> with(Collection<? extends T> col) {
+        PersistentHashMap.Transient<T, Boolean> t = map.asTransient();
+        for (T e : col) {
+            t.put(e, Boolean.TRUE);
+        }
+        return wrap(t.persistent());
+    }
+
+    @Override
+    public C.Set<T> without(T element) {
+        PersistentHashMap<T, Boolean> newMap = map.minus(element);
+        return newMap == map ? this : wrap(newMap);
+    }
+
+    @Override
+    public C.Set<T> without(T element, T... elements) {
+        PersistentHashMap.Transient<T, Boolean> t = map.asTransient();
+        t.remove(element);
+        for (T e : elements) {
+            t.remove(e);
+        }
+        return wrap(t.persistent());
+    }
+
+    @Override
+    public C.Set<T> without(Collection<? super T> col) {
+        PersistentHashMap.Transient<T, Boolean> t = map.asTransient();
+        for (Object e : col) {
+            t.remove(e);
+        }
+        return wrap(t.persistent());
+    }
+
+    @Override
+    public C.Set<T> withIn(Collection<? extends T> col) {
+        PersistentHashMap.Transient<T, Boolean> t = PersistentHashMap.<T, Boolean>empty().asTransient();
+        for (T e : col) {
+            if (map.containsKey(e)) {
+                t.put(e, Boolean.TRUE);
+            }
+        }
+        return wrap(t.persistent());
+    }
+
+    @Override
+    public C.Set<T> onlyIn(Collection<? extends T> col) {
+        PersistentHashMap.Transient<T, Boolean> t = PersistentHashMap.<T, Boolean>empty().asTransient();
+        for (T e : col) {
+            if (!map.containsKey(e)) {
+                t.put(e, Boolean.TRUE);
+            }
+        }
+        return wrap(t.persistent());
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (0 == h) {
+            for (T t : this) {
+                if (null != t) {
+                    h += t.hashCode();
+                }
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof PersistentHashSet) {
+            PersistentHashSet<?> that = (PersistentHashSet<?>) o;
+            if (size() != that.size()) {
+                return false;
+            }
+            if (0 != hash && 0 != that.hash && hash != that.hash) {
+                return false;
+            }
+        }
+        return super.equals(o);
+    }
+}
@@ -0,0 +1,678 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An immutable list backed by a persistent bit-partitioned vector trie.
+ *
+ * <p>Elements are kept in three segments: a head buffer, a trie of full
+ * 32-element leaves and a tail buffer. {@link #append(Object)} and
+ * {@link #prepend(Object)} copy at most one buffer and, once the buffer
+ * is full, push it into the trie as a new leaf by copying one path of
+ * nodes. {@link #update(int, Object)}, {@link #take(int)} and
+ * {@link #drop(int)} copy the path(s) to the touched leaves only. All
+ * these operations are therefore {@code O(log32 n)} and the result
+ * shares every untouched node with the original list.</p>
+ *
+ * <p>The trie addresses a position space larger than the elements it
+ * holds: elements live in {@code [origin, origin + trieSize)}. When the
+ * trie runs out of room on either end a new root is created with the
+ * old root put at the middle slot, so it could grow in both directions.</p>
+ */
+class PersistentVector<T> extends ListBase<T>
+implements C.List<T>, RandomAccess, Serializable {
+
+    /**
+     * Immutable lists with more elements than this threshold are built
+     * as persistent vectors.
+     */
+    static final int THRESHOLD = 64;
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    // slot where the old root is placed when the trie grows
+    private static final int MIDDLE = WIDTH >> 1;
+    // the trie is limited to 6 levels so positions fit into an int
+    private static final int MAX_SHIFT = BITS * 5;
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final Object[] head;
+    private final Object[] root;
+    private final int shift;
+    private final int origin;
+    private final int trieSize;
+    private final Object[] tail;
+    private final int size;
+
+    private PersistentVector(Object[] head, Object[] root, int shift, int origin, int trieSize, Object[] tail) {
+        if (0 == trieSize) {
+            root = null;
+            shift = 0;
+            origin = 0;
+        } else {
+            // collapse roots that have only one child in use
+            int last = origin + trieSize - 1;
+            while (shift > 0) {
+                int lo = (origin >>> shift) & MASK;
+                if (lo != ((last >>> shift) & MASK)) {
+                    break;
+                }
+                root = (Object[]) root[lo];
+                origin -= lo << shift;
+                last -= lo << shift;
+                shift -= BITS;
+            }
+        }
+        this.head = head;
+        this.root = root;
+        this.shift = shift;
+        this.origin = origin;
+        this.trieSize = trieSize;
+        this.tail = tail;
+        this.size = head.length + trieSize + tail.length;
+    }
+
+    @Override
+    protected EnumSet<C.Feature> initFeatures() {
+        return EnumSet.of(C.Feature.READONLY, C.Feature.LIMITED, C.Feature.ORDERED, C.Feature.IMMUTABLE, C.Feature.LAZY, C.Feature.RANDOM_ACCESS);
+    }
+
+    // a vector derived from this one keeps its lazy and parallel setting
+    private PersistentVector<T> derive(Object[] head, Object[] root, int shift, int origin, int trieSize, Object[] tail) {
+        return withModeOf(new PersistentVector<T>(head, root, shift, origin, trieSize, tail), this);
+    }
+
+    /**
+     * Copy the {@link C.Feature#LAZY} and {@link C.Feature#PARALLEL} setting
+     * of the source list to the target list.
+     *
+     * @param target the list derived from the source list
+     * @param source the list the target is derived from
+     * @param <L> the target list type
+     * @return the target list
+     */
+    static <L extends C.List<?>> L withModeOf(L target, C.List<?> source) {
+        if (!source.is(C.Feature.LAZY)) {
+            target.eager();
+        }
+        if (source.is(C.Feature.PARALLEL)) {
+            target.parallel();
+        }
+        return target;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkIndex(index);
+        int hl = head.length;
+        if (index < hl) {
+            return (T) head[index];
+        }
+        index -= hl;
+        if (index < trieSize) {
+            int pos = origin + index;
+            return (T) leafFor(pos)[pos & MASK];
+        }
+        return (T) tail[index - trieSize];
+    }
+
+    @Override
+    public T head() throws NoSuchElementException {
+        return get(0);
+    }
+
+    @Override
+    public T last() throws NoSuchElementException {
+        return get(size - 1);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr(0);
+    }
+
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        return new Itr(index);
+    }
+
+    @Override
+    public Iterator<T> reverseIterator() {
+        final ListIterator<T> itr = new Itr(size);
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return itr.hasPrevious();
+            }
+
+            @Override
+            public T next() {
+                return itr.previous();
+            }
+
+            @Override
+            public void remove() {
+                throw E.unsupport();
+            }
+        };
+    }
+
+    @Override
+    public C.List<T> append(T t) {
+        int tl = tail.length;
+        if (tl < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tl + 1);
+            newTail[tl] = t;
+            return derive(head, root, shift, origin, trieSize, newTail);
+        }
+        return pushBack(tail, new Object[]{t});
+    }
+
+    @Override
+    public C.List<T> prepend(T t) {
+        int hl = head.length;
+        if (hl < WIDTH) {
+            Object[] newHead = new Object[hl + 1];
+            newHead[0] = t;
+            System.arraycopy(head, 0, newHead, 1, hl);
+            return derive(newHead, root, shift, origin, trieSize, tail);
+        }
+        return pushFront(head, new Object[]{t});
+    }
+
+    @Override
+    public C.List<T> update(int index, T t) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        int hl = head.length;
+        if (index < hl) {
+            Object[] newHead = head.clone();
+            newHead[index] = t;
+            return derive(newHead, root, shift, origin, trieSize, tail);
+        }
+        index -= hl;
+        if (index < trieSize) {
+            Object[] newRoot = assoc(root, shift, origin + index, t);
+            return derive(head, newRoot, shift, origin, trieSize, tail);
+        }
+        Object[] newTail = tail.clone();
+        newTail[index - trieSize] = t;
+        return derive(head, root, shift, origin, trieSize, newTail);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation shares the side of the vector that does not
+     * move and re-pushes the elements on the shorter side, thus it costs
+     * {@code O(min(index, size - index))}.</p>
+     */
+    @Override
+    public C.List<T> insert(int index, T t) throws IndexOutOfBoundsException {
+        return insert(index, Collections.singletonList(t));
+    }
+
+    @Override
+    public C.List<T> insert(int index, T... ta) throws IndexOutOfBoundsException {
+        if (0 == ta.length) {
+            return this;
+        }
+        return insert(index, Arrays.asList(ta));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public C.List<T> insert(int index, List<T> subList) throws IndexOutOfBoundsException {
+        int sz = size;
+        if (sz < Math.abs(index)) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (index < 0) {
+            index = sz + index;
+        }
+        if (subList.isEmpty()) {
+            return this;
+        }
+        PersistentVector<T> v;
+        if (index < sz - index) {
+            v = 0 == index ? this : (PersistentVector<T>) slice(index, sz, false);
+            ListIterator<T> itr = subList.listIterator(subList.size());
+            while (itr.hasPrevious()) {
+                v = (PersistentVector<T>) v.prepend(itr.previous());
+            }
+            for (int i = index - 1; i >= 0; --i) {
+                v = (PersistentVector<T>) v.prepend(get(i));
+            }
+        } else {
+            v = sz == index ? this : (PersistentVector<T>) slice(0, index, false);
+            for (T t : subList) {
+                v = (PersistentVector<T>) v.append(t);
+            }
+            for (int i = index; i < sz; ++i) {
+                v = (PersistentVector<T>) v.append(get(i));
+            }
+        }
+        return v;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public C.List<T> append(Collection<? extends T> collection) {
+        if (collection instanceof C.List) {
+            return appendList((C.List<T>) collection);
+        }
+        return appendAll(collection);
+    }
+
+    @Override
+    protected C.List<T> appendList(C.List<T> list) {
+        if (isLazy()) {
+            return super.appendList(list);
+        }
+        return appendAll(list);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public C.List<T> prepend(Collection<? extends T> collection) {
+        if (collection instanceof C.List) {
+            return prependList((C.List<T>) collection);
+        }
+        return prependAll(new ArrayList<T>(collection));
+    }
+
+    @Override
+    protected C.List<T> prependList(C.List<T> list) {
+        if (isLazy()) {
+            return super.prependList(list);
+        }
+        return prependAll(list);
+    }
+
+    @Override
+    public C.List<T> subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex);
+        }
+        return slice(fromIndex, toIndex, true);
+    }
+
+    @Override
+    public C.List<T> take(int n) {
+        if (n < 0) {
+            return tail(-n);
+        } else if (n >= size) {
+            return this;
+        }
+        return slice(0, n, true);
+    }
+
+    @Override
+    public C.List<T> drop(int n) throws IndexOutOfBoundsException {
+        if (n < 0) {
+            n = -n;
+            return n >= size ? Nil.<T>list() : slice(0, size - n, true);
+        } else if (n >= size) {
+            return Nil.list();
+        }
+        return slice(n, size, true);
+    }
+
+    @Override
+    public C.List<T> tail() {
+        return slice(1, size, true);
+    }
+
+    @Override
+    public C.List<T> tail(int n) {
+        if (n < 0) {
+            return take(-n);
+        } else if (n >= size) {
+            return this;
+        }
+        return slice(size - n, size, true);
+    }
+
+    private C.List<T> appendAll(Iterable<? extends T> iterable) {
+        C.List<T> v = this;
+        for (T t : iterable) {
+            v = v.append(t);
+        }
+        return v;
+    }
+
+    private C.List<T> prependAll(List<? extends T> list) {
+        C.List<T> v = this;
+        ListIterator<? extends T> itr = list.listIterator(list.size());
+        while (itr.hasPrevious()) {
+            v = v.prepend(itr.previous());
+        }
+        return v;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private Object[] leafFor(int pos) {
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(pos >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private PersistentVector<T> pushBack(Object[] leaf, Object[] newTail) {
+        if (null == root) {
+            return derive(head, leaf, 0, 0, WIDTH, newTail);
+        }
+        Object[] r = root;
+        int sh = shift;
+        int org = origin;
+        if (org + trieSize == 1 << (sh + BITS)) {
+            r = grow(r, sh);
+            sh += BITS;
+            org += MIDDLE << sh;
+        }
+        r = setLeaf(r, sh, org + trieSize, leaf);
+        return derive(head, r, sh, org, trieSize + WIDTH, newTail);
+    }
+
+    private PersistentVector<T> pushFront(Object[] leaf, Object[] newHead) {
+        if (null == root) {
+            return derive(newHead, leaf, 0, 0, WIDTH, tail);
+        }
+        Object[] r = root;
+        int sh = shift;
+        int org = origin;
+        if (0 == org) {
+            r = grow(r, sh);
+            sh += BITS;
+            org += MIDDLE << sh;
+        }
+        org -= WIDTH;
+        r = setLeaf(r, sh, org, leaf);
+        return derive(newHead, r, sh, org, trieSize + WIDTH, tail);
+    }
+
+    /**
+     * Returns the elements in {@code [from, to)} of this vector. Partial
+     * leaves at the edges of the trie become the head and tail buffers of
+     * the result so the trie of the result consists of full leaves only.
+     */
+    @SuppressWarnings("unchecked")
+    private C.List<T> slice(int from, int to, boolean compact) {
+        int len = to - from;
+        if (0 == len) {
+            return Nil.list();
+        }
+        if (compact && len <= THRESHOLD) {
+            Object[] a = new Object[len];
+            Iterator<T> itr = new Itr(from);
+            for (int i = 0; i < len; ++i) {
+                a[i] = itr.next();
+            }
+            return withModeOf(ImmutableList.of((T[]) a), this);
+        }
+        int hl = head.length;
+        int trieEnd = hl + trieSize;
+        Object[] newHead = from < hl ? Arrays.copyOfRange(head, from, Math.min(to, hl)) : EMPTY;
+        Object[] newTail = to > trieEnd ? Arrays.copyOfRange(tail, Math.max(from, trieEnd) - trieEnd, to - trieEnd) : EMPTY;
+        Object[] newRoot = null;
+        int newOrigin = 0;
+        int newTrieSize = 0;
+        int a = Math.max(from, hl) - hl;
+        int b = Math.min(to, trieEnd) - hl;
+        if (a < b) {
+            int lo = origin + a;
+            int hi = origin + b;
+            int firstFull = (lo + MASK) & ~MASK;
+            if (firstFull >= hi) {
+                // all elements are in one leaf
+                newHead = Arrays.copyOfRange(leafFor(lo), lo & MASK, (lo & MASK) + (hi - lo));
+            } else {
+                if (firstFull > lo) {
+                    newHead = Arrays.copyOfRange(leafFor(lo), lo & MASK, WIDTH);
+                    lo = firstFull;
+                }
+                int lastFull = hi & ~MASK;
+                if (lastFull < hi) {
+                    newTail = Arrays.copyOf(leafFor(lastFull), hi - lastFull);
+                    hi = lastFull;
+                }
+                if (lo < hi) {
+                    newRoot = trim(root, shift, lo, hi - 1);
+                    newOrigin = lo;
+                    newTrieSize = hi - lo;
+                }
+            }
+        }
+        return derive(newHead, newRoot, shift, newOrigin, newTrieSize, newTail);
+    }
+
+    /**
+     * Build a persistent vector from the first {@code size} elements of the
+     * array specified. The array is copied into the leaves of the trie.
+     *
+     * @param data the array
+     * @param size the number of elements to be taken from the array
+     * @param <T> the element type
+     * @return a persistent vector
+     */
+    @SuppressWarnings("unchecked")
+    static <T> PersistentVector<T> of(Object[] data, int size) {
+        E.illegalArgumentIf(size < 1 || size > data.length, "invalid size: %s", size);
+        int leaves = size >>> BITS;
+        int trieSize = leaves << BITS;
+        Object[] tail = Arrays.copyOfRange(data, trieSize, size);
+        if (0 == leaves) {
+            return new PersistentVector<>(EMPTY, null, 0, 0, 0, tail);
+        }
+        Object[][] nodes = new Object[leaves][];
+        for (int i = 0; i < leaves; ++i) {
+            nodes[i] = Arrays.copyOfRange(data, i << BITS, (i + 1) << BITS);
+        }
+        int shift = 0;
+        while (nodes.length > 1) {
+            int n = (nodes.length + MASK) >>> BITS;
+            Object[][] parents = new Object[n][];
+            for (int i = 0; i < n; ++i) {
+                Object[] parent = new Object[WIDTH];
+                int start = i << BITS;
+                System.arraycopy(nodes, start, parent, 0, Math.min(WIDTH, nodes.length - start));
+                parents[i] = parent;
+            }
+            nodes = parents;
+            shift += BITS;
+        }
+        return new PersistentVector<>(EMPTY, nodes[0], shift, 0, trieSize, tail);
+    }
+
+    static <T> PersistentVector<T> of(Object[] data) {
+        return of(data, data.length);
+    }
+
+    private static Object[] grow(Object[] root, int shift) {
+        E.unsupportedIf(shift >= MAX_SHIFT, "vector size exceeds the limit");
+        Object[] newRoot = new Object[WIDTH];
+        newRoot[MIDDLE] = root;
+        return newRoot;
+    }
+
+    private static Object[] setLeaf(Object[] node, int shift, int pos, Object[] leaf) {
+        Object[] copy = null == node ? new Object[WIDTH] : node.clone();
+        int idx = (pos >>> shift) & MASK;
+        copy[idx] = BITS == shift ? leaf : setLeaf((Object[]) copy[idx], shift - BITS, pos, leaf);
+        return copy;
+    }
+
+    private static Object[] assoc(Object[] node, int shift, int pos, Object value) {
+        Object[] copy = node.clone();
+        if (0 == shift) {
+            copy[pos & MASK] = value;
+        } else {
+            int idx = (pos >>> shift) & MASK;
+            copy[idx] = assoc((Object[]) node[idx], shift - BITS, pos, value);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the node with all slots out of {@code [first, last]}
+     * released, so a slice does not hold references to dropped elements.
+     * Nodes fully inside the range are shared.
+     */
+    private static Object[] trim(Object[] node, int shift, int first, int last) {
+        if (0 == shift) {
+            return node;
+        }
+        int lo = (first >>> shift) & MASK;
+        int hi = (last >>> shift) & MASK;
+        Object[] copy = new Object[WIDTH];
+        System.arraycopy(node, lo, copy, lo, hi - lo + 1);
+        if (shift > BITS) {
+            int childShift = shift - BITS;
+            if (lo == hi) {
+                copy[lo] = trim((Object[]) node[lo], childShift, first, last);
+            } else {
+                int span = (1 << shift) - 1;
+                copy[lo] = trim((Object[]) node[lo], childShift, first, first | span);
+                copy[hi] = trim((Object[]) node[hi], childShift, last & ~span, last);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * A list iterator that remembers the buffer or leaf it reads from,
+     * so the trie is only walked once every 32 elements.
+     */
+    private class Itr implements ListIterator<T> {
+        private int cursor;
+        private Object[] buf;
+        private int bufFrom;
+        private int bufTo;
+
+        Itr(int cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public T next() {
+            int i = cursor;
+            if (i >= size) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            return at(i);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+
+        @Override
+        public T previous() {
+            int i = cursor - 1;
+            if (i < 0) {
+                throw new NoSuchElementException();
+            }
+            cursor = i;
+            return at(i);
+        }
+
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T at(int i) {
+            if (null == buf || i < bufFrom || i >= bufTo) {
+                locate(i);
+            }
+            return (T) buf[i - bufFrom];
+        }
+
+        private void locate(int i) {
+            int hl = head.length;
+            if (i < hl) {
+                buf = head;
+                bufFrom = 0;
+                bufTo = hl;
+            } else if (i < hl + trieSize) {
+                int pos = origin + i - hl;
+                buf = leafFor(pos);
+                bufFrom = i - (pos & MASK);
+                bufTo = bufFrom + WIDTH;
+            } else {
+                buf = tail;
+                bufFrom = hl + trieSize;
+                bufTo = size;
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw E.unsupport();
+        }
+
+        @Override
+        public void set(T t) {
+            throw E.unsupport();
+        }
+
+        @Override
+        public void add(T t) {
+            throw E.unsupport();
+        }
+    }
+}
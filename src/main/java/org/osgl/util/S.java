@@ -26,7 +26,9 @@ import static java.lang.Character.lowSurrogate;
 import org.osgl.$;
 import org.osgl.OsglConfig;
 import org.osgl.exception.NotAppliedException;
+import org.osgl.util.algo.AhoCorasick;
 import org.osgl.util.algo.StringReplace;
+import org.osgl.util.algo.StringSearchPattern;
 
 import java.io.File;
 import java.io.Writer;
@@ -35,7 +37,9 @@ import java.net.URLEncoder;
 import java.security.SecureRandom;
 import java.text.MessageFormat;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
@@ -203,7 +207,12 @@ public class S {
     }
 
     /**
-     * A handy alias for {@link String#format(String, Object...)}
+     * A handy alias for {@link String#format(String, Object...)}.
+     *
+     * The template is parsed once and cached. `%s`, `%d`, `%x` and `%X`
+     * placeholders are rendered without going through
+     * {@link java.util.Formatter}, other specifiers fall back to
+     * {@link String#format(String, Object...)}.
      *
      * @param tmpl the message template
      * @param args the message arguments
@@ -211,7 +220,8 @@ public class S {
      */
     public final static String fmt(String tmpl, Object... args) {
         if (0 == args.length) return tmpl;
-        return String.format(tmpl, args);
+        if (null == tmpl) return String.format(tmpl, args);
+        return MessageTemplate.printf(tmpl).render(args);
     }
 
 
@@ -225,7 +235,11 @@ public class S {
     }
 
     /**
-     * A handy alias for {@link MessageFormat#format(String, Object...)}
+     * A handy alias for {@link MessageFormat#format(String, Object...)}.
+     *
+     * The template is parsed once and cached. Plain `{n}` placeholders are
+     * rendered directly, templates with quotes or format types fall back to
+     * {@link MessageFormat}.
      *
      * @param template the message template
      * @param args the message arguments
@@ -234,7 +248,7 @@ public class S {
     public static String msgFmt(String template, Object... args) {
         if (0 == args.length) return template;
         if (null == template) return "";
-        return MessageFormat.format(template, args);
+        return MessageTemplate.msgFmt(template).render(args);
     }
 
     /**
@@ -650,6 +664,9 @@ public class S {
         if (S.isEmpty(string)) {
             return ImmutableStringList.of(EMPTY_ARRAY);
         }
+        if (separator.length() >= StringSearchPattern.MIN_PREPROCESS_LENGTH) {
+            return fastSplit(string, StringSearchPattern.compile(separator));
+        }
         ListBuilder<String> lb = ListBuilder.create();
         int lastPos = 0, gap = separator.length(), len = string.length();
         while (true) {
@@ -666,6 +683,25 @@ public class S {
         return ImmutableStringList.of(lb);
     }
 
+    // split by a long separator with preprocessed search
+    private static List fastSplit(String string, StringSearchPattern separator) {
+        ListBuilder<String> lb = ListBuilder.create();
+        char[] text = string.toCharArray();
+        int lastPos = 0, gap = separator.length(), len = text.length;
+        while (true) {
+            int pos = separator.search(text, lastPos);
+            int end = pos < 0 ? len : pos;
+            if (end > lastPos) {
+                lb.add(new String(text, lastPos, end - lastPos));
+            }
+            if (pos < 0) {
+                break;
+            }
+            lastPos = pos + gap;
+        }
+        return ImmutableStringList.of(lb);
+    }
+
     /**
      * Split a char sequence by regex and return a list of strings
      *
@@ -2023,19 +2059,151 @@ public class S {
      * @return the times the search token appeared in `s`
      */
     public static int count(String s, String search, boolean overlap) {
-        int n = 0, l = search.length();
-        while (true) {
-            int i = s.indexOf(search);
-            if (-1 == i) {
-                return n;
-            }
+        int l = search.length();
+        if (0 == l) {
+            return 0;
+        }
+        if (l >= StringSearchPattern.MIN_PREPROCESS_LENGTH) {
+            return StringSearchPattern.compile(search).count(s.toCharArray(), overlap);
+        }
+        int n = 0, step = overlap ? 1 : l;
+        int i = s.indexOf(search);
+        while (i >= 0) {
             n++;
-            if (overlap) {
-                s = s.substring(i + 1);
-            } else {
-                s = s.substring(i + l);
-            }
+            i = s.indexOf(search, i + step);
         }
+        return n;
+    }
+
+    /**
+     * Check if any of the keywords occurs in the text.
+     *
+     * To check many texts against the same keywords, compile the keywords
+     * with {@link AhoCorasick#compile(Collection)} and reuse the automaton.
+     *
+     * @param text     the text to be searched
+     * @param keywords the keywords
+     * @return `true` if any keyword is found in the text
+     */
+    public static boolean containsAny(CharSequence text, String... keywords) {
+        return !isEmpty(text) && AhoCorasick.compile(keywords).containsAny(text);
+    }
+
+    /**
+     * Check if any of the keywords occurs in the text.
+     *
+     * @param text     the text to be searched
+     * @param keywords the keywords
+     * @return `true` if any keyword is found in the text
+     */
+    public static boolean containsAny(CharSequence text, Collection<String> keywords) {
+        return !isEmpty(text) && AhoCorasick.compile(keywords).containsAny(text);
+    }
+
+    /**
+     * Check if any of the keywords occurs in the text.
+     *
+     * @param text     the text to be searched
+     * @param keywords the keywords
+     * @return `true` if any keyword is found in the text
+     */
+    public static boolean containsAny(char[] text, String... keywords) {
+        return null != text && AhoCorasick.compile(keywords).containsAny(text);
+    }
+
+    /**
+     * Find all occurrences of the keywords in the text.
+     *
+     * Matches never overlap. When two keywords match at the same position the
+     * longer one is reported.
+     *
+     * @param text     the text to be searched
+     * @param keywords the keywords
+     * @return the matches in the order of their position in the text
+     */
+    public static C.List<AhoCorasick.Match> findAll(CharSequence text, String... keywords) {
+        return isEmpty(text) ? C.<AhoCorasick.Match>list() : AhoCorasick.compile(keywords).findAll(text);
+    }
+
+    /**
+     * Find all occurrences of the keywords in the text.
+     *
+     * @param text     the text to be searched
+     * @param keywords the keywords
+     * @return the matches in the order of their position in the text
+     * @see #findAll(CharSequence, String...)
+     */
+    public static C.List<AhoCorasick.Match> findAll(CharSequence text, Collection<String> keywords) {
+        return isEmpty(text) ? C.<AhoCorasick.Match>list() : AhoCorasick.compile(keywords).findAll(text);
+    }
+
+    /**
+     * Replace all occurrences of the keys of `replacements` in the text with
+     * the corresponding values in a single pass.
+     *
+     * Matches never overlap. When two keys match at the same position the
+     * longer one is replaced.
+     *
+     * @param text         the text
+     * @param replacements maps keyword to its replacement
+     * @return the text with all keywords replaced
+     */
+    public static String replaceAll(String text, Map<String, String> replacements) {
+        if (isEmpty(text) || replacements.isEmpty()) {
+            return text;
+        }
+        String[] keywords = new String[replacements.size()];
+        String[] values = new String[keywords.length];
+        int i = 0;
+        for (Map.Entry<String, String> entry : replacements.entrySet()) {
+            keywords[i] = entry.getKey();
+            values[i++] = entry.getValue();
+        }
+        return AhoCorasick.compile(keywords).replaceAll(text, values);
+    }
+
+    /**
+     * Replace all occurrences of the keys of `replacements` in the text with
+     * the corresponding values in a single pass.
+     *
+     * @param text         the text
+     * @param replacements maps keyword to its replacement
+     * @return the text with all keywords replaced, or `text` itself if no keyword found
+     * @see #replaceAll(String, Map)
+     */
+    public static char[] replaceAll(char[] text, Map<String, String> replacements) {
+        if (null == text || 0 == text.length || replacements.isEmpty()) {
+            return text;
+        }
+        String[] keywords = new String[replacements.size()];
+        String[] values = new String[keywords.length];
+        int i = 0;
+        for (Map.Entry<String, String> entry : replacements.entrySet()) {
+            keywords[i] = entry.getKey();
+            values[i++] = entry.getValue();
+        }
+        return AhoCorasick.compile(keywords).replaceAll(text, values);
+    }
+
+    /**
+     * Replace all occurrences of the keys of `replacements` in the text with
+     * the corresponding values in a single pass.
+     *
+     * @param text         the text
+     * @param replacements maps keyword to its replacement
+     * @return the text with all keywords replaced, or `text` itself if no keyword found
+     * @see #replaceAll(String, Map)
+     */
+    public static FastStr replaceAll(FastStr text, Map<String, String> replacements) {
+        if (null == text || text.isEmpty() || replacements.isEmpty()) {
+            return text;
+        }
+        char[] ca = text.unsafeChars();
+        if (ca.length != text.length()) {
+            ca = text.charArray();
+        }
+        char[] result = replaceAll(ca, replacements);
+        return result == ca ? text : FastStr.unsafeOf(result);
     }
 
     public static String camelCase(CharSequence s) {
@@ -3244,19 +3412,9 @@ public class S {
 
     static int count(char[] source, int sourceOffset, int sourceCount,
                      char[] search, int searchOffset, int searchCount, boolean overlap) {
-        int n = 0;
-        while (true) {
-            int i = indexOf(source, sourceOffset, sourceCount, search, searchOffset, searchCount, 0);
-            if (i < 0) {
-                return n;
-            }
-            n++;
-            if (overlap) {
-                sourceOffset += 1;
-            } else {
-                sourceOffset += searchCount;
-            }
-        }
+        char[] target = 0 == searchOffset && searchCount == search.length ? search
+                : Arrays.copyOfRange(search, searchOffset, searchOffset + searchCount);
+        return StringSearchPattern.compile(target).count(source, sourceOffset, sourceOffset + sourceCount, overlap);
     }
 
 
@@ -5475,6 +5633,20 @@ public class S {
             return new String(value, 0, count);
         }
 
+        /**
+         * Append `len` chars to be written directly into {@link #getValue()}
+         * by the caller, used by encoders to skip an intermediate array.
+         *
+         * @param len the number of chars to append
+         * @return the offset of the first appended char in the value array
+         */
+        final int reserve(int len) {
+            ensureCapacityInternal(count + len);
+            int offset = count;
+            count += len;
+            return offset;
+        }
+
         /**
          * Needed by {@code String} for the contentEquals method.
          */
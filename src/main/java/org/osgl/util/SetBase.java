@@ -251,12 +251,23 @@ public abstract class SetBase<T> extends AbstractSet<T> implements C.Set<T> {
 
     @Override
     public C.Set<T> without(T element) {
-        return null;
+        C.Set<T> copy = C.newSet(this);
+        copy.remove(element);
+        if (isImmutable()) {
+            return ImmutableSet.of(copy);
+        }
+        return copy;
     }
 
     @Override
     public C.Set<T> without(T element, T... elements) {
-        return null;
+        C.Set<T> copy = C.newSet(this);
+        copy.remove(element);
+        copy.removeAll(C.listOf(elements));
+        if (isImmutable()) {
+            return ImmutableSet.of(copy);
+        }
+        return copy;
     }
 
     // --- Featured methods
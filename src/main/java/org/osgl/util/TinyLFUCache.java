@@ -0,0 +1,667 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent, frequency based cache implementing the W-TinyLFU policy.
+ *
+ * Reads are lock free: a hit is served from a {@link ConcurrentHashMap}
+ * and recorded into a striped lossy ring buffer. The buffers are drained
+ * into the eviction policy by whichever thread first manages to acquire
+ * the eviction lock, or by the {@link Executor} supplied to the constructor.
+ *
+ * The eviction policy consists of a small LRU admission window and a
+ * segmented LRU main space. An entry leaving the window is admitted into
+ * the main space only when its estimated access frequency, tracked by
+ * a count-min sketch, is higher than the frequency of the entry that
+ * would be evicted. The sketch grows with the number of entries so an
+ * empty cache does not allocate memory in proportion to its capacity.
+ *
+ * The API is compatible with {@link LFUCache}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class TinyLFUCache<K, V> {
+
+    private static final int NONE = 0;
+    private static final int WINDOW = 1;
+    private static final int PROBATION = 2;
+    private static final int PROTECTED = 3;
+
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    private static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        volatile boolean alive = true;
+
+        // following fields are guarded by eviction lock
+        Node<K, V> prev;
+        Node<K, V> next;
+        int queue = NONE;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class AccessOrderDeque<K, V> {
+        Node<K, V> head;
+        Node<K, V> tail;
+        int size;
+
+        void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (null == tail) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            if (null == node.prev) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (null == node.next) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToBack(Node<K, V> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+            size = 0;
+        }
+    }
+
+    /*
+     * A lossy, bounded, multiple producer single consumer ring buffer
+     * recording read accesses
+     */
+    private static final class ReadBuffer<K, V> {
+        static final int SIZE = 16;
+        static final int MASK = SIZE - 1;
+
+        final AtomicLong writeCounter = new AtomicLong();
+        final AtomicReferenceArray<Node<K, V>> buffer = new AtomicReferenceArray<>(SIZE);
+        volatile long readCounter;
+
+        /*
+         * Returns `false` if the buffer is full
+         */
+        boolean offer(Node<K, V> node) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            if (tail - head >= SIZE) {
+                return false;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & MASK), node);
+            }
+            // the record is dropped on contention
+            return true;
+        }
+
+        void drainTo(TinyLFUCache<K, V> cache) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            for (; head < tail; ++head) {
+                int index = (int) (head & MASK);
+                Node<K, V> node = buffer.get(index);
+                if (null == node) {
+                    // the producer has not published the node yet
+                    break;
+                }
+                buffer.lazySet(index, null);
+                cache.onAccess(node);
+            }
+            readCounter = head;
+        }
+    }
+
+    /*
+     * A count-min sketch with 4 bit counters estimating the
+     * access frequency of keys. Counters are halved periodically
+     * so the history ages out.
+     */
+    private static final class FrequencySketch {
+        static final long[] SEED = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        static final long RESET_MASK = 0x7777777777777777L;
+        static final long ONE_MASK = 0x1111111111111111L;
+
+        long[] table = new long[1];
+        int tableMask;
+        int sampleSize = 10;
+        int size;
+
+        void ensureCapacity(int maximum) {
+            if (table.length >= maximum) {
+                return;
+            }
+            table = new long[ceilingPowerOfTwo(maximum)];
+            tableMask = table.length - 1;
+            sampleSize = 10 * table.length;
+            if (sampleSize <= 0) {
+                sampleSize = Integer.MAX_VALUE;
+            }
+            size = 0;
+        }
+
+        int frequency(Object e) {
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; ++i) {
+                int index = indexOf(hash, i);
+                int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(Object e) {
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; ++i) {
+                added |= incrementAt(indexOf(hash, i), start + i);
+            }
+            if (added && ++size >= sampleSize) {
+                reset();
+            }
+        }
+
+        private boolean incrementAt(int i, int j) {
+            int offset = j << 2;
+            long mask = 0xfL << offset;
+            if ((table[i] & mask) != mask) {
+                table[i] += 1L << offset;
+                return true;
+            }
+            return false;
+        }
+
+        private void reset() {
+            int count = 0;
+            for (int i = 0; i < table.length; ++i) {
+                count += Long.bitCount(table[i] & ONE_MASK);
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            size = (size >>> 1) - (count >>> 2);
+        }
+
+        private int indexOf(int item, int i) {
+            long hash = (item + SEED[i]) * SEED[i];
+            hash += (hash >>> 32);
+            return ((int) hash) & tableMask;
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final ReadBuffer<K, V>[] readBuffers;
+    private final int readBufferMask;
+
+    private final Executor executor;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            evictionLock.lock();
+            try {
+                drainReadBuffers();
+            } finally {
+                evictionLock.unlock();
+                drainScheduled.set(false);
+            }
+        }
+    };
+
+    // the size of the cache
+    private final int capacity;
+    private final int windowMax;
+    private final int protectedMax;
+
+    // following fields are guarded by eviction lock
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> protectedDeque = new AccessOrderDeque<>();
+    private final FrequencySketch sketch = new FrequencySketch();
+
+    /**
+     * Create a new TinyLFU cache. Read buffers are drained by the
+     * caller threads.
+     *
+     * @param capacity the size of the cache
+     */
+    public TinyLFUCache(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Create a new TinyLFU cache.
+     *
+     * @param capacity the size of the cache
+     * @param executor the executor to drain read buffers, if `null` then
+     *                 read buffers are drained by the caller threads
+     */
+    @SuppressWarnings("unchecked")
+    public TinyLFUCache(int capacity, Executor executor) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity is illegal.");
+        }
+        this.capacity = capacity;
+        this.executor = executor;
+        this.windowMax = Math.max(1, capacity / 100);
+        this.protectedMax = (int) ((capacity - windowMax) * 0.8);
+        int stripes = Math.min(ceilingPowerOfTwo(NCPU), 32);
+        this.readBuffers = new ReadBuffer[stripes];
+        for (int i = 0; i < stripes; ++i) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+        this.readBufferMask = stripes - 1;
+    }
+
+    /**
+     * Get the value of key.
+     * If the key does not exist, return null.
+     *
+     * @param key the key to query
+     * @return the value of the key
+     */
+    public V get(K key) {
+        Node<K, V> node = data.get(key);
+        if (null == node) {
+            return null;
+        }
+        afterRead(node);
+        return node.value;
+    }
+
+    /**
+     * Set key to hold the value.
+     * If key already holds a value, it is overwritten.
+     *
+     * @param key   the key of the node
+     * @param value the value of the node
+     */
+    public void set(K key, V value) {
+        for (;;) {
+            Node<K, V> node = data.get(key);
+            if (null == node) {
+                node = new Node<>(key, value);
+                Node<K, V> prior = data.putIfAbsent(key, node);
+                if (null == prior) {
+                    afterAdd(node);
+                    return;
+                }
+                node = prior;
+            }
+            synchronized (node) {
+                if (node.alive) {
+                    node.value = value;
+                    afterRead(node);
+                    return;
+                }
+            }
+            // the node has been removed concurrently, retry
+        }
+    }
+
+    /**
+     * Returns the values of all specified keys.
+     * For every key that does not exist, null is returned.
+     *
+     * @param keys a list of keys to query
+     * @return query results, a map of key/val extracted
+     */
+    public Map<K, V> mget(List<K> keys) {
+        Map<K, V> ret = new LinkedHashMap<>();
+        for (K key : keys) {
+            V val = get(key);
+            if (null != val) {
+                ret.put(key, val);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Sets the given keys to their respective values.
+     * MSET replaces existing values with new values, just as regular SET.
+     *
+     * @param data a map contains the key/val pairs to be set.
+     */
+    public void mset(Map<K, V> data) {
+        for (Map.Entry<K, V> entry : data.entrySet()) {
+            set(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Increments the value stored at key by delta atomically.
+     * If the key does not exist, it is set to 0 before performing the operation.
+     * Only works for integer value.
+     *
+     * @param key   the key needed to be increased
+     * @param delta increment
+     * @return the value after increment
+     */
+    @SuppressWarnings("unchecked")
+    public Integer incr(K key, Integer delta) {
+        for (;;) {
+            Node<K, V> node = data.get(key);
+            if (null == node) {
+                node = new Node<>(key, (V) delta);
+                Node<K, V> prior = data.putIfAbsent(key, node);
+                if (null == prior) {
+                    afterAdd(node);
+                    return delta;
+                }
+                node = prior;
+            }
+            Integer I;
+            synchronized (node) {
+                if (!node.alive) {
+                    continue;
+                }
+                I = (Integer) node.value;
+                if (null == I) {
+                    I = 0;
+                }
+                I += delta;
+                node.value = (V) I;
+            }
+            afterRead(node);
+            return I;
+        }
+    }
+
+    /**
+     * Decrements the value stored at key by delta atomically.
+     * If the key does not exist, it is set to 0 before performing the operation.
+     * Only works for integer value.
+     *
+     * @param key   the key needed to be decreased
+     * @param delta decrement
+     * @return the value after decrement
+     */
+    public Integer decr(K key, Integer delta) {
+        return incr(key, -delta);
+    }
+
+    /**
+     * Remove the value associated with key.
+     *
+     * @param key the key to be removed
+     * @return the value removed or `null` if no value associated with the key
+     */
+    public V remove(K key) {
+        for (;;) {
+            Node<K, V> node = data.get(key);
+            if (null == node) {
+                return null;
+            }
+            synchronized (node) {
+                if (!data.remove(key, node)) {
+                    continue;
+                }
+                node.alive = false;
+            }
+            evictionLock.lock();
+            try {
+                unlink(node);
+            } finally {
+                evictionLock.unlock();
+            }
+            return node.value;
+        }
+    }
+
+    /**
+     * Remove all entries from the cache.
+     */
+    public void clear() {
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+            for (Node<K, V> node : data.values()) {
+                synchronized (node) {
+                    if (data.remove(node.key, node)) {
+                        node.alive = false;
+                    }
+                }
+                node.queue = NONE;
+            }
+            window.clear();
+            probation.clear();
+            protectedDeque.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     *
+     * @return the size of the cache
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * Apply all pending access records to the eviction policy.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void afterRead(Node<K, V> node) {
+        int probe = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        ReadBuffer<K, V> buffer = readBuffers[(probe >>> 16) & readBufferMask];
+        if (!buffer.offer(node)) {
+            scheduleDrain();
+        }
+    }
+
+    private void afterAdd(Node<K, V> node) {
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+            if (!node.alive) {
+                return;
+            }
+            sketch.increment(node.key);
+            node.queue = WINDOW;
+            window.addLast(node);
+            int size = window.size + probation.size + protectedDeque.size;
+            if (size > sketch.table.length) {
+                sketch.ensureCapacity(Math.min(capacity, size << 1));
+            }
+            evictEntries();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (null != executor) {
+            if (drainScheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(drainTask);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    drainScheduled.set(false);
+                }
+            } else {
+                return;
+            }
+        }
+        if (evictionLock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    // guarded by eviction lock
+    private void drainReadBuffers() {
+        for (ReadBuffer<K, V> buffer : readBuffers) {
+            buffer.drainTo(this);
+        }
+    }
+
+    // guarded by eviction lock
+    private void onAccess(Node<K, V> node) {
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToBack(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protectedDeque.addLast(node);
+                while (protectedDeque.size > protectedMax) {
+                    Node<K, V> demoted = protectedDeque.head;
+                    protectedDeque.remove(demoted);
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            case PROTECTED:
+                protectedDeque.moveToBack(node);
+                break;
+            default:
+                // node has been removed or not yet added
+        }
+    }
+
+    // guarded by eviction lock
+    private void evictEntries() {
+        int candidates = 0;
+        while (window.size > windowMax) {
+            Node<K, V> node = window.head;
+            window.remove(node);
+            node.queue = PROBATION;
+            probation.addLast(node);
+            candidates++;
+        }
+        while (window.size + probation.size + protectedDeque.size > capacity) {
+            Node<K, V> victim = probation.head;
+            if (null == victim) {
+                victim = null != protectedDeque.head ? protectedDeque.head : window.head;
+                evict(victim);
+                continue;
+            }
+            Node<K, V> candidate = candidates > 0 ? probation.tail : null;
+            if (null == candidate || candidate == victim) {
+                evict(victim);
+                continue;
+            }
+            if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evict(victim);
+            } else {
+                evict(candidate);
+                candidates--;
+            }
+        }
+    }
+
+    // guarded by eviction lock
+    private void evict(Node<K, V> node) {
+        unlink(node);
+        synchronized (node) {
+            if (data.remove(node.key, node)) {
+                node.alive = false;
+            }
+        }
+    }
+
+    // guarded by eviction lock
+    private void unlink(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedDeque.remove(node);
+                break;
+            default:
+                return;
+        }
+        node.queue = NONE;
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+        return 1 << -Integer.numberOfLeadingZeros(x - 1);
+    }
+
+}
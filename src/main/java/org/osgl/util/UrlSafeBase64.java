@@ -40,11 +40,10 @@ package org.osgl.util;
  */
 
 /**
- * Source code come from
- * http://www.source-code.biz/base64coder/java/Base64Coder.java.txt,
- * <p/>
- * Under Apache License, V2.0
+ * URL safe Base64 encoding and decoding.
  * <p>The variation implementation follow https://en.wikipedia.org/wiki/Base64#URL_applications</p>
+ *
+ * The methods delegate to {@link Codec.Base64Codec}, see {@link Codec#urlSafeBase64()}.
  */
 class UrlSafeBase64 {
 
@@ -52,27 +51,7 @@ class UrlSafeBase64 {
     static final char CHAR_PLUS_REPLACEMENT = '-';
     static final char CHAR_FORWARD_SLASH_REPLACEMENT = '_';
 
-    // Mapping table from 6-bit nibbles to Base64 characters.
-    private static final char[] map1 = new char[64];
-
-    static {
-        int i = 0;
-        for (char c = 'A'; c <= 'Z'; c++) map1[i++] = c;
-        for (char c = 'a'; c <= 'z'; c++) map1[i++] = c;
-        for (char c = '0'; c <= '9'; c++) map1[i++] = c;
-        // map1[i++] = '+';
-        // map1[i++] = '/';
-        map1[i++] = CHAR_PLUS_REPLACEMENT;
-        map1[i++] = CHAR_FORWARD_SLASH_REPLACEMENT;
-    }
-
-    // Mapping table from Base64 characters to 6-bit nibbles.
-    private static final byte[] map2 = new byte[128];
-
-    static {
-        for (int i = 0; i < map2.length; i++) map2[i] = -1;
-        for (int i = 0; i < 64; i++) map2[map1[i]] = (byte) i;
-    }
+    private static final Codec.Base64Codec CODEC = Codec.Base64Codec.URL_SAFE;
 
     /**
      * Encodes a byte array into Base64 format.
@@ -82,10 +61,9 @@ class UrlSafeBase64 {
      * @return A character array containing the Base64 encoded data.
      */
     public static char[] encode(byte[] in) {
-        return encode(in, 0, in.length);
+        return CODEC.encode(in, 0, in.length);
     }
 
-
     /**
      * Encodes a byte array into Base64 format.
      * No blanks or line breaks are inserted in the output.
@@ -96,28 +74,7 @@ class UrlSafeBase64 {
      * @return A character array containing the Base64 encoded data.
      */
     public static char[] encode(byte[] in, int iOff, int iLen) {
-        int oDataLen = (iLen * 4 + 2) / 3;       // output length without padding
-        int oLen = ((iLen + 2) / 3) * 4;         // output length including padding
-        char[] out = new char[oLen];
-        int ip = iOff;
-        int iEnd = iOff + iLen;
-        int op = 0;
-        while (ip < iEnd) {
-            int i0 = in[ip++] & 0xff;
-            int i1 = ip < iEnd ? in[ip++] & 0xff : 0;
-            int i2 = ip < iEnd ? in[ip++] & 0xff : 0;
-            int o0 = i0 >>> 2;
-            int o1 = ((i0 & 3) << 4) | (i1 >>> 4);
-            int o2 = ((i1 & 0xf) << 2) | (i2 >>> 6);
-            int o3 = i2 & 0x3F;
-            out[op++] = map1[o0];
-            out[op++] = map1[o1];
-            out[op] = op < oDataLen ? map1[o2] : CHAR_PADDING;
-            op++;
-            out[op] = op < oDataLen ? map1[o3] : CHAR_PADDING;
-            op++;
-        }
-        return out;
+        return CODEC.encode(in, iOff, iLen);
     }
 
     /**
@@ -142,14 +99,7 @@ class UrlSafeBase64 {
      * @throws IllegalArgumentException If the input is not valid Base64 encoded data.
      */
     public static byte[] decodeLines(String s) {
-        char[] buf = new char[s.length()];
-        int p = 0;
-        for (int ip = 0; ip < s.length(); ip++) {
-            char c = s.charAt(ip);
-            if (c != ' ' && c != '\r' && c != '\n' && c != '\t')
-                buf[p++] = c;
-        }
-        return decode(buf, 0, p);
+        return CODEC.decodeLines(s);
     }
 
     /**
@@ -161,7 +111,7 @@ class UrlSafeBase64 {
      * @throws IllegalArgumentException If the input is not valid Base64 encoded data.
      */
     public static byte[] decode(String s) {
-        return decode(s.toCharArray());
+        return CODEC.decode(s);
     }
 
     /**
@@ -173,7 +123,7 @@ class UrlSafeBase64 {
      * @throws IllegalArgumentException If the input is not valid Base64 encoded data.
      */
     public static byte[] decode(char[] in) {
-        return decode(in, 0, in.length);
+        return CODEC.decode(in, 0, in.length);
     }
 
     /**
@@ -187,34 +137,6 @@ class UrlSafeBase64 {
      * @throws IllegalArgumentException If the input is not valid Base64 encoded data.
      */
     public static byte[] decode(char[] in, int iOff, int iLen) {
-        if (iLen % 4 != 0)
-            throw new IllegalArgumentException("Length of Base64 encoded input string is not a multiple of 4.");
-        while (iLen > 0 && in[iOff + iLen - 1] == CHAR_PADDING) iLen--;
-        int oLen = (iLen * 3) / 4;
-        byte[] out = new byte[oLen];
-        int ip = iOff;
-        int iEnd = iOff + iLen;
-        int op = 0;
-        while (ip < iEnd) {
-            int i0 = in[ip++];
-            int i1 = in[ip++];
-            int i2 = ip < iEnd ? in[ip++] : 'A';
-            int i3 = ip < iEnd ? in[ip++] : 'A';
-            if (i0 > 127 || i1 > 127 || i2 > 127 || i3 > 127)
-                throw new IllegalArgumentException("Illegal character in Base64 encoded data.");
-            int b0 = map2[i0];
-            int b1 = map2[i1];
-            int b2 = map2[i2];
-            int b3 = map2[i3];
-            if (b0 < 0 || b1 < 0 || b2 < 0 || b3 < 0)
-                throw new IllegalArgumentException("Illegal character in Base64 encoded data.");
-            int o0 = (b0 << 2) | (b1 >>> 4);
-            int o1 = ((b1 & 0xf) << 4) | (b2 >>> 2);
-            int o2 = ((b2 & 3) << 6) | b3;
-            out[op++] = (byte) o0;
-            if (op < oLen) out[op++] = (byte) o1;
-            if (op < oLen) out[op++] = (byte) o2;
-        }
-        return out;
+        return CODEC.decode(in, iOff, iLen);
     }
 }
@@ -20,6 +20,8 @@ package org.osgl.util;
  * #L%
  */
 
+import java.util.concurrent.ForkJoinPool;
+
 public class UtilConfig {
 
     public static void setThreadLocalBufferLimit(int limit) {
@@ -79,4 +81,32 @@ public class UtilConfig {
         return ByteArrayBuffer.BUFFER_INIT_SIZE;
     }
 
+    /**
+     * Set the fork join pool used to run bulk operations on parallel lists.
+     *
+     * @param pool the fork join pool, `null` to use the default pool
+     */
+    public static void setParallelPool(ForkJoinPool pool) {
+        ParallelListOps.setPool(pool);
+    }
+
+    public static ForkJoinPool getParallelPool() {
+        return ParallelListOps.pool();
+    }
+
+    /**
+     * Set the number of elements processed by a single task when running
+     * bulk operations on parallel lists. Lists no larger than the threshold
+     * are always processed sequentially.
+     *
+     * @param threshold the split threshold
+     */
+    public static void setParallelThreshold(int threshold) {
+        ParallelListOps.setThreshold(threshold);
+    }
+
+    public static int getParallelThreshold() {
+        return ParallelListOps.threshold();
+    }
+
 }
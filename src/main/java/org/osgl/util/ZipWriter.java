@@ -0,0 +1,402 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipException;
+
+/**
+ * Write a zip archive into an output stream with entries deflated in
+ * parallel.
+ *
+ * Each entry is read in blocks. Blocks are deflated by tasks running
+ * on an {@link Executor} and written out in order, so the memory used
+ * is bounded by the number of blocks in flight instead of the size of
+ * the archive. Like `pigz`, each block is primed with the last 32KB of
+ * the previous block of the same entry and ends with a sync flush, so
+ * the blocks concatenate into a single deflate stream with almost the
+ * same ratio as a sequential compression.
+ *
+ * As the compressed size is not known when the entry header is written,
+ * every entry is followed by a data descriptor. Zip64 records are written
+ * only when needed, i.e. for entries or archives of 4GB or more and for
+ * archives with 65535 entries or more, as {@link java.util.zip.ZipOutputStream}
+ * does.
+ */
+class ZipWriter implements Closeable {
+
+    static final int BLOCK_SIZE = 1024 * 512;
+
+    private static final int DICT_SIZE = 1024 * 32;
+
+    private static final long ZIP32_LIMIT = 0xFFFFFFFFL;
+    private static final int MAX_ENTRIES = 0xFFFF;
+
+    private static final int ZIP64_EXTRA_TAG = 0x0001;
+
+    // general purpose flags: data descriptor and UTF-8 names
+    private static final int FLAGS = 0x0008 | 0x0800;
+
+    private static final int VERSION = 20;
+    private static final int VERSION_ZIP64 = 45;
+
+    private static final int DEFLATED = 8;
+
+    private static class Entry {
+        final byte[] name;
+        final int dosTime;
+        final long offset;
+        long crc;
+        long size;
+        long compressedSize;
+
+        Entry(byte[] name, int dosTime, long offset) {
+            this.name = name;
+            this.dosTime = dosTime;
+            this.offset = offset;
+        }
+    }
+
+    private final OutputStream os;
+    private final Executor executor;
+    private final int level;
+    private final int maxPending;
+
+    // compressed blocks waiting to be written in order
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Set<String> names = new HashSet<>();
+
+    private long written;
+    private boolean finished;
+
+    ZipWriter(OutputStream os, Executor executor) {
+        this(os, executor, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    ZipWriter(OutputStream os, Executor executor, int level) {
+        this.os = os instanceof BufferedOutputStream ? os : new BufferedOutputStream(os, 1024 * 64);
+        this.executor = null == executor ? UtilConfig.getParallelPool() : executor;
+        this.level = level;
+        int parallelism = this.executor instanceof ForkJoinPool ? ((ForkJoinPool) this.executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+        this.maxPending = parallelism * 2;
+    }
+
+    /**
+     * Add an entry to the archive. The input stream is consumed but not closed.
+     *
+     * @param name
+     *         the entry name
+     * @param lastModified
+     *         the last modified time of the entry
+     * @param is
+     *         the entry content
+     * @throws IOException
+     *         if there are IO errors or the name is duplicated
+     */
+    void add(String name, long lastModified, InputStream is) throws IOException {
+        E.illegalStateIf(finished, "zip writer already finished");
+        if (!names.add(name)) {
+            throw new ZipException("duplicate entry: " + name);
+        }
+        Entry entry = new Entry(name.getBytes(StandardCharsets.UTF_8), dosTime(lastModified), written);
+        entries.add(entry);
+        writeLocalHeader(entry);
+        // blocks might be written during reading when too many blocks pending
+        long start = written;
+
+        CRC32 crc = new CRC32();
+        long size = 0;
+        byte[] dict = null;
+        byte[] block = readBlock(is);
+        while (true) {
+            byte[] next = block.length < BLOCK_SIZE ? new byte[0] : readBlock(is);
+            boolean last = next.length == 0;
+            crc.update(block, 0, block.length);
+            size += block.length;
+            submit(block, dict, last);
+            if (last) {
+                break;
+            }
+            dict = block;
+            block = next;
+        }
+        entry.crc = crc.getValue();
+        entry.size = size;
+        // write out all blocks of the entry so the compressed size is known
+        while (!pending.isEmpty()) {
+            writePending();
+        }
+        entry.compressedSize = written - start;
+        writeDataDescriptor(entry);
+    }
+
+    /**
+     * Write the central directory. The underline output stream is flushed
+     * but not closed.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        long cdOffset = written;
+        for (Entry entry : entries) {
+            writeCentralHeader(entry);
+        }
+        long cdSize = written - cdOffset;
+        int count = entries.size();
+        if (count >= MAX_ENTRIES || cdSize >= ZIP32_LIMIT || cdOffset >= ZIP32_LIMIT) {
+            long zip64EndOffset = written;
+            writeInt(0x06064b50L);
+            // size of the remaining record
+            writeLong(44);
+            writeShort(VERSION_ZIP64);
+            writeShort(VERSION_ZIP64);
+            writeInt(0);
+            writeInt(0);
+            writeLong(count);
+            writeLong(count);
+            writeLong(cdSize);
+            writeLong(cdOffset);
+            // zip64 end of central directory locator
+            writeInt(0x07064b50L);
+            writeInt(0);
+            writeLong(zip64EndOffset);
+            writeInt(1);
+        }
+        writeInt(0x06054b50L);
+        writeShort(0);
+        writeShort(0);
+        writeShort(Math.min(count, MAX_ENTRIES));
+        writeShort(Math.min(count, MAX_ENTRIES));
+        writeInt(Math.min(cdSize, ZIP32_LIMIT));
+        writeInt(Math.min(cdOffset, ZIP32_LIMIT));
+        writeShort(0);
+        os.flush();
+    }
+
+    /**
+     * Close the underline output stream. Note it does not {@link #finish()}
+     * the archive, so calling this method before `finish()` leaves an
+     * incomplete archive.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Future<byte[]> future : pending) {
+            future.cancel(true);
+        }
+        pending.clear();
+        os.close();
+    }
+
+    private byte[] readBlock(InputStream is) throws IOException {
+        byte[] buf = new byte[BLOCK_SIZE];
+        int n = 0;
+        while (n < BLOCK_SIZE) {
+            int read = is.read(buf, n, BLOCK_SIZE - n);
+            if (read < 0) {
+                break;
+            }
+            n += read;
+        }
+        return n == BLOCK_SIZE ? buf : Arrays.copyOf(buf, n);
+    }
+
+    private void submit(final byte[] block, final byte[] prev, final boolean last) throws IOException {
+        while (pending.size() >= maxPending) {
+            writePending();
+        }
+        FutureTask<byte[]> task = new FutureTask<>(new Callable<byte[]>() {
+            @Override
+            public byte[] call() {
+                return deflate(block, prev, last);
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+        pending.add(task);
+    }
+
+    private byte[] deflate(byte[] block, byte[] prev, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (null != prev) {
+                int len = Math.min(DICT_SIZE, prev.length);
+                deflater.setDictionary(prev, prev.length - len, len);
+            }
+            deflater.setInput(block);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(block.length / 2 + 64);
+            byte[] buf = new byte[1024 * 64];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(buf);
+                    out.write(buf, 0, n);
+                }
+            } else {
+                int n;
+                do {
+                    // the output buffer is full until all pending output flushed
+                    n = deflater.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+                    out.write(buf, 0, n);
+                } while (n == buf.length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writePending() throws IOException {
+        Future<byte[]> future = pending.poll();
+        byte[] data;
+        try {
+            data = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw E.unexpected(cause);
+        }
+        write(data);
+    }
+
+    private void writeLocalHeader(Entry entry) throws IOException {
+        writeInt(0x04034b50L);
+        writeShort(VERSION);
+        writeShort(FLAGS);
+        writeShort(DEFLATED);
+        writeInt(entry.dosTime);
+        // crc and sizes are in the data descriptor
+        writeInt(0);
+        writeInt(0);
+        writeInt(0);
+        writeShort(entry.name.length);
+        writeShort(0);
+        write(entry.name);
+    }
+
+    private void writeDataDescriptor(Entry entry) throws IOException {
+        writeInt(0x08074b50L);
+        writeInt(entry.crc);
+        if (entry.compressedSize >= ZIP32_LIMIT || entry.size >= ZIP32_LIMIT) {
+            // readers tell the zip64 form by the size of the inflated data
+            writeLong(entry.compressedSize);
+            writeLong(entry.size);
+        } else {
+            writeInt(entry.compressedSize);
+            writeInt(entry.size);
+        }
+    }
+
+    private void writeCentralHeader(Entry entry) throws IOException {
+        boolean zip64Size = entry.size >= ZIP32_LIMIT;
+        boolean zip64CompressedSize = entry.compressedSize >= ZIP32_LIMIT;
+        boolean zip64Offset = entry.offset >= ZIP32_LIMIT;
+        // the extra field only has the values overflowed, in this order
+        int extraLen = (zip64Size ? 8 : 0) + (zip64CompressedSize ? 8 : 0) + (zip64Offset ? 8 : 0);
+        int version = 0 == extraLen ? VERSION : VERSION_ZIP64;
+        writeInt(0x02014b50L);
+        writeShort(version);
+        writeShort(version);
+        writeShort(FLAGS);
+        writeShort(DEFLATED);
+        writeInt(entry.dosTime);
+        writeInt(entry.crc);
+        writeInt(zip64CompressedSize ? ZIP32_LIMIT : entry.compressedSize);
+        writeInt(zip64Size ? ZIP32_LIMIT : entry.size);
+        writeShort(entry.name.length);
+        writeShort(0 == extraLen ? 0 : extraLen + 4);
+        // comment, disk number, internal and external attributes
+        writeShort(0);
+        writeShort(0);
+        writeShort(0);
+        writeInt(0);
+        writeInt(zip64Offset ? ZIP32_LIMIT : entry.offset);
+        write(entry.name);
+        if (0 != extraLen) {
+            writeShort(ZIP64_EXTRA_TAG);
+            writeShort(extraLen);
+            if (zip64Size) {
+                writeLong(entry.size);
+            }
+            if (zip64CompressedSize) {
+                writeLong(entry.compressedSize);
+            }
+            if (zip64Offset) {
+                writeLong(entry.offset);
+            }
+        }
+    }
+
+    private void writeShort(int v) throws IOException {
+        os.write(v & 0xFF);
+        os.write((v >>> 8) & 0xFF);
+        written += 2;
+    }
+
+    private void writeInt(long v) throws IOException {
+        os.write((int) (v & 0xFF));
+        os.write((int) ((v >>> 8) & 0xFF));
+        os.write((int) ((v >>> 16) & 0xFF));
+        os.write((int) ((v >>> 24) & 0xFF));
+        written += 4;
+    }
+
+    private void writeLong(long v) throws IOException {
+        writeInt(v & ZIP32_LIMIT);
+        writeInt(v >>> 32);
+    }
+
+    private void write(byte[] data) throws IOException {
+        os.write(data);
+        written += data.length;
+    }
+
+    // see java.util.zip.ZipUtils.javaToDosTime
+    private static int dosTime(long time) {
+        Calendar c = Calendar.getInstance();
+        c.setTimeInMillis(time);
+        int year = c.get(Calendar.YEAR);
+        if (year < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return (year - 1980) << 25 | (c.get(Calendar.MONTH) + 1) << 21 | c.get(Calendar.DAY_OF_MONTH) << 16
+                | c.get(Calendar.HOUR_OF_DAY) << 11 | c.get(Calendar.MINUTE) << 5 | c.get(Calendar.SECOND) >> 1;
+    }
+
+}
@@ -0,0 +1,530 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.util.C;
+import org.osgl.util.E;
+import org.osgl.util.ListBuilder;
+import org.osgl.util.S;
+
+import java.util.*;
+
+/**
+ * A compiled multi-pattern matcher based on the Aho-Corasick automaton.
+ *
+ * The automaton is built once from a set of keywords and finds all of
+ * them in a single pass over a text. Matches are reported leftmost
+ * longest and never overlap: scanning from left to right the match that
+ * starts first wins, and among matches starting at the same position the
+ * longest one wins. This is the rule used by {@link #findAll(char[])} and
+ * the replace methods. Use {@link #scanAll(CharSequence, MatchHandler)}
+ * to get every occurrence including overlapping ones.
+ *
+ * When created with `ignoreCase` set, keywords and text are compared
+ * after {@link Character#toLowerCase(char)} is applied to each char.
+ *
+ * Instances are immutable and can be shared across threads.
+ */
+public final class AhoCorasick {
+
+    /**
+     * A keyword occurrence in a text.
+     */
+    public static final class Match {
+        private final int start;
+        private final int end;
+        private final int keywordIndex;
+        private final String keyword;
+
+        Match(int start, int end, int keywordIndex, String keyword) {
+            this.start = start;
+            this.end = end;
+            this.keywordIndex = keywordIndex;
+            this.keyword = keyword;
+        }
+
+        /**
+         * @return the index of the first char of the match in the text
+         */
+        public int start() {
+            return start;
+        }
+
+        /**
+         * @return the index after the last char of the match in the text
+         */
+        public int end() {
+            return end;
+        }
+
+        /**
+         * @return the index of the matched keyword in the keyword list used to compile the automaton
+         */
+        public int keywordIndex() {
+            return keywordIndex;
+        }
+
+        /**
+         * @return the matched keyword
+         */
+        public String keyword() {
+            return keyword;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof Match) {
+                Match that = (Match) obj;
+                return that.start == start && that.end == end && that.keywordIndex == keywordIndex;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return $.hc(start, end, keywordIndex);
+        }
+
+        @Override
+        public String toString() {
+            return S.fmt("%s@[%s, %s)", keyword, start, end);
+        }
+    }
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final int[] NO_STATES = new int[0];
+
+    private final String[] keywords;
+    private final boolean ignoreCase;
+
+    // children of each state: sorted chars and the target states
+    private final char[][] childChars;
+    private final int[][] childStates;
+    // the failure link of each state
+    private final int[] fail;
+    // the depth of each state, i.e. the length of the prefix it represents
+    private final int[] depth;
+    // the keyword ends at each state, `-1` if none
+    private final int[] terminal;
+    // the nearest state on the failure chain that is terminal, `-1` if none
+    private final int[] dictLink;
+
+    private AhoCorasick(String[] keywords, boolean ignoreCase) {
+        this.keywords = keywords;
+        this.ignoreCase = ignoreCase;
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        List<Integer> terminals = new ArrayList<>();
+        trie.add(new TreeMap<Character, Integer>());
+        depths.add(0);
+        terminals.add(-1);
+        for (int k = 0; k < keywords.length; ++k) {
+            String keyword = keywords[k];
+            int state = 0;
+            for (int i = 0, len = keyword.length(); i < len; ++i) {
+                char c = fold(keyword.charAt(i));
+                Map<Character, Integer> children = trie.get(state);
+                Integer next = children.get(c);
+                if (null == next) {
+                    next = trie.size();
+                    children.put(c, next);
+                    trie.add(new TreeMap<Character, Integer>());
+                    depths.add(i + 1);
+                    terminals.add(-1);
+                }
+                state = next;
+            }
+            if (state > 0 && terminals.get(state) < 0) {
+                terminals.set(state, k);
+            }
+        }
+        int n = trie.size();
+        childChars = new char[n][];
+        childStates = new int[n][];
+        depth = new int[n];
+        terminal = new int[n];
+        for (int s = 0; s < n; ++s) {
+            Map<Character, Integer> children = trie.get(s);
+            int sz = children.size();
+            char[] ca = sz == 0 ? NO_CHARS : new char[sz];
+            int[] sa = sz == 0 ? NO_STATES : new int[sz];
+            int i = 0;
+            for (Map.Entry<Character, Integer> entry : children.entrySet()) {
+                ca[i] = entry.getKey();
+                sa[i++] = entry.getValue();
+            }
+            childChars[s] = ca;
+            childStates[s] = sa;
+            depth[s] = depths.get(s);
+            terminal[s] = terminals.get(s);
+        }
+        fail = new int[n];
+        dictLink = new int[n];
+        dictLink[0] = -1;
+        // breadth first so the failure link of the parent is ready
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        for (int child : childStates[0]) {
+            fail[child] = 0;
+            dictLink[child] = -1;
+            queue[tail++] = child;
+        }
+        while (head < tail) {
+            int s = queue[head++];
+            char[] ca = childChars[s];
+            int[] sa = childStates[s];
+            for (int i = 0; i < ca.length; ++i) {
+                char c = ca[i];
+                int child = sa[i];
+                int f = fail[s];
+                int target;
+                while ((target = child(f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                target = target < 0 ? 0 : target;
+                fail[child] = target;
+                dictLink[child] = terminal[target] >= 0 ? target : dictLink[target];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    private char fold(char c) {
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    private int child(int state, char c) {
+        char[] ca = childChars[state];
+        int len = ca.length;
+        if (len < 8) {
+            for (int i = 0; i < len; ++i) {
+                if (ca[i] == c) {
+                    return childStates[state][i];
+                }
+            }
+            return -1;
+        }
+        int i = Arrays.binarySearch(ca, c);
+        return i < 0 ? -1 : childStates[state][i];
+    }
+
+    private int next(int state, char c) {
+        int target;
+        while ((target = child(state, c)) < 0) {
+            if (0 == state) {
+                return 0;
+            }
+            state = fail[state];
+        }
+        return target;
+    }
+
+    /**
+     * Returns the number of keywords.
+     *
+     * @return the number of keywords
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    /**
+     * Returns the keyword at index specified.
+     *
+     * @param index the keyword index
+     * @return the keyword
+     */
+    public String keyword(int index) {
+        return keywords[index];
+    }
+
+    /**
+     * Check if any keyword occurs in the text.
+     *
+     * @param text the text
+     * @return `true` if any keyword is found
+     */
+    public boolean containsAny(CharSequence text) {
+        int state = 0;
+        for (int i = 0, len = text.length(); i < len; ++i) {
+            state = next(state, fold(text.charAt(i)));
+            if (terminal[state] >= 0 || dictLink[state] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if any keyword occurs in the text.
+     *
+     * @param text the text
+     * @return `true` if any keyword is found
+     */
+    public boolean containsAny(char[] text) {
+        return containsAny(text, 0, text.length);
+    }
+
+    /**
+     * Check if any keyword occurs in the region `[from, to)` of the text.
+     *
+     * @param text the text
+     * @param from the from index
+     * @param to the end index (exclusive)
+     * @return `true` if any keyword is found
+     */
+    public boolean containsAny(char[] text, int from, int to) {
+        int state = 0;
+        for (int i = from; i < to; ++i) {
+            state = next(state, fold(text[i]));
+            if (terminal[state] >= 0 || dictLink[state] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find all keyword occurrences in the text.
+     *
+     * @param text the text
+     * @return the matches in the order of their position in the text
+     */
+    public C.List<Match> findAll(CharSequence text) {
+        return findAll(text.toString().toCharArray());
+    }
+
+    /**
+     * Find all keyword occurrences in the text.
+     *
+     * @param text the text
+     * @return the matches in the order of their position in the text
+     */
+    public C.List<Match> findAll(char[] text) {
+        return findAll(text, 0, text.length);
+    }
+
+    /**
+     * Find all keyword occurrences in the region `[from, to)` of the text.
+     *
+     * @param text the text
+     * @param from the from index
+     * @param to the end index (exclusive)
+     * @return the matches in the order of their position in the text
+     */
+    public C.List<Match> findAll(char[] text, int from, int to) {
+        final ListBuilder<Match> lb = ListBuilder.create();
+        scan(text, from, to, new MatchHandler() {
+            @Override
+            public void onMatch(int start, int end, int keywordIndex) {
+                lb.add(new Match(start, end, keywordIndex, keywords[keywordIndex]));
+            }
+        });
+        return lb.toList();
+    }
+
+    /**
+     * Replace all keyword occurrences in the text in a single pass.
+     *
+     * @param text the text
+     * @param replacements the replacement of each keyword, indexed by keyword index
+     * @return the text with keywords replaced, or `text` itself if no keyword found
+     */
+    public char[] replaceAll(char[] text, String[] replacements) {
+        return replaceAll(text, 0, text.length, replacements);
+    }
+
+    /**
+     * Replace all keyword occurrences in the region `[from, to)` of the text.
+     * Chars out of the region are not included in the result.
+     *
+     * @param text the text
+     * @param from the from index
+     * @param to the end index (exclusive)
+     * @param replacements the replacement of each keyword, indexed by keyword index
+     * @return the region with keywords replaced, or `text` itself if no keyword found
+     */
+    public char[] replaceAll(char[] text, int from, int to, String[] replacements) {
+        E.illegalArgumentIf(replacements.length < keywords.length, "not enough replacements");
+        Replacer replacer = new Replacer(text, from, replacements);
+        scan(text, from, to, replacer);
+        S.Buffer buf = replacer.buf;
+        if (null == buf) {
+            return text;
+        }
+        buf.append(text, replacer.last, to - replacer.last);
+        int len = buf.length();
+        char[] result = new char[len];
+        buf.getChars(0, len, result, 0);
+        return result;
+    }
+
+    /**
+     * Replace all keyword occurrences in the text in a single pass.
+     *
+     * @param text the text
+     * @param replacements the replacement of each keyword, indexed by keyword index
+     * @return the text with keywords replaced
+     */
+    public String replaceAll(String text, String[] replacements) {
+        char[] ca = text.toCharArray();
+        char[] result = replaceAll(ca, replacements);
+        return result == ca ? text : new String(result);
+    }
+
+    /**
+     * Receives keyword occurrences found in a text.
+     */
+    public interface MatchHandler {
+        /**
+         * Called on a keyword occurrence.
+         *
+         * @param start the start index of the occurrence
+         * @param end the end index (exclusive) of the occurrence
+         * @param keywordIndex the index of the keyword
+         */
+        void onMatch(int start, int end, int keywordIndex);
+    }
+
+    /**
+     * Report every keyword occurrence in the text to the handler,
+     * including occurrences that overlap each other.
+     *
+     * Occurrences are reported in the order of their end index, and
+     * occurrences ending at the same index are reported longest first.
+     *
+     * @param text the text
+     * @param handler the handler
+     */
+    public void scanAll(CharSequence text, MatchHandler handler) {
+        int state = 0;
+        for (int i = 0, len = text.length(); i < len; ++i) {
+            state = next(state, fold(text.charAt(i)));
+            int end = i + 1;
+            int s = terminal[state] >= 0 ? state : dictLink[state];
+            while (s >= 0) {
+                handler.onMatch(end - depth[s], end, terminal[s]);
+                s = dictLink[s];
+            }
+        }
+    }
+
+    private static final class Replacer implements MatchHandler {
+        private final char[] text;
+        private final String[] replacements;
+        // the buffer is taken at the first match
+        S.Buffer buf;
+        int last;
+
+        Replacer(char[] text, int from, String[] replacements) {
+            this.text = text;
+            this.replacements = replacements;
+            this.last = from;
+        }
+
+        @Override
+        public void onMatch(int start, int end, int keywordIndex) {
+            if (null == buf) {
+                buf = S.buffer();
+            }
+            buf.append(text, last, start - last);
+            buf.append(replacements[keywordIndex]);
+            last = end;
+        }
+    }
+
+    // report leftmost longest, non overlapping matches
+    private void scan(char[] text, int from, int to, MatchHandler handler) {
+        int state = 0;
+        int bestStart = -1, bestEnd = -1, bestKeyword = -1;
+        int i = from;
+        while (true) {
+            if (i >= to) {
+                if (bestStart < 0) {
+                    return;
+                }
+                // commit the pending match and rescan the rest
+                handler.onMatch(bestStart, bestEnd, bestKeyword);
+                i = bestEnd;
+                state = 0;
+                bestStart = -1;
+                continue;
+            }
+            state = next(state, fold(text[i]));
+            int end = i + 1;
+            // check every keyword ending here
+            int s = terminal[state] >= 0 ? state : dictLink[state];
+            while (s >= 0) {
+                int start = end - depth[s];
+                if (bestStart < 0 || start < bestStart || (start == bestStart && end > bestEnd)) {
+                    bestStart = start;
+                    bestEnd = end;
+                    bestKeyword = terminal[s];
+                }
+                s = dictLink[s];
+            }
+            i++;
+            // no partial match in progress could start at or before the candidate
+            if (bestStart >= 0 && end - depth[state] > bestStart) {
+                handler.onMatch(bestStart, bestEnd, bestKeyword);
+                i = bestEnd;
+                state = 0;
+                bestStart = -1;
+            }
+        }
+    }
+
+    /**
+     * Compile keywords into an automaton.
+     *
+     * @param keywords the keywords, empty keywords are ignored
+     * @return the automaton
+     */
+    public static AhoCorasick compile(Collection<String> keywords) {
+        return compile(keywords, false);
+    }
+
+    /**
+     * Compile keywords into an automaton.
+     *
+     * @param keywords the keywords, empty keywords are ignored
+     * @param ignoreCase whether to match case insensitively
+     * @return the automaton
+     */
+    public static AhoCorasick compile(Collection<String> keywords, boolean ignoreCase) {
+        return new AhoCorasick(keywords.toArray(new String[keywords.size()]), ignoreCase);
+    }
+
+    /**
+     * Compile keywords into an automaton.
+     *
+     * @param keywords the keywords, empty keywords are ignored
+     * @return the automaton
+     */
+    public static AhoCorasick compile(String... keywords) {
+        return new AhoCorasick(keywords.clone(), false);
+    }
+
+}
@@ -49,4 +49,19 @@ public enum Algorithms {
     public static final <T> ArrayInsertionSortInplace<T> arrayInsertionSortInplace() {
         return ARRAY_INSERTION_SORT_INPLACE;
     }
+
+    public static final ArrayPingPongMergeSort ARRAY_PING_PONG_MERGE_SORT = new ArrayPingPongMergeSort();
+    public static final <T> ArrayPingPongMergeSort<T> arrayPingPongMergeSort() {
+        return ARRAY_PING_PONG_MERGE_SORT;
+    }
+
+    public static final ArrayParallelMergeSort ARRAY_PARALLEL_MERGE_SORT = new ArrayParallelMergeSort();
+    public static final <T> ArrayParallelMergeSort<T> arrayParallelMergeSort() {
+        return ARRAY_PARALLEL_MERGE_SORT;
+    }
+
+    public static final ArrayPrimitiveSort ARRAY_PRIMITIVE_SORT = new ArrayPrimitiveSort();
+    public static final ArrayPrimitiveSort arrayPrimitiveSort() {
+        return ARRAY_PRIMITIVE_SORT;
+    }
 }
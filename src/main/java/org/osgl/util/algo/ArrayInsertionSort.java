@@ -28,8 +28,8 @@ import java.util.Comparator;
 /**
  * Array insertion sort algorithm.
  *
- * Use {@link Arrays#binarySearch(Object[], int, int, Object, java.util.Comparator)}
- * to locate the index to be inserted, and use
+ * Binary searches the sorted prefix for the position after the last equal
+ * element, which keeps the sort stable.
  */
 public class ArrayInsertionSort<T> extends ArraySortBase<T> implements ArraySort<T> {
 
@@ -38,10 +38,7 @@ public class ArrayInsertionSort<T> extends ArraySortBase<T> implements ArraySort
         newTs[0] = ts[from];
         for (int i = from + 1; i < to; ++i) {
             T t = ts[i];
-            int loc = Arrays.binarySearch(newTs, 0, size, t, comp);
-            if (loc < 0) {
-                loc = ~loc;
-            }
+            int loc = upperBound(newTs, 0, size, t, comp);
             System.arraycopy(newTs, loc, newTs, loc + 1, (size - loc));
             newTs[loc] = t;
             size++;
@@ -49,6 +46,20 @@ public class ArrayInsertionSort<T> extends ArraySortBase<T> implements ArraySort
         return newTs;
     }
 
+    // locate the position after the last element equal to `t`
+    // so that equal elements keep their original order
+    static <T> int upperBound(T[] ts, int from, int to, T t, Comparator<T> comp) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (comp.compare(ts[mid], t) <= 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
     public static void main(String[] args) {
         Integer[] ia = {5, 4, 3, 2, 1};
         ArrayInsertionSort<Integer> s = new ArrayInsertionSort<Integer>();
@@ -39,10 +39,7 @@ public class ArrayInsertionSortInplace<T> extends ArraySortInplaceBase<T> implem
         int size = from + 1;
         for (int i = from + 1; i < to; ++i) {
             T t = ts[i];
-            int loc = Arrays.binarySearch(ts, from, size, t, comp);
-            if (loc < 0) {
-                loc = ~loc;
-            }
+            int loc = ArrayInsertionSort.upperBound(ts, from, size, t, comp);
             System.arraycopy(ts, loc, ts, loc + 1, (size - loc));
             ts[loc] = t;
             size++;
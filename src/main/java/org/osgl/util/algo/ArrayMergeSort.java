@@ -40,44 +40,14 @@ public class ArrayMergeSort<T> extends ArraySortBase<T> implements ArraySort<T>
             ArrayInsertionSort<T> is = Algorithms.arrayInsertionSort();
             return is.sort0(ts, from, to, comp, newTs);
         }
-        Object[] merged = mergeSort(ts, from, to, comp);
-        System.arraycopy(merged, 0, newTs, 0, to - from);
+        int n = to - from;
+        System.arraycopy(ts, from, newTs, 0, n);
+        Object[] buf = new Object[n];
+        System.arraycopy(ts, from, buf, 0, n);
+        ArrayPingPongMergeSort.sort(buf, 0, newTs, 0, n, comp);
         return newTs;
     }
 
-    static <T> Object[] mergeSort(T[] ts, int from, int to, Comparator<T> comp) {
-        // divide
-        int mid = (from + to) >>> 1;
-        if (mid == from) {
-            return new Object[] {ts[mid]};
-        }
-        Object[] left = mergeSort(ts, from, mid, comp);
-        Object[] right = mergeSort(ts, mid, to, comp);
-
-        // merge
-        int llen = left.length;
-        int rlen = right.length;
-        Object[] ret = new Object[llen + rlen];
-        int l = 0, r = 0;
-        while ((l < llen) && (r < rlen)) {
-            T tl = (T)left[l], tr = (T)right[r];
-            if (comp.compare(tl, tr) < 0) {
-                ret[l + r] = tl;
-                l++;
-            } else {
-                ret[l + r] = tr;
-                r++;
-            }
-        }
-
-        if (l < llen) {
-            System.arraycopy(left, l, ret, r + l, llen - l);
-        } else {
-            System.arraycopy(right, r, ret, r + l, rlen - r);
-        }
-        return ret;
-    }
-
     public static void main(String[] args) {
         Integer[] ia = {5, 4, 3, 2, 1};
         ArrayMergeSort<Integer> s = new ArrayMergeSort<Integer>();
@@ -39,9 +39,8 @@ public class ArrayMergeSortInplace<T> extends ArraySortInplaceBase<T> implements
             ArrayInsertionSortInplace<T> is = Algorithms.arrayInsertionSortInplace();
             return is.sort0(ts, from, to, comp);
         }
-        Object[] merged = ArrayMergeSort.mergeSort(ts, from, to, comp);
-        System.arraycopy(merged, 0, ts, from, to - from);
-        return ts;
+        ArrayPingPongMergeSort<T> sort = Algorithms.arrayPingPongMergeSort();
+        return sort.sort0(ts, from, to, comp);
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,202 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.E;
+import org.osgl.util.UtilConfig;
+
+import java.util.Comparator;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stable fork-join merge sort for large arrays.
+ *
+ * The range is split in halves until a half is no longer than the
+ * threshold, each half is then sorted by {@link ArrayPingPongMergeSort}.
+ * Large merges are split as well: the longer run is cut at its middle
+ * element and the shorter run at the position the element would be
+ * inserted, so both parts can be merged independently.
+ *
+ * Like the ping-pong merge sort only one scratch buffer is allocated.
+ * Tasks are executed in {@link UtilConfig#getParallelPool()}.
+ */
+public class ArrayParallelMergeSort<T> extends ArraySortInplaceBase<T> implements ArraySort<T> {
+
+    // 0 means use UtilConfig.getParallelThreshold()
+    private final int threshold;
+
+    public ArrayParallelMergeSort() {
+        this.threshold = 0;
+    }
+
+    /**
+     * Construct a parallel merge sort with threshold specified.
+     *
+     * @param threshold
+     *      the max number of elements sorted or merged by a single task
+     */
+    public ArrayParallelMergeSort(int threshold) {
+        E.illegalArgumentIf(threshold < 1, "threshold shall be positive number");
+        this.threshold = threshold;
+    }
+
+    protected T[] sort0(T[] ts, int from, int to, Comparator<T> comp) {
+        int threshold = 0 == this.threshold ? UtilConfig.getParallelThreshold() : this.threshold;
+        int n = to - from;
+        if (n <= threshold) {
+            ArrayPingPongMergeSort<T> sort = Algorithms.arrayPingPongMergeSort();
+            return sort.sort0(ts, from, to, comp);
+        }
+        Object[] buf = new Object[n];
+        System.arraycopy(ts, from, buf, 0, n);
+        UtilConfig.getParallelPool().invoke(new SortTask(buf, 0, ts, from, n, comp, threshold));
+        return ts;
+    }
+
+    // see ArrayPingPongMergeSort.sort
+    private static final class SortTask extends RecursiveAction {
+        private final Object[] src;
+        private final int s;
+        private final Object[] dst;
+        private final int d;
+        private final int n;
+        private final Comparator comp;
+        private final int threshold;
+
+        SortTask(Object[] src, int s, Object[] dst, int d, int n, Comparator comp, int threshold) {
+            this.src = src;
+            this.s = s;
+            this.dst = dst;
+            this.d = d;
+            this.n = n;
+            this.comp = comp;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (n <= threshold) {
+                ArrayPingPongMergeSort.sort(src, s, dst, d, n, comp);
+                return;
+            }
+            int h = n >>> 1;
+            invokeAll(new SortTask(dst, d, src, s, h, comp, threshold),
+                    new SortTask(dst, d + h, src, s + h, n - h, comp, threshold));
+            int mid = s + h;
+            if (comp.compare(src[mid - 1], src[mid]) <= 0) {
+                System.arraycopy(src, s, dst, d, n);
+                return;
+            }
+            new MergeTask(src, s, mid, mid, s + n, dst, d, comp, threshold).compute();
+        }
+    }
+
+    // merge src[l1, l2) and src[r1, r2) into dst starting at d
+    private static final class MergeTask extends RecursiveAction {
+        private final Object[] src;
+        private final int l1, l2, r1, r2;
+        private final Object[] dst;
+        private final int d;
+        private final Comparator comp;
+        private final int threshold;
+
+        MergeTask(Object[] src, int l1, int l2, int r1, int r2, Object[] dst, int d, Comparator comp, int threshold) {
+            this.src = src;
+            this.l1 = l1;
+            this.l2 = l2;
+            this.r1 = r1;
+            this.r2 = r2;
+            this.dst = dst;
+            this.d = d;
+            this.comp = comp;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            int ln = l2 - l1, rn = r2 - r1;
+            if (ln + rn <= threshold || 0 == ln || 0 == rn) {
+                merge(src, l1, l2, r1, r2, dst, d, comp);
+                return;
+            }
+            int lm, rm;
+            if (ln >= rn) {
+                // left elements win ties: right elements equal to the pivot go after it
+                lm = (l1 + l2) >>> 1;
+                rm = lowerBound(src, r1, r2, src[lm], comp);
+            } else {
+                rm = (r1 + r2) >>> 1;
+                lm = upperBound(src, l1, l2, src[rm], comp);
+            }
+            int first = (lm - l1) + (rm - r1);
+            if (0 == first || ln + rn == first) {
+                // the split made no progress, e.g. a single element run
+                // against equal keys: a subtask would get this very range
+                merge(src, l1, l2, r1, r2, dst, d, comp);
+                return;
+            }
+            invokeAll(new MergeTask(src, l1, lm, r1, rm, dst, d, comp, threshold),
+                    new MergeTask(src, lm, l2, rm, r2, dst, d + (lm - l1) + (rm - r1), comp, threshold));
+        }
+    }
+
+    private static void merge(Object[] src, int l, int l2, int r, int r2, Object[] dst, int d, Comparator comp) {
+        while (l < l2 && r < r2) {
+            if (comp.compare(src[r], src[l]) < 0) {
+                dst[d++] = src[r++];
+            } else {
+                dst[d++] = src[l++];
+            }
+        }
+        if (l < l2) {
+            System.arraycopy(src, l, dst, d, l2 - l);
+        } else if (r < r2) {
+            System.arraycopy(src, r, dst, d, r2 - r);
+        }
+    }
+
+    // the first position in a[from, to) whose element is not less than key
+    private static int lowerBound(Object[] a, int from, int to, Object key, Comparator comp) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (comp.compare(a[mid], key) < 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    // the first position in a[from, to) whose element is greater than key
+    private static int upperBound(Object[] a, int from, int to, Object key, Comparator comp) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (comp.compare(a[mid], key) <= 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Comparator;
+
+/**
+ * Stable merge sort that allocates a single scratch buffer.
+ *
+ * The scratch buffer starts as a copy of the range to be sorted. Each
+ * level of recursion sorts both halves into the other array and then
+ * merges them back, so the two arrays swap roles level by level instead
+ * of allocating a new array for every merge. Two halves that are already
+ * in order are copied without merging, thus an ordered range is sorted
+ * in linear time.
+ */
+public class ArrayPingPongMergeSort<T> extends ArraySortInplaceBase<T> implements ArraySort<T> {
+
+    /**
+     * Ranges no longer than this are sorted by insertion sort.
+     */
+    static final int INSERTION_SORT_THRESHOLD = 16;
+
+    protected T[] sort0(T[] ts, int from, int to, Comparator<T> comp) {
+        int n = to - from;
+        if (n <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(ts, from, to, comp);
+            return ts;
+        }
+        Object[] buf = new Object[n];
+        System.arraycopy(ts, from, buf, 0, n);
+        sort(buf, 0, ts, from, n, comp);
+        return ts;
+    }
+
+    /*
+     * Sort `n` elements into `dst[d, d + n)`. On entry `src[s, s + n)`
+     * holds the same elements as `dst[d, d + n)` and is used as scratch.
+     */
+    static void sort(Object[] src, int s, Object[] dst, int d, int n, Comparator comp) {
+        if (n <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(dst, d, d + n, comp);
+            return;
+        }
+        int h = n >>> 1;
+        sort(dst, d, src, s, h, comp);
+        sort(dst, d + h, src, s + h, n - h, comp);
+        merge(src, s, s + h, s + n, dst, d, comp);
+    }
+
+    /*
+     * Merge sorted runs `src[lo, mid)` and `src[mid, hi)` into `dst` starting
+     * at `d`. Elements of the left run win ties, which keeps the sort stable.
+     */
+    static void merge(Object[] src, int lo, int mid, int hi, Object[] dst, int d, Comparator comp) {
+        if (comp.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, lo, dst, d, hi - lo);
+            return;
+        }
+        int l = lo, r = mid;
+        while (l < mid && r < hi) {
+            if (comp.compare(src[r], src[l]) < 0) {
+                dst[d++] = src[r++];
+            } else {
+                dst[d++] = src[l++];
+            }
+        }
+        if (l < mid) {
+            System.arraycopy(src, l, dst, d, mid - l);
+        } else if (r < hi) {
+            System.arraycopy(src, r, dst, d, hi - r);
+        }
+    }
+
+    static void insertionSort(Object[] a, int from, int to, Comparator comp) {
+        for (int i = from + 1; i < to; ++i) {
+            Object t = a[i];
+            int j = i;
+            while (j > from && comp.compare(a[j - 1], t) > 0) {
+                a[j] = a[j - 1];
+                j--;
+            }
+            a[j] = t;
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * Sorts for `int`, `long` and `double` arrays.
+ *
+ * Ranges shorter than {@link #RADIX_SORT_THRESHOLD} are sorted with
+ * {@link Arrays#sort(int[], int, int)} and friends. Longer ranges are
+ * sorted with an LSD radix sort on 8-bit digits, which takes one scratch
+ * buffer and a fixed number of passes no matter how the keys are ordered.
+ * Digits shared by every key in the range are skipped.
+ *
+ * `double` values are sorted in the order defined by
+ * {@link Double#compare(double, double)}: `-0.0` goes before `0.0` and
+ * `NaN` goes last. Note `NaN` values are normalized to {@link Double#NaN}
+ * when the range is radix sorted.
+ */
+public class ArrayPrimitiveSort implements ArrayAlgorithm {
+
+    /**
+     * Ranges shorter than this are sorted by {@link Arrays#sort(int[], int, int)}.
+     */
+    public static final int RADIX_SORT_THRESHOLD = 1024;
+
+    public int[] sort(int[] a, int from, int to) {
+        checkRange(a.length, from, to);
+        if (to - from < RADIX_SORT_THRESHOLD) {
+            Arrays.sort(a, from, to);
+            return a;
+        }
+        return radixSort(a, from, to);
+    }
+
+    public long[] sort(long[] a, int from, int to) {
+        checkRange(a.length, from, to);
+        if (to - from < RADIX_SORT_THRESHOLD) {
+            Arrays.sort(a, from, to);
+            return a;
+        }
+        return radixSort(a, from, to);
+    }
+
+    public double[] sort(double[] a, int from, int to) {
+        checkRange(a.length, from, to);
+        int n = to - from;
+        if (n < RADIX_SORT_THRESHOLD) {
+            Arrays.sort(a, from, to);
+            return a;
+        }
+        long[] keys = new long[n];
+        for (int i = 0; i < n; ++i) {
+            keys[i] = sortableBits(Double.doubleToLongBits(a[from + i]));
+        }
+        radixSort(keys, 0, n);
+        for (int i = 0; i < n; ++i) {
+            // the mapping is its own inverse
+            a[from + i] = Double.longBitsToDouble(sortableBits(keys[i]));
+        }
+        return a;
+    }
+
+    /**
+     * Sort the range of an `int` array with LSD radix sort.
+     *
+     * @param a the array
+     * @param from the start index, inclusive
+     * @param to the end index, exclusive
+     * @return the array
+     */
+    public int[] radixSort(int[] a, int from, int to) {
+        checkRange(a.length, from, to);
+        int n = to - from;
+        if (n < 2) {
+            return a;
+        }
+        int[][] counts = new int[4][256];
+        for (int i = from; i < to; ++i) {
+            int v = a[i];
+            counts[0][v & 0xFF]++;
+            counts[1][(v >>> 8) & 0xFF]++;
+            counts[2][(v >>> 16) & 0xFF]++;
+            // flip the sign bit so negative numbers go first
+            counts[3][(v >>> 24) ^ 0x80]++;
+        }
+        int[] src = a, dst = new int[n];
+        int s = from, d = 0;
+        for (int pass = 0; pass < 4; ++pass) {
+            int[] count = counts[pass];
+            if (!prefixSum(count, n)) {
+                continue;
+            }
+            int shift = pass << 3;
+            int flip = 3 == pass ? 0x80 : 0;
+            for (int i = s, end = s + n; i < end; ++i) {
+                int v = src[i];
+                dst[d + count[((v >>> shift) & 0xFF) ^ flip]++] = v;
+            }
+            int[] t = src;
+            src = dst;
+            dst = t;
+            int ti = s;
+            s = d;
+            d = ti;
+        }
+        if (src != a) {
+            System.arraycopy(src, s, a, from, n);
+        }
+        return a;
+    }
+
+    /**
+     * Sort the range of a `long` array with LSD radix sort.
+     *
+     * @param a the array
+     * @param from the start index, inclusive
+     * @param to the end index, exclusive
+     * @return the array
+     */
+    public long[] radixSort(long[] a, int from, int to) {
+        checkRange(a.length, from, to);
+        int n = to - from;
+        if (n < 2) {
+            return a;
+        }
+        int[][] counts = new int[8][256];
+        for (int i = from; i < to; ++i) {
+            long v = a[i];
+            for (int pass = 0; pass < 7; ++pass) {
+                counts[pass][(int) (v >>> (pass << 3)) & 0xFF]++;
+            }
+            // flip the sign bit so negative numbers go first
+            counts[7][(int) (v >>> 56) ^ 0x80]++;
+        }
+        long[] src = a, dst = new long[n];
+        int s = from, d = 0;
+        for (int pass = 0; pass < 8; ++pass) {
+            int[] count = counts[pass];
+            if (!prefixSum(count, n)) {
+                continue;
+            }
+            int shift = pass << 3;
+            int flip = 7 == pass ? 0x80 : 0;
+            for (int i = s, end = s + n; i < end; ++i) {
+                long v = src[i];
+                dst[d + count[((int) (v >>> shift) & 0xFF) ^ flip]++] = v;
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+            int ti = s;
+            s = d;
+            d = ti;
+        }
+        if (src != a) {
+            System.arraycopy(src, s, a, from, n);
+        }
+        return a;
+    }
+
+    /*
+     * Turn the digit counts into start offsets. Returns `false` if every
+     * key has the same digit, in which case the pass can be skipped.
+     */
+    private static boolean prefixSum(int[] count, int n) {
+        int sum = 0;
+        for (int i = 0; i < 256; ++i) {
+            int c = count[i];
+            if (c == n) {
+                return false;
+            }
+            count[i] = sum;
+            sum += c;
+        }
+        return true;
+    }
+
+    // flip the magnitude bits of negative numbers so the bits compare as signed longs
+    private static long sortableBits(long bits) {
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+}
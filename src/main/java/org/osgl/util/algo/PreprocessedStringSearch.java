@@ -21,12 +21,66 @@ package org.osgl.util.algo;
  */
 
 import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
 
 /**
  * Encapsulate a preprocessed String search which contains
  * 1. A preprocessed {@link StringSearchPattern pattern}
  * 2. The corresponding algorithm
+ *
+ * Applying the function to a text returns the index of the first
+ * occurrence of the target in the text, or `-1` if not found.
  */
 public abstract class PreprocessedStringSearch extends $.F1<char[], Integer> {
 
+    /**
+     * Search the target in the text starting from `from`.
+     *
+     * @param text the text to be searched
+     * @param from the from index, negative number is treated as `0`
+     * @return the index of the first occurrence of the target
+     *         or `-1` if not found
+     */
+    public abstract int search(char[] text, int from);
+
+    @Override
+    public final Integer apply(char[] text) throws NotAppliedException, $.Break {
+        return search(text, 0);
+    }
+
+    /**
+     * Returns a preprocessed search backed by the pattern specified.
+     *
+     * @param pattern the compiled pattern
+     * @return the preprocessed search
+     */
+    public static PreprocessedStringSearch of(final StringSearchPattern pattern) {
+        $.requireNotNull(pattern);
+        return new PreprocessedStringSearch() {
+            @Override
+            public int search(char[] text, int from) {
+                return pattern.search(text, from);
+            }
+        };
+    }
+
+    /**
+     * Returns a preprocessed search that delegates to a {@link StringSearch}
+     * with the target bound.
+     *
+     * @param searcher the string search algorithm
+     * @param target the target to search
+     * @return the preprocessed search
+     */
+    public static PreprocessedStringSearch of(final StringSearch searcher, final char[] target) {
+        $.requireNotNull(searcher);
+        $.requireNotNull(target);
+        return new PreprocessedStringSearch() {
+            @Override
+            public int search(char[] text, int from) {
+                return searcher.search(text, target, from);
+            }
+        };
+    }
+
 }
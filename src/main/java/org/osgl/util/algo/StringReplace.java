@@ -80,13 +80,13 @@ public abstract class StringReplace implements $.Func4<char[], char[], char[], I
 
         @Override
         public char[] replace(char[] text, char[] target, char[] replacement, int firstId) {
-            StringSearch searcher = this.searcher;
             S.Buffer buf;
             int textLen = text.length, targetLen = target.length, i = 0, j = 0;
             if (textLen == 0 || targetLen == 0) {
                 return text;
             }
-            i = firstId < 0 ? searcher.search(text, target, 0) : firstId;
+            PreprocessedStringSearch searcher = this.searcher.compile(target);
+            i = firstId < 0 ? searcher.search(text, 0) : firstId;
             if (i < 0) {
                 return text;
             }
@@ -98,7 +98,7 @@ public abstract class StringReplace implements $.Func4<char[], char[], char[], I
             i += targetLen;
             j = i;
             do {
-                i = searcher.search(text, target, i);
+                i = searcher.search(text, i);
                 if (i < 0) {
                     break;
                 }
@@ -44,6 +44,18 @@ public abstract class StringSearch implements $.Func3<char[], char[], Integer, I
         return search(text, target, from);
     }
 
+    /**
+     * Returns a {@link PreprocessedStringSearch} for searching the target
+     * across texts. Sub class could override this method to preprocess
+     * the target once for repeated searches.
+     *
+     * @param target the target to search
+     * @return a preprocessed search of the target
+     */
+    public PreprocessedStringSearch compile(char[] target) {
+        return PreprocessedStringSearch.of(this, target);
+    }
+
     public static StringSearch wrap(final $.Func3<char[], char[], Integer, Integer> searchLogic) {
         return $.requireNotNull(searchLogic) instanceof StringSearch ? (StringSearch) searchLogic : new StringSearch() {
             @Override
@@ -54,9 +66,22 @@ public abstract class StringSearch implements $.Func3<char[], char[], Integer, I
     }
 
     /**
-     * Implement a simple string search algorithm using JDK `String.indexOf` algorithm
+     * Implement a simple string search algorithm using JDK `String.indexOf` algorithm.
+     *
+     * A target longer than {@link StringSearchPattern#MIN_PREPROCESS_LENGTH}
+     * is {@link StringSearchPattern#compile(char[]) compiled} when the search
+     * is {@link #compile(char[]) preprocessed}.
      */
     public static class SimpleStringSearch extends StringSearch {
+
+        @Override
+        public PreprocessedStringSearch compile(char[] target) {
+            if (target.length < StringSearchPattern.MIN_PREPROCESS_LENGTH) {
+                return super.compile(target);
+            }
+            return PreprocessedStringSearch.of(StringSearchPattern.compile(target));
+        }
+
         @Override
         public int search(char[] text, char[] target, int from) {
             if (from < 0) {
@@ -4,7 +4,7 @@ package org.osgl.util.algo;
  * #%L
  * Java Tool
  * %%
- * Copyright (C) 2014 - 2018 OSGL (Open Source General Library)
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
  * %%
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,8 +20,369 @@ package org.osgl.util.algo;
  * #L%
  */
 
+import org.osgl.$;
+import org.osgl.util.S;
+
+import java.util.Arrays;
+
 /**
- * Defines String search pattern that can encapsulate preprocess result
+ * Defines String search pattern that can encapsulate preprocess result.
+ *
+ * A pattern is compiled once from the target chars and can then be used
+ * to search across any number of texts. Use {@link #compile(char[])} to
+ * get a pattern with the algorithm picked from the shape of the target:
+ *
+ * * targets shorter than {@link #MIN_PREPROCESS_LENGTH} are searched
+ *   with the plain `indexOf` scan
+ * * targets with only a few distinct chars compared to their length,
+ *   e.g. `aaaaab`, use the {@link TwoWay two-way} algorithm which is
+ *   linear in the worst case
+ * * other targets use {@link Horspool Boyer-Moore-Horspool} which skips
+ *   most of the text on average
  */
 public abstract class StringSearchPattern {
+
+    /**
+     * Targets shorter than this length are not worth preprocessing.
+     */
+    public static final int MIN_PREPROCESS_LENGTH = 8;
+
+    protected final char[] target;
+
+    protected StringSearchPattern(char[] target) {
+        this.target = $.requireNotNull(target);
+    }
+
+    /**
+     * Returns length of the target.
+     *
+     * @return the target length
+     */
+    public final int length() {
+        return target.length;
+    }
+
+    /**
+     * Search the target in the text starting from `from`.
+     *
+     * @param text the text to be searched
+     * @param from the from index, negative number is treated as `0`
+     * @return the index of the first occurrence of the target
+     *         or `-1` if not found
+     */
+    public final int search(char[] text, int from) {
+        return search(text, from, text.length);
+    }
+
+    /**
+     * Search the target in the region `[from, to)` of the text.
+     *
+     * @param text the text to be searched
+     * @param from the from index, negative number is treated as `0`
+     * @param to the end index (exclusive) of the region
+     * @return the index of the first occurrence of the target
+     *         or `-1` if not found
+     */
+    public final int search(char[] text, int from, int to) {
+        if (from < 0) {
+            from = 0;
+        }
+        if (to > text.length) {
+            to = text.length;
+        }
+        int len = target.length;
+        if (0 == len) {
+            return from <= to ? from : -1;
+        }
+        if (to - from < len) {
+            return -1;
+        }
+        return doSearch(text, from, to);
+    }
+
+    /**
+     * Search the target in the text.
+     *
+     * @param text the text to be searched
+     * @return the index of the first occurrence of the target
+     *         or `-1` if not found
+     */
+    public final int search(char[] text) {
+        return search(text, 0);
+    }
+
+    /**
+     * Count the occurrences of the target in the text.
+     *
+     * @param text the text to be searched
+     * @param overlap whether overlapped occurrences shall be counted
+     * @return the number of occurrences
+     */
+    public final int count(char[] text, boolean overlap) {
+        return count(text, 0, text.length, overlap);
+    }
+
+    /**
+     * Count the occurrences of the target in the region `[from, to)` of the text.
+     *
+     * @param text the text to be searched
+     * @param from the from index
+     * @param to the end index (exclusive) of the region
+     * @param overlap whether overlapped occurrences shall be counted
+     * @return the number of occurrences
+     */
+    public final int count(char[] text, int from, int to, boolean overlap) {
+        int len = target.length;
+        if (0 == len) {
+            return 0;
+        }
+        int n = 0, i = search(text, from, to), step = overlap ? 1 : len;
+        while (i >= 0) {
+            n++;
+            i = search(text, i + step, to);
+        }
+        return n;
+    }
+
+    /**
+     * Sub class implement the search logic in this method. It is guaranteed
+     * that the target is not empty and the region `[from, to)` is valid
+     * and leaves room for at least one target.
+     *
+     * @param text the text to be searched
+     * @param from the from index
+     * @param to the end index (exclusive) of the region
+     * @return the index of the first occurrence or `-1` if not found
+     */
+    protected abstract int doSearch(char[] text, int from, int to);
+
+    /**
+     * Compile the target chars into a search pattern.
+     *
+     * @param target the target chars
+     * @return a pattern to search the target
+     */
+    public static StringSearchPattern compile(char[] target) {
+        int len = target.length;
+        if (len < MIN_PREPROCESS_LENGTH) {
+            return new Simple(target);
+        }
+        return distinctChars(target, len / 4 + 1) <= len / 4 ? new TwoWay(target) : new Horspool(target);
+    }
+
+    /**
+     * Compile the target string into a search pattern.
+     *
+     * @param target the target string
+     * @return a pattern to search the target
+     */
+    public static StringSearchPattern compile(String target) {
+        return compile(target.toCharArray());
+    }
+
+    // count distinct chars in the target, stop counting at `limit`
+    private static int distinctChars(char[] target, int limit) {
+        char[] seen = new char[limit];
+        int n = 0;
+        for (char c : target) {
+            boolean found = false;
+            for (int i = 0; i < n; ++i) {
+                if (seen[i] == c) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                if (n == limit) {
+                    return n;
+                }
+                seen[n++] = c;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Search without preprocessing, i.e. the `String.indexOf` algorithm.
+     */
+    public static class Simple extends StringSearchPattern {
+
+        public Simple(char[] target) {
+            super(target);
+        }
+
+        @Override
+        protected int doSearch(char[] text, int from, int to) {
+            return S.indexOf(text, 0, to, target, 0, target.length, from);
+        }
+    }
+
+    /**
+     * The Boyer-Moore-Horspool algorithm.
+     *
+     * The bad character table is indexed by the low byte of a char. Chars
+     * sharing the same low byte share the smallest shift of them, which
+     * keeps the table small and the skip safe for any char.
+     */
+    public static class Horspool extends StringSearchPattern {
+
+        private final int[] shift = new int[256];
+
+        public Horspool(char[] target) {
+            super(target);
+            int len = target.length;
+            Arrays.fill(shift, len);
+            for (int i = 0, last = len - 1; i < last; ++i) {
+                shift[target[i] & 0xFF] = last - i;
+            }
+        }
+
+        @Override
+        protected int doSearch(char[] text, int from, int to) {
+            char[] target = this.target;
+            int[] shift = this.shift;
+            int last = target.length - 1;
+            char lastChar = target[last];
+            int max = to - target.length;
+            int i = from;
+            while (i <= max) {
+                char c = text[i + last];
+                if (c == lastChar) {
+                    int j = 0;
+                    while (j < last && text[i + j] == target[j]) {
+                        j++;
+                    }
+                    if (j == last) {
+                        return i;
+                    }
+                }
+                i += shift[c & 0xFF];
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * The two-way algorithm by Crochemore and Perrin.
+     *
+     * The target is split at its critical factorization. The right part is
+     * matched left to right and the left part right to left, and the period
+     * of the target is used to avoid rescanning text that is known to match.
+     * The search runs in linear time with constant extra space.
+     */
+    public static class TwoWay extends StringSearchPattern {
+
+        // the last index of the left part of the critical factorization
+        private final int ell;
+        // the shift applied after a full match
+        private final int period;
+        // whether the left part occurs in the target at `period`
+        private final boolean periodic;
+
+        public TwoWay(char[] target) {
+            super(target);
+            int len = target.length;
+            int[] p = new int[1];
+            int ms1 = maxSuffix(target, false, p);
+            int p1 = p[0];
+            int ms2 = maxSuffix(target, true, p);
+            int p2 = p[0];
+            int ell, per;
+            if (ms1 > ms2) {
+                ell = ms1;
+                per = p1;
+            } else {
+                ell = ms2;
+                per = p2;
+            }
+            boolean periodic = per + ell + 1 <= len;
+            for (int i = 0; periodic && i <= ell; ++i) {
+                if (target[i] != target[i + per]) {
+                    periodic = false;
+                }
+            }
+            this.ell = ell;
+            this.periodic = periodic;
+            this.period = periodic ? per : Math.max(ell + 1, len - ell - 1) + 1;
+        }
+
+        // returns start of the maximal suffix minus one, sets period into `p[0]`
+        private static int maxSuffix(char[] x, boolean reversed, int[] p) {
+            int len = x.length;
+            int ms = -1, j = 0, k = 1, per = 1;
+            while (j + k < len) {
+                char a = x[j + k], b = x[ms + k];
+                if (reversed ? a > b : a < b) {
+                    j += k;
+                    k = 1;
+                    per = j - ms;
+                } else if (a == b) {
+                    if (k != per) {
+                        ++k;
+                    } else {
+                        j += per;
+                        k = 1;
+                    }
+                } else {
+                    ms = j;
+                    j = ms + 1;
+                    k = per = 1;
+                }
+            }
+            p[0] = per;
+            return ms;
+        }
+
+        @Override
+        protected int doSearch(char[] text, int from, int to) {
+            char[] x = this.target;
+            int len = x.length, ell = this.ell, per = this.period;
+            int max = to - len;
+            int j = from;
+            if (periodic) {
+                int memory = -1;
+                while (j <= max) {
+                    int i = Math.max(ell, memory) + 1;
+                    while (i < len && x[i] == text[i + j]) {
+                        ++i;
+                    }
+                    if (i >= len) {
+                        i = ell;
+                        while (i > memory && x[i] == text[i + j]) {
+                            --i;
+                        }
+                        if (i <= memory) {
+                            return j;
+                        }
+                        j += per;
+                        memory = len - per - 1;
+                    } else {
+                        j += i - ell;
+                        memory = -1;
+                    }
+                }
+            } else {
+                while (j <= max) {
+                    int i = ell + 1;
+                    while (i < len && x[i] == text[i + j]) {
+                        ++i;
+                    }
+                    if (i >= len) {
+                        i = ell;
+                        while (i >= 0 && x[i] == text[i + j]) {
+                            --i;
+                        }
+                        if (i < 0) {
+                            return j;
+                        }
+                        j += per;
+                    } else {
+                        j += i - ell;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+
 }
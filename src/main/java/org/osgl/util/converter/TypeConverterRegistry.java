@@ -32,6 +32,8 @@ import org.osgl.util.S;
 import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class TypeConverterRegistry {
 
@@ -252,10 +254,31 @@ public class TypeConverterRegistry {
         }
     };
 
+    // marks a (from, to) pair that has no converter path
+    private static final $.TypeConverter NO_PATH = new $.TypeConverter(false) {
+        @Override
+        public Object convert(Object o) {
+            throw E.unsupport();
+        }
+    };
+
     public static final TypeConverterRegistry INSTANCE = new TypeConverterRegistry(true);
 
     private Map<$.Pair<Class, Class>, $.TypeConverter> paths = new HashMap<>();
 
+    /*
+     * Resolved converters indexed by from type and then to type. Lookup
+     * on this table does not require lock and does not allocate. Failed
+     * lookups are stored as NO_PATH.
+     */
+    private final ConcurrentMap<Class, ConcurrentMap<Class, $.TypeConverter>> resolved = new ConcurrentHashMap<>();
+
+    // increased whenever a converter is registered
+    private volatile int modCount;
+
+    // the modCount of parent registry when resolved table was last cleared
+    private volatile int parentModCount;
+
     private TypeConverterRegistry parent;
 
     public TypeConverterRegistry() {
@@ -270,12 +293,62 @@ public class TypeConverterRegistry {
         }
     }
 
-    public synchronized <FROM, TO> $.TypeConverter<FROM, TO> get(Class<FROM> fromType, Class<TO> toType) {
+    public <FROM, TO> $.TypeConverter<FROM, TO> get(Class<FROM> fromType, Class<TO> toType) {
         fromType = fromType.isArray() ? fromType : $.wrapperClassOf(fromType);
         toType = toType.isArray() ? toType : $.wrapperClassOf(toType);
         if (fromType == toType || toType.isAssignableFrom(fromType)) {
             return ME_TO_ME;
         }
+        if (null != parent && parent.modCount != parentModCount) {
+            parentModCount = parent.modCount;
+            resolved.clear();
+        }
+        ConcurrentMap<Class, $.TypeConverter> targets = resolved.get(fromType);
+        if (null == targets) {
+            targets = new ConcurrentHashMap<>();
+            ConcurrentMap<Class, $.TypeConverter> existing = resolved.putIfAbsent(fromType, targets);
+            if (null != existing) {
+                targets = existing;
+            }
+        }
+        $.TypeConverter converter = targets.get(toType);
+        if (null == converter) {
+            int mod = modCount;
+            converter = resolve(fromType, toType);
+            targets.put(toType, null == converter ? NO_PATH : converter);
+            if (mod != modCount) {
+                // a converter has been registered during resolving
+                targets.remove(toType);
+            }
+        }
+        return NO_PATH == converter ? null : converter;
+    }
+
+    /**
+     * Resolve converters for all pairs of types known to this registry
+     * so that later {@link #get(Class, Class)} calls on those pairs
+     * are served from the resolved table without graph search.
+     *
+     * @return this registry
+     */
+    public TypeConverterRegistry freeze() {
+        Set<Class> types = new HashSet<>();
+        synchronized (this) {
+            for ($.Pair<Class, Class> key : paths.keySet()) {
+                types.add(key.left());
+                types.add(key.right());
+            }
+            types.addAll(nodeMap.keySet());
+        }
+        for (Class from : types) {
+            for (Class to : types) {
+                get(from, to);
+            }
+        }
+        return this;
+    }
+
+    private synchronized $.TypeConverter resolve(Class<?> fromType, Class<?> toType) {
         $.Pair<Class, Class> key = keyOf(fromType, toType);
         $.TypeConverter converter = paths.get(key);
         if (null == converter) {
@@ -320,6 +393,8 @@ public class TypeConverterRegistry {
             linkMap.put(typeConverter, new Link(typeConverter, this));
             $.Pair<Class, Class> key = keyOf(typeConverter);
             addIntoPath(key, typeConverter);
+            modCount++;
+            resolved.clear();
         }
         return this;
     }
@@ -20,12 +20,12 @@ package org.osgl.web.util;
  * #L%
  */
 
-import org.osgl.util.LFUCache;
 import org.osgl.util.S;
+import org.osgl.util.TinyLFUCache;
+import org.osgl.util.algo.AhoCorasick;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /*
  * PC
@@ -197,7 +197,7 @@ public class UserAgent {
         return str_;
     }
 
-    private static LFUCache<String, UserAgent> cache_ = new LFUCache<>(1000, 0.2);
+    private static TinyLFUCache<String, UserAgent> cache_ = new TinyLFUCache<>(1000);
     public static UserAgent parse(String userAgent) {
         if (S.empty(userAgent)) {
             return UserAgent.UNKNOWN;
@@ -229,70 +229,336 @@ public class UserAgent {
     private static enum P {
         /*
          * Note the sequence of the enum DOSE matter!
+         *
+         * The comment on each constant is the regex it used to be matched
+         * against the whole header with, see Scanner for how they are
+         * checked now.
          */
-        J2ME(Pattern.compile(".*(MIDP|J2ME|CLDC).*"), Device.MOBILE, null, OS.J2ME),
-        UCWEB(Pattern.compile(".*UCWEB.*"), Device.MOBILE, Browser.UCWEB, null),
-        WIN32(Pattern.compile(".*(Windows|W32).*"), Device.PC, null, OS.WIN32),
-        WIN64(Pattern.compile(".*(WOW64|Win64).*"), Device.PC, null, OS.WIN64),
-        LINUX(Pattern.compile(".*Linux.*"), null, null, OS.LINUX),
-        MAC(Pattern.compile(".*Mac OS.*"), Device.PC, null, OS.MAC_OS),
-        SOS(Pattern.compile(".*SunOS.*"), Device.PC, null, OS.SUN_OS),
-        IPHONE(Pattern.compile(".*iPhone.*"), Device.IPHONE, Browser.SAFARI, OS.IOS),
-        IPAD(Pattern.compile(".*iPad.*"), Device.IPAD, Browser.SAFARI, OS.IOS),
-        IPOD(Pattern.compile(".*iPod.*"), Device.IPOD, Browser.SAFARI, OS.IOS),
-        DROID_TABLET(Pattern.compile(".*Android.*"), Device.DROID_TABLET, null, OS.DROID),
-        DROID_MOBILE(Pattern.compile(".*Android.*Mobile.*"), Device.DROID, null, OS.DROID),
-        BLACKBERRY(Pattern.compile(".*BlackBerry.*"), Device.BLACKBERRY, null, OS.BLACKBERRY),
-        SYMBIAN(Pattern.compile(".*Symbian.*", Pattern.CASE_INSENSITIVE), null, null, OS.SYMBIAN),
-        SONYERICSSON(Pattern.compile(".*SonyEricsson.*"), Device.SONYERICSSON, null, null),
-        NOKIA(Pattern.compile(".*Nokia.*", Pattern.CASE_INSENSITIVE), Device.NOKIA, null, null),
-        IE6(Pattern.compile(".*MSIE\\s+[6]\\.0.*"), Device.PC, Browser.IE_6, null),
-        IE7(Pattern.compile(".*MSIE\\s+[7]\\.0.*"), Device.PC, Browser.IE_7, null),
-        IE8(Pattern.compile(".*MSIE\\s+[8]\\.0.*"), Device.PC, Browser.IE_8, null),
-        IE9(Pattern.compile(".*MSIE\\s+(9)\\.0.*"), Device.PC, Browser.IE_9, null),
-        IE10(Pattern.compile(".*MSIE\\s+(10)\\.0.*"), null, Browser.IE_10, null),
-        IE11(Pattern.compile(".*Windows\\s+NT.+rv:(11|12)\\.0.*"), Device.PC, Browser.IE_11, null),
-        FIREFOX(Pattern.compile(".*Firefox.*"), null, Browser.FIREFOX, null),
-        FIREFOX3(Pattern.compile(".*Firefox/3.*"), null, Browser.FIREFOX_3, null),
-        SAFARI(Pattern.compile(".*Safari.*"), null, Browser.SAFARI, null),
-        CHROME(Pattern.compile(".*Chrome.*"), null, Browser.CHROME, null),
-        EDGE(Pattern.compile(".*\\s+Edg\\/.*"), null, Browser.EDGE, null),
-        OPERA(Pattern.compile(".*Opera.*"), null, Browser.OPERA, null),
-        BOT(Pattern.compile(".*(Googlebot|msn-bot|msnbot|Bot|bot|Baiduspider|SeznamBot|facebookexternalhit).*", Pattern.CASE_INSENSITIVE), Device.BOT, Browser.BOT, OS.BOT);
-
-        private final Pattern p_;
+        J2ME(Device.MOBILE, null, OS.J2ME), // .*(MIDP|J2ME|CLDC).*
+        UCWEB(Device.MOBILE, Browser.UCWEB, null), // .*UCWEB.*
+        WIN32(Device.PC, null, OS.WIN32), // .*(Windows|W32).*
+        WIN64(Device.PC, null, OS.WIN64), // .*(WOW64|Win64).*
+        LINUX(null, null, OS.LINUX), // .*Linux.*
+        MAC(Device.PC, null, OS.MAC_OS), // .*Mac OS.*
+        SOS(Device.PC, null, OS.SUN_OS), // .*SunOS.*
+        IPHONE(Device.IPHONE, Browser.SAFARI, OS.IOS), // .*iPhone.*
+        IPAD(Device.IPAD, Browser.SAFARI, OS.IOS), // .*iPad.*
+        IPOD(Device.IPOD, Browser.SAFARI, OS.IOS), // .*iPod.*
+        DROID_TABLET(Device.DROID_TABLET, null, OS.DROID), // .*Android.*
+        DROID_MOBILE(Device.DROID, null, OS.DROID), // .*Android.*Mobile.*
+        BLACKBERRY(Device.BLACKBERRY, null, OS.BLACKBERRY), // .*BlackBerry.*
+        SYMBIAN(null, null, OS.SYMBIAN), // .*Symbian.* case insensitive
+        SONYERICSSON(Device.SONYERICSSON, null, null), // .*SonyEricsson.*
+        NOKIA(Device.NOKIA, null, null), // .*Nokia.* case insensitive
+        IE6(Device.PC, Browser.IE_6, null), // .*MSIE\s+[6]\.0.*
+        IE7(Device.PC, Browser.IE_7, null), // .*MSIE\s+[7]\.0.*
+        IE8(Device.PC, Browser.IE_8, null), // .*MSIE\s+[8]\.0.*
+        IE9(Device.PC, Browser.IE_9, null), // .*MSIE\s+(9)\.0.*
+        IE10(null, Browser.IE_10, null), // .*MSIE\s+(10)\.0.*
+        IE11(Device.PC, Browser.IE_11, null), // .*Windows\s+NT.+rv:(11|12)\.0.*
+        FIREFOX(null, Browser.FIREFOX, null), // .*Firefox.*
+        FIREFOX3(null, Browser.FIREFOX_3, null), // .*Firefox/3.*
+        SAFARI(null, Browser.SAFARI, null), // .*Safari.*
+        CHROME(null, Browser.CHROME, null), // .*Chrome.*
+        EDGE(null, Browser.EDGE, null), // .*\s+Edg\/.*
+        OPERA(null, Browser.OPERA, null), // .*Opera.*
+        // .*(Googlebot|msn-bot|msnbot|Bot|bot|Baiduspider|SeznamBot|facebookexternalhit).* case insensitive
+        BOT(Device.BOT, Browser.BOT, OS.BOT);
+
         private Device d_ = Device.UNKNOWN;
         private Browser b_;
         private OS o_ = OS.UNKNOWN;
-        P(Pattern pattern, Device device, Browser browser, OS os) {
-            p_ = pattern;
+        P(Device device, Browser browser, OS os) {
             d_ = device;
             b_ = browser;
             o_ = os;
         }
-        boolean matches(String ua) {
-            return p_.matcher(ua).matches();
+        void apply(UserAgent ua) {
+            if (null != d_) {
+                ua.device_ = d_;
+            }
+
+            if (null != b_) {
+                ua.browser_ = b_;
+            }
+
+            if (null != o_) {
+                ua.os_ = o_;
+            }
         }
-        void test(String str, UserAgent ua) {
-            if (matches(str)) {
-                if (null != d_) {
-                    ua.device_ = d_;
-                }
+    }
 
-                if (null != b_) {
-                    ua.browser_ = b_;
-                }
+    /*
+     * The literals the P conditions are made of. They are all found in a
+     * single pass over the header by an Aho-Corasick automaton.
+     */
+    private static enum Token {
+        MIDP("MIDP"), J2ME("J2ME"), CLDC("CLDC"), UCWEB("UCWEB"),
+        WINDOWS("Windows"), W32("W32"), WOW64("WOW64"), WIN64("Win64"),
+        LINUX("Linux"), MAC_OS("Mac OS"), SUN_OS("SunOS"),
+        IPHONE("iPhone"), IPAD("iPad"), IPOD("iPod"), ANDROID("Android"), MOBILE("Mobile"),
+        BLACKBERRY("BlackBerry"), SYMBIAN("symbian", true), SONY_ERICSSON("SonyEricsson"), NOKIA("nokia", true),
+        MSIE("MSIE"), RV11("rv:11.0"), RV12("rv:12.0"),
+        FIREFOX("Firefox"), FIREFOX3("Firefox/3"), SAFARI("Safari"), CHROME("Chrome"), EDG("Edg/"), OPERA("Opera"),
+        // every bot name in the original regex contains "bot"
+        BOT("bot", true), BAIDU_SPIDER("baiduspider", true), FACEBOOK("facebookexternalhit", true),
+        // line terminators, see Scanner.matchedAcrossLineTerminators()
+        LF("\n"), CR("\r"), NEL("\u0085"), LS("\u2028"), PS("\u2029");
+
+        private final String literal;
+        private final boolean ignoreCase;
+
+        Token(String literal) {
+            this(literal, false);
+        }
 
-                if (null != o_) {
-                    ua.os_ = o_;
+        Token(String literal, boolean ignoreCase) {
+            this.literal = literal;
+            this.ignoreCase = ignoreCase;
+        }
+
+        /*
+         * The automaton matches case insensitively with Character.toLowerCase,
+         * thus verify the case here. Like a CASE_INSENSITIVE regex, only
+         * US-ASCII chars are matched case insensitively.
+         */
+        boolean matches(String s, int start) {
+            if (!ignoreCase) {
+                return s.regionMatches(start, literal, 0, literal.length());
+            }
+            for (int i = 0, len = literal.length(); i < len; ++i) {
+                char c = s.charAt(start + i), l = literal.charAt(i);
+                if (c != l && (c > 127 || (c | 0x20) != l)) {
+                    return false;
                 }
             }
+            return true;
+        }
+
+        static final Token[] ALL = values();
+
+        static final AhoCorasick AUTOMATON;
+
+        static {
+            List<String> literals = new ArrayList<>();
+            for (Token token : ALL) {
+                literals.add(token.literal);
+            }
+            AUTOMATON = AhoCorasick.compile(literals, true);
+        }
+    }
+
+    /*
+     * Collects the P conditions met by a header while the automaton scans it.
+     */
+    private static final class Scanner implements AhoCorasick.MatchHandler {
+        private final String ua;
+        private long matched;
+        // the first and the last line terminator
+        private int firstLineTerminator = -1;
+        private int lastLineTerminator = -1;
+        // the end of the first "Android" and the start of the last "Mobile"
+        private int androidEnd = Integer.MAX_VALUE;
+        private int mobileStart = -1;
+        // the end of the first "Windows\s+NT" and the start of the last "rv:1[12].0"
+        private int windowsNtEnd = Integer.MAX_VALUE;
+        private int rvStart = -1;
+
+        Scanner(String ua) {
+            this.ua = ua;
+        }
+
+        @Override
+        public void onMatch(int start, int end, int keywordIndex) {
+            Token token = Token.ALL[keywordIndex];
+            if (!token.matches(ua, start)) {
+                return;
+            }
+            switch (token) {
+                case MIDP:
+                case J2ME:
+                case CLDC:
+                    set(P.J2ME);
+                    break;
+                case UCWEB:
+                    set(P.UCWEB);
+                    break;
+                case WINDOWS:
+                    set(P.WIN32);
+                    int nt = skipWhitespaces(end);
+                    if (nt > end && ua.startsWith("NT", nt)) {
+                        windowsNtEnd = Math.min(windowsNtEnd, nt + 2);
+                    }
+                    break;
+                case W32:
+                    set(P.WIN32);
+                    break;
+                case WOW64:
+                case WIN64:
+                    set(P.WIN64);
+                    break;
+                case LINUX:
+                    set(P.LINUX);
+                    break;
+                case MAC_OS:
+                    set(P.MAC);
+                    break;
+                case SUN_OS:
+                    set(P.SOS);
+                    break;
+                case IPHONE:
+                    set(P.IPHONE);
+                    break;
+                case IPAD:
+                    set(P.IPAD);
+                    break;
+                case IPOD:
+                    set(P.IPOD);
+                    break;
+                case ANDROID:
+                    set(P.DROID_TABLET);
+                    androidEnd = Math.min(androidEnd, end);
+                    break;
+                case MOBILE:
+                    mobileStart = Math.max(mobileStart, start);
+                    break;
+                case BLACKBERRY:
+                    set(P.BLACKBERRY);
+                    break;
+                case SYMBIAN:
+                    set(P.SYMBIAN);
+                    break;
+                case SONY_ERICSSON:
+                    set(P.SONYERICSSON);
+                    break;
+                case NOKIA:
+                    set(P.NOKIA);
+                    break;
+                case MSIE:
+                    int v = skipWhitespaces(end);
+                    if (v > end) {
+                        msieVersion(v);
+                    }
+                    break;
+                case RV11:
+                case RV12:
+                    rvStart = Math.max(rvStart, start);
+                    break;
+                case FIREFOX:
+                    set(P.FIREFOX);
+                    break;
+                case FIREFOX3:
+                    set(P.FIREFOX3);
+                    break;
+                case SAFARI:
+                    set(P.SAFARI);
+                    break;
+                case CHROME:
+                    set(P.CHROME);
+                    break;
+                case EDG:
+                    if (start > 0 && isWhitespace(ua.charAt(start - 1))) {
+                        set(P.EDGE);
+                    }
+                    break;
+                case OPERA:
+                    set(P.OPERA);
+                    break;
+                case BOT:
+                case BAIDU_SPIDER:
+                case FACEBOOK:
+                    set(P.BOT);
+                    break;
+                default:
+                    if (firstLineTerminator < 0) {
+                        firstLineTerminator = start;
+                    }
+                    lastLineTerminator = start;
+            }
+        }
+
+        long matched() {
+            if (firstLineTerminator >= 0) {
+                return matchedAcrossLineTerminators();
+            }
+            if (androidEnd <= mobileStart) {
+                set(P.DROID_MOBILE);
+            }
+            // `.+` between "NT" and "rv:" takes at least one char
+            if (windowsNtEnd < rvStart) {
+                set(P.IE11);
+            }
+            return matched;
+        }
+
+        /*
+         * `.` does not match line terminators while `\s` matches `\n` and
+         * `\r`. Thus only the regexes with `\s+` could match a header with
+         * line terminators, and only if all of them are in the whitespaces
+         * matched by `\s+`.
+         */
+        private long matchedAcrossLineTerminators() {
+            int runStart = firstLineTerminator;
+            while (runStart > 0 && isWhitespace(ua.charAt(runStart - 1))) {
+                runStart--;
+            }
+            int runEnd = skipWhitespaces(firstLineTerminator);
+            matched = 0L;
+            if (lastLineTerminator >= runEnd) {
+                return matched;
+            }
+            if (ua.startsWith("MSIE", runStart - 4)) {
+                msieVersion(runEnd);
+            }
+            if (ua.startsWith("Windows", runStart - 7) && ua.startsWith("NT", runEnd) && runEnd + 2 < rvStart) {
+                set(P.IE11);
+            }
+            if (ua.startsWith("Edg/", runEnd)) {
+                set(P.EDGE);
+            }
+            return matched;
+        }
+
+        private void msieVersion(int pos) {
+            if (ua.startsWith("6.0", pos)) {
+                set(P.IE6);
+            } else if (ua.startsWith("7.0", pos)) {
+                set(P.IE7);
+            } else if (ua.startsWith("8.0", pos)) {
+                set(P.IE8);
+            } else if (ua.startsWith("9.0", pos)) {
+                set(P.IE9);
+            } else if (ua.startsWith("10.0", pos)) {
+                set(P.IE10);
+            }
+        }
+
+        private void set(P p) {
+            matched |= 1L << p.ordinal();
+        }
+
+        private int skipWhitespaces(int pos) {
+            int len = ua.length();
+            while (pos < len && isWhitespace(ua.charAt(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+
+        // regex `\s`
+        private static boolean isWhitespace(char c) {
+            return ' ' == c || '\t' == c || '\n' == c || '\u000B' == c || '\f' == c || '\r' == c;
         }
     }
 
     private void parse_(String userAgent) {
+        Scanner scanner = new Scanner(userAgent);
+        Token.AUTOMATON.scanAll(userAgent, scanner);
+        long matched = scanner.matched();
         for (P p: P.values()) {
-            p.test(userAgent, this);
+            if (0L != (matched & (1L << p.ordinal()))) {
+                p.apply(this);
+            }
         }
     }
 
@@ -0,0 +1,213 @@
+package benchmark;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgl.BenchmarkBase;
+import org.osgl.util.Codec;
+import org.osgl.util.IO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+/**
+ * Compare encoding and decoding a 4MB payload with {@link Codec.Base64Codec},
+ * with the char by char codec it replaces, see {@link #legacyEncode(byte[])},
+ * and with `java.util.Base64`. Each round runs {@link #TIMES} operations.
+ */
+@BenchmarkOptions(warmupRounds = 3, benchmarkRounds = 10)
+public class Base64Benchmark extends BenchmarkBase {
+
+    private static final int TIMES = 10;
+
+    private static byte[] payload;
+    private static String encoded;
+    private static final Codec.Base64Codec BASE64 = Codec.base64();
+
+    @BeforeClass
+    public static void prepare() {
+        payload = new byte[4 * 1024 * 1024];
+        new Random(1).nextBytes(payload);
+        encoded = java.util.Base64.getEncoder().encodeToString(payload);
+    }
+
+    @Test
+    public void encodeLegacy() {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += new String(legacyEncode(payload)).length();
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void encode() {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += BASE64.encodeToString(payload).length();
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void encodeIntoByteArray() {
+        byte[] dst = new byte[BASE64.encodedLength(payload.length)];
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += BASE64.encode(payload, 0, payload.length, dst, 0);
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void encodeJdk() {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += java.util.Base64.getEncoder().encodeToString(payload).length();
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void encodeStream() throws Exception {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(encoded.length());
+            OutputStream os = BASE64.encodingStream(baos);
+            os.write(payload);
+            os.close();
+            n += baos.size();
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void decodeLegacy() {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += legacyDecode(encoded.toCharArray()).length;
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void decode() {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += BASE64.decode(encoded).length;
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void decodeJdk() {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += java.util.Base64.getDecoder().decode(encoded).length;
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void decodeStream() {
+        byte[] ascii = encoded.getBytes();
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += IO.readContent(BASE64.decodingStream(new ByteArrayInputStream(ascii))).length;
+        }
+        yes(n > 0);
+    }
+
+    private static final char[] map1 = new char[64];
+    private static final byte[] map2 = new byte[128];
+
+    static {
+        int i = 0;
+        for (char c = 'A'; c <= 'Z'; c++) map1[i++] = c;
+        for (char c = 'a'; c <= 'z'; c++) map1[i++] = c;
+        for (char c = '0'; c <= '9'; c++) map1[i++] = c;
+        map1[i++] = '+';
+        map1[i] = '/';
+        for (i = 0; i < map2.length; i++) map2[i] = -1;
+        for (i = 0; i < 64; i++) map2[map1[i]] = (byte) i;
+    }
+
+    // the encoder replaced by `Codec.Base64Codec`
+    private static char[] legacyEncode(byte[] in) {
+        int iLen = in.length;
+        int oDataLen = (iLen * 4 + 2) / 3;
+        int oLen = ((iLen + 2) / 3) * 4;
+        char[] out = new char[oLen];
+        int ip = 0;
+        int op = 0;
+        while (ip < iLen) {
+            int i0 = in[ip++] & 0xff;
+            int i1 = ip < iLen ? in[ip++] & 0xff : 0;
+            int i2 = ip < iLen ? in[ip++] & 0xff : 0;
+            int o0 = i0 >>> 2;
+            int o1 = ((i0 & 3) << 4) | (i1 >>> 4);
+            int o2 = ((i1 & 0xf) << 2) | (i2 >>> 6);
+            int o3 = i2 & 0x3F;
+            out[op++] = map1[o0];
+            out[op++] = map1[o1];
+            out[op] = op < oDataLen ? map1[o2] : '=';
+            op++;
+            out[op] = op < oDataLen ? map1[o3] : '=';
+            op++;
+        }
+        return out;
+    }
+
+    // the decoder replaced by `Codec.Base64Codec`
+    private static byte[] legacyDecode(char[] in) {
+        int iLen = in.length;
+        while (iLen > 0 && in[iLen - 1] == '=') iLen--;
+        int oLen = (iLen * 3) / 4;
+        byte[] out = new byte[oLen];
+        int ip = 0;
+        int op = 0;
+        while (ip < iLen) {
+            int i0 = in[ip++];
+            int i1 = in[ip++];
+            int i2 = ip < iLen ? in[ip++] : 'A';
+            int i3 = ip < iLen ? in[ip++] : 'A';
+            if (i0 > 127 || i1 > 127 || i2 > 127 || i3 > 127)
+                throw new IllegalArgumentException("Illegal character in Base64 encoded data.");
+            int b0 = map2[i0];
+            int b1 = map2[i1];
+            int b2 = map2[i2];
+            int b3 = map2[i3];
+            if (b0 < 0 || b1 < 0 || b2 < 0 || b3 < 0)
+                throw new IllegalArgumentException("Illegal character in Base64 encoded data.");
+            int o0 = (b0 << 2) | (b1 >>> 4);
+            int o1 = ((b1 & 0xf) << 4) | (b2 >>> 2);
+            int o2 = ((b2 & 3) << 6) | b3;
+            out[op++] = (byte) o0;
+            if (op < oLen) out[op++] = (byte) o1;
+            if (op < oLen) out[op++] = (byte) o2;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,116 @@
+package benchmark;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Test;
+import org.osgl.BenchmarkBase;
+import org.osgl.util.Charsets;
+import org.osgl.util.Crypto;
+
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Compare signing and encrypting a session cookie sized message with the
+ * keyed crypto contexts against setting up `Mac`/`Cipher` on every call,
+ * which is what {@link Crypto#sign(String, byte[])} and
+ * {@link Crypto#encryptAES(String, byte[])} used to do. Each round runs
+ * {@link #TIMES} operations on a single thread, i.e. the throughput of
+ * one core.
+ */
+@BenchmarkOptions(warmupRounds = 3, benchmarkRounds = 10)
+public class CryptoBenchmark extends BenchmarkBase {
+
+    private static final int TIMES = 20000;
+
+    private static final byte[] KEY = "a-secret-key-of-the-application".getBytes(Charsets.UTF_8);
+
+    private static final String MESSAGE = "___ID=e0c9a1d3-7d4b-4a5e-9c1f-3b2a6f0e8d71&___TS=1697600000000&username=green&role=admin";
+
+    @Test
+    public void signPerCallSetup() throws Exception {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            Mac mac = Mac.getInstance("HmacSHA1");
+            mac.init(new SecretKeySpec(KEY, "HmacSHA1"));
+            n += mac.doFinal(MESSAGE.getBytes(Charsets.UTF_8)).length;
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void sign() {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += Crypto.sign(MESSAGE, KEY).length();
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void signer() {
+        Crypto.Signer signer = Crypto.signer(KEY);
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += signer.sign(MESSAGE).length();
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void signerSha256() {
+        Crypto.Signer signer = Crypto.signer(KEY, Crypto.MacType.HMAC_SHA256);
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += signer.sign(MESSAGE).length();
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void encryptPerCallSetup() throws Exception {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            byte[] ba = MessageDigest.getInstance("SHA-384").digest(KEY);
+            byte[] iv = new byte[16];
+            new SecureRandom().nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(ba, 0, 32, "AES"), new IvParameterSpec(iv));
+            n += cipher.doFinal(MESSAGE.getBytes(Charsets.UTF_8)).length;
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void encrypt() {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += Crypto.encryptAES(MESSAGE, KEY).length();
+        }
+        yes(n > 0);
+    }
+
+}
@@ -28,6 +28,7 @@ import ma.glasnost.orika.impl.DefaultMapperFactory;
 import org.dozer.DozerBeanMapper;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.modelmapper.ModelMapper;
 import org.osgl.$;
 import org.osgl.BenchmarkBase;
 
@@ -40,6 +41,7 @@ public class DeepCopyBenchmark extends BenchmarkBase {
     private static MapperFactory mapperFactory;
     private static BoundMapperFacade<Foo, Foo> orika;
     private static DozerBeanMapper dozer = new DozerBeanMapper();
+    private static ModelMapper modelMapper = new ModelMapper();
 
     @BeforeClass
     public static void init() {
@@ -63,4 +65,9 @@ public class DeepCopyBenchmark extends BenchmarkBase {
         orika.map(source, target);
     }
 
+    @Test
+    public void modelMapper() {
+        modelMapper.map(source, target);
+    }
+
 }
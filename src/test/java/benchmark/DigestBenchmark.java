@@ -0,0 +1,112 @@
+package benchmark;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgl.BenchmarkBase;
+import org.osgl.util.CRC32C;
+import org.osgl.util.Codec;
+import org.osgl.util.IO;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * Compare digesting a 32MB file the way `IO.checksum(File)` used to do,
+ * i.e. a new `MessageDigest` fed through a 1KB buffer, against
+ * {@link Codec#digest(File, Codec.DigestType)}, which maps the file, and
+ * compare the checksums against the hashes.
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 5)
+public class DigestBenchmark extends BenchmarkBase {
+
+    private static final int SIZE = 32 * 1024 * 1024;
+
+    private static File file;
+    private static byte[] content;
+
+    @BeforeClass
+    public static void prepare() throws Exception {
+        content = new byte[SIZE];
+        new Random(1).nextBytes(content);
+        file = File.createTempFile("osgl", ".bin");
+        IO.write(content, file);
+    }
+
+    @AfterClass
+    public static void cleanUp() {
+        file.delete();
+    }
+
+    @Test
+    public void sha1StreamSmallBuffer() throws Exception {
+        MessageDigest md = MessageDigest.getInstance("SHA1");
+        byte[] buf = new byte[1024];
+        InputStream is = new FileInputStream(file);
+        int n;
+        while ((n = is.read(buf)) != -1) {
+            md.update(buf, 0, n);
+        }
+        is.close();
+        eq(20, md.digest().length);
+    }
+
+    @Test
+    public void sha1File() {
+        eq(20, Codec.digest(file, Codec.DigestType.SHA1).length);
+    }
+
+    @Test
+    public void sha256File() {
+        eq(32, Codec.digest(file, Codec.DigestType.SHA256).length);
+    }
+
+    @Test
+    public void crc32File() {
+        eq(4, Codec.digest(file, Codec.DigestType.CRC32).length);
+    }
+
+    @Test
+    public void crc32cFile() {
+        eq(4, Codec.digest(file, Codec.DigestType.CRC32C).length);
+    }
+
+    @Test
+    public void crc32Array() {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, SIZE);
+        yes(crc.getValue() >= 0);
+    }
+
+    @Test
+    public void crc32cArray() {
+        CRC32C crc = new CRC32C();
+        crc.update(content, 0, SIZE);
+        yes(crc.getValue() >= 0);
+    }
+}
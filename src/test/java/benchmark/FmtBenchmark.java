@@ -0,0 +1,57 @@
+package benchmark;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Test;
+import org.osgl.BenchmarkBase;
+import org.osgl.util.S;
+
+/**
+ * Compare {@link S#fmt(String, Object...)} with {@link String#format(String, Object...)}
+ * on a typical exception message template.
+ */
+@BenchmarkOptions(warmupRounds = 5, benchmarkRounds = 20)
+public class FmtBenchmark extends BenchmarkBase {
+
+    private static final int TIMES = 100 * 1000;
+
+    private static final String TMPL = "value of key[%s] is out of range: %d";
+
+    @Test
+    public void stringFormat() {
+        int len = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            len += String.format(TMPL, "foo", i).length();
+        }
+        yes(len > 0);
+    }
+
+    @Test
+    public void osglFmt() {
+        int len = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            len += S.fmt(TMPL, "foo", i).length();
+        }
+        yes(len > 0);
+    }
+
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Test;
+import org.osgl.BenchmarkBase;
+import org.osgl.util.S;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compare replacing 200 tokens with one `S.replace` pass per token
+ * against a single {@link S#replaceAll(String, Map)} pass.
+ */
+@BenchmarkOptions(warmupRounds = 3, benchmarkRounds = 10)
+public class MultiReplaceBenchmark extends BenchmarkBase {
+
+    private static final Map<String, String> TOKENS = new LinkedHashMap<>();
+    private static final String TEXT;
+
+    static {
+        for (int i = 0; i < 200; ++i) {
+            TOKENS.put("{token" + i + "}", "value" + i);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; ++i) {
+            sb.append("some text around {token").append(i % 400).append("} and more. ");
+        }
+        TEXT = sb.toString();
+    }
+
+    private static final int TIMES = 10;
+
+    @Test
+    public void passPerToken() {
+        int len = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            String s = TEXT;
+            for (Map.Entry<String, String> entry : TOKENS.entrySet()) {
+                s = S.replace(entry.getKey()).in(s).with(entry.getValue());
+            }
+            len += s.length();
+        }
+        yes(len > 0);
+    }
+
+    @Test
+    public void singlePass() {
+        int len = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            len += S.replaceAll(TEXT, TOKENS).length();
+        }
+        yes(len > 0);
+    }
+
+}
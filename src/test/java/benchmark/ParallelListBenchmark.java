@@ -0,0 +1,117 @@
+package benchmark;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.BenchmarkBase;
+import org.osgl.util.C;
+
+/**
+ * Compare sequential and parallel bulk operations on a list of 10^6
+ * elements. Run with `-Dbenchmark.size=N` to try other sizes, e.g.
+ * 10^7 or 10^8 given enough heap.
+ */
+@BenchmarkOptions(warmupRounds = 5, benchmarkRounds = 20)
+public class ParallelListBenchmark extends BenchmarkBase {
+
+    private static final int SIZE = Integer.getInteger("benchmark.size", 1000 * 1000);
+
+    private static final C.List<Integer> LIST;
+
+    static {
+        Integer[] data = new Integer[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            data[i] = i;
+        }
+        LIST = C.listOf(data).eager();
+    }
+
+    private static final $.Transformer<Integer, Double> HEAVY = new $.Transformer<Integer, Double>() {
+        @Override
+        public Double transform(Integer i) {
+            return Math.sqrt(Math.log(i + 1.0) * Math.cos(i));
+        }
+    };
+
+    private static final $.Predicate<Integer> EVEN = new $.Predicate<Integer>() {
+        @Override
+        public boolean test(Integer i) {
+            return (i & 1) == 0;
+        }
+    };
+
+    private static final $.Predicate<Integer> LAST = new $.Predicate<Integer>() {
+        @Override
+        public boolean test(Integer i) {
+            return i == SIZE - 1;
+        }
+    };
+
+    private static final $.Func2<Integer, Integer, Integer> SUM = new $.Func2<Integer, Integer, Integer>() {
+        @Override
+        public Integer apply(Integer a, Integer b) {
+            return a + b;
+        }
+    };
+
+    @Test
+    public void mapSequential() {
+        LIST.sequential().map(HEAVY);
+    }
+
+    @Test
+    public void mapParallel() {
+        LIST.parallel().map(HEAVY);
+    }
+
+    @Test
+    public void filterSequential() {
+        LIST.sequential().filter(EVEN);
+    }
+
+    @Test
+    public void filterParallel() {
+        LIST.parallel().filter(EVEN);
+    }
+
+    @Test
+    public void reduceSequential() {
+        LIST.sequential().reduce(SUM);
+    }
+
+    @Test
+    public void reduceParallel() {
+        LIST.parallel().reduce(SUM);
+    }
+
+    @Test
+    public void findSequential() {
+        LIST.sequential().findOne(LAST);
+    }
+
+    @Test
+    public void findParallel() {
+        LIST.parallel().findOne(LAST);
+    }
+
+}
@@ -0,0 +1,87 @@
+package benchmark;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.BenchmarkBase;
+import org.osgl.util.C;
+
+/**
+ * Compare a map/filter/sum pipeline on a boxed {@link C.List} with the
+ * same pipeline on a {@link C.IntList}. Run with `-Dbenchmark.size=N`
+ * to try other sizes.
+ */
+@BenchmarkOptions(warmupRounds = 5, benchmarkRounds = 20)
+public class PrimitiveListBenchmark extends BenchmarkBase {
+
+    private static final int SIZE = Integer.getInteger("benchmark.size", 1000 * 1000);
+
+    private static final C.List<Integer> BOXED = C.range(0, SIZE).asList();
+
+    private static final C.IntList PRIMITIVE = C.intRange(0, SIZE);
+
+    @Test
+    public void boxed() {
+        long sum = BOXED.map(new $.Transformer<Integer, Integer>() {
+            @Override
+            public Integer transform(Integer i) {
+                return i * 3;
+            }
+        }).filter(new $.Predicate<Integer>() {
+            @Override
+            public boolean test(Integer i) {
+                return (i & 1) == 0;
+            }
+        }).reduce(0L, new $.Func2<Long, Integer, Long>() {
+            @Override
+            public Long apply(Long sum, Integer i) {
+                return sum + i;
+            }
+        });
+        eq(expected(), sum);
+    }
+
+    @Test
+    public void primitive() {
+        long sum = PRIMITIVE.map(new C.IntFunc() {
+            @Override
+            public int apply(int i) {
+                return i * 3;
+            }
+        }).filter(new C.IntPredicate() {
+            @Override
+            public boolean test(int i) {
+                return (i & 1) == 0;
+            }
+        }).sum();
+        eq(expected(), sum);
+    }
+
+    private static long expected() {
+        long sum = 0;
+        for (int i = 0; i < SIZE; i += 2) {
+            sum += i * 3L;
+        }
+        return sum;
+    }
+}
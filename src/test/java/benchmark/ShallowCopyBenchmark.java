@@ -26,6 +26,8 @@ import com.baidu.unbiz.easymapper.Mapper;
 import com.baidu.unbiz.easymapper.MapperFactory;
 import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
 import com.carrotsearch.junitbenchmarks.Clock;
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
 import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.beanutils.PropertyUtils;
 import org.junit.BeforeClass;
@@ -42,11 +44,13 @@ public class ShallowCopyBenchmark extends BenchmarkBase {
     private static Foo clone;
     private static ModelMapper modelMapper = new ModelMapper();
     private static Mapper easyMapper;
+    private static BoundMapperFacade<Foo, Foo> orika;
 
     @BeforeClass
     public static void init() {
         easyMapper = MapperFactory.getCopyByRefMapper();
         easyMapper.mapClass(Foo.class, Foo.class).register();
+        orika = new DefaultMapperFactory.Builder().build().getMapperFacade(Foo.class, Foo.class);
     }
 
 
@@ -76,6 +80,11 @@ public class ShallowCopyBenchmark extends BenchmarkBase {
         modelMapper.map(source, target);
     }
 
+    @Test
+    public void orika() {
+        orika.map(source, target);
+    }
+
     @Test
     public void hutool() {
         BeanUtil.copyProperties(source, target);
@@ -0,0 +1,90 @@
+package benchmark;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Test;
+import org.osgl.BenchmarkBase;
+import org.osgl.util.algo.Algorithms;
+import org.osgl.util.algo.ArrayPingPongMergeSort;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compare the sorts in {@link Algorithms} with the JDK sorts on random
+ * data. Run with `-Dbenchmark.size=N` to try other sizes.
+ */
+@BenchmarkOptions(warmupRounds = 5, benchmarkRounds = 20)
+public class SortBenchmark extends BenchmarkBase {
+
+    private static final int SIZE = Integer.getInteger("benchmark.size", 1000 * 1000);
+
+    private static final int[] INTS = new int[SIZE];
+
+    private static final Integer[] BOXED = new Integer[SIZE];
+
+    static {
+        Random r = new Random(20);
+        for (int i = 0; i < SIZE; ++i) {
+            int n = r.nextInt();
+            INTS[i] = n;
+            BOXED[i] = n;
+        }
+    }
+
+    @Test
+    public void jdkIntSort() {
+        int[] a = INTS.clone();
+        Arrays.sort(a);
+        yes(a[0] <= a[SIZE - 1]);
+    }
+
+    @Test
+    public void radixIntSort() {
+        int[] a = INTS.clone();
+        Algorithms.arrayPrimitiveSort().sort(a, 0, SIZE);
+        yes(a[0] <= a[SIZE - 1]);
+    }
+
+    @Test
+    public void jdkObjectSort() {
+        Integer[] a = BOXED.clone();
+        Arrays.sort(a);
+        yes(a[0] <= a[SIZE - 1]);
+    }
+
+    @Test
+    public void pingPongMergeSort() {
+        Integer[] a = BOXED.clone();
+        ArrayPingPongMergeSort<Integer> sort = Algorithms.arrayPingPongMergeSort();
+        sort.sort(a, 0, SIZE, null);
+        yes(a[0] <= a[SIZE - 1]);
+    }
+
+    @Test
+    public void parallelMergeSort() {
+        Integer[] a = BOXED.clone();
+        Algorithms.<Integer>arrayParallelMergeSort().sort(a, 0, SIZE, null);
+        yes(a[0] <= a[SIZE - 1]);
+    }
+
+}
@@ -0,0 +1,113 @@
+package benchmark;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Test;
+import org.osgl.BenchmarkBase;
+import org.osgl.util.S;
+import org.osgl.util.algo.StringSearchPattern;
+
+import java.util.Random;
+
+/**
+ * Compare the plain `indexOf` scan, Boyer-Moore-Horspool and two-way
+ * search on three kinds of input:
+ *
+ * * `word`: a short target in a random text
+ * * `sentence`: a long target in a random text, where Horspool skips most chars
+ * * `periodic`: `a...ab` in `a...a`, the worst case of both scan and Horspool
+ */
+@BenchmarkOptions(warmupRounds = 3, benchmarkRounds = 10)
+public class StringSearchBenchmark extends BenchmarkBase {
+
+    private static final char[] TEXT;
+    private static final char[] PERIODIC_TEXT = S.repeat('a').times(200 * 1000).toCharArray();
+
+    private static final char[] WORD = "xyz".toCharArray();
+    private static final char[] SENTENCE = "the quick brown fox jumps over the lazy dog".toCharArray();
+    private static final char[] PERIODIC = (S.repeat('a').times(63) + "b").toCharArray();
+
+    static {
+        Random r = new Random(1);
+        char[] ca = new char[200 * 1000];
+        for (int i = 0; i < ca.length; ++i) {
+            ca[i] = (char) ('a' + r.nextInt(26));
+        }
+        TEXT = ca;
+    }
+
+    private static final int TIMES = 50;
+
+    private void run(StringSearchPattern pattern, char[] text) {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            n += pattern.count(text, false);
+        }
+        yes(n >= 0);
+    }
+
+    @Test
+    public void wordSimple() {
+        run(new StringSearchPattern.Simple(WORD), TEXT);
+    }
+
+    @Test
+    public void wordHorspool() {
+        run(new StringSearchPattern.Horspool(WORD), TEXT);
+    }
+
+    @Test
+    public void wordTwoWay() {
+        run(new StringSearchPattern.TwoWay(WORD), TEXT);
+    }
+
+    @Test
+    public void sentenceSimple() {
+        run(new StringSearchPattern.Simple(SENTENCE), TEXT);
+    }
+
+    @Test
+    public void sentenceHorspool() {
+        run(new StringSearchPattern.Horspool(SENTENCE), TEXT);
+    }
+
+    @Test
+    public void sentenceTwoWay() {
+        run(new StringSearchPattern.TwoWay(SENTENCE), TEXT);
+    }
+
+    @Test
+    public void periodicSimple() {
+        run(new StringSearchPattern.Simple(PERIODIC), PERIODIC_TEXT);
+    }
+
+    @Test
+    public void periodicHorspool() {
+        run(new StringSearchPattern.Horspool(PERIODIC), PERIODIC_TEXT);
+    }
+
+    @Test
+    public void periodicTwoWay() {
+        run(new StringSearchPattern.TwoWay(PERIODIC), PERIODIC_TEXT);
+    }
+
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Test;
+import org.osgl.BenchmarkBase;
+import org.osgl.util.IO;
+import org.osgl.web.util.RegexUserAgentClassifier;
+import org.osgl.web.util.UserAgent;
+
+import java.util.List;
+
+/**
+ * Compare the single scan {@link UserAgent} classification with the
+ * regex based one it replaced, over the user agent corpus in test
+ * resources. Each header gets a unique suffix so {@link UserAgent#parse(String)}
+ * always misses its cache, like high cardinality bot traffic does.
+ */
+@BenchmarkOptions(warmupRounds = 3, benchmarkRounds = 10)
+public class UserAgentBenchmark extends BenchmarkBase {
+
+    private static final List<String> CORPUS = IO.readLines(UserAgentBenchmark.class.getResource("/web/user-agents.txt"));
+
+    private static final int TIMES = 100;
+
+    private static int seq;
+
+    @Test
+    public void regex() {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            for (String s : CORPUS) {
+                n += RegexUserAgentClassifier.classify(s + " #" + seq++).length();
+            }
+        }
+        yes(n > 0);
+    }
+
+    @Test
+    public void singleScan() {
+        int n = 0;
+        for (int i = 0; i < TIMES; ++i) {
+            for (String s : CORPUS) {
+                n += UserAgent.parse(s + " #" + seq++).getBrowser().ordinal() + 1;
+            }
+        }
+        yes(n > 0);
+    }
+
+}
@@ -0,0 +1,113 @@
+package org.osgl.cache.impl;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+
+public class InteralCacheServiceTest extends TestBase {
+
+    @Test
+    public void testPutGetEvict() {
+        InteralCacheService cache = new InteralCacheService();
+        isNull(cache.get("foo"));
+        cache.put("foo", "bar");
+        eq("bar", cache.get("foo"));
+        cache.evict("foo");
+        isNull(cache.get("foo"));
+    }
+
+    @Test
+    public void testTTL() throws Exception {
+        InteralCacheService cache = new InteralCacheService();
+        cache.put("foo", "bar", 1);
+        eq("bar", cache.get("foo"));
+        Thread.sleep(1100);
+        isNull(cache.get("foo"));
+        cache.shutdown();
+    }
+
+    @Test
+    public void testDefaultTTL() throws Exception {
+        InteralCacheService cache = new InteralCacheService();
+        cache.setDefaultTTL(1);
+        cache.put("foo", "bar");
+        cache.put("bar", "foo", -1);
+        Thread.sleep(1100);
+        cache.sweep();
+        isNull(cache.get("foo"));
+        eq("foo", cache.get("bar"));
+        eq(1, cache.size());
+        cache.shutdown();
+    }
+
+    @Test
+    public void testIncrDecr() {
+        InteralCacheService cache = new InteralCacheService();
+        eq(0, cache.incr("counter"));
+        eq(1, cache.incr("counter"));
+        eq(2, cache.get("counter"));
+        eq(2, cache.decr("counter"));
+        eq(0, cache.decr("another"));
+        eq(-1, cache.get("another"));
+    }
+
+    @Test
+    public void testConcurrentIncr() throws Exception {
+        final InteralCacheService cache = new InteralCacheService();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 1000; ++j) {
+                        cache.incr("counter");
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        eq(8000, cache.get("counter"));
+    }
+
+    @Test
+    public void testCapacity() {
+        InteralCacheService cache = new InteralCacheService(100);
+        for (int i = 0; i < 1000; ++i) {
+            cache.put("key" + i, i);
+        }
+        yes(cache.size() <= 128);
+        eq(999, cache.get("key999"));
+    }
+
+    @Test
+    public void testClear() {
+        InteralCacheService cache = new InteralCacheService();
+        cache.put("foo", "bar");
+        cache.clear();
+        isNull(cache.get("foo"));
+        eq(0, cache.size());
+    }
+
+}
@@ -0,0 +1,218 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Test {@link Codec.Base64Codec} against `java.util.Base64`
+ */
+public class Base64CodecTest extends TestBase {
+
+    private final Random random = new Random(7);
+    private final Codec.Base64Codec base64 = Codec.base64();
+    private final Codec.Base64Codec urlSafe = Codec.urlSafeBase64();
+
+    @Test
+    public void testEncodeDecode() {
+        for (int len = 0; len < 100; ++len) {
+            byte[] ba = randomBytes(len);
+            String expected = java.util.Base64.getEncoder().encodeToString(ba);
+            eq(expected, base64.encodeToString(ba));
+            eq(expected, Codec.encodeBase64(ba));
+            eq(expected, new String(Base64.encode(ba)));
+            eq(ba, base64.decode(expected));
+            eq(ba, Codec.decodeBase64(expected));
+            eq(ba, Base64.decode(expected.toCharArray()));
+            String urlSafeExpected = java.util.Base64.getUrlEncoder().encodeToString(ba).replace('=', '~');
+            eq(urlSafeExpected, urlSafe.encodeToString(ba));
+            eq(urlSafeExpected, Codec.encodeUrlSafeBase64(ba));
+            eq(ba, Codec.decodeUrlSafeBase64(urlSafeExpected));
+        }
+        eq("5L2g5aW9", Codec.encodeBase64("\u4f60\u597d"));
+    }
+
+    @Test
+    public void testEncodeIntoCallerBuffers() {
+        byte[] ba = randomBytes(1000);
+        String expected = java.util.Base64.getEncoder().encodeToString(Arrays.copyOfRange(ba, 10, 510));
+        int n = base64.encodedLength(500);
+        eq(expected.length(), n);
+
+        char[] chars = new char[n + 3];
+        eq(n, base64.encode(ba, 10, 500, chars, 3));
+        eq(expected, new String(chars, 3, n));
+
+        byte[] bytes = new byte[n + 3];
+        eq(n, base64.encode(ba, 10, 500, bytes, 3));
+        eq(expected, new String(bytes, 3, n, Charsets.UTF_8));
+
+        S.Buffer buf = S.newBuffer("prefix:");
+        eq("prefix:" + expected, base64.encode(ba, 10, 500, buf).toString());
+
+        for (boolean direct : new boolean[]{false, true}) {
+            ByteBuffer src = allocate(600, direct);
+            src.position(10);
+            src.put(ba, 10, 500).flip();
+            src.position(10);
+            ByteBuffer dst = allocate(n, direct);
+            base64.encode(src, dst);
+            no(src.hasRemaining());
+            no(dst.hasRemaining());
+            dst.flip();
+            byte[] result = new byte[n];
+            dst.get(result);
+            eq(expected, new String(result, Charsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testDecodeIntoCallerBuffers() {
+        // large enough for the direct buffers to be decoded in more than one chunk
+        byte[] ba = randomBytes(10000 + 2);
+        byte[] encoded = java.util.Base64.getEncoder().encode(ba);
+        byte[] out = new byte[base64.maxDecodedLength(encoded.length) + 5];
+        eq(ba.length, base64.decode(encoded, 0, encoded.length, out, 5));
+        eq(ba, Arrays.copyOfRange(out, 5, 5 + ba.length));
+        for (boolean direct : new boolean[]{false, true}) {
+            ByteBuffer src = allocate(encoded.length, direct);
+            src.put(encoded).flip();
+            ByteBuffer dst = allocate(ba.length, direct);
+            base64.decode(src, dst);
+            no(src.hasRemaining());
+            no(dst.hasRemaining());
+            dst.flip();
+            byte[] result = new byte[ba.length];
+            dst.get(result);
+            eq(ba, result);
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testEncodeBufferOverflow() {
+        base64.encode(ByteBuffer.wrap(new byte[10]), ByteBuffer.allocate(15));
+    }
+
+    @Test
+    public void testDecodeIllegal() {
+        String[] illegal = {"A", "AB=", "ABC", "A===", "AB=C", "AB C", "ABC\u00e9", "AB\u4f60=", "AB-_", "=AAA"};
+        for (String s : illegal) {
+            try {
+                base64.decode(s);
+                fail("shall fail to decode: " + s);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        eq(new byte[0], base64.decode(""));
+        eq(new byte[]{(byte) 0xfb, (byte) 0xff}, urlSafe.decode("-_8~"));
+    }
+
+    @Test
+    public void testDecodeLines() {
+        for (int len : new int[]{0, 1, 2, 3, 57, 58, 100, 1000}) {
+            byte[] ba = randomBytes(len);
+            String mime = java.util.Base64.getMimeEncoder().encodeToString(ba);
+            eq(ba, base64.decodeLines(mime), "decode lines of %s bytes", len);
+            eq(ba, Base64.decodeLines(" \t" + mime + "\r\n"));
+        }
+        try {
+            base64.decodeLines("AB\nC");
+            fail("shall fail to decode");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testStreams() throws IOException {
+        for (int len : new int[]{0, 1, 2, 3, 4, 1000, 3 * 1024, 3 * 1024 + 1, 20000}) {
+            byte[] ba = randomBytes(len);
+            String expected = java.util.Base64.getEncoder().encodeToString(ba);
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            OutputStream os = base64.encodingStream(baos);
+            int pos = 0;
+            while (pos < len) {
+                int n = Math.min(len - pos, random.nextInt(5000));
+                if (1 == n) {
+                    os.write(ba[pos]);
+                } else {
+                    os.write(ba, pos, n);
+                }
+                pos += n;
+            }
+            os.close();
+            eq(expected, new String(baos.toByteArray(), Charsets.UTF_8), "encode stream of %s bytes", len);
+
+            eq(ba, IO.readContent(base64.decodingStream(new ByteArrayInputStream(expected.getBytes()))));
+            String mime = java.util.Base64.getMimeEncoder().encodeToString(ba);
+            eq(ba, IO.readContent(base64.decodingStream(new ByteArrayInputStream(mime.getBytes()))));
+            String unpadded = java.util.Base64.getEncoder().withoutPadding().encodeToString(ba);
+            InputStream is = base64.decodingStream(new ByteArrayInputStream(unpadded.getBytes()));
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            int b;
+            while ((b = is.read()) >= 0) {
+                result.write(b);
+            }
+            eq(ba, result.toByteArray());
+        }
+    }
+
+    @Test
+    public void testDecodingStreamIllegal() {
+        for (String s : new String[]{"AB*C", "AB==CD==", "ABCDA"}) {
+            try {
+                IO.readContent(base64.decodingStream(new ByteArrayInputStream(s.getBytes())));
+                fail("shall fail to decode: " + s);
+            } catch (RuntimeException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testImgDataUri() {
+        byte[] ba = randomBytes(1000);
+        eq("data:image/png;base64," + java.util.Base64.getEncoder().encodeToString(ba), Img.toBase64(ba, "image/png"));
+    }
+
+    private static ByteBuffer allocate(int capacity, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private byte[] randomBytes(int len) {
+        byte[] ba = new byte[len];
+        random.nextBytes(ba);
+        return ba;
+    }
+}
@@ -36,7 +36,7 @@ public abstract class BigLineTestBase extends TestBase {
     protected static final Logger LOGGER = LogManager.get(BigLineTestBase.class);
 
     protected int lines;
-    private File testFile;
+    protected File testFile;
     protected BigLines bigLines;
 
     BigLineTestBase(int lines) {
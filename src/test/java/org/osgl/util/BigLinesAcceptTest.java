@@ -0,0 +1,175 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.OsglConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+public class BigLinesAcceptTest extends BigLineTestBase {
+
+    private static final int FILE_LINES = 123456;
+
+    private int chunkSize;
+
+    public BigLinesAcceptTest() {
+        super(FILE_LINES);
+    }
+
+    private static class Collector extends BigLines.LineReader {
+        Map<Integer, List<String>> chunks = new ConcurrentHashMap<>();
+        ThreadLocal<List<String>> current = new ThreadLocal<List<String>>() {
+            @Override
+            protected List<String> initialValue() {
+                return new ArrayList<>();
+            }
+        };
+
+        @Override
+        public void read(String line, int lineNo) {
+            List<String> list = current.get();
+            eq(list.size(), lineNo);
+            list.add(line);
+        }
+
+        @Override
+        public void batchFinished(int chunkId) {
+            isNull(chunks.put(chunkId, current.get()));
+            current.remove();
+        }
+
+        List<String> lines() {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); ++i) {
+                lines.addAll(chunks.get(i));
+            }
+            return lines;
+        }
+    }
+
+    @Before
+    public void setChunkSize() {
+        chunkSize = OsglConfig.getBiglinesChunkSize();
+        OsglConfig.setBiglinesChunkSize(1024 * 4);
+    }
+
+    @After
+    public void restoreChunkSize() {
+        OsglConfig.setBiglinesChunkSize(chunkSize);
+    }
+
+    private void verify(List<String> lines, int start) {
+        eq(FILE_LINES - start, lines.size());
+        for (int i = start; i < FILE_LINES; ++i) {
+            eq(String.valueOf(i), lines.get(i - start));
+        }
+    }
+
+    @Test
+    public void testParallelAccept() {
+        Collector collector = new Collector();
+        bigLines.accept(collector);
+        yes(collector.chunks.size() > 100);
+        verify(collector.lines(), 1);
+    }
+
+    @Test
+    public void testAcceptWithExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Collector collector = new Collector();
+            bigLines.setIterateFirstLine(true);
+            bigLines.accept(collector, executor);
+            verify(collector.lines(), 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testAcceptFromWorkerOfSinglePool() throws Exception {
+        // the only worker must not park waiting for chunks queued behind it
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            final Collector collector = new Collector();
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    bigLines.accept(collector, pool);
+                }
+            }).get();
+            yes(collector.chunks.size() > 100);
+            verify(collector.lines(), 1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testAcceptWithExecutorFromWorker() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Collector collector = new Collector();
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    bigLines.accept(collector, executor);
+                }
+            }).get();
+            verify(collector.lines(), 1);
+        } finally {
+            pool.shutdown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSequentialAccept() {
+        OsglConfig.setBiglinesChunkSize(Integer.MAX_VALUE);
+        Collector collector = new Collector();
+        bigLines.accept(collector);
+        eq(1, collector.chunks.size());
+        verify(collector.lines(), 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testErrorReported() {
+        bigLines.accept(new BigLines.LineReader() {
+            @Override
+            public void read(String line, int lineNo) {
+                if ("100000".equals(line)) {
+                    throw new IllegalStateException();
+                }
+            }
+        });
+    }
+
+}
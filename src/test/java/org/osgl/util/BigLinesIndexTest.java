@@ -0,0 +1,118 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+public class BigLinesIndexTest extends BigLineTestBase {
+
+    private static final int FILE_LINES = 10000;
+
+    public BigLinesIndexTest() {
+        super(FILE_LINES);
+    }
+
+    @Test
+    public void testFetch() {
+        bigLines.index(100, false);
+        yes(bigLines.isIndexed());
+        eq(FILE_LINES, bigLines.lines());
+        eq("0", bigLines.firstLine());
+        eq("0", bigLines.fetch(0));
+        eq("99", bigLines.fetch(99));
+        eq("100", bigLines.fetch(100));
+        eq("5555", bigLines.fetch(5555));
+        eq(String.valueOf(FILE_LINES - 1), bigLines.fetch(FILE_LINES - 1));
+        List<String> list = bigLines.fetch(4990, 20);
+        eq(20, list.size());
+        for (int i = 0; i < 20; ++i) {
+            eq(String.valueOf(4990 + i), list.get(i));
+        }
+        eq(2, bigLines.fetch(FILE_LINES - 2, 10).size());
+    }
+
+    @Test
+    public void testCherrypick() {
+        int[] index = {9000, 3, 3, 150, 151, 7777};
+        List<String> expected = new BigLines(testFile).cherrypick(index.clone());
+        eq(C.list("3", "150", "151", "7777", "9000"), expected);
+        bigLines.index(100, false);
+        eq(expected, bigLines.cherrypick(index));
+    }
+
+    @Test
+    public void testSampling() {
+        bigLines.index();
+        for (String line : bigLines.sampling(50)) {
+            int n = Integer.parseInt(line);
+            yes(n > 0 && n < FILE_LINES);
+        }
+    }
+
+    @Test
+    public void testPersistedIndex() throws IOException {
+        File sidecar = new File(testFile.getPath() + ".idx");
+        try {
+            bigLines.index(100, true);
+            yes(sidecar.exists());
+            long saved = sidecar.lastModified();
+            BigLinesIndex index = BigLinesIndex.load(sidecar, testFile, 100);
+            notNull(index);
+            eq(FILE_LINES, index.lines);
+            isNull(BigLinesIndex.load(sidecar, testFile, 10));
+
+            FileWriter fw = new FileWriter(testFile, true);
+            fw.write("extra\n");
+            IO.close(fw);
+            isNull(BigLinesIndex.load(sidecar, testFile, 100));
+            BigLines reloaded = new BigLines(testFile).index(100, true);
+            eq(FILE_LINES + 1, reloaded.lines());
+            eq("extra", reloaded.fetch(FILE_LINES));
+            yes(sidecar.lastModified() >= saved);
+        } finally {
+            if (!sidecar.delete()) {
+                sidecar.deleteOnExit();
+            }
+        }
+    }
+
+    @Test
+    public void testIndexRebuiltWhenFileChanged() throws IOException {
+        bigLines.index(100, false);
+        eq("5555", bigLines.fetch(5555));
+        // rewrite the file with longer lines so the indexed offsets go stale
+        FileWriter fw = new FileWriter(testFile);
+        for (int i = 0; i < FILE_LINES + 1; ++i) {
+            fw.write("line-" + i + "\n");
+        }
+        IO.close(fw);
+        eq("line-5555", bigLines.fetch(5555));
+        eq(C.list("line-150", "line-7777"), bigLines.cherrypick(new int[]{7777, 150}));
+        eq(FILE_LINES + 1, bigLines.lines());
+        eq("line-0", bigLines.firstLine());
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+public class CRC32CTest extends TestBase {
+
+    @Test
+    public void testVectors() {
+        eq(0xE3069283L, crc("123456789".getBytes(Charsets.UTF_8)));
+        eq(0L, crc(new byte[0]));
+        // RFC 3720 B.4
+        eq(0x8A9136AAL, crc(new byte[32]));
+        byte[] ones = new byte[32];
+        Arrays.fill(ones, (byte) 0xff);
+        eq(0x62A8AB43L, crc(ones));
+        byte[] inc = new byte[32];
+        for (int i = 0; i < 32; ++i) {
+            inc[i] = (byte) i;
+        }
+        eq(0x46DD794EL, crc(inc));
+    }
+
+    @Test
+    public void testUpdateInPieces() {
+        Random r = new Random(1);
+        byte[] ba = new byte[5000];
+        r.nextBytes(ba);
+        long expected = bitwise(ba);
+        eq(expected, crc(ba));
+        for (int i = 0; i < 50; ++i) {
+            CRC32C crc = new CRC32C();
+            int pos = 0;
+            while (pos < ba.length) {
+                int len = Math.min(ba.length - pos, r.nextInt(40));
+                switch (r.nextInt(3)) {
+                    case 0:
+                        crc.update(ba, pos, len);
+                        break;
+                    case 1:
+                        ByteBuffer direct = ByteBuffer.allocateDirect(len);
+                        direct.put(ba, pos, len).flip();
+                        crc.update(direct);
+                        no(direct.hasRemaining());
+                        break;
+                    default:
+                        for (int j = pos; j < pos + len; ++j) {
+                            crc.update(ba[j]);
+                        }
+                }
+                pos += len;
+            }
+            eq(expected, crc.getValue());
+        }
+    }
+
+    @Test
+    public void testReset() {
+        CRC32C crc = new CRC32C();
+        crc.update(new byte[]{1, 2, 3});
+        crc.reset();
+        crc.update("123456789".getBytes(Charsets.UTF_8));
+        eq(0xE3069283L, crc.getValue());
+    }
+
+    private static long crc(byte[] ba) {
+        CRC32C crc = new CRC32C();
+        crc.update(ba);
+        return crc.getValue();
+    }
+
+    // the plain bit by bit algorithm
+    private static long bitwise(byte[] ba) {
+        int crc = 0xFFFFFFFF;
+        for (byte b : ba) {
+            crc ^= b & 0xff;
+            for (int k = 0; k < 8; ++k) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ 0x82F63B78 : crc >>> 1;
+            }
+        }
+        return ~crc & 0xFFFFFFFFL;
+    }
+}
@@ -23,6 +23,18 @@ package org.osgl.util;
 import org.apache.commons.codec.binary.Hex;
 import org.junit.Test;
 import org.osgl.TestBase;
+import org.osgl.exception.ResourceNotFoundException;
+import org.osgl.storage.impl.SObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 public class CodecTest extends TestBase {
 
@@ -35,4 +47,109 @@ public class CodecTest extends TestBase {
         eq(s, new String(Codec.hexStringToByte(hexStr)));
     }
 
+    @Test
+    public void testDigestVectors() {
+        byte[] abc = "abc".getBytes(Charsets.UTF_8);
+        eq("900150983CD24FB0D6963F7D28E17F72", Codec.hexDigest(abc, Codec.DigestType.MD5));
+        eq("A9993E364706816ABA3E25717850C26C9CD0D89D", Codec.hexDigest(abc, Codec.DigestType.SHA1));
+        eq("BA7816BF8F01CFEA414140DE5DAE2223B00361A396177A9CB410FF61F20015AD", Codec.hexDigest(abc, Codec.DigestType.SHA256));
+        byte[] digits = "123456789".getBytes(Charsets.UTF_8);
+        eq("CBF43926", Codec.hexDigest(digits, Codec.DigestType.CRC32));
+        eq("E3069283", Codec.hexDigest(digits, Codec.DigestType.CRC32C));
+        eq(Codec.hexDigest(abc, Codec.DigestType.MD5), Codec.hexMD5("abc"));
+        eq(Codec.hexDigest(abc, Codec.DigestType.SHA1), Codec.hexSHA1("abc"));
+        for (Codec.DigestType type : Codec.DigestType.values()) {
+            eq(type.length(), Codec.digest(abc, type).length);
+        }
+    }
+
+    @Test
+    public void testDigestSources() throws IOException {
+        // the larger one spans many reads through the buffer
+        for (int size : new int[]{1000, 1024 * 1024 * 3 + 5}) {
+            byte[] ba = randomBytes(size);
+            File file = tmpFile(ba);
+            for (Codec.DigestType type : Codec.DigestType.values()) {
+                String expected = Codec.hexDigest(ba, type);
+                eq(expected, Codec.hexDigest(file, type));
+                eq(expected, Codec.hexDigest(new ByteArrayInputStream(ba), type));
+                eq(expected, Codec.hexDigest(SObject.of(file), type));
+                eq(expected, Codec.hexDigest(SObject.of(new ByteArrayInputStream(ba)), type));
+                eq(expected, Codec.hasher(type).update(ByteBuffer.wrap(ba)).hexDigest());
+                ByteBuffer direct = ByteBuffer.allocateDirect(size);
+                direct.put(ba).flip();
+                eq(expected, Codec.hasher(type).update(direct).hexDigest());
+            }
+            file.delete();
+        }
+        eq(IO.checksum("abc".getBytes()), Codec.hexSHA1("abc").toLowerCase());
+    }
+
+    @Test
+    public void testIncrementalDigest() {
+        byte[] ba = randomBytes(10000);
+        for (Codec.DigestType type : Codec.DigestType.values()) {
+            Codec.Hasher hasher = Codec.hasher(type);
+            hasher.update(ba, 0, 3000);
+            eq(Codec.hexDigest(Arrays.copyOf(ba, 3000), type), hasher.hexDigest());
+            hasher.update(ba, 3000, 7000);
+            eq(10000L, hasher.length());
+            eq(Codec.hexDigest(ba, type), hasher.hexDigest());
+            // digest does not end the computation
+            eq(Codec.hexDigest(ba, type), hasher.hexDigest());
+            hasher.reset().update("abc");
+            eq(3L, hasher.length());
+            eq(Codec.hexDigest("abc".getBytes(), type), hasher.hexDigest());
+        }
+    }
+
+    @Test
+    public void testResumeAppendedFile() throws IOException {
+        byte[] ba = randomBytes(1024 * 1024 * 2);
+        int[] cuts = {0, 1000, 1024 * 1024 + 17, ba.length};
+        File file = tmpFile(new byte[0]);
+        Codec.Hasher hasher = Codec.hasher(Codec.DigestType.SHA256);
+        for (int i = 1; i < cuts.length; ++i) {
+            FileOutputStream os = new FileOutputStream(file, true);
+            os.write(ba, cuts[i - 1], cuts[i] - cuts[i - 1]);
+            os.close();
+            hasher.resume(file);
+            eq((long) cuts[i], hasher.length());
+            eq(Codec.hexDigest(file, Codec.DigestType.SHA256), hasher.hexDigest());
+        }
+        file.delete();
+    }
+
+    @Test
+    public void testParallelDigest() throws IOException {
+        List<File> files = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 8; ++i) {
+            byte[] ba = randomBytes(1000 * (i + 1));
+            files.add(tmpFile(ba));
+            expected.add(Codec.hexDigest(ba, Codec.DigestType.SHA256));
+        }
+        eq(expected, Codec.hexDigest(files, Codec.DigestType.SHA256));
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void testDigestMissingFile() {
+        Codec.digest(new File("/not/exists/" + S.random()), Codec.DigestType.MD5);
+    }
+
+    private static File tmpFile(byte[] content) throws IOException {
+        File file = File.createTempFile("osgl", ".tmp");
+        IO.write(content, file);
+        return file;
+    }
+
+    private static byte[] randomBytes(int len) {
+        byte[] ba = new byte[len];
+        new Random().nextBytes(ba);
+        return ba;
+    }
+
 }
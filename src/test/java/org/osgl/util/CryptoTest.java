@@ -22,8 +22,131 @@ package org.osgl.util;
 
 import org.junit.Test;
 import org.osgl.TestBase;
+import org.osgl.exception.UnexpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
 
 public class CryptoTest extends TestBase {
+
+    private static final byte[] KEY = Codec.hexStringToByte("0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b");
+
+    @Test
+    public void testSignHmacSha1() {
+        // RFC 2202 test case 1
+        eq("b617318655057264e28bc0b6fb378c8ef146be00", Crypto.sign("Hi There", KEY));
+        eq("b617318655057264e28bc0b6fb378c8ef146be00", Crypto.signer(KEY).sign("Hi There"));
+    }
+
+    @Test
+    public void testSignHmacSha256() {
+        // RFC 4231 test case 1
+        String expected = "b0344c61d8db38535ca8afceaf0bf12b881dc200c9833da726e9376c2e32cff7";
+        eq(expected, Crypto.sign("Hi There", KEY, Crypto.MacType.HMAC_SHA256));
+        eq(expected, Crypto.signer(KEY, Crypto.MacType.HMAC_SHA256).sign("Hi There"));
+    }
+
+    @Test
+    public void testCachedContextsAreKeyedByAlgorithmKeyAndSalt() {
+        String sha1 = Crypto.sign("Hi There", KEY);
+        String sha256 = Crypto.sign("Hi There", KEY, Crypto.MacType.HMAC_SHA256);
+        no(sha1.equals(sha256));
+        eq(sha1, Crypto.sign("Hi There", KEY));
+        byte[] key = "my-secret".getBytes(Charsets.UTF_8);
+        byte[] salt = "salt".getBytes(Charsets.UTF_8);
+        String unsalted = Crypto.encryptAES("Hello", key);
+        String salted = Crypto.encryptAES("Hello", key, salt);
+        eq("Hello", Crypto.decryptAES(unsalted, key));
+        eq("Hello", Crypto.decryptAES(salted, key, salt));
+    }
+
+    @Test
+    public void testSignWithEmptyKey() {
+        eq("hello", Crypto.sign("hello", new byte[0]));
+    }
+
+    @Test
+    public void testVerify() {
+        Crypto.Signer signer = Crypto.signer(KEY, Crypto.MacType.HMAC_SHA256);
+        String signature = signer.sign("hello");
+        yes(signer.verify("hello", signature));
+        no(signer.verify("hello!", signature));
+        no(signer.verify("hello", signature.substring(1)));
+        no(signer.verify("hello", null));
+    }
+
+    @Test
+    public void testSignerIsThreadSafe() throws Exception {
+        final Crypto.Signer signer = Crypto.signer(KEY);
+        final String expected = Crypto.sign("message", KEY);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        for (int j = 0; j < 500; ++j) {
+                            if (!expected.equals(signer.sign("message"))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                yes(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testAES() {
+        byte[] key = "my-secret".getBytes(Charsets.UTF_8);
+        String value = "Hello, \u4e16\u754c";
+        String encrypted = Crypto.encryptAES(value, key);
+        // random IV
+        no(encrypted.equals(Crypto.encryptAES(value, key)));
+        eq(value, Crypto.decryptAES(encrypted, key));
+        Crypto.AES aes = Crypto.aes(key);
+        eq(value, aes.decrypt(encrypted));
+        eq(value, Crypto.decryptAES(aes.encrypt(value), key));
+        byte[] bytes = {1, 2, 3};
+        yes(Arrays.equals(bytes, aes.decrypt(aes.encrypt(bytes))));
+        isNull(aes.encrypt((String) null));
+    }
+
+    @Test
+    public void testAESWithSalt() {
+        byte[] key = "my-secret".getBytes(Charsets.UTF_8);
+        byte[] salt = "salt".getBytes(Charsets.UTF_8);
+        String value = "Hello";
+        String encrypted = Crypto.encryptAES(value, key, salt);
+        eq(encrypted, Crypto.aes(key, salt).encrypt(value));
+        eq(value, Crypto.decryptAES(encrypted, key, salt));
+        eq(value, Crypto.aes(key, salt).decrypt(encrypted));
+    }
+
+    @Test
+    public void testDecryptValuesEncryptedByPreviousVersion() {
+        byte[] key = "my-secret".getBytes(Charsets.UTF_8);
+        byte[] salt = "salt".getBytes(Charsets.UTF_8);
+        eq("38B4BE7253EEAACDC0BF9FCE6AD6AA4D", Crypto.encryptAES("Hello, world", key, salt));
+        eq("Hello, world", Crypto.decryptAES("38B4BE7253EEAACDC0BF9FCE6AD6AA4D", key, salt));
+        eq("Hello, world", Crypto.decryptAES("A52CCB57624C30AB38ADA6F116077F6271291E75E2D0A8FA5BAEC65E20D82B4B", key));
+    }
+
+    @Test(expected = UnexpectedException.class)
+    public void testDecryptWithWrongKey() {
+        byte[] salt = "salt".getBytes(Charsets.UTF_8);
+        String encrypted = Crypto.encryptAES("Hello", "key1".getBytes(Charsets.UTF_8), salt);
+        Crypto.decryptAES(encrypted, "key2".getBytes(Charsets.UTF_8), salt);
+    }
     @Test
     public void testGenRandomDigits() {
         for (int i = 1; i < 100; ++i) {
@@ -25,13 +25,21 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
+import org.osgl.$;
 import org.osgl.TestBase;
+import org.osgl.exception.UnsupportedException;
 
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.IOException;
-import java.io.StringReader;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Test {@link IO} utilities
@@ -89,6 +97,217 @@ public class IOTest extends TestBase {
             eq(ba, ba0);
         }
 
+        @Test
+        public void testTransferFileIntoFile() throws IOException {
+            File source = File.createTempFile("osgl", ".tmp");
+            File target = File.createTempFile("osgl", ".tmp");
+            byte[] ba = new byte[1024 * 300];
+            new Random().nextBytes(ba);
+            IO.write(ba, source);
+            final AtomicLong progress = new AtomicLong();
+            long n = IO.write(source).progress(new IO.ProgressListener() {
+                @Override
+                public void onProgress(long transferred, long elapsedMillis) {
+                    yes(transferred > progress.get());
+                    progress.set(transferred);
+                }
+            }).to(target);
+            eq((long) ba.length, n);
+            eq((long) ba.length, progress.get());
+            eq(ba, IO.read(target).toByteArray());
+            source.delete();
+            target.delete();
+        }
+
+        @Test
+        public void testWriteInputStreamIntoFileOutputStream() throws IOException {
+            File target = File.createTempFile("osgl", ".tmp");
+            byte[] ba = new byte[1024 * 100 + 7];
+            new Random().nextBytes(ba);
+            eq((long) ba.length, IO.copy(new ByteArrayInputStream(ba), new FileOutputStream(target)));
+            eq(ba, IO.read(target).toByteArray());
+            target.delete();
+        }
+
+        @Test
+        public void testDirectBufferPoolMissFallsBackToHeap() {
+            int poolSize = Math.max(2, Runtime.getRuntime().availableProcessors());
+            List<ByteBuffer> buffers = new ArrayList<>();
+            int direct = 0;
+            for (int i = 0; i < poolSize * 2 + 1; ++i) {
+                ByteBuffer buf = IO.acquireDirectBuf();
+                if (buf.isDirect()) {
+                    direct++;
+                }
+                buffers.add(buf);
+            }
+            yes(direct <= poolSize);
+            no(buffers.get(buffers.size() - 1).isDirect());
+            for (ByteBuffer buf : buffers) {
+                IO.releaseDirectBuf(buf);
+            }
+            ByteBuffer reused = IO.acquireDirectBuf();
+            try {
+                yes(reused.isDirect());
+            } finally {
+                IO.releaseDirectBuf(reused);
+            }
+        }
+
+        @Test
+        public void testConcurrentAndNestedCopy() throws Exception {
+            final byte[] ba = new byte[1024 * 200 + 3];
+            new Random().nextBytes(ba);
+            // each read copies another stream, so copies nest on the same thread
+            final InputStream nesting = new FilterInputStream(new ByteArrayInputStream(ba)) {
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    ByteArrayOutputStream inner = new ByteArrayOutputStream();
+                    IO.copy(new ByteArrayInputStream(ba, 0, 100), inner);
+                    eq(100, inner.size());
+                    return super.read(b, off, len);
+                }
+            };
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            IO.copy(nesting, baos);
+            eq(ba, baos.toByteArray());
+            int threads = Runtime.getRuntime().availableProcessors() * 2 + 4;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<byte[]>> results = new ArrayList<>();
+                for (int i = 0; i < threads * 2; ++i) {
+                    final boolean channel = i % 2 == 0;
+                    results.add(executor.submit(new Callable<byte[]>() {
+                        @Override
+                        public byte[] call() {
+                            ByteArrayOutputStream out = new ByteArrayOutputStream();
+                            if (channel) {
+                                IO.write(new ByteArrayInputStream(ba)).to(Channels.newChannel(out));
+                            } else {
+                                IO.copy(new ByteArrayInputStream(ba), out);
+                            }
+                            return out.toByteArray();
+                        }
+                    }));
+                }
+                for (Future<byte[]> result : results) {
+                    eq(ba, result.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        public void testWriteIntoChannel() {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            eq((long) content.length(), IO.write(content).to(Channels.newChannel(baos)));
+            eq(content, new String(baos.toByteArray()));
+            byte[] ba = new byte[1024 * 100];
+            new Random().nextBytes(ba);
+            baos = new ByteArrayOutputStream();
+            eq((long) ba.length, IO.write(ba).to(Channels.newChannel(baos)));
+            eq(ba, baos.toByteArray());
+        }
+
+        @Test
+        public void testWriteAndReadTransformed() throws IOException {
+            byte[] ba = new byte[1024 * 100];
+            new Random().nextBytes(ba);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            eq((long) ba.length, IO.write(ba).transform(gzip()).transform(xor(7)).to(baos));
+            byte[] transformed = baos.toByteArray();
+            eq(ba, IO.readContent(new GZIPInputStream(new ByteArrayInputStream(xor(transformed, 7)))));
+            eq(ba, IO.read(transformed).transform(unxor(7)).transform(gunzip()).toByteArray());
+        }
+
+        @Test
+        public void testWriteTransformedIntoFile() throws IOException {
+            File target = File.createTempFile("osgl", ".tmp");
+            // the source bytes are counted, not the compressed bytes in the file
+            eq((long) content.length(), IO.write(content).transform(gzip()).to(target));
+            eq(content, IO.read(target).transform(gunzip()).toString());
+            target.delete();
+        }
+
+        @Test
+        public void testTransformDoesNotCloseSink() {
+            final AtomicBoolean closed = new AtomicBoolean();
+            ByteArrayOutputStream baos = new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    closed.set(true);
+                }
+            };
+            IO.write(content).transform(gzip()).to(baos);
+            no(closed.get());
+            eq(content, IO.read(baos.toByteArray()).transform(gunzip()).toString());
+            IO.write(content).transform(gzip()).ensureCloseSink().to(baos);
+            yes(closed.get());
+        }
+
+        @Test(expected = UnsupportedException.class)
+        public void testTransformedCannotWriteToWriter() {
+            IO.write(content).transform(gzip()).to(new StringWriter());
+        }
+
+        private static $.Function<OutputStream, OutputStream> gzip() {
+            return new $.Function<OutputStream, OutputStream>() {
+                @Override
+                public OutputStream apply(OutputStream os) {
+                    try {
+                        return new GZIPOutputStream(os);
+                    } catch (IOException e) {
+                        throw E.ioException(e);
+                    }
+                }
+            };
+        }
+
+        private static $.Function<InputStream, InputStream> gunzip() {
+            return new $.Function<InputStream, InputStream>() {
+                @Override
+                public InputStream apply(InputStream is) {
+                    try {
+                        return new GZIPInputStream(is);
+                    } catch (IOException e) {
+                        throw E.ioException(e);
+                    }
+                }
+            };
+        }
+
+        private static $.Function<OutputStream, OutputStream> xor(final int mask) {
+            return new $.Function<OutputStream, OutputStream>() {
+                @Override
+                public OutputStream apply(OutputStream os) {
+                    return new FilterOutputStream(os) {
+                        @Override
+                        public void write(int b) throws IOException {
+                            out.write(b ^ mask);
+                        }
+                    };
+                }
+            };
+        }
+
+        private static $.Function<InputStream, InputStream> unxor(final int mask) {
+            return new $.Function<InputStream, InputStream>() {
+                @Override
+                public InputStream apply(InputStream is) {
+                    return new ByteArrayInputStream(xor(IO.readContent(is), mask));
+                }
+            };
+        }
+
+        private static byte[] xor(byte[] ba, int mask) {
+            byte[] result = new byte[ba.length];
+            for (int i = 0; i < ba.length; ++i) {
+                result[i] = (byte) (ba[i] ^ mask);
+            }
+            return result;
+        }
+
         @Test
         public void testInputStreamAndReader() {
             final String s = "ABC";
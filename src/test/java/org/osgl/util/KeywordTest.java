@@ -118,4 +118,36 @@ public class KeywordTest extends TestBase {
         eq(Keyword.of("Lt"), Keyword.of("lt"));
     }
 
+    @Test
+    public void testInterned() {
+        same(Keyword.of("internedKeyword"), Keyword.of("internedKeyword"));
+        Keyword kw = Keyword.of(new StringBuilder("internedKeyword"));
+        eq(Keyword.of("internedKeyword"), kw);
+    }
+
+    @Test
+    public void testRenderingCached() {
+        Keyword kw = Keyword.of("renderingCached");
+        same(kw.underscore(), kw.underscore());
+        same(kw.camelCase(), kw.toString(Keyword.Style.CAMEL_CASE));
+        eq("rendering-cached", kw.dashed());
+        eq("RENDERING_CACHED", kw.constantName());
+    }
+
+    @Test
+    public void testEqMatchesParsedKeywords() {
+        String[] sa = {
+                null, "", "--", "a", "A", "id", "ID", "Id", "fooBar", "foo_bar", "FOO-BAR", "foo bar baz",
+                "fooBarBaz", "HTTPProtocol", "http-protocol", "HttpProtocol", "H1", "h-1", "GH111", "gH111",
+                "foo.bar", "foo..bar", "_foo_", "equalsTo", "equals-to", "ABc", "a-bc", "äBc", "ä-bc",
+                "Lt", "lt", "x1y2", "x-1-y-2", "CONSTANT_NAME", "constantName"
+        };
+        for (String a : sa) {
+            for (String b : sa) {
+                Keyword ka = Keyword.of(a), kb = Keyword.of(b);
+                eq(ka.equals(kb), Keyword.eq(a, b), a + " vs " + b);
+            }
+        }
+    }
+
 }
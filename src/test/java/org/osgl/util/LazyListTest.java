@@ -0,0 +1,225 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.TestBase;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LazyListTest extends TestBase {
+
+    private static class Counter<T> extends $.Predicate<T> {
+        final AtomicInteger calls = new AtomicInteger();
+        private final $.Function<T, Boolean> f;
+
+        Counter($.Function<T, Boolean> f) {
+            this.f = f;
+        }
+
+        @Override
+        public boolean test(T t) {
+            calls.incrementAndGet();
+            return f.apply(t);
+        }
+    }
+
+    private static final $.Function<Integer, Boolean> EVEN = new $.Predicate<Integer>() {
+        @Override
+        public boolean test(Integer n) {
+            return n % 2 == 0;
+        }
+    };
+
+    private static final $.Function<Integer, Integer> TIMES_TEN = new $.F1<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer n) {
+            return n * 10;
+        }
+    };
+
+    private static C.List<Integer> seq(int n) {
+        Integer[] ia = new Integer[n];
+        for (int i = 0; i < n; ++i) {
+            ia[i] = i;
+        }
+        return C.listOf(ia);
+    }
+
+    // collect the elements through the iterator only
+    private static <T> List<T> drain(Iterable<T> iterable) {
+        List<T> list = new ArrayList<>();
+        for (T t : iterable) {
+            list.add(t);
+        }
+        return list;
+    }
+
+    @Test
+    public void filterShallBeLazy() {
+        Counter<Integer> p = new Counter<>(EVEN);
+        C.List<Integer> l = seq(100).lazy().filter(p);
+        eq(0, p.calls.get());
+        yes(l instanceof FilteredList);
+        yes(l.is(C.Feature.LAZY));
+        no(l.is(C.Feature.RANDOM_ACCESS));
+        eq(C.list(0, 2, 4), l.take(3));
+    }
+
+    @Test
+    public void eagerFilterShallNotReturnView() {
+        C.List<Integer> l = seq(10).eager().filter(EVEN);
+        no(l instanceof FilteredList);
+        eq(C.list(0, 2, 4, 6, 8), l);
+    }
+
+    @Test
+    public void fusedPipelineShallShortCircuitOnTake() {
+        Counter<Integer> p = new Counter<>(new $.Predicate<Integer>() {
+            @Override
+            public boolean test(Integer n) {
+                return n % 20 == 0;
+            }
+        });
+        C.List<Integer> l = seq(1000).lazy().map(TIMES_TEN).filter(p).map(TIMES_TEN).take(3);
+        eq(0, p.calls.get());
+        eq(C.list(0, 200, 400), drain(l));
+        // 0, 10, 20, 30, 40 were tested, nothing after the third match
+        eq(5, p.calls.get());
+    }
+
+    @Test
+    public void findOneShallShortCircuit() {
+        Counter<Integer> p = new Counter<>(EVEN);
+        C.List<Integer> l = seq(1000).lazy().filter(p);
+        $.Option<Integer> found = l.findOne(new $.Predicate<Integer>() {
+            @Override
+            public boolean test(Integer n) {
+                return n > 6;
+            }
+        });
+        eq(8, found.get());
+        eq(9, p.calls.get());
+        yes(l.anyMatch($.F.eq(0)));
+        eq(10, p.calls.get());
+    }
+
+    @Test
+    public void flatMapShallBeLazy() {
+        final AtomicInteger calls = new AtomicInteger();
+        C.List<Integer> l = seq(100).lazy().flatMap(new $.F1<Integer, Iterable<Integer>>() {
+            @Override
+            public Iterable<Integer> apply(Integer n) {
+                calls.incrementAndGet();
+                return C.list(n, n);
+            }
+        });
+        eq(0, calls.get());
+        yes(l instanceof FlatMappedList);
+        eq(C.list(0, 0, 1), drain(l.take(3)));
+        eq(2, calls.get());
+    }
+
+    @Test
+    public void randomAccessShallMaterializeOnce() {
+        Counter<Integer> p = new Counter<>(EVEN);
+        C.List<Integer> l = seq(10).lazy().filter(p);
+        eq(5, l.size());
+        eq(10, p.calls.get());
+        eq(4, l.get(2));
+        eq(8, l.last());
+        eq(10, p.calls.get());
+        eq(C.list(0, 2, 4, 6, 8), l);
+    }
+
+    @Test
+    public void iterationShallCacheViewOfImmutableList() {
+        Counter<Integer> p = new Counter<>(EVEN);
+        C.List<Integer> l = seq(10).filter(p);
+        eq(C.list(0, 2, 4, 6, 8), drain(l));
+        eq(10, p.calls.get());
+        eq(C.list(0, 2, 4, 6, 8), drain(l));
+        eq(5, l.size());
+        eq(6, l.get(3));
+        no(l.isEmpty());
+        eq(10, p.calls.get());
+    }
+
+    @Test
+    public void partialIterationShallNotCacheView() {
+        Counter<Integer> p = new Counter<>(EVEN);
+        C.List<Integer> l = seq(10).filter(p);
+        Iterator<Integer> itr = l.iterator();
+        eq(0, itr.next());
+        eq(C.list(0, 2, 4, 6, 8), drain(l));
+    }
+
+    @Test
+    public void viewOfMutableListShallReflectChanges() {
+        C.List<Integer> source = C.newList(1, 2, 3, 6).lazy();
+        C.List<Integer> l = source.filter(EVEN);
+        yes(l instanceof FilteredList);
+        eq(C.list(2, 6), drain(l));
+        source.add(4);
+        eq(C.list(2, 6, 4), drain(l));
+        eq(3, l.size());
+    }
+
+    @Test
+    public void viewShallNotDependOnBackingImplementation() {
+        C.List<Integer> small = seq(10);
+        C.List<Integer> large = small;
+        for (int i = 10; i <= PersistentVector.THRESHOLD; ++i) {
+            large = large.append(i);
+        }
+        yes(small instanceof ImmutableList);
+        yes(large instanceof PersistentVector);
+        yes(small.filter(EVEN) instanceof FilteredList);
+        yes(large.filter(EVEN) instanceof FilteredList);
+        yes(large.flatMap(new $.F1<Integer, Iterable<Integer>>() {
+            @Override
+            public Iterable<Integer> apply(Integer n) {
+                return C.list(n);
+            }
+        }) instanceof FlatMappedList);
+    }
+
+    @Test
+    public void emptyView() {
+        C.List<Integer> l = seq(10).lazy().filter($.F.eq(-1));
+        yes(l.isEmpty());
+        eq(0, l.size());
+        no(l.iterator().hasNext());
+    }
+
+    @Test
+    public void takeOnLimitedView() {
+        C.List<Integer> l = seq(100).lazy().filter(EVEN).take(10);
+        eq(C.list(0, 2, 4), drain(l.take(3)));
+        same(l, l.take(20));
+        eq(10, l.size());
+    }
+
+}
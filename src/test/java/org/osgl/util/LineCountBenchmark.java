@@ -0,0 +1,116 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgl.BenchmarkBase;
+
+import java.io.*;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compare the byte by byte line counting used before with {@link LineCounter}.
+ *
+ * The size of the synthetic file defaults to 256MB and could be changed
+ * with `-Dbenchmark.fileSize=N` (in MB), e.g. `1024` or `10240`.
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 5)
+public class LineCountBenchmark extends BenchmarkBase {
+
+    private static File file;
+    private static long expected;
+
+    @BeforeClass
+    public static void prepare() throws IOException {
+        long size = Long.getLong("benchmark.fileSize", 256) * 1024 * 1024;
+        file = File.createTempFile("line-count-", ".txt");
+        file.deleteOnExit();
+        Random r = new Random(0);
+        byte[] line = new byte[200];
+        OutputStream os = new BufferedOutputStream(new FileOutputStream(file), 1024 * 1024);
+        try {
+            long written = 0;
+            while (written < size) {
+                int len = 20 + r.nextInt(180);
+                for (int i = 0; i < len - 1; ++i) {
+                    line[i] = (byte) ('a' + r.nextInt(26));
+                }
+                line[len - 1] = '\n';
+                os.write(line, 0, len);
+                written += len;
+                expected++;
+            }
+        } finally {
+            IO.close(os);
+        }
+    }
+
+    @AfterClass
+    public static void cleanup() {
+        file.delete();
+    }
+
+    @Test
+    public void byteByByte() throws IOException {
+        InputStream is = new BufferedInputStream(new FileInputStream(file));
+        try {
+            byte[] c = new byte[1024];
+            long count = 0;
+            int n;
+            while ((n = is.read(c)) != -1) {
+                for (int i = 0; i < n; ++i) {
+                    if (c[i] == '\n') {
+                        ++count;
+                    }
+                }
+            }
+            eq(expected, count);
+        } finally {
+            IO.close(is);
+        }
+    }
+
+    @Test
+    public void swar() throws IOException {
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            eq(expected, LineCounter.count(fis.getChannel(), 0, file.length()));
+        } finally {
+            IO.close(fis);
+        }
+    }
+
+    @Test
+    public void swarParallel() throws IOException {
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            ForkJoinPool pool = UtilConfig.getParallelPool();
+            eq(expected, (long) pool.invoke(new LineCounter.CountTask(fis.getChannel(), 0, file.length(), LineCounter.PARALLEL_THRESHOLD / 4)));
+        } finally {
+            IO.close(fis);
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+public class LineCounterTest extends TestBase {
+
+    private static int naiveCount(byte[] ba, int from, int to) {
+        int n = 0;
+        for (int i = from; i < to; ++i) {
+            if (ba[i] == '\n') {
+                ++n;
+            }
+        }
+        return n;
+    }
+
+    private static byte[] randomBytes(int len, long seed) {
+        Random r = new Random(seed);
+        byte[] ba = new byte[len];
+        r.nextBytes(ba);
+        for (int i = 0; i < len; i += 1 + r.nextInt(20)) {
+            ba[i] = '\n';
+        }
+        return ba;
+    }
+
+    private static File write(byte[] ba) throws IOException {
+        File file = File.createTempFile("line-counter-", ".txt");
+        file.deleteOnExit();
+        FileOutputStream fos = new FileOutputStream(file);
+        fos.write(ba);
+        IO.close(fos);
+        return file;
+    }
+
+    @Test
+    public void testNewlinesInWord() {
+        byte[] ba = randomBytes(8 * 10000, 1);
+        ByteBuffer buf = ByteBuffer.wrap(ba).order(ByteOrder.nativeOrder());
+        for (int i = 0; i < ba.length; i += 8) {
+            eq(naiveCount(ba, i, i + 8), LineCounter.newlines(buf.getLong(i)));
+        }
+        eq(8, LineCounter.newlines(0x0A0A0A0A0A0A0A0AL));
+        eq(0, LineCounter.newlines(0x8A8A0B0B09098080L));
+    }
+
+    @Test
+    public void testCount() throws IOException {
+        for (int len : new int[]{0, 1, 7, 8, 9, 1000, LineCounter.BUF_SIZE + 13}) {
+            byte[] ba = randomBytes(len, len);
+            eq((long) naiveCount(ba, 0, len), LineCounter.count(write(ba)));
+        }
+    }
+
+    @Test
+    public void testCachedCountRefreshedOnChange() throws IOException {
+        File file = write("a\nb\n".getBytes());
+        eq(2L, LineCounter.count(file));
+        eq(2L, LineCounter.count(file));
+        FileOutputStream fos = new FileOutputStream(file, true);
+        fos.write("c\n".getBytes());
+        IO.close(fos);
+        eq(3L, LineCounter.count(file));
+    }
+
+    @Test
+    public void testBufferPoolIsBounded() {
+        ByteBuffer buf = LineCounter.acquireBuffer();
+        yes(buf.isDirect());
+        buf.position(10);
+        LineCounter.releaseBuffer(buf);
+        int n = Runtime.getRuntime().availableProcessors() * 2 + 4;
+        Set<ByteBuffer> acquired = Collections.newSetFromMap(new IdentityHashMap<ByteBuffer, Boolean>());
+        for (int i = 0; i < n; ++i) {
+            acquired.add(LineCounter.acquireBuffer());
+        }
+        // the released buffer is reused
+        yes(acquired.contains(buf));
+        eq(0, buf.position());
+        for (ByteBuffer b : acquired) {
+            LineCounter.releaseBuffer(b);
+        }
+        // buffers released beyond the capacity are dropped
+        int reused = 0;
+        for (int i = 0; i < n; ++i) {
+            if (acquired.contains(LineCounter.acquireBuffer())) {
+                reused++;
+            }
+        }
+        yes(reused > 0);
+        yes(reused < n);
+    }
+
+    @Test
+    public void testParallelCount() throws IOException {
+        byte[] ba = randomBytes(100000, 3);
+        File file = write(ba);
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            long count = new ForkJoinPool(4).invoke(new LineCounter.CountTask(fis.getChannel(), 0, ba.length, 1001));
+            eq((long) naiveCount(ba, 0, ba.length), count);
+        } finally {
+            IO.close(fis);
+        }
+    }
+
+}
@@ -240,4 +240,15 @@ public class ListBuilderTest extends UtilTestBase {
         eq(2, set.size());
     }
 
+    @Test
+    public void testMerge() {
+        lb.append(1, 2);
+        ListBuilder<Integer> lb2 = ListBuilder.create();
+        lb2.append(3, 4);
+        same(lb, lb.merge(lb2));
+        eq(seqOf(1, 2, 3, 4), lb);
+        same(lb, lb.merge(ListBuilder.<Integer>create()));
+        eq(4, lb.size());
+    }
+
 }
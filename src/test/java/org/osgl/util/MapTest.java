@@ -24,6 +24,7 @@ import org.junit.Test;
 import org.osgl.TestBase;
 
 import java.io.*;
+import java.util.HashMap;
 import java.util.Map;
 
 public class MapTest extends TestBase {
@@ -39,4 +40,54 @@ public class MapTest extends TestBase {
         Map map2 = (Map)ois.readObject();
         eq(map, map2);
     }
+
+    @Test
+    public void testReadOnlyMapBuilder() {
+        C.Map<String, Integer> map = C.Map("foo", 1);
+        C.Map<String, Integer> map2 = map.map("bar").to(2);
+        eq(1, map.size());
+        eq(C.Map("foo", 1, "bar", 2), map2);
+        yes(map2.isReadOnly());
+        C.Map<String, Integer> map3 = map2.without("foo");
+        eq(C.Map("bar", 2), map3);
+        same(map3, map3.without("foo"));
+        eq(2, map2.size());
+    }
+
+    @Test
+    public void testWritableMapWith() {
+        C.Map<String, Integer> map = C.newMap("foo", 1);
+        C.Map<String, Integer> map2 = map.with("bar", 2);
+        eq(1, map.size());
+        no(map2.isReadOnly());
+        eq(C.newMap("foo", 1, "bar", 2), map2);
+    }
+
+    @Test
+    public void testReadOnlyMapWithMap() {
+        Map<String, Integer> jdkMap = new HashMap<>();
+        jdkMap.put("bar", 2);
+        jdkMap.put("foo", 3);
+        C.Map<String, Integer> map = C.<String, Integer>Map("foo", 1).with(jdkMap);
+        eq(C.Map("foo", 3, "bar", 2), map);
+        eq(jdkMap, map);
+        eq(jdkMap.hashCode(), map.hashCode());
+    }
+
+    @Test
+    public void testSerializeGrownMap() throws Exception {
+        C.Map<Integer, String> map = C.Map();
+        for (int i = 0; i < 1000; ++i) {
+            map = map.map(i).to(S.string(i));
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(map);
+
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        C.Map<Integer, String> map2 = (C.Map<Integer, String>) ois.readObject();
+        eq(map, map2);
+        yes(map2.isReadOnly());
+        eq("999", map2.get(999));
+    }
 }
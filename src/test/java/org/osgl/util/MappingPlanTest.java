@@ -0,0 +1,136 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.OsglConfig;
+import org.osgl.TestBase;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+
+public class MappingPlanTest extends TestBase {
+
+    static class Foo {
+        String name;
+        int age;
+        String secret;
+    }
+
+    static class Bar {
+        String name;
+        int age;
+        String secret;
+    }
+
+    private static MappingPlan.Scope scope(String filterSpec) {
+        return MappingPlan.scope(DataMapper.Semantic.DEEP_COPY, DataMapper.MappingRule.STRICT_MATCHING, filterSpec, C.<String, String>Map());
+    }
+
+    private static MappingPlan plan(MappingPlan.Scope scope, $.Predicate<String> filter) {
+        return scope.plan(Foo.class, Bar.class, Object.class, "", DataMapper.MappingRule.STRICT_MATCHING, filter, C.<String, String>Map());
+    }
+
+    @Test
+    public void planShallBeReused() {
+        MappingPlan.Scope scope = scope("");
+        same(scope, scope(null));
+        same(plan(scope, $.F.<String>yes()), plan(scope, $.F.<String>yes()));
+        eq(3, plan(scope, $.F.<String>yes()).properties.length);
+    }
+
+    @Test
+    public void planShallNotPinTargetClass() throws Exception {
+        MappingPlan.Scope scope = scope("");
+        // $.fieldsOf caches fields by class name, keep the isolated Bar out of it
+        OsglConfig.internalCache().evict(Bar.class.getName());
+        WeakReference<Class<?>> ref;
+        try {
+            ref = planForIsolatedBar(scope);
+        } finally {
+            OsglConfig.internalCache().evict(Bar.class.getName());
+        }
+        for (int i = 0; i < 50 && null != ref.get(); ++i) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        isNull(ref.get());
+    }
+
+    // plans Foo to a copy of Bar defined by a throwaway class loader
+    private static WeakReference<Class<?>> planForIsolatedBar(MappingPlan.Scope scope) throws Exception {
+        final String name = Bar.class.getName();
+        final byte[] bytes = IO.readContent(Bar.class.getResourceAsStream("MappingPlanTest$Bar.class"));
+        ClassLoader loader = new ClassLoader(MappingPlanTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+                if (name.equals(className)) {
+                    synchronized (getClassLoadingLock(className)) {
+                        Class<?> c = findLoadedClass(className);
+                        return null != c ? c : defineClass(className, bytes, 0, bytes.length);
+                    }
+                }
+                return super.loadClass(className, resolve);
+            }
+        };
+        Class<?> isolated = loader.loadClass(name);
+        notSame(Bar.class, isolated);
+        MappingPlan plan = scope.plan(Foo.class, isolated, Object.class, "", DataMapper.MappingRule.STRICT_MATCHING, $.F.<String>yes(), C.<String, String>Map());
+        eq(3, plan.properties.length);
+        same(plan, scope.plan(Foo.class, isolated, Object.class, "", DataMapper.MappingRule.STRICT_MATCHING, $.F.<String>yes(), C.<String, String>Map()));
+        return new WeakReference<Class<?>>(isolated);
+    }
+
+    @Test
+    public void planShallApplyFilter() {
+        MappingPlan plan = plan(scope("-secret"), new $.Predicate<String>() {
+            @Override
+            public boolean test(String s) {
+                return !"secret".equals(s);
+            }
+        });
+        eq(2, plan.properties.length);
+        for (MappingPlan.Property property : plan.properties) {
+            yes(property.hasSource());
+            no("secret".equals(property.name));
+        }
+    }
+
+    @Test
+    public void mappingShallHonorFilterWithCachedPlans() {
+        Foo foo = new Foo();
+        foo.name = "foo";
+        foo.age = 10;
+        foo.secret = "xyz";
+        for (int i = 0; i < 3; ++i) {
+            Bar bar = $.deepCopy(foo).filter("-secret").to(Bar.class);
+            eq("foo", bar.name);
+            eq(10, bar.age);
+            isNull(bar.secret);
+            bar = $.deepCopy(foo).to(Bar.class);
+            eq("xyz", bar.secret);
+            Map<String, Object> map = $.deepCopy(foo).filter("-age").to(Map.class);
+            no(map.containsKey("age"));
+        }
+    }
+
+}
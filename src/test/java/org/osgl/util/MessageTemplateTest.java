@@ -0,0 +1,134 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+
+import java.math.BigInteger;
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.IllegalFormatException;
+import java.util.Locale;
+
+public class MessageTemplateTest extends TestBase {
+
+    private static final Object[] ARGS = {
+            null, "foo", "", 0, -1, 255, Integer.MIN_VALUE, Long.MAX_VALUE, -1L,
+            (short) -2, (byte) -1, (byte) 17, new BigInteger("-123456789012345678901234567890"),
+            3.14, 'c', true, Integer.MAX_VALUE, new StringBuilder("sb")
+    };
+
+    private static void verifyPrintf(String tmpl, Object... args) {
+        String expected;
+        try {
+            expected = String.format(tmpl, args);
+        } catch (IllegalFormatException e) {
+            try {
+                S.fmt(tmpl, args);
+                fail("IllegalFormatException expected for " + tmpl);
+            } catch (IllegalFormatException e2) {
+                eq(e.getClass(), e2.getClass());
+            }
+            return;
+        }
+        eq(expected, S.fmt(tmpl, args));
+        // again from cache
+        eq(expected, S.fmt(tmpl, args));
+    }
+
+    private static void verifyMsgFmt(String tmpl, Object... args) {
+        String expected = MessageFormat.format(tmpl, args);
+        eq(expected, S.msgFmt(tmpl, args));
+        eq(expected, S.msgFmt(tmpl, args));
+    }
+
+    @Test
+    public void printfShallMatchStringFormat() {
+        String[] templates = {"%s", "[%s]", "%d", "a %d b", "%x", "%X", "%s-%d-%x", "100%% %s", "%s%n", "%5s", "%-3d|",
+                "%1$s %1$s", "%.2f", "%c", "%b", "%"};
+        for (String tmpl : templates) {
+            for (Object arg : ARGS) {
+                verifyPrintf(tmpl, arg);
+                verifyPrintf(tmpl, arg, arg, arg);
+            }
+        }
+    }
+
+    @Test
+    public void printfMissingArgument() {
+        verifyPrintf("%s and %s", "one");
+    }
+
+    @Test
+    public void printfFormattable() {
+        Formattable f = new Formattable() {
+            @Override
+            public void formatTo(Formatter formatter, int flags, int width, int precision) {
+                formatter.format("formatted");
+            }
+
+            @Override
+            public String toString() {
+                return "plain";
+            }
+        };
+        verifyPrintf("%s", f);
+    }
+
+    @Test
+    public void printfLocalizedDigits() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            Locale.setDefault(Locale.Category.FORMAT, new Locale("ar", "SA"));
+            verifyPrintf("%d items", 12345);
+            verifyPrintf("%x items", 12345);
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+        }
+    }
+
+    @Test
+    public void msgFmtShallMatchMessageFormat() {
+        String[] templates = {"{0}", "[{0}] {1}", "{1}{0}", "{2}", "'{0}'", "it''s {0}", "{0,number,#}", "{ 0 }",
+                "{0} }", "{", "{a}"};
+        for (String tmpl : templates) {
+            for (Object arg : ARGS) {
+                try {
+                    MessageFormat.format(tmpl, arg, arg);
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                verifyMsgFmt(tmpl, arg, arg);
+            }
+        }
+        verifyMsgFmt("{0} at {1}", "x", new Date(0));
+    }
+
+    @Test
+    public void templateShallBeCached() {
+        same(MessageTemplate.printf("cached %s"), MessageTemplate.printf("cached %s"));
+        same(MessageTemplate.msgFmt("cached {0}"), MessageTemplate.msgFmt("cached {0}"));
+    }
+
+}
@@ -0,0 +1,217 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.TestBase;
+import org.osgl.exception.NotAppliedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ParallelListOpsTest extends TestBase {
+
+    private static final int SIZE = 1000;
+
+    private int threshold;
+
+    private Integer[] data;
+
+    @Before
+    public void prepare() {
+        threshold = UtilConfig.getParallelThreshold();
+        UtilConfig.setParallelThreshold(16);
+        data = new Integer[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            data[i] = i;
+        }
+    }
+
+    @After
+    public void restore() {
+        UtilConfig.setParallelThreshold(threshold);
+    }
+
+    @Test
+    public void testImmutableListIsNotParallelByDefault() {
+        no(C.listOf(data).is(C.Feature.PARALLEL));
+    }
+
+    @Test
+    public void testMapKeepsOrder() {
+        C.List<Integer> expected = C.listOf(data).map(DOUBLE);
+        eq(expected, C.listOf(data).eager().parallel().map(DOUBLE));
+        C.List<Integer> mutable = C.newListOf(data).parallel().map(DOUBLE);
+        eq(expected, mutable);
+        no(mutable.is(C.Feature.READONLY));
+    }
+
+    @Test
+    public void testMapRunsInParallel() {
+        final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        UtilConfig.setParallelPool(new java.util.concurrent.ForkJoinPool(4));
+        try {
+            C.newListOf(data).parallel().map(new $.Transformer<Integer, Integer>() {
+                @Override
+                public Integer transform(Integer i) {
+                    threads.add(Thread.currentThread());
+                    return i;
+                }
+            });
+        } finally {
+            UtilConfig.setParallelPool(null);
+        }
+        no(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testMapSkipsNotApplied() {
+        C.List<Integer> list = C.newListOf(data).parallel().map(new $.Transformer<Integer, Integer>() {
+            @Override
+            public Integer transform(Integer i) {
+                if (i % 2 == 0) {
+                    throw new NotAppliedException();
+                }
+                return i;
+            }
+        });
+        eq(SIZE / 2, list.size());
+        eq(1, list.get(0));
+        eq(SIZE - 1, list.get(list.size() - 1));
+    }
+
+    @Test
+    public void testFilter() {
+        C.List<Integer> expected = C.listOf(data).filter(EVEN);
+        eq(expected, C.listOf(data).parallel().filter(EVEN));
+        eq(expected, C.newListOf(data).parallel().filter(EVEN));
+    }
+
+    @Test
+    public void testFlatMap() {
+        $.Transformer<Integer, List<Integer>> dup = new $.Transformer<Integer, List<Integer>>() {
+            @Override
+            public List<Integer> transform(Integer i) {
+                List<Integer> list = new ArrayList<>();
+                list.add(i);
+                list.add(i);
+                return list;
+            }
+        };
+        C.List<Integer> expected = C.listOf(data).flatMap(dup);
+        eq(expected, C.listOf(data).parallel().flatMap(dup));
+        eq(expected, C.newListOf(data).parallel().flatMap(dup));
+    }
+
+    @Test
+    public void testReduce() {
+        int expected = SIZE * (SIZE - 1) / 2;
+        eq(expected, C.newListOf(data).parallel().reduce(SUM).get());
+        eq(expected, C.Array.of(data).parallel().reduce(SUM).get());
+    }
+
+    @Test
+    public void testFindAndMatch() {
+        C.List<Integer> list = C.newListOf(data).parallel();
+        eq(SIZE - 1, list.findOne(new $.Predicate<Integer>() {
+            @Override
+            public boolean test(Integer i) {
+                return i == SIZE - 1;
+            }
+        }).get());
+        no(list.findOne(new $.Predicate<Integer>() {
+            @Override
+            public boolean test(Integer i) {
+                return i < 0;
+            }
+        }).isDefined());
+        yes(list.anyMatch(EVEN));
+        no(list.allMatch(EVEN));
+        yes(list.noneMatch($.F.isNull()));
+        yes(C.Array.of(data).parallel().findOne(EVEN).isDefined());
+    }
+
+    @Test
+    public void testFindFirstKeepsOrder() {
+        // the first chunk is slow, so an unordered search would report a later match
+        $.Predicate<Integer> slowHead = new $.Predicate<Integer>() {
+            @Override
+            public boolean test(Integer i) {
+                if (i < 16) {
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return i % 16 == 8;
+            }
+        };
+        UtilConfig.setParallelPool(new java.util.concurrent.ForkJoinPool(4));
+        try {
+            eq(8, C.Array.of(data).parallel().findFirst(slowHead).get());
+            eq(8, C.newListOf(data).parallel().findFirst(slowHead).get());
+        } finally {
+            UtilConfig.setParallelPool(null);
+        }
+    }
+
+    @Test
+    public void testSorted() {
+        Integer[] shuffled = data.clone();
+        Collections.shuffle(Arrays.asList(shuffled), new Random(20));
+        C.List<Integer> expected = C.listOf(data);
+        eq(expected, C.newListOf(shuffled).parallel().sorted());
+        C.List<Integer> reversed = C.newListOf(shuffled).parallel().sorted($.F.REVERSE_ORDER);
+        eq(expected.reverse(), reversed);
+        yes(reversed.is(C.Feature.SORTED));
+        no(reversed.is(C.Feature.READONLY));
+    }
+
+    private static final $.Transformer<Integer, Integer> DOUBLE = new $.Transformer<Integer, Integer>() {
+        @Override
+        public Integer transform(Integer i) {
+            return i * 2;
+        }
+    };
+
+    private static final $.Predicate<Integer> EVEN = new $.Predicate<Integer>() {
+        @Override
+        public boolean test(Integer i) {
+            return i % 2 == 0;
+        }
+    };
+
+    private static final $.Func2<Integer, Integer, Integer> SUM = new $.Func2<Integer, Integer, Integer>() {
+        @Override
+        public Integer apply(Integer a, Integer b) {
+            return a + b;
+        }
+    };
+}
@@ -0,0 +1,207 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+import org.osgl.exception.UnsupportedException;
+
+import java.util.*;
+
+public class PersistentHashMapTest extends TestBase {
+
+    /**
+     * A key with a controllable hash code, used to force collisions.
+     */
+    private static class Key {
+        final int id;
+        final int hash;
+
+        Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).id == id;
+        }
+
+        @Override
+        public String toString() {
+            return "Key(" + id + ")";
+        }
+    }
+
+    private static void verify(Map<Key, Integer> expected, PersistentHashMap<Key, Integer> actual) {
+        eq(expected.size(), actual.size());
+        for (Map.Entry<Key, Integer> entry : expected.entrySet()) {
+            yes(actual.containsKey(entry.getKey()));
+            eq(entry.getValue(), actual.get(entry.getKey()));
+        }
+        eq(expected, new HashMap<>(actual));
+        eq(expected.hashCode(), actual.hashCode());
+        eq(expected, actual);
+    }
+
+    @Test
+    public void testRandomPutAndRemove() {
+        Random r = new Random(20181018);
+        Map<Key, Integer> model = new HashMap<>();
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 20000; ++i) {
+            int id = r.nextInt(3000);
+            // a small hash range forces deep paths and collision nodes
+            Key key = new Key(id, id % 3 == 0 ? id % 7 : id * 31);
+            if (r.nextInt(3) == 0) {
+                model.remove(key);
+                map = map.minus(key);
+            } else {
+                model.put(key, i);
+                map = map.plus(key, i);
+            }
+        }
+        verify(model, map);
+        for (Key key : new ArrayList<>(model.keySet())) {
+            model.remove(key);
+            map = map.minus(key);
+        }
+        yes(map.isEmpty());
+        no(map.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testStructureSharing() {
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 100; ++i) {
+            map = map.plus(new Key(i, i), i);
+        }
+        PersistentHashMap<Key, Integer> map2 = map.plus(new Key(100, 100), 100).minus(new Key(0, 0));
+        eq(100, map.size());
+        eq(100, map2.size());
+        eq(0, map.get(new Key(0, 0)));
+        isNull(map2.get(new Key(0, 0)));
+        eq(100, map2.get(new Key(100, 100)));
+        same(map, map.plus(new Key(1, 1), 1));
+        same(map, map.minus(new Key(1000, 1000)));
+    }
+
+    @Test
+    public void testTransient() {
+        PersistentHashMap<Key, Integer> base = PersistentHashMap.empty();
+        base = base.plus(new Key(0, 0), 0);
+        PersistentHashMap.Transient<Key, Integer> t = base.asTransient();
+        Map<Key, Integer> model = new HashMap<>();
+        model.put(new Key(0, 0), 0);
+        for (int i = 1; i < 5000; ++i) {
+            Key key = new Key(i, i % 100);
+            t.put(key, i);
+            model.put(key, i);
+        }
+        for (int i = 1; i < 5000; i += 3) {
+            Key key = new Key(i, i % 100);
+            t.remove(key);
+            model.remove(key);
+        }
+        eq(model.size(), t.size());
+        PersistentHashMap<Key, Integer> map = t.persistent();
+        verify(model, map);
+        // the source map must not be touched by the transient
+        eq(1, base.size());
+        eq(0, base.get(new Key(0, 0)));
+    }
+
+    @Test
+    public void testRemoveLeavesSingleDeepEntry() {
+        // the hashes share their low 5 and 10 bits, so the entries sit two levels below the root
+        int[][] pairs = {{0x20, 0}, {0x800, 0}, {0x800 | 7, 7}, {0x8000 | 0x21, 0x21}};
+        for (int[] pair : pairs) {
+            Key k0 = new Key(0, pair[0]), k1 = new Key(1, pair[1]);
+            PersistentHashMap<Key, String> map = PersistentHashMap.<Key, String>empty().plus(k0, "a").plus(k1, "b");
+            PersistentHashMap<Key, String> removed = map.minus(k1);
+            eq(1, removed.size());
+            yes(removed.containsKey(k0));
+            eq("a", removed.get(k0));
+            eq("a", removed.plus(k1, "c").get(k0));
+            eq("c", removed.plus(k1, "c").get(k1));
+            eq(0, removed.minus(k0).size());
+
+            PersistentHashMap.Transient<Key, String> t = map.asTransient();
+            t.remove(k1);
+            yes(t.containsKey(k0));
+            PersistentHashMap<Key, String> persisted = t.persistent();
+            eq(1, persisted.size());
+            eq("a", persisted.get(k0));
+
+            // nodes created by the transient are edited in place
+            t = PersistentHashMap.<Key, String>empty().asTransient();
+            t.put(k0, "a").put(k1, "b").remove(k1);
+            yes(t.containsKey(k0));
+            eq("a", t.persistent().get(k0));
+        }
+        eq("a", C.Map(0x800, "a", 0, "b").without(0).get(0x800));
+        yes(C.setOf(0x800, 0).without(0).contains(0x800));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTransientCannotBeUsedAfterPersistent() {
+        PersistentHashMap.Transient<String, String> t = PersistentHashMap.<String, String>empty().asTransient();
+        t.persistent();
+        t.put("a", "b");
+    }
+
+    @Test
+    public void testNullKeyAndValue() {
+        PersistentHashMap<String, String> map = PersistentHashMap.empty();
+        map = map.plus(null, "x").plus("y", null);
+        eq(2, map.size());
+        eq("x", map.get(null));
+        yes(map.containsKey("y"));
+        isNull(map.get("y"));
+        eq(1, map.minus(null).size());
+    }
+
+    @Test(expected = UnsupportedException.class)
+    public void testReadOnly() {
+        PersistentHashMap.<String, String>empty().plus("a", "b").put("c", "d");
+    }
+
+    @Test
+    public void testSet() {
+        C.Set<Integer> set = C.setOf(1, 2, 3);
+        yes(set instanceof PersistentHashSet);
+        C.Set<Integer> set2 = set.with(4);
+        eq(3, set.size());
+        eq(C.setOf(1, 2, 3, 4), set2);
+        eq(C.setOf(1, 3), set.without(2));
+        eq(C.setOf(2), set.without(1, 3));
+        eq(C.setOf(2, 3), set.withIn(C.list(2, 3, 5)));
+        eq(C.setOf(5), set.onlyIn(C.list(2, 3, 5)));
+        eq(new HashSet<>(Arrays.asList(1, 2, 3)), set);
+        eq(new HashSet<>(Arrays.asList(1, 2, 3)).hashCode(), set.hashCode());
+        yes(set.without(C.list(1, 2, 3)).isEmpty());
+    }
+}
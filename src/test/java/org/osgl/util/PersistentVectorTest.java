@@ -0,0 +1,246 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.exception.UnsupportedException;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+public class PersistentVectorTest extends ListTestBase {
+
+    @Override
+    protected C.List<Integer> prepareData(int... ia) {
+        Integer[] a = new Integer[ia.length];
+        for (int i = 0; i < ia.length; ++i) {
+            a[i] = ia[i];
+        }
+        return vector(a);
+    }
+
+    @Override
+    protected C.List<Integer> prepareEmptyData() {
+        return C.list();
+    }
+
+    @Override
+    protected <T> C.List<T> prepareTypedData(T... ta) {
+        return vector(ta);
+    }
+
+    @Override
+    protected C.List<Foo> preparePojoData(Foo... fooArray) {
+        return vector(fooArray);
+    }
+
+    // build the second half from an array and prepend the first half,
+    // so that the head buffer, the trie and the tail buffer are all used
+    private static <T> C.List<T> vector(T[] a) {
+        int len = a.length;
+        if (0 == len) {
+            return C.list();
+        }
+        int mid = len / 2;
+        C.List<T> v = PersistentVector.of(Arrays.copyOfRange(a, mid, len));
+        for (int i = mid - 1; i >= 0; --i) {
+            v = v.prepend(a[i]);
+        }
+        return v;
+    }
+
+    private static C.List<Integer> range(int n) {
+        C.List<Integer> v = PersistentVector.of(new Object[]{0});
+        for (int i = 1; i < n; ++i) {
+            v = v.append(i);
+        }
+        return v;
+    }
+
+    private static void verify(List<Integer> expected, C.List<Integer> actual) {
+        eq(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            eq(expected.get(i), actual.get(i));
+        }
+        eq(expected, new ArrayList<>(actual));
+        List<Integer> reversed = new ArrayList<>(expected);
+        java.util.Collections.reverse(reversed);
+        eq(reversed, C.list(actual.reverseIterator()));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random r = new Random(20181018);
+        List<Integer> model = new ArrayList<>();
+        model.add(0);
+        C.List<Integer> v = PersistentVector.of(new Object[]{0});
+        for (int i = 1; i < 20000; ++i) {
+            int op = r.nextInt(10);
+            if (op < 4) {
+                model.add(i);
+                v = v.append(i);
+            } else if (op < 8) {
+                model.add(0, i);
+                v = v.prepend(i);
+            } else {
+                int idx = r.nextInt(model.size());
+                model.set(idx, -i);
+                v = v.update(idx, -i);
+            }
+        }
+        verify(model, v);
+    }
+
+    @Test
+    public void testStructureSharing() {
+        C.List<Integer> v = range(5000);
+        C.List<Integer> v2 = v.append(5000).prepend(-1).update(2500, 0);
+        verify(C.range(0, 5000).asList(), v);
+        eq(5002, v2.size());
+        eq(-1, v2.head());
+        eq(5000, v2.last());
+        eq(0, v2.get(2500));
+        eq(2498, v2.get(2499));
+    }
+
+    @Test
+    public void testTakeDropSubList() {
+        C.List<Integer> v = range(3000).prepend(-1);
+        List<Integer> model = new ArrayList<>(v);
+        int[][] ranges = {{0, 3001}, {1, 3001}, {0, 1}, {5, 70}, {31, 33}, {33, 1057}, {1024, 2048}, {100, 2999}, {2900, 3001}};
+        for (int[] range : ranges) {
+            int from = range[0], to = range[1];
+            C.List<Integer> sub = v.subList(from, to);
+            verify(model.subList(from, to), sub);
+            verify(model.subList(from, to), v.drop(from).take(to - from));
+            // appending on the slice must not affect the source
+            verify(Arrays.asList(model.get(to - 1), -2), sub.append(-2).tail(2));
+        }
+        verify(model.subList(2950, 3001), v.take(-51));
+        verify(model.subList(0, 2950), v.drop(-51));
+        yes(v.drop(3001).isEmpty());
+        yes(v.drop(-3001).isEmpty());
+        verify(model.subList(1, 3001), v.tail());
+        eq(model, new ArrayList<>(v));
+    }
+
+    @Test
+    public void testInsert() {
+        C.List<Integer> v = range(1000);
+        List<Integer> model = new ArrayList<>(v);
+        model.add(10, -1);
+        v = v.insert(10, -1);
+        verify(model, v);
+        model.add(900, -2);
+        v = v.insert(900, -2);
+        verify(model, v);
+        model.addAll(500, Arrays.asList(-3, -4, -5));
+        v = v.insert(500, -3, -4, -5);
+        verify(model, v);
+        model.add(0, -6);
+        v = v.insert(0, -6);
+        verify(model, v);
+        model.add(-7);
+        v = v.insert(model.size() - 1, -7);
+        verify(model, v);
+    }
+
+    @Test
+    public void testAppendAndPrependCollection() {
+        C.List<Integer> v = range(100);
+        List<Integer> model = new ArrayList<>(v);
+        model.addAll(Arrays.asList(1, 2, 3));
+        model.addAll(0, Arrays.asList(4, 5));
+        v = v.append(C.list(1, 2, 3)).prepend(C.list(4, 5));
+        verify(model, v);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testUpdateOutOfBounds() {
+        range(100).update(100, 1);
+    }
+
+    @Test
+    public void testBuildersProduceVector() {
+        C.List<Integer> small = C.list(C.range(0, PersistentVector.THRESHOLD));
+        yes(small instanceof ImmutableList);
+        C.List<Integer> large = C.list(C.range(0, PersistentVector.THRESHOLD + 1));
+        yes(large instanceof PersistentVector);
+        yes(small.append(PersistentVector.THRESHOLD) instanceof PersistentVector);
+        yes(large.take(10) instanceof ImmutableList);
+        C.List<Integer> l = C.list();
+        for (int i = 0; i < 1000; ++i) {
+            l = l.append(i);
+        }
+        yes(l instanceof PersistentVector);
+        verify(C.range(0, 1000).asList(), l);
+    }
+
+    @Test
+    public void testFeaturesMatchImmutableList() {
+        C.List<Integer> small = C.list(C.range(0, PersistentVector.THRESHOLD));
+        C.List<Integer> large = small.append(PersistentVector.THRESHOLD);
+        yes(large instanceof PersistentVector);
+        eq(small.features(), large.features());
+        yes(large.is(C.Feature.LAZY));
+        no(large.is(C.Feature.PARALLEL));
+    }
+
+    @Test
+    public void testModeCarriedOver() {
+        C.List<Integer> small = C.list(C.range(0, PersistentVector.THRESHOLD)).eager().parallel();
+        C.List<Integer> large = small.append(PersistentVector.THRESHOLD);
+        yes(large.is(C.Feature.PARALLEL));
+        no(large.is(C.Feature.LAZY));
+        C.List<Integer> derived = large.prepend(-1).update(0, -2).insert(10, 10).tail();
+        yes(derived instanceof PersistentVector);
+        yes(derived.is(C.Feature.PARALLEL));
+        no(derived.is(C.Feature.LAZY));
+        C.List<Integer> compact = large.take(10);
+        yes(compact instanceof ImmutableList);
+        yes(compact.is(C.Feature.PARALLEL));
+        no(compact.is(C.Feature.LAZY));
+    }
+
+    @Test(expected = UnsupportedException.class)
+    public void testIteratorRemove() {
+        Iterator<Integer> itr = range(100).iterator();
+        itr.next();
+        itr.remove();
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        C.List<Integer> v = range(2000).prepend(-1);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(v);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        C.List<Integer> v2 = (C.List<Integer>) ois.readObject();
+        eq(v, v2);
+        eq(v.hashCode(), v2.hashCode());
+    }
+}
@@ -0,0 +1,163 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+
+public class PrimitiveListTest extends TestBase {
+
+    private static final C.IntFunc DOUBLE_INT = new C.IntFunc() {
+        @Override
+        public int apply(int v) {
+            return v * 2;
+        }
+    };
+
+    private static final C.IntPredicate ODD_INT = new C.IntPredicate() {
+        @Override
+        public boolean test(int v) {
+            return (v & 1) == 1;
+        }
+    };
+
+    private static final C.IntFunc2 MUL_INT = new C.IntFunc2() {
+        @Override
+        public int apply(int v1, int v2) {
+            return v1 * v2;
+        }
+    };
+
+    @Test
+    public void testIntList() {
+        C.IntList list = C.intList(5, 3, 1, 4, 2);
+        eq(5, list.size());
+        eq(3, list.get(1));
+        eq(C.intList(10, 6, 2, 8, 4), list.map(DOUBLE_INT));
+        eq(C.intList(5, 3, 1), list.filter(ODD_INT));
+        eq(120, list.reduce(1, MUL_INT));
+        eq(15L, list.sum());
+        C.IntList sorted = list.sorted();
+        eq(C.intList(1, 2, 3, 4, 5), sorted);
+        same(sorted, sorted.sorted());
+        eq(2, sorted.binarySearch(3));
+        eq(-6, sorted.binarySearch(10));
+        eq(C.list(5, 3, 1, 4, 2), list.boxed());
+        eq(list, C.intList(C.list(5, 3, 1, 4, 2)));
+        eq("[5, 3, 1, 4, 2]", list.toString());
+    }
+
+    @Test
+    public void testIntListCopiesArray() {
+        int[] a = {1, 2, 3};
+        C.IntList copy = C.intList(a);
+        C.IntList view = C.intListOf(a);
+        a[0] = 10;
+        eq(1, copy.get(0));
+        eq(10, view.get(0));
+    }
+
+    @Test
+    public void testIntRange() {
+        C.IntList range = C.intRange(0, 10);
+        eq(10, range.size());
+        eq(C.intList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), range);
+        eq(range.hashCode(), C.intList(range.toArray()).hashCode());
+        eq(45L, range.sum());
+        same(range, range.sorted());
+        eq(C.intList(1, 3, 5, 7, 9), range.filter(ODD_INT));
+
+        C.IntList stepped = C.intRange(1, 10, 3);
+        eq(C.intList(1, 4, 7), stepped);
+        eq(12L, stepped.sum());
+        eq(1, stepped.binarySearch(4));
+        eq(-3, stepped.binarySearch(5));
+        eq(-1, stepped.binarySearch(0));
+        eq(-4, stepped.binarySearch(100));
+
+        C.IntList desc = C.intRange(10, 0, 4);
+        eq(C.intList(10, 6, 2), desc);
+        eq(18L, desc.sum());
+        eq(C.intList(2, 6, 10), desc.sorted());
+
+        yes(C.intRange(3, 3).isEmpty());
+        eq((long) Integer.MAX_VALUE * 2, C.intRange(Integer.MAX_VALUE, Integer.MAX_VALUE - 3, 2).sum() + 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIntRangeOutOfBounds() {
+        C.intRange(0, 10).get(10);
+    }
+
+    @Test
+    public void testLongList() {
+        C.LongList list = C.longList(3L, 1L, 2L);
+        eq(6L, list.sum());
+        eq(C.longList(1L, 2L, 3L), list.sorted());
+        eq(C.longList(6L, 2L, 4L), list.map(new C.LongFunc() {
+            @Override
+            public long apply(long v) {
+                return v * 2;
+            }
+        }));
+        eq(C.longList(3L), list.filter(new C.LongPredicate() {
+            @Override
+            public boolean test(long v) {
+                return v > 2;
+            }
+        }));
+        eq(3L, list.reduce(Long.MIN_VALUE, new C.LongFunc2() {
+            @Override
+            public long apply(long v1, long v2) {
+                return Math.max(v1, v2);
+            }
+        }));
+        eq(C.list(3L, 1L, 2L), list.boxed());
+
+        C.LongList range = C.longRange(Long.MAX_VALUE - 10, Long.MAX_VALUE, 5);
+        eq(2, range.size());
+        eq(Long.MAX_VALUE - 5, range.get(1));
+        eq(1, range.binarySearch(Long.MAX_VALUE - 5));
+        eq(C.longList(1L, 3L, 5L).sum(), C.longRange(1L, 6L, 2L).sum());
+    }
+
+    @Test
+    public void testDoubleList() {
+        C.DoubleList list = C.doubleList(0.5, 2.5, 1.0);
+        eq(4.0, list.sum());
+        eq(C.doubleList(0.5, 1.0, 2.5), list.sorted());
+        eq(1, list.sorted().binarySearch(1.0));
+        eq(C.doubleList(1.0, 5.0, 2.0), list.map(new C.DoubleFunc() {
+            @Override
+            public double apply(double v) {
+                return v * 2;
+            }
+        }));
+        eq(C.doubleList(2.5), list.filter(new C.DoublePredicate() {
+            @Override
+            public boolean test(double v) {
+                return v > 2;
+            }
+        }));
+        eq(C.list(0.5, 2.5, 1.0), list.boxed());
+        eq(C.doubleList(Double.NaN), C.doubleList(Double.NaN));
+    }
+}
@@ -22,6 +22,10 @@ package org.osgl.util;
 
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 public class STest extends UtilTestBase {
     @Test
     public void testAppend() {
@@ -377,6 +381,40 @@ public class STest extends UtilTestBase {
         eq(5, S.count("11").withOverlap().in(s));
     }
 
+    @Test
+    public void testCountLongSearch() {
+        final String s = "<!-- a --><!-- a --><!-- a -->x<!-- a -->";
+        eq(4, S.count(s, "<!-- a -->"));
+        eq(2, S.count(S.repeat("ab").times(10), "abababab", false));
+        eq(7, S.count(S.repeat("ab").times(10), "abababab", true));
+        FastStr fs = FastStr.of("--" + s + "--").substr(2);
+        eq(4, fs.count("<!-- a -->", false));
+        eq(2, FastStr.of("xxab-ab").count("ab", false));
+    }
+
+    @Test
+    public void testMultiKeywords() {
+        String text = "Dear {name}, your order {id} is {status}.";
+        yes(S.containsAny(text, "{id}", "{missing}"));
+        no(S.containsAny(text, "{missing}"));
+        no(S.containsAny((String) null, "{id}"));
+        eq(3, S.findAll(text, C.list("{name}", "{id}", "{status}")).size());
+        Map<String, String> map = new HashMap<>();
+        map.put("{name}", "Tom");
+        map.put("{id}", "#1");
+        map.put("{status}", "{name}");
+        eq("Dear Tom, your order #1 is {name}.", S.replaceAll(text, map));
+        eq("Dear Tom, your order #1 is {name}.", new String(S.replaceAll(text.toCharArray(), map)));
+        eq("Dear Tom, your order #1 is {name}.", S.replaceAll(FastStr.of("  " + text).substr(2), map).toString());
+        same(text, S.replaceAll(text, Collections.singletonMap("{x}", "y")));
+    }
+
+    @Test
+    public void testSplitByLongSeparator() {
+        eq(C.list("a", "b", "c"), S.fastSplit("a<separator>b<separator><separator>c<separator>", "<separator>"));
+        eq(C.list("a", "b"), S.split("a::long::b").by("::long::").get());
+    }
+
     @Test
     public void testReversed() {
         final String s1 = "abc";
@@ -0,0 +1,234 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+import org.osgl.exception.UnexpectedIOException;
+import org.osgl.storage.ISObject;
+import org.osgl.storage.impl.SObject;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Test {@link Crypto.StreamingAES}
+ */
+public class StreamingAESTest extends TestBase {
+
+    private static final byte[] KEY = "streaming-aes-test-key".getBytes(Charsets.UTF_8);
+    private static final int SEGMENT_SIZE = 256;
+    private static final int HEADER_SIZE = 28;
+    private static final int TAG_SIZE = 16;
+
+    private final Crypto.StreamingAES aes = Crypto.streamingAES(KEY, SEGMENT_SIZE);
+    private final Random random = new Random(42);
+
+    @Test
+    public void testRoundTripAcrossSegmentBoundaries() throws IOException {
+        int[] sizes = {0, 1, SEGMENT_SIZE - 1, SEGMENT_SIZE, SEGMENT_SIZE + 1, SEGMENT_SIZE * 3, SEGMENT_SIZE * 5 + 17};
+        for (int size : sizes) {
+            byte[] plain = randomBytes(size);
+            byte[] encrypted = encrypt(plain);
+            int segments = Math.max(1, (size + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            eq(HEADER_SIZE + size + segments * TAG_SIZE, encrypted.length, "encrypted length of %s bytes", size);
+            eq(plain, decrypt(encrypted), "round trip of %s bytes", size);
+            eq(encrypted.length, IO.readContent(aes.encrypt(new ByteArrayInputStream(plain))).length);
+            eq(plain, decrypt(IO.readContent(aes.encrypt(new ByteArrayInputStream(plain)))), "input stream round trip of %s bytes", size);
+        }
+    }
+
+    @Test
+    public void testWriteByteByByte() throws IOException {
+        byte[] plain = randomBytes(SEGMENT_SIZE * 2 + 3);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        OutputStream os = aes.encrypt(baos);
+        for (byte b : plain) {
+            os.write(b);
+        }
+        os.close();
+        InputStream is = aes.decrypt(new ByteArrayInputStream(baos.toByteArray()));
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        int b;
+        while ((b = is.read()) >= 0) {
+            result.write(b);
+        }
+        eq(plain, result.toByteArray());
+    }
+
+    @Test
+    public void testEncryptionIsRandomized() throws IOException {
+        byte[] plain = randomBytes(100);
+        notSame(Codec.byteToHexString(encrypt(plain)), Codec.byteToHexString(encrypt(plain)));
+        no(Arrays.equals(encrypt(plain), encrypt(plain)));
+    }
+
+    @Test
+    public void testDecryptStreamOfOtherSegmentSize() throws IOException {
+        byte[] plain = randomBytes(SEGMENT_SIZE * 3);
+        Crypto.StreamingAES aes2 = Crypto.streamingAES(KEY);
+        eq(plain, IO.readContent(aes2.decrypt(new ByteArrayInputStream(encrypt(plain)))));
+    }
+
+    @Test(expected = UnexpectedIOException.class)
+    public void testWrongKey() {
+        byte[] encrypted = encrypt(randomBytes(10));
+        IO.copy(Crypto.streamingAES("another key".getBytes()).decrypt(new ByteArrayInputStream(encrypted)),
+                new ByteArrayOutputStream(), false);
+    }
+
+    @Test
+    public void testTamperDetected() throws IOException {
+        byte[] encrypted = encrypt(randomBytes(SEGMENT_SIZE * 2 + 10));
+        int[] positions = {0, 1, 5, HEADER_SIZE - 1, HEADER_SIZE, HEADER_SIZE + SEGMENT_SIZE + 3, encrypted.length - 1};
+        for (int pos : positions) {
+            byte[] tampered = encrypted.clone();
+            tampered[pos] ^= 1;
+            yes(fails(tampered), "tampered byte at %s", pos);
+        }
+    }
+
+    @Test
+    public void testTruncationDetected() throws IOException {
+        byte[] encrypted = encrypt(randomBytes(SEGMENT_SIZE * 2 + 10));
+        int segment = SEGMENT_SIZE + TAG_SIZE;
+        int[] lengths = {0, 10, HEADER_SIZE, HEADER_SIZE + segment, HEADER_SIZE + segment * 2, encrypted.length - 1};
+        for (int len : lengths) {
+            yes(fails(Arrays.copyOf(encrypted, len)), "truncated to %s bytes", len);
+        }
+    }
+
+    @Test
+    public void testSegmentReorderDetected() throws IOException {
+        byte[] encrypted = encrypt(randomBytes(SEGMENT_SIZE * 3));
+        int segment = SEGMENT_SIZE + TAG_SIZE;
+        byte[] swapped = encrypted.clone();
+        System.arraycopy(encrypted, HEADER_SIZE, swapped, HEADER_SIZE + segment, segment);
+        System.arraycopy(encrypted, HEADER_SIZE + segment, swapped, HEADER_SIZE, segment);
+        yes(fails(swapped));
+    }
+
+    @Test
+    public void testAppendDetected() throws IOException {
+        byte[] encrypted = encrypt(randomBytes(SEGMENT_SIZE));
+        byte[] appended = Arrays.copyOf(encrypted, encrypted.length + 1);
+        yes(fails(appended));
+    }
+
+    @Test
+    public void testDecryptedPrefixBeforeTamperedSegment() throws IOException {
+        byte[] plain = randomBytes(SEGMENT_SIZE * 3);
+        byte[] encrypted = encrypt(plain);
+        encrypted[encrypted.length - 1] ^= 1;
+        InputStream is = aes.decrypt(new ByteArrayInputStream(encrypted));
+        byte[] buf = new byte[SEGMENT_SIZE * 2];
+        int n = 0;
+        while (n < buf.length) {
+            n += is.read(buf, n, buf.length - n);
+        }
+        eq(Arrays.copyOf(plain, buf.length), buf);
+        try {
+            is.read();
+            fail("tampered segment shall be detected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFile() throws IOException {
+        File source = File.createTempFile("osgl", ".tmp");
+        File encrypted = File.createTempFile("osgl", ".tmp");
+        File decrypted = File.createTempFile("osgl", ".tmp");
+        byte[] plain = randomBytes(1024 * 200 + 11);
+        IO.write(plain, source);
+        Crypto.StreamingAES aes = Crypto.streamingAES(KEY);
+        eq((long) plain.length, aes.encrypt(source, encrypted));
+        eq((long) plain.length, aes.decrypt(encrypted, decrypted));
+        eq(plain, IO.read(decrypted).toByteArray());
+        source.delete();
+        encrypted.delete();
+        decrypted.delete();
+    }
+
+    @Test
+    public void testIOStageTransform() {
+        byte[] plain = randomBytes(SEGMENT_SIZE * 4 + 1);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        eq((long) plain.length, IO.write(plain).transform(aes.encryptor()).to(baos));
+        byte[] encrypted = baos.toByteArray();
+        eq(plain, IO.read(encrypted).transform(aes.decryptor()).toByteArray());
+        String s = S.random(1000);
+        baos = new ByteArrayOutputStream();
+        IO.write(s).transform(aes.encryptor()).to(baos);
+        eq(s, IO.read(baos.toByteArray()).transform(aes.decryptor()).toString());
+    }
+
+    @Test(expected = UnexpectedIOException.class)
+    public void testIOStageTamperDetected() {
+        byte[] encrypted = encrypt(randomBytes(100));
+        encrypted[HEADER_SIZE] ^= 1;
+        IO.read(encrypted).transform(aes.decryptor()).toByteArray();
+    }
+
+    @Test
+    public void testSObject() {
+        byte[] plain = randomBytes(SEGMENT_SIZE * 2 + 5);
+        ISObject sobj = SObject.of("foo", plain);
+        sobj.setAttribute(ISObject.ATTR_FILE_NAME, "foo.bin");
+        ISObject encrypted = aes.encrypt(sobj);
+        eq("foo", encrypted.getKey());
+        eq("foo.bin", encrypted.getFilename());
+        byte[] ba = encrypted.asByteArray();
+        eq(plain, aes.decrypt(SObject.of("foo", ba)).asByteArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSegmentSize() {
+        Crypto.streamingAES(KEY, 10);
+    }
+
+    private boolean fails(byte[] encrypted) {
+        try {
+            IO.copy(aes.decrypt(new ByteArrayInputStream(encrypted)), new ByteArrayOutputStream(), false);
+            return false;
+        } catch (UnexpectedIOException e) {
+            return true;
+        }
+    }
+
+    private byte[] encrypt(byte[] plain) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        IO.copy(new ByteArrayInputStream(plain), aes.encrypt(baos));
+        return baos.toByteArray();
+    }
+
+    private byte[] decrypt(byte[] encrypted) {
+        return IO.readContent(aes.decrypt(new ByteArrayInputStream(encrypted)));
+    }
+
+    private byte[] randomBytes(int len) {
+        byte[] ba = new byte[len];
+        random.nextBytes(ba);
+        return ba;
+    }
+}
@@ -0,0 +1,143 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TinyLFUCacheTest extends TestBase {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalCapacity() {
+        new TinyLFUCache<Integer, Integer>(0);
+    }
+
+    @Test
+    public void testGetSet() {
+        TinyLFUCache<String, String> cache = new TinyLFUCache<>(4);
+        isNull(cache.get("5"));
+        cache.set("1", "1");
+        eq("1", cache.get("1"));
+        cache.set("1", "2");
+        eq("2", cache.get("1"));
+    }
+
+    @Test
+    public void testMgetMset() {
+        Map<Integer, Integer> kv = new HashMap<>();
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            keys.add(i);
+            kv.put(i, i * 10);
+        }
+        keys.add(100);
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(6);
+        cache.mset(kv);
+        Map<Integer, Integer> ret = cache.mget(keys);
+        eq(kv, ret);
+    }
+
+    @Test
+    public void testIncrDecr() {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(6);
+        eq(5, cache.incr(5, 5));
+        eq(0, cache.incr(5, -5));
+        eq(-5, cache.decr(6, 5));
+        eq(0, cache.decr(6, -5));
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(6);
+        cache.set(1, 1);
+        cache.set(2, 2);
+        eq(1, cache.remove(1));
+        isNull(cache.get(1));
+        cache.clear();
+        isNull(cache.get(2));
+        eq(0, cache.size());
+    }
+
+    @Test
+    public void testSizeBound() {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(100);
+        for (int i = 0; i < 10000; ++i) {
+            cache.set(i, i);
+        }
+        eq(100, cache.size());
+    }
+
+    @Test
+    public void frequentEntriesShallSurviveScan() {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(100);
+        for (int i = 0; i < 50; ++i) {
+            cache.set(i, i);
+        }
+        for (int round = 0; round < 10; ++round) {
+            for (int i = 0; i < 50; ++i) {
+                cache.get(i);
+            }
+        }
+        cache.cleanUp();
+        for (int i = 1000; i < 5000; ++i) {
+            cache.set(i, i);
+        }
+        int hits = 0;
+        for (int i = 0; i < 50; ++i) {
+            if (null != cache.get(i)) {
+                hits++;
+            }
+        }
+        yes(hits > 40);
+    }
+
+    @Test
+    public void testConcurrentIncr() throws Exception {
+        final TinyLFUCache<String, Integer> cache = new TinyLFUCache<>(1000);
+        final AtomicInteger errors = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < 1000; ++j) {
+                            cache.incr("counter", 1);
+                            cache.get("counter");
+                        }
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        eq(0, errors.get());
+        eq(8000, cache.get("counter"));
+    }
+
+}
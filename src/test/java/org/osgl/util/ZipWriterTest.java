@@ -0,0 +1,194 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2020 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+import org.osgl.storage.ISObject;
+import org.osgl.storage.impl.SObject;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+public class ZipWriterTest extends TestBase {
+
+    private static byte[] content(int len, boolean compressible) {
+        Random r = new Random(len);
+        byte[] ba = new byte[len];
+        if (compressible) {
+            for (int i = 0; i < len; ++i) {
+                ba[i] = (byte) ('a' + r.nextInt(4));
+            }
+        } else {
+            r.nextBytes(ba);
+        }
+        return ba;
+    }
+
+    private static Map<String, byte[]> unzip(InputStream is) throws IOException {
+        Map<String, byte[]> map = new LinkedHashMap<>();
+        ZipInputStream zis = new ZipInputStream(is);
+        ZipEntry entry;
+        while (null != (entry = zis.getNextEntry())) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buf = new byte[1024];
+            int n;
+            while ((n = zis.read(buf)) > -1) {
+                baos.write(buf, 0, n);
+            }
+            map.put(entry.getName(), baos.toByteArray());
+        }
+        return map;
+    }
+
+    @Test
+    public void testParallelDeflate() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("empty.txt", new byte[0]);
+        entries.put("small.txt", "hello".getBytes());
+        entries.put("中文.txt", content(1000, true));
+        entries.put("text.txt", content(ZipWriter.BLOCK_SIZE * 3 + 17, true));
+        entries.put("random.bin", content(ZipWriter.BLOCK_SIZE * 2, false));
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        File file = File.createTempFile("osgl", ".zip");
+        try {
+            ZipWriter zip = new ZipWriter(new FileOutputStream(file), executor);
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zip.add(entry.getKey(), System.currentTimeMillis(), new ByteArrayInputStream(entry.getValue()));
+            }
+            zip.finish();
+            zip.close();
+
+            Map<String, byte[]> unzipped = unzip(new FileInputStream(file));
+            eq(entries.keySet(), unzipped.keySet());
+            for (String name : entries.keySet()) {
+                eq(entries.get(name), unzipped.get(name));
+            }
+
+            ZipFile zipFile = new ZipFile(file);
+            try {
+                eq(entries.size(), zipFile.size());
+                ZipEntry text = zipFile.getEntry("text.txt");
+                eq((long) entries.get("text.txt").length, text.getSize());
+                yes(text.getCompressedSize() < text.getSize() / 3);
+                byte[] ba = IO.read(zipFile.getInputStream(text)).toByteArray();
+                eq(entries.get("text.txt"), ba);
+            } finally {
+                zipFile.close();
+            }
+        } finally {
+            executor.shutdown();
+            file.delete();
+        }
+    }
+
+    @Test(expected = ZipException.class)
+    public void testDuplicateEntry() throws IOException {
+        ZipWriter zip = new ZipWriter(new ByteArrayOutputStream(), null);
+        zip.add("a", 0, new ByteArrayInputStream(new byte[1]));
+        zip.add("a", 0, new ByteArrayInputStream(new byte[1]));
+    }
+
+    @Test
+    public void testZipSObjects() throws IOException {
+        ISObject a = SObject.of("a", "foo", SObject.ATTR_FILE_NAME, "a.txt");
+        ISObject b = SObject.of("b", "bar", SObject.ATTR_FILE_NAME, "b.txt");
+        ISObject zip = IO.zip(a, b);
+        Map<String, byte[]> unzipped = unzip(zip.asInputStream());
+        eq(2, unzipped.size());
+        eq("foo", new String(unzipped.get("a.txt")));
+        eq("bar", new String(unzipped.get("b.txt")));
+    }
+
+    @Test
+    public void testZipToTempFile() throws IOException {
+        ISObject a = SObject.of("a", "foo", SObject.ATTR_FILE_NAME, "a.txt");
+        ISObject zip = IO.zipToTempFile(Collections.singletonList(a));
+        File file = zip.asFile();
+        try {
+            Map<String, byte[]> unzipped = unzip(zip.asInputStream());
+            eq(1, unzipped.size());
+            eq("foo", new String(unzipped.get("a.txt")));
+        } finally {
+            // the caller owns the temp file
+            yes(file.delete());
+        }
+    }
+
+    @Test
+    public void testManyEntries() throws IOException {
+        // more entries than the zip32 end of central directory could hold
+        int count = 0xFFFF + 10;
+        File file = File.createTempFile("osgl", ".zip");
+        try {
+            ZipWriter zip = new ZipWriter(new FileOutputStream(file), null);
+            for (int i = 0; i < count; ++i) {
+                zip.add("e" + i, 0, new ByteArrayInputStream(new byte[]{(byte) i}));
+            }
+            zip.finish();
+            zip.close();
+
+            ZipFile zipFile = new ZipFile(file);
+            try {
+                eq(count, zipFile.size());
+                ZipEntry last = zipFile.getEntry("e" + (count - 1));
+                eq((byte) (count - 1), IO.read(zipFile.getInputStream(last)).toByteArray()[0]);
+            } finally {
+                zipFile.close();
+            }
+            ZipInputStream zis = new ZipInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                int n = 0;
+                while (null != zis.getNextEntry()) {
+                    eq((byte) n, (byte) zis.read());
+                    n++;
+                }
+                eq(count, n);
+            } finally {
+                zis.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testZipFiles() throws IOException {
+        File a = File.createTempFile("osgl", ".txt");
+        File b = File.createTempFile("osgl", ".txt");
+        IO.write("foo", a);
+        IO.write("bar", b);
+        File zip = IO.zip(a, b);
+        Map<String, byte[]> unzipped = unzip(new FileInputStream(zip));
+        eq("foo", new String(unzipped.get(a.getName())));
+        eq("bar", new String(unzipped.get(b.getName())));
+        a.delete();
+        b.delete();
+        zip.delete();
+    }
+
+}
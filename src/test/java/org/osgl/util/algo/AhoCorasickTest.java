@@ -0,0 +1,125 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+import org.osgl.util.C;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class AhoCorasickTest extends TestBase {
+
+    // leftmost longest, non overlapping
+    private static List<AhoCorasick.Match> bruteForce(String text, String[] keywords) {
+        List<AhoCorasick.Match> list = new ArrayList<>();
+        int p = 0;
+        while (p < text.length()) {
+            int best = -1;
+            for (int k = 0; k < keywords.length; ++k) {
+                String kw = keywords[k];
+                if (!kw.isEmpty() && text.startsWith(kw, p) && (best < 0 || kw.length() > keywords[best].length())) {
+                    best = k;
+                }
+            }
+            if (best < 0) {
+                p++;
+            } else {
+                int end = p + keywords[best].length();
+                list.add(new AhoCorasick.Match(p, end, best, keywords[best]));
+                p = end;
+            }
+        }
+        return list;
+    }
+
+    private static String random(Random r, int len) {
+        char[] ca = new char[len];
+        for (int i = 0; i < len; ++i) {
+            ca[i] = (char) ('a' + r.nextInt(3));
+        }
+        return new String(ca);
+    }
+
+    @Test
+    public void fuzz() {
+        Random r = new Random(1);
+        for (int round = 0; round < 2000; ++round) {
+            String[] keywords = new String[1 + r.nextInt(6)];
+            for (int i = 0; i < keywords.length; ++i) {
+                keywords[i] = random(r, 1 + r.nextInt(4));
+            }
+            String text = random(r, r.nextInt(40));
+            AhoCorasick ac = AhoCorasick.compile(keywords);
+            List<AhoCorasick.Match> expected = bruteForce(text, keywords);
+            eq(expected, ac.findAll(text), text + " " + C.listOf(keywords));
+            eq(!expected.isEmpty(), ac.containsAny(text));
+        }
+    }
+
+    @Test
+    public void overlappingKeywords() {
+        AhoCorasick ac = AhoCorasick.compile("he", "she", "his", "hers");
+        C.List<AhoCorasick.Match> matches = ac.findAll("ushers");
+        eq(1, matches.size());
+        eq("she", matches.get(0).keyword());
+        eq(1, matches.get(0).start());
+        eq(4, matches.get(0).end());
+        eq(C.list("hers"), ac.findAll("hers").map(new org.osgl.$.Transformer<AhoCorasick.Match, String>() {
+            @Override
+            public String transform(AhoCorasick.Match match) {
+                return match.keyword();
+            }
+        }));
+    }
+
+    @Test
+    public void replaceAll() {
+        AhoCorasick ac = AhoCorasick.compile("{name}", "{n}", "&", "<");
+        String[] replacements = {"osgl", "1", "&amp;", "&lt;"};
+        eq("hi osgl & 1 &lt;", ac.replaceAll("hi {name} & {n} <", replacements).replace("&amp;", "&"));
+        eq("hi osgl &amp; 1 &lt;", ac.replaceAll("hi {name} & {n} <", replacements));
+        String text = "nothing to replace";
+        same(text, ac.replaceAll(text, replacements));
+        char[] ca = "xx{n}xx".toCharArray();
+        eq("{n}", new String(ac.replaceAll(ca, 2, 5, new String[]{"{n}", "{n}", "", ""})));
+        eq("1", new String(ac.replaceAll(ca, 2, 5, replacements)));
+    }
+
+    @Test
+    public void ignoreCase() {
+        AhoCorasick ac = AhoCorasick.compile(C.list("Select", "DROP"), true);
+        yes(ac.containsAny("please drop table"));
+        yes(ac.containsAny("SELECT 1"));
+        no(ac.containsAny("selec"));
+        eq("[?] * from t", ac.replaceAll("[sElEcT] * from t", new String[]{"?", "?"}));
+    }
+
+    @Test
+    public void emptyKeywordIgnored() {
+        AhoCorasick ac = AhoCorasick.compile("", "a");
+        eq(2, ac.findAll("aba").size());
+        no(AhoCorasick.compile("").containsAny("abc"));
+    }
+
+}
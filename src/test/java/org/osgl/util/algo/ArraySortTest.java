@@ -0,0 +1,259 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.TestBase;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+public class ArraySortTest extends TestBase {
+
+    // orders by key only, so stability can be verified with the sequence number
+    private static final class Item {
+        final int key;
+        final int seq;
+
+        Item(int key, int seq) {
+            this.key = key;
+            this.seq = seq;
+        }
+    }
+
+    private static final Comparator<Item> BY_KEY = new Comparator<Item>() {
+        @Override
+        public int compare(Item o1, Item o2) {
+            return o1.key < o2.key ? -1 : (o1.key == o2.key ? 0 : 1);
+        }
+    };
+
+    private final Random random = new Random(19);
+
+    private Item[] items(int n, int keys) {
+        Item[] a = new Item[n];
+        for (int i = 0; i < n; ++i) {
+            a[i] = new Item(random.nextInt(keys), i);
+        }
+        return a;
+    }
+
+    private static void verifyStablySorted(Item[] a, int from, int to) {
+        for (int i = from + 1; i < to; ++i) {
+            Item prev = a[i - 1], cur = a[i];
+            yes(prev.key < cur.key || (prev.key == cur.key && prev.seq < cur.seq), "not stable at " + i);
+        }
+    }
+
+    @Test
+    public void testPingPongMergeSortIsStable() {
+        ArrayPingPongMergeSort<Item> sort = Algorithms.arrayPingPongMergeSort();
+        for (int n : new int[]{0, 1, 2, 15, 16, 17, 100, 1000, 5003}) {
+            Item[] a = items(n, 1 + n / 10);
+            same(a, sort.sort(a, 0, n, BY_KEY));
+            verifyStablySorted(a, 0, n);
+        }
+    }
+
+    @Test
+    public void testPingPongMergeSortRange() {
+        ArrayPingPongMergeSort<Item> sort = Algorithms.arrayPingPongMergeSort();
+        Item[] a = items(500, 20);
+        Item[] copy = a.clone();
+        sort.sort(a, 100, 400, BY_KEY);
+        verifyStablySorted(a, 100, 400);
+        for (int i = 0; i < 100; ++i) {
+            same(copy[i], a[i]);
+            same(copy[i + 400], a[i + 400]);
+        }
+    }
+
+    @Test
+    public void testPingPongMergeSortNaturalOrder() {
+        Integer[] a = new Integer[1000];
+        for (int i = 0; i < a.length; ++i) {
+            a[i] = random.nextInt();
+        }
+        Integer[] expected = a.clone();
+        Arrays.sort(expected);
+        ArrayPingPongMergeSort<Integer> sort = Algorithms.arrayPingPongMergeSort();
+        eq(expected, sort.sort(a, 0, a.length, null));
+    }
+
+    @Test
+    public void testMergeSortIsStable() {
+        ArrayMergeSort<Item> sort = new ArrayMergeSort<>();
+        Item[] a = items(1000, 50);
+        Item[] sorted = sort.sort(a, 0, a.length, BY_KEY);
+        notSame(a, sorted);
+        verifyStablySorted(sorted, 0, sorted.length);
+        ArrayMergeSortInplace<Item> inplace = new ArrayMergeSortInplace<>();
+        same(a, inplace.sort(a, 0, a.length, BY_KEY));
+        verifyStablySorted(a, 0, a.length);
+    }
+
+    @Test
+    public void testParallelMergeSortIsStable() {
+        ArrayParallelMergeSort<Item> sort = new ArrayParallelMergeSort<>(64);
+        for (int n : new int[]{10, 64, 65, 1000, 10007}) {
+            Item[] a = items(n, 1 + n / 20);
+            same(a, sort.sort(a, 0, n, BY_KEY));
+            verifyStablySorted(a, 0, n);
+        }
+        // skewed runs make the merge split the shorter run
+        Item[] a = new Item[3000];
+        for (int i = 0; i < a.length; ++i) {
+            a[i] = new Item(i < 2500 ? i % 7 : 3, i);
+        }
+        sort.sort(a, 0, a.length, BY_KEY);
+        verifyStablySorted(a, 0, a.length);
+    }
+
+    @Test
+    public void testSmallRangeSortIsStable() {
+        ArrayInsertionSort<Item> insertion = new ArrayInsertionSort<>();
+        ArrayInsertionSortInplace<Item> insertionInplace = new ArrayInsertionSortInplace<>();
+        ArrayMergeSort<Item> merge = new ArrayMergeSort<>();
+        ArrayMergeSortInplace<Item> mergeInplace = new ArrayMergeSortInplace<>();
+        for (int n : new int[]{2, 3, 7, 8, 20, 29}) {
+            Item[] a = items(n, 2);
+            verifyStablySorted(insertion.sort(a, 0, n, BY_KEY), 0, n);
+            verifyStablySorted(merge.sort(a, 0, n, BY_KEY), 0, n);
+            verifyStablySorted(insertionInplace.sort(a.clone(), 0, n, BY_KEY), 0, n);
+            verifyStablySorted(mergeInplace.sort(a.clone(), 0, n, BY_KEY), 0, n);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testParallelMergeSortTinyThresholdWithEqualKeys() {
+        for (int threshold : new int[]{1, 2, 3}) {
+            ArrayParallelMergeSort<Item> sort = new ArrayParallelMergeSort<>(threshold);
+            for (int n : new int[]{2, 3, 5, 100, 1000}) {
+                Item[] a = items(n, 2);
+                sort.sort(a, 0, n, BY_KEY);
+                verifyStablySorted(a, 0, n);
+                Item[] same = new Item[n];
+                for (int i = 0; i < n; ++i) {
+                    same[i] = new Item(0, i);
+                }
+                sort.sort(same, 0, n, BY_KEY);
+                verifyStablySorted(same, 0, n);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMergeSortReverseOrder() {
+        Integer[] a = new Integer[5000];
+        for (int i = 0; i < a.length; ++i) {
+            a[i] = i;
+        }
+        new ArrayParallelMergeSort<Integer>(100).sort(a, 0, a.length, $.F.REVERSE_ORDER);
+        for (int i = 0; i < a.length; ++i) {
+            eq(a.length - 1 - i, a[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelMergeSortRejectsBadThreshold() {
+        new ArrayParallelMergeSort<Integer>(0);
+    }
+
+    @Test
+    public void testIntSort() {
+        ArrayPrimitiveSort sort = Algorithms.arrayPrimitiveSort();
+        for (int n : new int[]{0, 1, 10, 1023, 1024, 5000}) {
+            int[] a = new int[n];
+            for (int i = 0; i < n; ++i) {
+                a[i] = random.nextInt();
+            }
+            int[] expected = a.clone();
+            Arrays.sort(expected);
+            eq(expected, sort.sort(a, 0, n));
+        }
+    }
+
+    @Test
+    public void testIntRadixSort() {
+        ArrayPrimitiveSort sort = Algorithms.arrayPrimitiveSort();
+        int[] a = {3, -1, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, -256, 256, 255, -255, 3};
+        int[] expected = a.clone();
+        Arrays.sort(expected);
+        eq(expected, sort.radixSort(a, 0, a.length));
+        // keys sharing the high digits skip passes
+        a = new int[300];
+        for (int i = 0; i < a.length; ++i) {
+            a[i] = random.nextInt(200);
+        }
+        expected = a.clone();
+        Arrays.sort(expected);
+        eq(expected, sort.radixSort(a, 0, a.length));
+        // range
+        a = new int[]{9, 8, 7, 6, 5, 4};
+        eq(new int[]{9, 5, 6, 7, 8, 4}, sort.radixSort(a, 1, 5));
+    }
+
+    @Test
+    public void testLongSort() {
+        ArrayPrimitiveSort sort = Algorithms.arrayPrimitiveSort();
+        for (int n : new int[]{0, 1, 10, 2000}) {
+            long[] a = new long[n];
+            for (int i = 0; i < n; ++i) {
+                a[i] = random.nextLong();
+            }
+            long[] expected = a.clone();
+            Arrays.sort(expected);
+            eq(expected, sort.sort(a, 0, n));
+        }
+        long[] a = {5L, Long.MIN_VALUE, -1L, Long.MAX_VALUE, 0L, 1L << 40, -(1L << 40)};
+        long[] expected = a.clone();
+        Arrays.sort(expected);
+        eq(expected, sort.radixSort(a, 0, a.length));
+    }
+
+    @Test
+    public void testDoubleSort() {
+        ArrayPrimitiveSort sort = Algorithms.arrayPrimitiveSort();
+        double[] a = new double[3000];
+        for (int i = 0; i < a.length; ++i) {
+            a[i] = (random.nextDouble() - 0.5) * 1e6;
+        }
+        a[0] = Double.NaN;
+        a[1] = -0.0;
+        a[2] = 0.0;
+        a[3] = Double.NEGATIVE_INFINITY;
+        a[4] = Double.POSITIVE_INFINITY;
+        a[5] = -Double.MIN_VALUE;
+        a[6] = Double.MIN_VALUE;
+        double[] expected = a.clone();
+        Arrays.sort(expected);
+        eq(expected, sort.sort(a, 0, a.length));
+        eq(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(a[Arrays.binarySearch(a, -0.0)]));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testPrimitiveSortChecksRange() {
+        Algorithms.arrayPrimitiveSort().sort(new int[3], 2, 1);
+    }
+
+}
@@ -0,0 +1,106 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+import org.osgl.util.S;
+
+import java.util.Random;
+
+public class StringSearchPatternTest extends TestBase {
+
+    private static String random(Random r, int len, int alphabet) {
+        char[] ca = new char[len];
+        for (int i = 0; i < len; ++i) {
+            ca[i] = (char) ('a' + r.nextInt(alphabet));
+        }
+        return new String(ca);
+    }
+
+    private static void verify(StringSearchPattern pattern, String text, String target) {
+        char[] ca = text.toCharArray();
+        for (int from = -1; from <= text.length() + 1; ++from) {
+            eq(text.indexOf(target, from), pattern.search(ca, from), text + " / " + target + " @" + from);
+        }
+    }
+
+    @Test
+    public void fuzz() {
+        Random r = new Random(1);
+        for (int round = 0; round < 2000; ++round) {
+            int alphabet = 1 + r.nextInt(4);
+            String text = random(r, r.nextInt(60), alphabet);
+            String target = random(r, 1 + r.nextInt(12), alphabet);
+            if (r.nextBoolean() && text.length() > target.length()) {
+                int pos = r.nextInt(text.length() - target.length());
+                text = text.substring(0, pos) + target + text.substring(pos + target.length());
+            }
+            char[] ta = target.toCharArray();
+            verify(new StringSearchPattern.Horspool(ta), text, target);
+            verify(new StringSearchPattern.TwoWay(ta), text, target);
+            verify(StringSearchPattern.compile(ta), text, target);
+        }
+    }
+
+    @Test
+    public void periodicTarget() {
+        String text = S.repeat("a").times(1000) + "b";
+        String target = S.repeat("a").times(20) + "b";
+        verify(new StringSearchPattern.TwoWay(target.toCharArray()), text, target);
+        yes(StringSearchPattern.compile(target) instanceof StringSearchPattern.TwoWay);
+        yes(StringSearchPattern.compile("the quick fox") instanceof StringSearchPattern.Horspool);
+        yes(StringSearchPattern.compile("fox") instanceof StringSearchPattern.Simple);
+    }
+
+    @Test
+    public void charsSharingLowByte() {
+        // 'š' and 'a' share the low byte
+        String text = "xxxxxxxxšbcdefghxabcdefgh";
+        verify(new StringSearchPattern.Horspool("abcdefgh".toCharArray()), text, "abcdefgh");
+    }
+
+    @Test
+    public void region() {
+        char[] text = "abcdefgh--abcdefgh--abcdefgh".toCharArray();
+        StringSearchPattern pattern = StringSearchPattern.compile("abcdefgh");
+        eq(10, pattern.search(text, 1, 18));
+        eq(-1, pattern.search(text, 1, 17));
+        eq(2, pattern.count(text, 0, 20, false));
+        eq(3, pattern.count(text, false));
+    }
+
+    @Test
+    public void count() {
+        char[] text = S.repeat("a").times(20).toCharArray();
+        StringSearchPattern pattern = StringSearchPattern.compile(S.repeat("a").times(8));
+        eq(2, pattern.count(text, false));
+        eq(13, pattern.count(text, true));
+    }
+
+    @Test
+    public void preprocessedSearch() {
+        PreprocessedStringSearch search = new StringSearch.SimpleStringSearch().compile("osgl java tool".toCharArray());
+        eq(4, search.apply("use osgl java tool".toCharArray()));
+        eq(-1, search.search("use osgl java tool".toCharArray(), 5));
+    }
+
+}
@@ -60,4 +60,36 @@ public class TypeConverterRegistryTest extends TestBase {
         eq(S.wrap(foo.id).with(S.BRACKETS), converter.convert(foo));
     }
 
+    private static class Bar {
+        private String id;
+    }
+
+    @Test
+    public void testRegisterAfterFailedLookup() {
+        TypeConverterRegistry registry = new TypeConverterRegistry();
+        isNull(registry.get(Foo.class, Bar.class));
+        isNull(registry.get(Foo.class, Bar.class));
+        registry.register(new Lang.TypeConverter<Foo, Bar>() {
+            @Override
+            public Bar convert(Foo foo) {
+                Bar bar = new Bar();
+                bar.id = foo.id;
+                return bar;
+            }
+        });
+        Lang.TypeConverter<Foo, Bar> converter = registry.get(Foo.class, Bar.class);
+        requireNotNull(converter);
+        Foo foo = new Foo();
+        eq(foo.id, converter.convert(foo).id);
+    }
+
+    @Test
+    public void testFreeze() {
+        TypeConverterRegistry registry = new TypeConverterRegistry().freeze();
+        Lang.TypeConverter<String, Integer> converter = registry.get(String.class, Integer.class);
+        requireNotNull(converter);
+        eq(10, converter.convert("10"));
+        same(converter, registry.get(String.class, Integer.class));
+    }
+
 }
@@ -0,0 +1,115 @@
+package org.osgl.web.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.regex.Pattern;
+
+/**
+ * The regex based classification {@link UserAgent} used before it
+ * switched to a single scan. Kept as the reference the scanner is
+ * verified and benchmarked against.
+ */
+public class RegexUserAgentClassifier {
+
+    private enum P {
+        J2ME(Pattern.compile(".*(MIDP|J2ME|CLDC).*"), UserAgent.Device.MOBILE, null, UserAgent.OS.J2ME),
+        UCWEB(Pattern.compile(".*UCWEB.*"), UserAgent.Device.MOBILE, UserAgent.Browser.UCWEB, null),
+        WIN32(Pattern.compile(".*(Windows|W32).*"), UserAgent.Device.PC, null, UserAgent.OS.WIN32),
+        WIN64(Pattern.compile(".*(WOW64|Win64).*"), UserAgent.Device.PC, null, UserAgent.OS.WIN64),
+        LINUX(Pattern.compile(".*Linux.*"), null, null, UserAgent.OS.LINUX),
+        MAC(Pattern.compile(".*Mac OS.*"), UserAgent.Device.PC, null, UserAgent.OS.MAC_OS),
+        SOS(Pattern.compile(".*SunOS.*"), UserAgent.Device.PC, null, UserAgent.OS.SUN_OS),
+        IPHONE(Pattern.compile(".*iPhone.*"), UserAgent.Device.IPHONE, UserAgent.Browser.SAFARI, UserAgent.OS.IOS),
+        IPAD(Pattern.compile(".*iPad.*"), UserAgent.Device.IPAD, UserAgent.Browser.SAFARI, UserAgent.OS.IOS),
+        IPOD(Pattern.compile(".*iPod.*"), UserAgent.Device.IPOD, UserAgent.Browser.SAFARI, UserAgent.OS.IOS),
+        DROID_TABLET(Pattern.compile(".*Android.*"), UserAgent.Device.DROID_TABLET, null, UserAgent.OS.DROID),
+        DROID_MOBILE(Pattern.compile(".*Android.*Mobile.*"), UserAgent.Device.DROID, null, UserAgent.OS.DROID),
+        BLACKBERRY(Pattern.compile(".*BlackBerry.*"), UserAgent.Device.BLACKBERRY, null, UserAgent.OS.BLACKBERRY),
+        SYMBIAN(Pattern.compile(".*Symbian.*", Pattern.CASE_INSENSITIVE), null, null, UserAgent.OS.SYMBIAN),
+        SONYERICSSON(Pattern.compile(".*SonyEricsson.*"), UserAgent.Device.SONYERICSSON, null, null),
+        NOKIA(Pattern.compile(".*Nokia.*", Pattern.CASE_INSENSITIVE), UserAgent.Device.NOKIA, null, null),
+        IE6(Pattern.compile(".*MSIE\\s+[6]\\.0.*"), UserAgent.Device.PC, UserAgent.Browser.IE_6, null),
+        IE7(Pattern.compile(".*MSIE\\s+[7]\\.0.*"), UserAgent.Device.PC, UserAgent.Browser.IE_7, null),
+        IE8(Pattern.compile(".*MSIE\\s+[8]\\.0.*"), UserAgent.Device.PC, UserAgent.Browser.IE_8, null),
+        IE9(Pattern.compile(".*MSIE\\s+(9)\\.0.*"), UserAgent.Device.PC, UserAgent.Browser.IE_9, null),
+        IE10(Pattern.compile(".*MSIE\\s+(10)\\.0.*"), null, UserAgent.Browser.IE_10, null),
+        IE11(Pattern.compile(".*Windows\\s+NT.+rv:(11|12)\\.0.*"), UserAgent.Device.PC, UserAgent.Browser.IE_11, null),
+        FIREFOX(Pattern.compile(".*Firefox.*"), null, UserAgent.Browser.FIREFOX, null),
+        FIREFOX3(Pattern.compile(".*Firefox/3.*"), null, UserAgent.Browser.FIREFOX_3, null),
+        SAFARI(Pattern.compile(".*Safari.*"), null, UserAgent.Browser.SAFARI, null),
+        CHROME(Pattern.compile(".*Chrome.*"), null, UserAgent.Browser.CHROME, null),
+        EDGE(Pattern.compile(".*\\s+Edg\\/.*"), null, UserAgent.Browser.EDGE, null),
+        OPERA(Pattern.compile(".*Opera.*"), null, UserAgent.Browser.OPERA, null),
+        BOT(Pattern.compile(".*(Googlebot|msn-bot|msnbot|Bot|bot|Baiduspider|SeznamBot|facebookexternalhit).*", Pattern.CASE_INSENSITIVE), UserAgent.Device.BOT, UserAgent.Browser.BOT, UserAgent.OS.BOT);
+
+        private final Pattern p;
+        private final UserAgent.Device d;
+        private final UserAgent.Browser b;
+        private final UserAgent.OS o;
+
+        P(Pattern p, UserAgent.Device d, UserAgent.Browser b, UserAgent.OS o) {
+            this.p = p;
+            this.d = d;
+            this.b = b;
+            this.o = o;
+        }
+    }
+
+    /**
+     * Classify a user agent header.
+     *
+     * @param userAgent the header
+     * @return the device, browser and os found, separated by `/`
+     */
+    public static String classify(String userAgent) {
+        UserAgent.Device device = UserAgent.Device.UNKNOWN;
+        UserAgent.Browser browser = UserAgent.Browser.UNKNOWN;
+        UserAgent.OS os = UserAgent.OS.UNKNOWN;
+        if (null != userAgent && !userAgent.isEmpty()) {
+            for (P p : P.values()) {
+                if (p.p.matcher(userAgent).matches()) {
+                    if (null != p.d) {
+                        device = p.d;
+                    }
+                    if (null != p.b) {
+                        browser = p.b;
+                    }
+                    if (null != p.o) {
+                        os = p.o;
+                    }
+                }
+            }
+        }
+        return device + "/" + browser + "/" + os;
+    }
+
+    /**
+     * Render the classification of a parsed user agent the same way
+     * {@link #classify(String)} does.
+     *
+     * @param userAgent the parsed user agent
+     * @return the device, browser and os, separated by `/`
+     */
+    public static String of(UserAgent userAgent) {
+        return userAgent.getDevice() + "/" + userAgent.getBrowser() + "/" + userAgent.getOS();
+    }
+
+}
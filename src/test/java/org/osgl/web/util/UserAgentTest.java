@@ -0,0 +1,154 @@
+package org.osgl.web.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.TestBase;
+import org.osgl.util.IO;
+
+import java.util.List;
+import java.util.Random;
+
+public class UserAgentTest extends TestBase {
+
+    static List<String> corpus() {
+        return IO.readLines(UserAgentTest.class.getResource("/web/user-agents.txt"));
+    }
+
+    private static void verify(String userAgent) {
+        eq(RegexUserAgentClassifier.classify(userAgent), RegexUserAgentClassifier.of(UserAgent.parse(userAgent)), "[%s]", userAgent);
+    }
+
+    @Test
+    public void testCorpusMatchesRegexClassification() {
+        List<String> corpus = corpus();
+        yes(corpus.size() > 50);
+        for (String userAgent : corpus) {
+            verify(userAgent);
+        }
+    }
+
+    @Test
+    public void testKnownAgents() {
+        UserAgent ua = UserAgent.parse("Mozilla/5.0 (Windows; U; Windows NT 6.1; en-US) AppleWebKit/534.20 (KHTML, like Gecko) Chrome/11.0.669.0 Safari/534.20");
+        yes(ua.isChrome());
+        eq(UserAgent.OS.WIN32, ua.getOS());
+
+        ua = UserAgent.parse("Mozilla/4.0 (compatible; MSIE 8.0; Windows NT 6.1; WOW64; Trident/4.0; SLCC2; .NET CLR 2.0.50727)");
+        eq(UserAgent.Browser.IE_8, ua.getBrowser());
+        eq(UserAgent.OS.WIN64, ua.getOS());
+        no(ua.is(UserAgent.Device.IPHONE));
+
+        ua = UserAgent.parse("Mozilla/5.0 (Linux; U; Android 3.0; en-us; Xoom Build/HRI39) AppleWebKit/534.13 (KHTML, like Gecko) Version/4.0 Safari/534.13");
+        yes(ua.isTablet());
+        yes(ua.isSafari());
+
+        ua = UserAgent.parse("Mozilla/5.0 (Linux; Android 4.1.1; C1504 Build/11.3.A.0.47) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/28.0.1500.94 Mobile Safari/537.36");
+        yes(ua.is(UserAgent.Device.DROID));
+        yes(ua.isMobile());
+
+        ua = UserAgent.parse("Mozilla/5.0 (X11; U; Linux x86_64; fr; rv:1.9.2.3) Gecko/20100403 Fedora/3.6.3-4.fc13 Firefox/3.6.3");
+        yes(ua.isFirefox3());
+
+        ua = UserAgent.parse("Mozilla/5.0 (Windows NT 6.1; Trident/7.0; rv:11.0) like Gecko");
+        yes(ua.isIE11Up());
+
+        ua = UserAgent.parse("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/79.0.3945.74 Safari/537.36 Edg/79.0.309.43");
+        yes(ua.isEdge());
+        yes(ua.is(UserAgent.Device.PC));
+
+        ua = UserAgent.parse("Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)");
+        yes(ua.is(UserAgent.Device.BOT));
+        eq(UserAgent.OS.BOT, ua.getOS());
+    }
+
+    @Test
+    public void testEmpty() {
+        same(UserAgent.UNKNOWN, UserAgent.parse(null));
+        same(UserAgent.UNKNOWN, UserAgent.parse(""));
+    }
+
+    @Test
+    public void testEdgeCases() {
+        String[] cases = {
+                // `.` in the regexes never matched line terminators
+                "Mozilla/5.0 (Windows NT 10.0)\nChrome/118.0",
+                "Googlebot\r\n",
+                "Chrome\u2028Safari",
+                "Opera\u0085",
+                // whitespaces
+                "MSIE \t 7.0",
+                "MSIE\u000B9.0",
+                "MSIE 10.0 MSIE 6.0",
+                "MSIE7.0",
+                "x\fEdg/1",
+                "Edg/1",
+                "Windows NTrv:11.0",
+                "Windows NT rv:11.0",
+                "Windows NTxrv:12.0",
+                "rv:11.0 Windows NT x",
+                "Windows  \t NT;rv:11.0",
+                // order of Android and Mobile
+                "Mobile Android",
+                "AndroidMobile",
+                "Android Mobile Android",
+                // case insensitive tokens are ASCII only
+                "SYMBIAN NOKIA",
+                "sYmBiAn",
+                "NO\u212AIA",
+                "SYMB\u0130AN",
+                "ROBOT",
+                "BAIDUSPIDER",
+                "FacebookExternalHit",
+                // case sensitive tokens
+                "chrome safari opera",
+                "msie 8.0",
+                "Firefox/3",
+                "firefox/3",
+                "iphone ipad ipod",
+        };
+        for (String s : cases) {
+            verify(s);
+        }
+    }
+
+    @Test
+    public void testFuzz() {
+        String[] fragments = {
+                "MIDP", "J2ME", "CLDC", "UCWEB", "Windows", "W32", "WOW64", "Win64", "Linux", "Mac OS",
+                "SunOS", "iPhone", "iPad", "iPod", "Android", "Mobile", "BlackBerry", "Symbian", "sYMBIAN",
+                "SonyEricsson", "Nokia", "NOKIA", "MSIE", "6.0", "7.0", "8.0", "9.0", "10.0", "NT", "rv:11.0",
+                "rv:12.0", "Firefox", "/3", "Safari", "Chrome", "Edg/", "Opera", "bot", "BOT", "Googlebot",
+                "Baiduspider", "facebookexternalhit", " ", " ", "\t", "\u000B", "\f", "\n", "\r",
+                "\r\n", "\u0085", "\u2028", "\u2029",
+                ";", "(", ")", "x", "Mo", "bile", "Andr", "oid", "MS", "IE", "Win", "dows", "\u212A", "\u0130"
+        };
+        Random r = new Random(21);
+        for (int i = 0; i < 20000; ++i) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0, n = 1 + r.nextInt(12); j < n; ++j) {
+                sb.append(fragments[r.nextInt(fragments.length)]);
+            }
+            verify(sb.toString());
+        }
+    }
+
+}